@@ -16,12 +16,52 @@ CREATE TABLE IF NOT EXISTS url_mapping (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     short_code VARCHAR(10) NOT NULL UNIQUE,
     long_url TEXT NOT NULL,
+    long_url_hash VARBINARY(16) NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_short_code (short_code),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    UNIQUE INDEX uk_long_url_hash (long_url_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Allocation table for segment-based short code IDs (app.shortcode.strategy=segment)
+CREATE TABLE IF NOT EXISTS short_code_segment (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_value BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT IGNORE INTO short_code_segment (name, next_value) VALUES ('url_mapping', 0);
+
+-- Per-link click counts, upserted in batches by the click counter flush
+CREATE TABLE IF NOT EXISTS url_click_stats (
+    short_code VARCHAR(10) NOT NULL PRIMARY KEY,
+    click_count BIGINT NOT NULL DEFAULT 0,
+    last_clicked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Clicks per short code per minute, hour and day, compacted from in-memory minute buckets
+CREATE TABLE IF NOT EXISTS url_click_rollup (
+    short_code VARCHAR(10) NOT NULL,
+    granularity VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    click_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (short_code, granularity, bucket_start),
+    INDEX idx_granularity_bucket (granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- HyperLogLog sketch of distinct visitors per short code per day, merged by the visitor sketch flush.
+-- A dense sketch takes 2 + 2^precision bytes, up to 65538 at precision 16, beyond VARBINARY and BLOB;
+-- existing databases: ALTER TABLE url_visitor_sketch MODIFY sketch MEDIUMBLOB NOT NULL;
+CREATE TABLE IF NOT EXISTS url_visitor_sketch (
+    short_code VARCHAR(10) NOT NULL,
+    visit_date DATE NOT NULL,
+    sketch MEDIUMBLOB NOT NULL,
+    PRIMARY KEY (short_code, visit_date),
+    INDEX idx_visit_date (visit_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Insert some sample data for testing (optional)
+-- long_url_hash is left NULL here and filled in by the digest backfill job
 INSERT IGNORE INTO url_mapping (short_code, long_url, created_at) VALUES
 ('demo01', 'https://www.example.com', NOW()),
 ('demo02', 'https://github.com', NOW()),
@@ -0,0 +1,308 @@
+package org.example.brev.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.service.UrlService;
+import org.example.brev.util.UrlUtils;
+import org.example.brev.validation.ValidLongUrlValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Offline bulk loader, active with the bulk-load profile.
+ *
+ * Reads a CSV or NDJSON file through memory-mapped I/O, validates and normalizes the
+ * URLs in parallel on a fork-join pool with the same rules as the API, and writes
+ * each chunk to url_mapping in a single transaction using JDBC batch inserts.
+ *
+ * After every committed chunk the byte offset is written to a checkpoint file, so a
+ * crashed run picks up where it stopped. URLs that already exist are skipped, which
+ * makes replaying the chunk in flight at the time of the crash harmless.
+ *
+ * Usage:
+ * java -jar brev.jar --spring.profiles.active=bulk-load --app.bulk-load.file=/data/links.csv
+ */
+@Component
+@Profile("bulk-load")
+public class BulkLoadRunner implements ApplicationRunner {
+
+    private static final Logger logger = LogManager.getLogger(BulkLoadRunner.class);
+    private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
+
+    private static final Set<String> CSV_HEADERS = Set.of("url", "long_url", "longurl");
+    private static final int MAX_LOGGED_INVALID_ROWS = 20;
+
+    private final UrlService urlService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.bulk-load.file:}")
+    private String file;
+
+    @Value("${app.bulk-load.format:auto}")
+    private String format;
+
+    @Value("${app.bulk-load.csv-column:0}")
+    private int csvColumn;
+
+    @Value("${app.bulk-load.url-field:longUrl}")
+    private String urlField;
+
+    @Value("${app.bulk-load.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${app.bulk-load.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.bulk-load.checkpoint-file:}")
+    private String checkpointFile;
+
+    private long loggedInvalidRows;
+
+    public BulkLoadRunner(UrlService urlService, ObjectMapper objectMapper) {
+        this.urlService = urlService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (file == null || file.isBlank()) {
+            throw new IllegalArgumentException("app.bulk-load.file must point to the file to load");
+        }
+
+        Path source = Path.of(file);
+        Path checkpointPath = checkpointFile.isBlank() ? Path.of(file + ".checkpoint") : Path.of(checkpointFile);
+        boolean ndjson = isNdjson(source);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        Progress progress = readCheckpoint(checkpointPath, source);
+        long rowsAtStart = progress.rowsRead;
+        long startTime = System.nanoTime();
+
+        logger.info("Bulk load starting - File: {}, Format: {}, ChunkSize: {}, Parallelism: {}, ResumeOffset: {}",
+                   source, ndjson ? "ndjson" : "csv", chunkSize, threads, progress.offset);
+        auditLogger.info("BULK_LOAD_STARTED - File: {}, ResumeOffset: {}", source, progress.offset);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (MappedLineReader reader = new MappedLineReader(source, progress.offset)) {
+            boolean firstChunk = progress.offset == 0;
+
+            while (true) {
+                List<String> lines = reader.readLines(chunkSize);
+                if (lines.isEmpty()) {
+                    break;
+                }
+                if (firstChunk && !ndjson && isCsvHeader(lines.getFirst())) {
+                    lines = lines.subList(1, lines.size());
+                }
+                firstChunk = false;
+
+                List<String> rows = lines;
+                List<String> parsed = pool.submit(() -> rows.parallelStream()
+                        .map(line -> toNormalizedUrl(line, ndjson))
+                        .toList()).get();
+                List<String> validUrls = parsed.stream().filter(Objects::nonNull).toList();
+
+                int created = validUrls.isEmpty() ? 0 : urlService.importUrls(validUrls);
+
+                progress.offset = reader.position();
+                progress.rowsRead += rows.size();
+                progress.invalid += rows.size() - validUrls.size();
+                progress.created += created;
+                progress.duplicates += validUrls.size() - created;
+                writeCheckpoint(checkpointPath, source, progress);
+
+                double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+                logger.info("Bulk load progress - Rows: {}, Created: {}, Duplicates: {}, Invalid: {}, {}% of file, {} rows/s",
+                           progress.rowsRead, progress.created, progress.duplicates, progress.invalid,
+                           reader.size() == 0 ? 100 : progress.offset * 100 / reader.size(),
+                           Math.round((progress.rowsRead - rowsAtStart) / Math.max(seconds, 0.001)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Files.deleteIfExists(checkpointPath);
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        long rowsThisRun = progress.rowsRead - rowsAtStart;
+        long rowsPerSecond = Math.round(rowsThisRun / Math.max(seconds, 0.001));
+        logger.info("Bulk load completed - Rows: {}, Created: {}, Duplicates: {}, Invalid: {}, Took: {} s, Throughput: {} rows/s",
+                   progress.rowsRead, progress.created, progress.duplicates, progress.invalid,
+                   String.format(Locale.ROOT, "%.1f", seconds), rowsPerSecond);
+        auditLogger.info("BULK_LOAD_COMPLETED - File: {}, Rows: {}, Created: {}, Duplicates: {}, Invalid: {}, RowsPerSecond: {}",
+                        source, progress.rowsRead, progress.created, progress.duplicates, progress.invalid, rowsPerSecond);
+    }
+
+    /**
+     * Extracts, normalizes and validates the URL of one input row
+     *
+     * @return the normalized URL, or null if the row is invalid
+     */
+    String toNormalizedUrl(String line, boolean ndjson) {
+        String value;
+        try {
+            value = ndjson ? extractJsonUrl(line) : extractCsvColumn(line, csvColumn);
+        } catch (IOException e) {
+            value = null;
+        }
+
+        String error;
+        String normalizedUrl = null;
+        if (value == null || value.trim().isEmpty()) {
+            error = "Long URL cannot be blank";
+        } else {
+            normalizedUrl = UrlUtils.normalizeUrl(value.trim());
+            error = ValidLongUrlValidator.validate(normalizedUrl);
+        }
+
+        if (error != null) {
+            logInvalidRow(line, error);
+            return null;
+        }
+        return normalizedUrl;
+    }
+
+    private String extractJsonUrl(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line).get(urlField);
+        return node != null && node.isTextual() ? node.asText() : null;
+    }
+
+    /**
+     * Returns one column of an RFC 4180 CSV line (quoted fields with "" escapes)
+     */
+    static String extractCsvColumn(String line, int column) {
+        int index = 0;
+        int i = 0;
+        while (i <= line.length()) {
+            StringBuilder value = new StringBuilder();
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (i < line.length()) {
+                    char c = line.charAt(i);
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            value.append('"');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    value.append(c);
+                    i++;
+                }
+                while (i < line.length() && line.charAt(i) != ',') {
+                    i++;
+                }
+            } else {
+                int end = line.indexOf(',', i);
+                end = end < 0 ? line.length() : end;
+                value.append(line, i, end);
+                i = end;
+            }
+
+            if (index == column) {
+                return value.toString();
+            }
+            index++;
+            i++;
+        }
+        return null;
+    }
+
+    private boolean isCsvHeader(String line) {
+        String first = extractCsvColumn(line, csvColumn);
+        return first != null && CSV_HEADERS.contains(first.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private boolean isNdjson(Path source) {
+        if (!"auto".equalsIgnoreCase(format)) {
+            return "ndjson".equalsIgnoreCase(format) || "jsonl".equalsIgnoreCase(format);
+        }
+        String name = source.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json");
+    }
+
+    private synchronized void logInvalidRow(String line, String error) {
+        if (loggedInvalidRows++ < MAX_LOGGED_INVALID_ROWS) {
+            logger.warn("Skipping invalid row - Error: {}, Row: {}", error,
+                       line.length() > 200 ? line.substring(0, 200) + "..." : line);
+        }
+    }
+
+    private Progress readCheckpoint(Path checkpointPath, Path source) throws IOException {
+        Progress progress = new Progress();
+        if (!Files.exists(checkpointPath)) {
+            return progress;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointPath)) {
+            properties.load(in);
+        }
+
+        long fileSize = Files.size(source);
+        if (!source.toAbsolutePath().toString().equals(properties.getProperty("file"))
+                || fileSize != Long.parseLong(properties.getProperty("fileSize", "-1"))) {
+            logger.warn("Ignoring checkpoint {} written for a different file", checkpointPath);
+            return progress;
+        }
+
+        progress.offset = Long.parseLong(properties.getProperty("offset", "0"));
+        progress.rowsRead = Long.parseLong(properties.getProperty("rowsRead", "0"));
+        progress.created = Long.parseLong(properties.getProperty("created", "0"));
+        progress.duplicates = Long.parseLong(properties.getProperty("duplicates", "0"));
+        progress.invalid = Long.parseLong(properties.getProperty("invalid", "0"));
+        logger.info("Resuming bulk load from checkpoint - Offset: {}, Rows: {}", progress.offset, progress.rowsRead);
+        return progress;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file and atomically renames it into place
+     */
+    private void writeCheckpoint(Path checkpointPath, Path source, Progress progress) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("file", source.toAbsolutePath().toString());
+        properties.setProperty("fileSize", Long.toString(Files.size(source)));
+        properties.setProperty("offset", Long.toString(progress.offset));
+        properties.setProperty("rowsRead", Long.toString(progress.rowsRead));
+        properties.setProperty("created", Long.toString(progress.created));
+        properties.setProperty("duplicates", Long.toString(progress.duplicates));
+        properties.setProperty("invalid", Long.toString(progress.invalid));
+
+        Path temp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "brev bulk load checkpoint");
+        }
+        Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Position and counters of a load, persisted in the checkpoint
+     */
+    private static final class Progress {
+        private long offset;
+        private long rowsRead;
+        private long created;
+        private long duplicates;
+        private long invalid;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.brev.cli;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.service.UrlExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line export of all URL mappings, active with the export profile.
+ * Output is gzipped when the file name ends in .gz; the format defaults to the file extension.
+ *
+ * Usage:
+ * java -jar brev.jar --spring.profiles.active=export --app.export.file=/data/links.ndjson.gz
+ */
+@Component
+@Profile("export")
+public class ExportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LogManager.getLogger(ExportRunner.class);
+
+    private final UrlExportService urlExportService;
+
+    @Value("${app.export.file:}")
+    private String file;
+
+    @Value("${app.export.format:}")
+    private String format;
+
+    @Value("${app.export.from:}")
+    private String from;
+
+    @Value("${app.export.to:}")
+    private String to;
+
+    public ExportRunner(UrlExportService urlExportService) {
+        this.urlExportService = urlExportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (file == null || file.isBlank()) {
+            throw new IllegalArgumentException("app.export.file must point to the file to write");
+        }
+
+        Path target = Path.of(file);
+        boolean gzip = file.endsWith(".gz");
+        String baseName = gzip ? file.substring(0, file.length() - 3) : file;
+        UrlExportService.Format exportFormat = UrlExportService.Format.fromName(
+                !format.isBlank() ? format : baseName.endsWith(".csv") ? "csv" : "ndjson");
+
+        LocalDateTime fromDate = from.isBlank() ? null : LocalDateTime.parse(from);
+        LocalDateTime toDate = to.isBlank() ? null : LocalDateTime.parse(to);
+
+        logger.info("Export starting - File: {}, Format: {}, Gzip: {}, From: {}, To: {}",
+                   target, exportFormat, gzip, fromDate, toDate);
+        long startTime = System.nanoTime();
+
+        long rows;
+        try (OutputStream fileStream = Files.newOutputStream(target)) {
+            if (gzip) {
+                try (GZIPOutputStream gzipStream = new GZIPOutputStream(fileStream, 64 * 1024)) {
+                    rows = urlExportService.export(gzipStream, exportFormat, fromDate, toDate);
+                }
+            } else {
+                rows = urlExportService.export(fileStream, exportFormat, fromDate, toDate);
+            }
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        logger.info("Export completed - File: {}, Rows: {}, Size: {} bytes, Throughput: {} rows/s",
+                   target, rows, Files.size(target), Math.round(rows / Math.max(seconds, 0.001)));
+    }
+}
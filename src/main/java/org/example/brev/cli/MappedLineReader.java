@@ -0,0 +1,131 @@
+package org.example.brev.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads UTF-8 lines from a file through memory-mapped windows.
+ *
+ * The file is mapped in windows of up to 256 MB, so files larger than 2 GB can be
+ * read and the page cache does the buffering. {@link #position()} is the byte offset
+ * just after the last line returned, which is what a checkpoint stores.
+ */
+class MappedLineReader implements Closeable {
+
+    static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    MappedLineReader(Path file, long startOffset) throws IOException {
+        this(file, startOffset, WINDOW_SIZE);
+    }
+
+    MappedLineReader(Path file, long startOffset, long windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        this.position = Math.min(startOffset, size);
+    }
+
+    /**
+     * Reads up to the given number of lines, skipping blank ones
+     *
+     * @param maxLines The maximum number of lines to return
+     * @return the lines read; empty at end of file
+     */
+    List<String> readLines(int maxLines) throws IOException {
+        List<String> lines = new ArrayList<>(maxLines);
+        String line;
+        while (lines.size() < maxLines && (line = readLine()) != null) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * @return the next line without its terminator, or null at end of file
+     */
+    String readLine() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+
+        while (true) {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position);
+            }
+
+            int start = (int) (position - windowStart);
+            int limit = window.limit();
+            for (int i = start; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    String line = decode(start, i);
+                    position = windowStart + i + 1;
+                    return line;
+                }
+            }
+
+            if (windowStart + limit >= size) {
+                // Last line without a trailing newline
+                String line = decode(start, limit);
+                position = size;
+                return line;
+            }
+            if (start == 0) {
+                throw new IOException("Line at offset " + position + " is longer than " + windowSize + " bytes");
+            }
+            // The line crosses the window boundary; remap starting at the line
+            map(position);
+        }
+    }
+
+    /**
+     * @return the byte offset just after the last line returned
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void map(long from) throws IOException {
+        long length = Math.min(windowSize, size - from);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        windowStart = from;
+    }
+
+    private String decode(int start, int end) {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        window.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.brev.config;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides what happens to a log event when the async logger ring buffer is full.
+ *
+ * Log4j instantiates this class itself (log4j2.asyncQueueFullPolicy), before Spring starts,
+ * so the mode is held statically and set later by {@link AsyncLoggingConfig}.
+ *
+ * BLOCK: wait for space, never lose events (default)
+ * DROP: discard INFO and below; WARN and above still wait for space
+ * SAMPLE: keep one in sample-rate INFO-and-below events, discard the rest; WARN and above wait
+ */
+public class AsyncLogQueueFullPolicy implements AsyncQueueFullPolicy {
+
+    /**
+     * Full-queue behaviour
+     */
+    public enum Mode {
+        BLOCK, DROP, SAMPLE
+    }
+
+    private static final LongAdder QUEUE_FULL_EVENTS = new LongAdder();
+    private static final LongAdder DROPPED_EVENTS = new LongAdder();
+
+    private static volatile Mode mode = Mode.BLOCK;
+    private static volatile int sampleRate = 10;
+
+    /**
+     * Sets the behaviour for all async loggers
+     *
+     * @param newMode The full-queue mode
+     * @param newSampleRate Keep one in this many events in SAMPLE mode
+     */
+    public static void configure(Mode newMode, int newSampleRate) {
+        if (newSampleRate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + newSampleRate);
+        }
+        mode = newMode;
+        sampleRate = newSampleRate;
+    }
+
+    /**
+     * @return the current full-queue mode
+     */
+    public static Mode mode() {
+        return mode;
+    }
+
+    /**
+     * @return the number of events that found the queue full
+     */
+    public static long queueFullEvents() {
+        return QUEUE_FULL_EVENTS.sum();
+    }
+
+    /**
+     * @return the number of events discarded because the queue was full
+     */
+    public static long droppedEvents() {
+        return DROPPED_EVENTS.sum();
+    }
+
+    @Override
+    public EventRoute getRoute(long backgroundThreadId, Level level) {
+        QUEUE_FULL_EVENTS.increment();
+
+        // The appender thread logging into its own full queue would deadlock
+        if (Thread.currentThread().threadId() == backgroundThreadId) {
+            return EventRoute.SYNCHRONOUS;
+        }
+
+        Mode current = mode;
+        if (current == Mode.BLOCK || level.isMoreSpecificThan(Level.WARN)) {
+            return EventRoute.ENQUEUE;
+        }
+        if (current == Mode.SAMPLE && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            return EventRoute.ENQUEUE;
+        }
+
+        DROPPED_EVENTS.increment();
+        return EventRoute.DISCARD;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.brev.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Applies the async logging settings and exposes the ring buffer as metrics
+ */
+@Configuration
+public class AsyncLoggingConfig implements MeterBinder {
+
+    private static final Logger logger = LogManager.getLogger(AsyncLoggingConfig.class);
+    private static final String AUDIT_LOGGER = "org.example.brev.audit";
+
+    public AsyncLoggingConfig(@Value("${app.logging.async.queue-full-policy:block}") String queueFullPolicy,
+                              @Value("${app.logging.async.sample-rate:10}") int sampleRate) {
+        AsyncLogQueueFullPolicy.Mode mode = AsyncLogQueueFullPolicy.Mode.valueOf(queueFullPolicy.toUpperCase(Locale.ROOT));
+        AsyncLogQueueFullPolicy.configure(mode, sampleRate);
+        logger.info("Async logging configured - QueueFullPolicy: {}, SampleRate: {}", mode, sampleRate);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("brev.logging.async.dropped", AsyncLogQueueFullPolicy.class,
+                        policy -> AsyncLogQueueFullPolicy.droppedEvents())
+                .description("Log events discarded because the async queue was full")
+                .register(registry);
+        FunctionCounter.builder("brev.logging.async.queue.full", AsyncLogQueueFullPolicy.class,
+                        policy -> AsyncLogQueueFullPolicy.queueFullEvents())
+                .description("Log events that found the async queue full")
+                .register(registry);
+        Gauge.builder("brev.logging.async.queued", this, config -> queuedEvents())
+                .description("Log events waiting in the async ring buffer")
+                .register(registry);
+        Gauge.builder("brev.logging.async.capacity", this, config -> bufferSize())
+                .description("Size of the async logging ring buffer")
+                .register(registry);
+    }
+
+    private static double queuedEvents() {
+        RingBufferAdmin admin = ringBufferAdmin();
+        return admin != null ? admin.getBufferSize() - admin.getRemainingCapacity() : Double.NaN;
+    }
+
+    private static double bufferSize() {
+        RingBufferAdmin admin = ringBufferAdmin();
+        return admin != null ? admin.getBufferSize() : Double.NaN;
+    }
+
+    /**
+     * Looks the ring buffer up on every call, so it follows log4j2.xml reconfiguration
+     */
+    private static RingBufferAdmin ringBufferAdmin() {
+        try {
+            if (LogManager.getContext(false) instanceof LoggerContext context) {
+                LoggerConfig loggerConfig = context.getConfiguration().getLoggerConfig(AUDIT_LOGGER);
+                if (loggerConfig instanceof AsyncLoggerConfig asyncLoggerConfig) {
+                    return asyncLoggerConfig.createRingBufferAdmin(context.getName());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Async logging ring buffer unavailable: {}", e.getMessage());
+        }
+        return null;
+    }
+}
@@ -2,12 +2,24 @@ package org.example.brev.controller;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.brev.service.CacheWarmingService;
+import org.example.brev.service.HotLinkTracker;
 import org.example.brev.service.ScheduledMaintenanceService;
+import org.example.brev.service.UrlExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Admin controller for managing scheduled tasks and viewing statistics
@@ -21,9 +33,151 @@ public class AdminController {
     private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
 
     private final ScheduledMaintenanceService scheduledMaintenanceService;
+    private final UrlExportService urlExportService;
+    private final HotLinkTracker hotLinkTracker;
+    private final CacheWarmingService cacheWarmingService;
 
-    public AdminController(ScheduledMaintenanceService scheduledMaintenanceService) {
+    public AdminController(ScheduledMaintenanceService scheduledMaintenanceService,
+                           UrlExportService urlExportService,
+                           HotLinkTracker hotLinkTracker,
+                           CacheWarmingService cacheWarmingService) {
         this.scheduledMaintenanceService = scheduledMaintenanceService;
+        this.urlExportService = urlExportService;
+        this.hotLinkTracker = hotLinkTracker;
+        this.cacheWarmingService = cacheWarmingService;
+    }
+
+    /**
+     * Stream all URL mappings as NDJSON or CSV
+     * The body is written with chunked transfer encoding in constant memory
+     *
+     * @param format ndjson or csv
+     * @param from Inclusive lower bound on creation time (ISO date-time), optional
+     * @param to Exclusive upper bound on creation time (ISO date-time), optional
+     * @param gzip Whether to gzip the body (sent with Content-Encoding: gzip)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUrlMappings(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        UrlExportService.Format exportFormat = UrlExportService.Format.fromName(format);
+        logger.info("Admin export request received - Format: {}, From: {}, To: {}, Gzip: {}", exportFormat, from, to, gzip);
+        auditLogger.info("ADMIN_EXPORT_REQUEST - Endpoint: /admin/export, Format: {}, From: {}, To: {}",
+                        exportFormat, from, to);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024, true);
+                urlExportService.export(gzipStream, exportFormat, from, to);
+                gzipStream.finish();
+            } else {
+                urlExportService.export(outputStream, exportFormat, from, to);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(UrlExportService.fileName(exportFormat, false))
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    /**
+     * Get the most redirected short codes over a recent window
+     * Counts are streaming estimates and may overcount slightly
+     *
+     * @param window Window such as 30s, 5m or 1h, capped at the tracker's ring span
+     * @param limit Maximum number of links to return
+     */
+    @GetMapping("/hot-links")
+    public ResponseEntity<Map<String, Object>> getHotLinks(
+            @RequestParam(defaultValue = "5m") String window,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        Duration requested = HotLinkTracker.parseWindow(window);
+        if (limit < 1 || limit > hotLinkTracker.capacity()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + hotLinkTracker.capacity());
+        }
+        Duration effective = requested.compareTo(hotLinkTracker.maxWindow()) > 0
+                ? hotLinkTracker.maxWindow() : requested;
+
+        try {
+            logger.info("Admin hot links request received - Window: {}, Limit: {}", effective, limit);
+            auditLogger.info("ADMIN_HOT_LINKS_REQUEST - Endpoint: /admin/hot-links, Window: {}", effective);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("window", effective.toString());
+            response.put("links", hotLinkTracker.topK(effective, limit));
+            response.put("timestamp", java.time.LocalDateTime.now());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error retrieving hot links: {}", e.getMessage(), e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "error");
+            errorResponse.put("message", "Failed to retrieve hot links");
+            errorResponse.put("error", e.getMessage());
+
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    /**
+     * Load the likeliest links into Redis and the local cache, e.g. after a Redis restart
+     * Runs synchronously until done or until the configured warming deadline
+     *
+     * @param source clicks (most clicked, topped up with the newest), recent or hot (hot-link tracker)
+     * @param limit Maximum number of links to load
+     */
+    @PostMapping("/cache/warm")
+    public ResponseEntity<Map<String, Object>> warmCache(
+            @RequestParam(defaultValue = "clicks") String source,
+            @RequestParam(defaultValue = "10000") int limit) {
+
+        CacheWarmingService.Source warmingSource = CacheWarmingService.Source.fromName(source);
+
+        try {
+            logger.info("Manual cache warming triggered via admin endpoint - Source: {}, Limit: {}", warmingSource, limit);
+            auditLogger.info("ADMIN_CACHE_WARM - Triggered by admin endpoint, Source: {}, Limit: {}", warmingSource, limit);
+
+            CacheWarmingService.WarmResult result = cacheWarmingService.warm(warmingSource, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("result", result);
+            response.put("timestamp", java.time.LocalDateTime.now());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            throw e; // Will be handled by global exception handler
+        } catch (IllegalStateException e) {
+            logger.warn("Cache warming rejected: {}", e.getMessage());
+
+            Map<String, Object> conflictResponse = new HashMap<>();
+            conflictResponse.put("status", "error");
+            conflictResponse.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(conflictResponse);
+        } catch (Exception e) {
+            logger.error("Error warming cache: {}", e.getMessage(), e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "error");
+            errorResponse.put("message", "Failed to warm cache");
+            errorResponse.put("error", e.getMessage());
+
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
     }
 
     /**
@@ -151,12 +305,31 @@ public class AdminController {
             summaryTask.put("schedule", "Sundays at 3:00 AM (0 0 3 * * SUN)");
             summaryTask.put("description", "Generates comprehensive weekly usage report");
             
+            // Click rollup task info
+            Map<String, Object> rollupCompactionTask = new HashMap<>();
+            rollupCompactionTask.put("name", "Click Rollup Compaction");
+            rollupCompactionTask.put("schedule", "Every minute");
+            rollupCompactionTask.put("description", "Folds in-memory per-minute clicks into minute, hour and day rollups");
+
+            Map<String, Object> rollupDownsampleTask = new HashMap<>();
+            rollupDownsampleTask.put("name", "Click Rollup Downsampling");
+            rollupDownsampleTask.put("schedule", "Daily at 2:15 AM (0 15 2 * * *)");
+            rollupDownsampleTask.put("description", "Removes minute and hour rollups past their retention");
+
+            Map<String, Object> visitorPurgeTask = new HashMap<>();
+            visitorPurgeTask.put("name", "Visitor Sketch Purge");
+            visitorPurgeTask.put("schedule", "Daily at 2:20 AM (0 20 2 * * *)");
+            visitorPurgeTask.put("description", "Removes daily unique visitor sketches past their retention");
+
             tasksInfo.put("scheduledTasks", Map.of(
                 "statistics", statsTask,
                 "cleanup", cleanupTask,
                 "healthCheck", healthTask,
                 "heartbeat", heartbeatTask,
-                "weeklySummary", summaryTask
+                "weeklySummary", summaryTask,
+                "rollupCompaction", rollupCompactionTask,
+                "rollupDownsample", rollupDownsampleTask,
+                "visitorPurge", visitorPurgeTask
             ));
             
             tasksInfo.put("status", "success");
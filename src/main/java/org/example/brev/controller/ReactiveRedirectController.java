@@ -0,0 +1,99 @@
+package org.example.brev.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.service.ClickCounterService;
+import org.example.brev.service.ClickRollupService;
+import org.example.brev.service.HotLinkTracker;
+import org.example.brev.service.ReactiveUrlLookupService;
+import org.example.brev.service.UniqueVisitorService;
+import org.example.brev.util.HttpUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Non-blocking replacement for {@link RedirectController}, active with the reactive-redirect profile.
+ *
+ * Returns a Mono, which Spring MVC serves as an async request: the Tomcat thread is released
+ * as soon as the handler returns, and the response is written when the Redis (or database)
+ * lookup completes. In-flight redirects then cost a connection, not a thread.
+ */
+@RestController
+@Profile("reactive-redirect")
+public class ReactiveRedirectController {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveRedirectController.class);
+    private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
+
+    private final ReactiveUrlLookupService reactiveUrlLookupService;
+    private final ClickCounterService clickCounterService;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final HotLinkTracker hotLinkTracker;
+
+    public ReactiveRedirectController(ReactiveUrlLookupService reactiveUrlLookupService,
+                                      ClickCounterService clickCounterService,
+                                      ClickRollupService clickRollupService,
+                                      UniqueVisitorService uniqueVisitorService,
+                                      HotLinkTracker hotLinkTracker) {
+        this.reactiveUrlLookupService = reactiveUrlLookupService;
+        this.clickCounterService = clickCounterService;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.hotLinkTracker = hotLinkTracker;
+    }
+
+    /**
+     * Redirects to the original URL using the short code
+     * GET /{shortCode}
+     *
+     * @param shortCode The short code to resolve
+     * @param httpRequest The HTTP servlet request for logging
+     * @return Mono of a 302 redirect to the original URL
+     */
+    @GetMapping("/{shortCode}")
+    public Mono<ResponseEntity<Void>> redirectToLongUrl(
+            @PathVariable String shortCode,
+            HttpServletRequest httpRequest) {
+
+        // Read before the handler returns; the request object must not be touched from Redis I/O threads
+        String clientIp = HttpUtils.getClientIpAddress(httpRequest);
+
+        logger.info("Received redirect request for short code: {}", shortCode);
+        auditLogger.info("URL_REDIRECT_REQUEST - IP: {}, ShortCode: {}", clientIp, shortCode);
+
+        return reactiveUrlLookupService.getLongUrl(shortCode)
+                .map(longUrl -> {
+                    clickCounterService.recordClick(shortCode);
+                    clickRollupService.recordClick(shortCode);
+                    uniqueVisitorService.recordVisit(shortCode, clientIp);
+                    hotLinkTracker.record(shortCode);
+
+                    logger.info("Redirecting {} to {}", shortCode, longUrl);
+                    auditLogger.info("URL_REDIRECT_SUCCESS - IP: {}, ShortCode: {}, URL: {}",
+                                   clientIp, shortCode, longUrl);
+
+                    return ResponseEntity.status(HttpStatus.FOUND)
+                            .location(URI.create(longUrl))
+                            .<Void>build();
+                })
+                .doOnError(ShortCodeNotFoundException.class, e -> {
+                    logger.warn("Short code not found: {}", shortCode);
+                    auditLogger.warn("URL_REDIRECT_NOT_FOUND - IP: {}, ShortCode: {}", clientIp, shortCode);
+                })
+                .doOnError(IllegalArgumentException.class, e -> {
+                    logger.warn("Invalid short code format: {}", shortCode);
+                    auditLogger.warn("URL_REDIRECT_INVALID - IP: {}, ShortCode: {}, Error: {}",
+                                   clientIp, shortCode, e.getMessage());
+                });
+    }
+}
@@ -4,8 +4,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.service.ClickCounterService;
+import org.example.brev.service.ClickRollupService;
+import org.example.brev.service.HotLinkTracker;
+import org.example.brev.service.UniqueVisitorService;
 import org.example.brev.service.UrlService;
 import org.example.brev.util.HttpUtils;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,17 +19,29 @@ import java.net.URI;
 
 /**
  * Controller for handling short URL redirects at the root level
+ * Replaced by {@link ReactiveRedirectController} under the reactive-redirect profile
  */
 @RestController
+@Profile("!reactive-redirect")
 public class RedirectController {
 
     private static final Logger logger = LogManager.getLogger(RedirectController.class);
     private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
 
     private final UrlService urlService;
+    private final ClickCounterService clickCounterService;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
+    private final HotLinkTracker hotLinkTracker;
 
-    public RedirectController(UrlService urlService) {
+    public RedirectController(UrlService urlService, ClickCounterService clickCounterService,
+                              ClickRollupService clickRollupService, UniqueVisitorService uniqueVisitorService,
+                              HotLinkTracker hotLinkTracker) {
         this.urlService = urlService;
+        this.clickCounterService = clickCounterService;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
+        this.hotLinkTracker = hotLinkTracker;
     }
 
     /**
@@ -40,17 +57,23 @@ public class RedirectController {
             @PathVariable String shortCode,
             HttpServletRequest httpRequest) {
 
+        // Resolved once; audit events are formatted asynchronously from this value
+        String clientIp = HttpUtils.getClientIpAddress(httpRequest);
+
         logger.info("Received redirect request for short code: {}", shortCode);
-        auditLogger.info("URL_REDIRECT_REQUEST - IP: {}, ShortCode: {}",
-                        HttpUtils.getClientIpAddress(httpRequest), shortCode);
+        auditLogger.info("URL_REDIRECT_REQUEST - IP: {}, ShortCode: {}", clientIp, shortCode);
 
         try {
             // Get the long URL from the service
             String longUrl = urlService.getLongUrl(shortCode);
+            clickCounterService.recordClick(shortCode);
+            clickRollupService.recordClick(shortCode);
+            uniqueVisitorService.recordVisit(shortCode, clientIp);
+            hotLinkTracker.record(shortCode);
 
             logger.info("Redirecting {} to {}", shortCode, longUrl);
             auditLogger.info("URL_REDIRECT_SUCCESS - IP: {}, ShortCode: {}, URL: {}",
-                           HttpUtils.getClientIpAddress(httpRequest), shortCode, longUrl);
+                           clientIp, shortCode, longUrl);
 
             // Return 302 redirect response
             return ResponseEntity.status(HttpStatus.FOUND)
@@ -60,17 +83,17 @@ public class RedirectController {
         } catch (ShortCodeNotFoundException e) {
             logger.warn("Short code not found: {}", shortCode);
             auditLogger.warn("URL_REDIRECT_NOT_FOUND - IP: {}, ShortCode: {}",
-                           HttpUtils.getClientIpAddress(httpRequest), shortCode);
+                           clientIp, shortCode);
             throw e; // Will be handled by global exception handler
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid short code format: {}", shortCode);
             auditLogger.warn("URL_REDIRECT_INVALID - IP: {}, ShortCode: {}, Error: {}",
-                           HttpUtils.getClientIpAddress(httpRequest), shortCode, e.getMessage());
+                           clientIp, shortCode, e.getMessage());
             throw e; // Will be handled by global exception handler
         } catch (Exception e) {
             logger.error("Unexpected error during redirect for short code: {}", shortCode, e);
             auditLogger.error("URL_REDIRECT_ERROR - IP: {}, ShortCode: {}, Error: {}",
-                            HttpUtils.getClientIpAddress(httpRequest), shortCode, e.getMessage());
+                            clientIp, shortCode, e.getMessage());
             throw e; // Will be handled by global exception handler
         }
     }
@@ -4,16 +4,30 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.example.brev.dto.CreateUrlBatchRequest;
+import org.example.brev.dto.CreateUrlBatchResponse;
 import org.example.brev.dto.CreateUrlRequest;
 import org.example.brev.dto.CreateUrlResponse;
+import org.example.brev.dto.UrlStatsResponse;
+import org.example.brev.dto.UrlTimeSeriesResponse;
+import org.example.brev.dto.UrlVisitorsResponse;
+import org.example.brev.entity.UrlClickRollup;
 import org.example.brev.entity.UrlMapping;
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.service.ClickCounterService;
+import org.example.brev.service.ClickRollupService;
+import org.example.brev.service.UniqueVisitorService;
 import org.example.brev.service.UrlService;
 import org.example.brev.util.HttpUtils;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * REST Controller for URL shortening operations
@@ -26,9 +40,16 @@ public class UrlController {
     private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
 
     private final UrlService urlService;
+    private final ClickCounterService clickCounterService;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
 
-    public UrlController(UrlService urlService) {
+    public UrlController(UrlService urlService, ClickCounterService clickCounterService,
+                         ClickRollupService clickRollupService, UniqueVisitorService uniqueVisitorService) {
         this.urlService = urlService;
+        this.clickCounterService = clickCounterService;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
     }
 
     /**
@@ -44,9 +65,10 @@ public class UrlController {
             @Valid @RequestBody CreateUrlRequest request,
             HttpServletRequest httpRequest) {
 
+        String clientIp = HttpUtils.getClientIpAddress(httpRequest);
+
         logger.info("Received request to create short URL for: {}", request.getLongUrl());
-        auditLogger.info("URL_CREATION_REQUEST - IP: {}, URL: {}",
-                        HttpUtils.getClientIpAddress(httpRequest), request.getLongUrl());
+        auditLogger.info("URL_CREATION_REQUEST - IP: {}, URL: {}", clientIp, request.getLongUrl());
 
         try {
             // Create the short URL using the service
@@ -67,7 +89,7 @@ public class UrlController {
 
             logger.info("Successfully created short URL: {} -> {}", request.getLongUrl(), shortUrl);
             auditLogger.info("URL_CREATION_SUCCESS - IP: {}, URL: {}, ShortCode: {}, ShortUrl: {}",
-                           HttpUtils.getClientIpAddress(httpRequest), request.getLongUrl(),
+                           clientIp, request.getLongUrl(),
                            urlMapping.getShortCode(), shortUrl);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -75,16 +97,134 @@ public class UrlController {
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request for URL creation: {}", e.getMessage());
             auditLogger.warn("URL_CREATION_INVALID - IP: {}, URL: {}, Error: {}",
-                           HttpUtils.getClientIpAddress(httpRequest), request.getLongUrl(), e.getMessage());
+                           clientIp, request.getLongUrl(), e.getMessage());
             throw e; // Will be handled by global exception handler
         } catch (Exception e) {
             logger.error("Unexpected error during URL creation for: {}", request.getLongUrl(), e);
             auditLogger.error("URL_CREATION_ERROR - IP: {}, URL: {}, Error: {}",
-                            HttpUtils.getClientIpAddress(httpRequest), request.getLongUrl(), e.getMessage());
+                            clientIp, request.getLongUrl(), e.getMessage());
             throw e; // Will be handled by global exception handler
         }
     }
 
+    /**
+     * Creates short URLs for many long URLs in one request
+     * POST /api/v1/urls/batch
+     *
+     * @param request The request containing the long URLs
+     * @param httpRequest The HTTP servlet request for building the short URLs
+     * @return ResponseEntity containing one entry per requested URL, in request order
+     */
+    @PostMapping("/urls/batch")
+    public ResponseEntity<CreateUrlBatchResponse> createShortUrls(
+            @Valid @RequestBody CreateUrlBatchRequest request,
+            HttpServletRequest httpRequest) {
+
+        String clientIp = HttpUtils.getClientIpAddress(httpRequest);
+        logger.info("Received request to create {} short URLs", request.getLongUrls().size());
+        auditLogger.info("URL_BATCH_CREATION_REQUEST - IP: {}, Count: {}", clientIp, request.getLongUrls().size());
+
+        UrlService.BatchResult result = urlService.createShortUrls(request.getLongUrls());
+
+        String baseUrl = getBaseUrl(httpRequest);
+        List<CreateUrlResponse> urls = result.mappings().stream()
+                .map(urlMapping -> new CreateUrlResponse(
+                        urlMapping.getId(),
+                        urlMapping.getLongUrl(),
+                        urlMapping.getShortCode(),
+                        baseUrl + "/" + urlMapping.getShortCode(),
+                        urlMapping.getCreatedAt()))
+                .toList();
+
+        CreateUrlBatchResponse response = new CreateUrlBatchResponse(
+                request.getLongUrls().size(), result.createdCount(), urls);
+
+        auditLogger.info("URL_BATCH_CREATION_SUCCESS - IP: {}, Requested: {}, Created: {}",
+                        clientIp, response.getRequested(), response.getCreated());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Returns click statistics for a short code
+     * GET /api/v1/urls/{shortCode}/stats
+     *
+     * @param shortCode The short code to report on
+     * @return ResponseEntity containing the click count and last click time
+     */
+    @GetMapping("/urls/{shortCode}/stats")
+    public ResponseEntity<UrlStatsResponse> getUrlStats(@PathVariable String shortCode) {
+        requireExistingShortCode(shortCode);
+
+        ClickCounterService.ClickStats stats = clickCounterService.getClickStats(shortCode);
+        return ResponseEntity.ok(new UrlStatsResponse(shortCode, stats.clickCount(), stats.lastClickedAt()));
+    }
+
+    /**
+     * Returns clicks per minute, hour or day for a short code, read from the rollup tables
+     * GET /api/v1/urls/{shortCode}/stats/timeseries
+     *
+     * @param shortCode The short code to report on
+     * @param granularity minute, hour or day
+     * @param from Inclusive start (ISO date-time)
+     * @param to Exclusive end (ISO date-time), defaults to now
+     * @return ResponseEntity containing the non-empty buckets in ascending order
+     */
+    @GetMapping("/urls/{shortCode}/stats/timeseries")
+    public ResponseEntity<UrlTimeSeriesResponse> getUrlTimeSeries(
+            @PathVariable String shortCode,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        UrlClickRollup.Granularity bucketSize = UrlClickRollup.Granularity.fromName(granularity);
+
+        requireExistingShortCode(shortCode);
+
+        ClickRollupService.TimeSeries series = clickRollupService.getTimeSeries(
+                shortCode, bucketSize, from, to != null ? to : LocalDateTime.now());
+        List<UrlTimeSeriesResponse.Point> points = series.points().stream()
+                .map(point -> new UrlTimeSeriesResponse.Point(point.bucketStart(), point.clicks()))
+                .toList();
+        return ResponseEntity.ok(new UrlTimeSeriesResponse(shortCode, bucketSize.toString(),
+                series.from(), series.to(), series.totalClicks(), points));
+    }
+
+    /**
+     * Returns estimated unique visitors of a short code per day and over a date range
+     * GET /api/v1/urls/{shortCode}/stats/visitors
+     *
+     * @param shortCode The short code to report on
+     * @param from First day (ISO date), defaults to today
+     * @param to Last day, inclusive (ISO date), defaults to today
+     * @return ResponseEntity containing the HyperLogLog estimates and their standard error
+     */
+    @GetMapping("/urls/{shortCode}/stats/visitors")
+    public ResponseEntity<UrlVisitorsResponse> getUrlVisitors(
+            @PathVariable String shortCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        requireExistingShortCode(shortCode);
+
+        LocalDate today = LocalDate.now();
+        UniqueVisitorService.VisitorEstimate estimate = uniqueVisitorService.estimate(
+                shortCode, from != null ? from : today, to != null ? to : today);
+        List<UrlVisitorsResponse.Day> days = estimate.days().stream()
+                .map(day -> new UrlVisitorsResponse.Day(day.date(), day.uniqueVisitors()))
+                .toList();
+        return ResponseEntity.ok(new UrlVisitorsResponse(shortCode, estimate.from(), estimate.to(),
+                estimate.uniqueVisitors(), estimate.standardError(), days));
+    }
+
+    /**
+     * Throws ShortCodeNotFoundException for unknown codes. Uses an indexed existence query rather than
+     * getLongUrl, so polling stats is not audited or timed as a redirect and does not fill the caches.
+     */
+    private void requireExistingShortCode(String shortCode) {
+        if (!urlService.shortCodeExists(shortCode)) {
+            throw new ShortCodeNotFoundException(shortCode);
+        }
+    }
+
     /**
      * Builds the base URL from the HTTP request (root level for short URLs)
      *
@@ -0,0 +1,37 @@
+package org.example.brev.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.example.brev.validation.ValidLongUrl;
+
+import java.util.List;
+
+/**
+ * Request DTO for creating short URLs in bulk
+ */
+public class CreateUrlBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    @NotEmpty(message = "Long URLs cannot be empty")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch cannot contain more than " + MAX_BATCH_SIZE + " URLs")
+    private List<@ValidLongUrl String> longUrls;
+
+    // Default constructor
+    public CreateUrlBatchRequest() {
+    }
+
+    // Constructor
+    public CreateUrlBatchRequest(List<String> longUrls) {
+        this.longUrls = longUrls;
+    }
+
+    // Getters and Setters
+    public List<String> getLongUrls() {
+        return longUrls;
+    }
+
+    public void setLongUrls(List<String> longUrls) {
+        this.longUrls = longUrls;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.brev.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for bulk short URL creation.
+ * Entries are in request order; repeated long URLs map to the same short code.
+ */
+public class CreateUrlBatchResponse {
+
+    private int requested;
+    private int created;
+    private List<CreateUrlResponse> urls;
+
+    // Default constructor
+    public CreateUrlBatchResponse() {
+    }
+
+    // Constructor
+    public CreateUrlBatchResponse(int requested, int created, List<CreateUrlResponse> urls) {
+        this.requested = requested;
+        this.created = created;
+        this.urls = urls;
+    }
+
+    // Getters and Setters
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<CreateUrlResponse> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<CreateUrlResponse> urls) {
+        this.urls = urls;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.brev.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for short URL click statistics
+ */
+public class UrlStatsResponse {
+
+    private String shortCode;
+    private long clickCount;
+    private LocalDateTime lastClickedAt;
+
+    // Default constructor
+    public UrlStatsResponse() {
+    }
+
+    // Constructor
+    public UrlStatsResponse(String shortCode, long clickCount, LocalDateTime lastClickedAt) {
+        this.shortCode = shortCode;
+        this.clickCount = clickCount;
+        this.lastClickedAt = lastClickedAt;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public long getClickCount() {
+        return clickCount;
+    }
+
+    public void setClickCount(long clickCount) {
+        this.clickCount = clickCount;
+    }
+
+    public LocalDateTime getLastClickedAt() {
+        return lastClickedAt;
+    }
+
+    public void setLastClickedAt(LocalDateTime lastClickedAt) {
+        this.lastClickedAt = lastClickedAt;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.brev.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for a short URL click time series
+ */
+public class UrlTimeSeriesResponse {
+
+    private String shortCode;
+    private String granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long totalClicks;
+    private List<Point> points;
+
+    // Default constructor
+    public UrlTimeSeriesResponse() {
+    }
+
+    // Constructor
+    public UrlTimeSeriesResponse(String shortCode, String granularity, LocalDateTime from, LocalDateTime to,
+                                 long totalClicks, List<Point> points) {
+        this.shortCode = shortCode;
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.totalClicks = totalClicks;
+        this.points = points;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public long getTotalClicks() {
+        return totalClicks;
+    }
+
+    public void setTotalClicks(long totalClicks) {
+        this.totalClicks = totalClicks;
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<Point> points) {
+        this.points = points;
+    }
+
+    /**
+     * Clicks in one bucket; buckets without clicks are omitted
+     */
+    public static class Point {
+
+        private LocalDateTime bucketStart;
+        private long clicks;
+
+        public Point() {
+        }
+
+        public Point(LocalDateTime bucketStart, long clicks) {
+            this.bucketStart = bucketStart;
+            this.clicks = clicks;
+        }
+
+        public LocalDateTime getBucketStart() {
+            return bucketStart;
+        }
+
+        public void setBucketStart(LocalDateTime bucketStart) {
+            this.bucketStart = bucketStart;
+        }
+
+        public long getClicks() {
+            return clicks;
+        }
+
+        public void setClicks(long clicks) {
+            this.clicks = clicks;
+        }
+    }
+}
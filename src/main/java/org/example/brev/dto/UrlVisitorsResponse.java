@@ -0,0 +1,114 @@
+package org.example.brev.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for estimated unique visitors of a short URL
+ */
+public class UrlVisitorsResponse {
+
+    private String shortCode;
+    private LocalDate from;
+    private LocalDate to;
+    private long uniqueVisitors;
+    private double standardError;
+    private List<Day> days;
+
+    // Default constructor
+    public UrlVisitorsResponse() {
+    }
+
+    // Constructor
+    public UrlVisitorsResponse(String shortCode, LocalDate from, LocalDate to, long uniqueVisitors,
+                               double standardError, List<Day> days) {
+        this.shortCode = shortCode;
+        this.from = from;
+        this.to = to;
+        this.uniqueVisitors = uniqueVisitors;
+        this.standardError = standardError;
+        this.days = days;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+
+    public void setUniqueVisitors(long uniqueVisitors) {
+        this.uniqueVisitors = uniqueVisitors;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public void setStandardError(double standardError) {
+        this.standardError = standardError;
+    }
+
+    public List<Day> getDays() {
+        return days;
+    }
+
+    public void setDays(List<Day> days) {
+        this.days = days;
+    }
+
+    /**
+     * Estimated unique visitors on one day; days without visitors are omitted
+     */
+    public static class Day {
+
+        private LocalDate date;
+        private long uniqueVisitors;
+
+        public Day() {
+        }
+
+        public Day(LocalDate date, long uniqueVisitors) {
+            this.date = date;
+            this.uniqueVisitors = uniqueVisitors;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public long getUniqueVisitors() {
+            return uniqueVisitors;
+        }
+
+        public void setUniqueVisitors(long uniqueVisitors) {
+            this.uniqueVisitors = uniqueVisitors;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.brev.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Allocation row for segment-based short code IDs.
+ * Each lease reads next_value under a row lock and advances it by one segment.
+ */
+@Entity
+@Table(name = "short_code_segment")
+public class ShortCodeSegment {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public ShortCodeSegment() {
+    }
+
+    // Constructor
+    public ShortCodeSegment(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.brev.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Clicks per short code in one minute, hour or day bucket.
+ * Written only by batched upserts from the rollup compaction, never through JPA.
+ */
+@Entity
+@Table(name = "url_click_rollup", indexes = {
+        @Index(name = "idx_granularity_bucket", columnList = "granularity, bucket_start")
+})
+@IdClass(UrlClickRollup.Key.class)
+public class UrlClickRollup {
+
+    @Id
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 6)
+    private Granularity granularity;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "click_count", nullable = false)
+    private long clickCount;
+
+    // Default constructor
+    public UrlClickRollup() {
+    }
+
+    // Constructor
+    public UrlClickRollup(String shortCode, Granularity granularity, LocalDateTime bucketStart, long clickCount) {
+        this.shortCode = shortCode;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.clickCount = clickCount;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getClickCount() {
+        return clickCount;
+    }
+
+    public void setClickCount(long clickCount) {
+        this.clickCount = clickCount;
+    }
+
+    /**
+     * Bucket sizes a rollup row can cover
+     */
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public ChronoUnit getUnit() {
+            return unit;
+        }
+
+        /**
+         * @return the start of the bucket containing the given time
+         */
+        public LocalDateTime truncate(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        /**
+         * Parses a granularity name case-insensitively
+         *
+         * @throws IllegalArgumentException for unknown names
+         */
+        public static Granularity fromName(String name) {
+            for (Granularity granularity : values()) {
+                if (granularity.name().equalsIgnoreCase(name)) {
+                    return granularity;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported granularity: " + name
+                    + " (expected minute, hour or day)");
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Composite primary key: (short_code, granularity, bucket_start)
+     */
+    public static class Key implements Serializable {
+
+        private String shortCode;
+        private Granularity granularity;
+        private LocalDateTime bucketStart;
+
+        public Key() {
+        }
+
+        public Key(String shortCode, Granularity granularity, LocalDateTime bucketStart) {
+            this.shortCode = shortCode;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(shortCode, key.shortCode)
+                    && granularity == key.granularity
+                    && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shortCode, granularity, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.brev.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Accumulated click count per short code.
+ * Written only by batched upserts from the click counter flush, never through JPA.
+ */
+@Entity
+@Table(name = "url_click_stats")
+public class UrlClickStats {
+
+    @Id
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    @Column(name = "click_count", nullable = false)
+    private long clickCount;
+
+    @Column(name = "last_clicked_at", nullable = false)
+    private LocalDateTime lastClickedAt;
+
+    // Default constructor
+    public UrlClickStats() {
+    }
+
+    // Constructor
+    public UrlClickStats(String shortCode, long clickCount, LocalDateTime lastClickedAt) {
+        this.shortCode = shortCode;
+        this.clickCount = clickCount;
+        this.lastClickedAt = lastClickedAt;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public long getClickCount() {
+        return clickCount;
+    }
+
+    public void setClickCount(long clickCount) {
+        this.clickCount = clickCount;
+    }
+
+    public LocalDateTime getLastClickedAt() {
+        return lastClickedAt;
+    }
+
+    public void setLastClickedAt(LocalDateTime lastClickedAt) {
+        this.lastClickedAt = lastClickedAt;
+    }
+}
@@ -4,13 +4,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.example.brev.util.UrlDigest;
 import org.example.brev.validation.ValidLongUrl;
 import org.hibernate.validator.constraints.URL;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "url_mapping")
+@Table(name = "url_mapping", indexes = {
+        @Index(name = "uk_long_url_hash", columnList = "long_url_hash", unique = true)
+})
 public class UrlMapping {
 
     @Id
@@ -21,6 +24,12 @@ public class UrlMapping {
     @ValidLongUrl
     private String longUrl;
 
+    /**
+     * 128-bit digest of the long URL, indexed for constant-time dedupe lookups
+     */
+    @Column(name = "long_url_hash", length = UrlDigest.LENGTH)
+    private byte[] longUrlHash;
+
     @Column(name = "short_code", nullable = false, unique = true, length = 10)
     @NotBlank(message = "Short code cannot be blank")
     @Size(min = 3, max = 10, message = "Short code must be between 3 and 10 characters")
@@ -37,6 +46,7 @@ public class UrlMapping {
     // Constructor
     public UrlMapping(String longUrl, String shortCode) {
         this.longUrl = longUrl;
+        this.longUrlHash = UrlDigest.of(longUrl);
         this.shortCode = shortCode;
         this.createdAt = LocalDateTime.now();
     }
@@ -56,6 +66,15 @@ public class UrlMapping {
 
     public void setLongUrl(String longUrl) {
         this.longUrl = longUrl;
+        this.longUrlHash = longUrl != null ? UrlDigest.of(longUrl) : null;
+    }
+
+    public byte[] getLongUrlHash() {
+        return longUrlHash;
+    }
+
+    public void setLongUrlHash(byte[] longUrlHash) {
+        this.longUrlHash = longUrlHash;
     }
 
     public String getShortCode() {
@@ -79,5 +98,8 @@ public class UrlMapping {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        if (longUrlHash == null && longUrl != null) {
+            longUrlHash = UrlDigest.of(longUrl);
+        }
     }
 }
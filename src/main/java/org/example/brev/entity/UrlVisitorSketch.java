@@ -0,0 +1,100 @@
+package org.example.brev.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * HyperLogLog sketch of the distinct visitors of one short code on one day.
+ * Written only by the visitor sketch flush, which merges into the stored sketch under a row lock.
+ */
+@Entity
+@Table(name = "url_visitor_sketch", indexes = {
+        @Index(name = "idx_visit_date", columnList = "visit_date")
+})
+@IdClass(UrlVisitorSketch.Key.class)
+public class UrlVisitorSketch {
+
+    @Id
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    @Id
+    @Column(name = "visit_date", nullable = false)
+    private LocalDate visitDate;
+
+    // Largest dense encoding: 2 header bytes + 2^16 registers at the maximum precision
+    @Column(name = "sketch", nullable = false, length = 65538)
+    private byte[] sketch;
+
+    // Default constructor
+    public UrlVisitorSketch() {
+    }
+
+    // Constructor
+    public UrlVisitorSketch(String shortCode, LocalDate visitDate, byte[] sketch) {
+        this.shortCode = shortCode;
+        this.visitDate = visitDate;
+        this.sketch = sketch;
+    }
+
+    // Getters and Setters
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+
+    public LocalDate getVisitDate() {
+        return visitDate;
+    }
+
+    public void setVisitDate(LocalDate visitDate) {
+        this.visitDate = visitDate;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    /**
+     * Composite primary key: (short_code, visit_date)
+     */
+    public static class Key implements Serializable {
+
+        private String shortCode;
+        private LocalDate visitDate;
+
+        public Key() {
+        }
+
+        public Key(String shortCode, LocalDate visitDate) {
+            this.shortCode = shortCode;
+            this.visitDate = visitDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(shortCode, key.shortCode) && Objects.equals(visitDate, key.visitDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shortCode, visitDate);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.brev.repository;
+
+/**
+ * Projection of a URL mapping's short code and long URL, the pair the caches hold
+ */
+public interface CacheEntryView {
+
+    String getShortCode();
+
+    String getLongUrl();
+}
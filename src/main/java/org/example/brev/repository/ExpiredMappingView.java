@@ -0,0 +1,15 @@
+package org.example.brev.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns retention cleanup needs: the keyset and the cache key
+ */
+public interface ExpiredMappingView {
+
+    Long getId();
+
+    String getShortCode();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,11 @@
+package org.example.brev.repository;
+
+/**
+ * Projection of a URL mapping's ID and long URL, used by the digest backfill
+ */
+public interface LongUrlView {
+
+    Long getId();
+
+    String getLongUrl();
+}
@@ -0,0 +1,22 @@
+package org.example.brev.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.brev.entity.ShortCodeSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShortCodeSegmentRepository extends JpaRepository<ShortCodeSegment, String> {
+
+    /**
+     * Find an allocation row and lock it until the end of the current transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ShortCodeSegment s where s.name = :name")
+    Optional<ShortCodeSegment> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,12 @@
+package org.example.brev.repository;
+
+/**
+ * Lightweight projection of a URL mapping's identity, used for keyset scans
+ * over the table without loading full entities
+ */
+public interface ShortCodeView {
+
+    Long getId();
+
+    String getShortCode();
+}
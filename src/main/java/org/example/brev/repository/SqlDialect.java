@@ -0,0 +1,30 @@
+package org.example.brev.repository;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+
+/**
+ * Databases the hand-written JDBC statements support: MySQL in production, H2 in tests
+ */
+public enum SqlDialect {
+    MYSQL, H2;
+
+    /**
+     * Detects the dialect from the connection metadata
+     *
+     * @param dataSource The application data source
+     * @return the dialect; anything that is not H2 is treated as MySQL
+     */
+    public static SqlDialect detect(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return product != null && product.toLowerCase(Locale.ROOT).contains("h2") ? H2 : MYSQL;
+        } catch (MetaDataAccessException e) {
+            return MYSQL;
+        }
+    }
+}
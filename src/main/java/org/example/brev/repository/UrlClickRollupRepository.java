@@ -0,0 +1,121 @@
+package org.example.brev.repository;
+
+import org.example.brev.entity.UrlClickRollup.Granularity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC access to url_click_rollup.
+ * Upserts add their delta to the stored count, so compactions from several instances compose.
+ */
+@Repository
+public class UrlClickRollupRepository {
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO url_click_rollup (short_code, granularity, bucket_start, click_count) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE click_count = click_count + VALUES(click_count)";
+
+    private static final String H2_UPSERT =
+            "MERGE INTO url_click_rollup t "
+            + "USING (VALUES (CAST(? AS VARCHAR(10)), CAST(? AS VARCHAR(6)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT))) "
+            + "s(short_code, granularity, bucket_start, click_count) "
+            + "ON t.short_code = s.short_code AND t.granularity = s.granularity AND t.bucket_start = s.bucket_start "
+            + "WHEN MATCHED THEN UPDATE SET click_count = t.click_count + s.click_count "
+            + "WHEN NOT MATCHED THEN INSERT (short_code, granularity, bucket_start, click_count) "
+            + "VALUES (s.short_code, s.granularity, s.bucket_start, s.click_count)";
+
+    private static final String SELECT_RANGE =
+            "SELECT bucket_start, click_count FROM url_click_rollup "
+            + "WHERE short_code = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ? "
+            + "ORDER BY bucket_start";
+
+    private static final String MYSQL_DELETE_CHUNK =
+            "DELETE FROM url_click_rollup WHERE granularity = ? AND bucket_start < ? LIMIT ?";
+
+    private static final String H2_DELETE_CHUNK =
+            "DELETE FROM url_click_rollup WHERE granularity = ? AND bucket_start < ? FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String upsertSql;
+    private final String deleteChunkSql;
+
+    public UrlClickRollupRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.batch.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        boolean h2 = SqlDialect.detect(jdbcTemplate.getDataSource()) == SqlDialect.H2;
+        this.upsertSql = h2 ? H2_UPSERT : MYSQL_UPSERT;
+        this.deleteChunkSql = h2 ? H2_DELETE_CHUNK : MYSQL_DELETE_CHUNK;
+    }
+
+    /**
+     * A number of clicks to add to one bucket
+     */
+    public record RollupDelta(String shortCode, Granularity granularity, LocalDateTime bucketStart, long clicks) {
+    }
+
+    /**
+     * Clicks stored for one bucket
+     */
+    public record RollupBucket(LocalDateTime bucketStart, long clicks) {
+    }
+
+    /**
+     * Adds the deltas to the stored counts in JDBC batches.
+     * All batches commit together, so a failed compaction can be retried without double counting.
+     *
+     * @param deltas Rollup deltas, at most one per bucket
+     */
+    @Transactional
+    public void addClicks(List<RollupDelta> deltas) {
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<RollupDelta> chunk = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            jdbcTemplate.batchUpdate(upsertSql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    RollupDelta delta = chunk.get(i);
+                    ps.setString(1, delta.shortCode());
+                    ps.setString(2, delta.granularity().name());
+                    ps.setTimestamp(3, Timestamp.valueOf(delta.bucketStart()));
+                    ps.setLong(4, delta.clicks());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the stored buckets of one granularity in [from, to), served by the primary key
+     *
+     * @return buckets with clicks in ascending order; empty buckets have no row
+     */
+    public List<RollupBucket> findBuckets(String shortCode, Granularity granularity,
+                                          LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_RANGE,
+                (rs, rowNum) -> new RollupBucket(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)),
+                shortCode, granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Deletes one chunk of buckets of a granularity that start before the cutoff
+     *
+     * @return the number of rows deleted; fewer than chunkSize means none are left
+     */
+    public int deleteOlderThan(Granularity granularity, LocalDateTime cutoff, int chunkSize) {
+        return jdbcTemplate.update(deleteChunkSql, granularity.name(), Timestamp.valueOf(cutoff), chunkSize);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.brev.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched upserts into url_click_stats.
+ * Each row adds its delta to the stored count, so concurrent flushes from several instances compose.
+ */
+@Repository
+public class UrlClickStatsBatchRepository {
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO url_click_stats (short_code, click_count, last_clicked_at) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE click_count = click_count + VALUES(click_count), "
+            + "last_clicked_at = GREATEST(last_clicked_at, VALUES(last_clicked_at))";
+
+    private static final String H2_UPSERT =
+            "MERGE INTO url_click_stats t "
+            + "USING (VALUES (CAST(? AS VARCHAR(10)), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) "
+            + "s(short_code, click_count, last_clicked_at) ON t.short_code = s.short_code "
+            + "WHEN MATCHED THEN UPDATE SET click_count = t.click_count + s.click_count, "
+            + "last_clicked_at = GREATEST(t.last_clicked_at, s.last_clicked_at) "
+            + "WHEN NOT MATCHED THEN INSERT (short_code, click_count, last_clicked_at) "
+            + "VALUES (s.short_code, s.click_count, s.last_clicked_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public UrlClickStatsBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertSql = SqlDialect.detect(jdbcTemplate.getDataSource()) == SqlDialect.H2 ? H2_UPSERT : MYSQL_UPSERT;
+    }
+
+    /**
+     * A number of clicks to add to one short code
+     */
+    public record ClickDelta(String shortCode, long clicks) {
+    }
+
+    /**
+     * Adds the deltas to the stored counts in one JDBC batch
+     *
+     * @param deltas Click deltas, at most one per short code
+     * @param clickedAt Timestamp recorded as the last click time
+     */
+    public void addClicks(List<ClickDelta> deltas, LocalDateTime clickedAt) {
+        Timestamp timestamp = Timestamp.valueOf(clickedAt);
+        jdbcTemplate.batchUpdate(upsertSql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ClickDelta delta = deltas.get(i);
+                ps.setString(1, delta.shortCode());
+                ps.setLong(2, delta.clicks());
+                ps.setTimestamp(3, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+}
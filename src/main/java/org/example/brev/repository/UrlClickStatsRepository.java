@@ -0,0 +1,21 @@
+package org.example.brev.repository;
+
+import org.example.brev.entity.UrlClickStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UrlClickStatsRepository extends JpaRepository<UrlClickStats, String> {
+
+    /**
+     * Find the short codes with the most accumulated clicks, most clicked first
+     * There is no index on click_count, so this sorts the whole table; meant for occasional use such as cache
+     * warming, which runs it under a transaction timeout
+     */
+    @Query("select s.shortCode from UrlClickStats s order by s.clickCount desc")
+    List<String> findMostClickedShortCodes(Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package org.example.brev.repository;
+
+import org.example.brev.entity.UrlMapping;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writes for url_mapping.
+ *
+ * The entity uses IDENTITY keys, which makes Hibernate insert one row per statement.
+ * Bulk paths write through here instead so each chunk goes out as a single JDBC batch
+ * (collapsed into multi-row INSERTs by MySQL Connector/J with rewriteBatchedStatements=true).
+ */
+@Repository
+public class UrlMappingBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO url_mapping (long_url, long_url_hash, short_code, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public UrlMappingBatchRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${app.batch.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts new mappings in JDBC batches and sets their generated IDs.
+     * Runs in the caller's transaction.
+     *
+     * @param mappings Unsaved mappings with long URL, digest, short code and creation time set
+     */
+    public void insertAll(List<UrlMapping> mappings) {
+        for (int from = 0; from < mappings.size(); from += batchSize) {
+            List<UrlMapping> chunk = mappings.subList(from, Math.min(from + batchSize, mappings.size()));
+            insertChunk(chunk);
+        }
+    }
+
+    private void insertChunk(List<UrlMapping> chunk) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        UrlMapping mapping = chunk.get(i);
+                        ps.setString(1, mapping.getLongUrl());
+                        ps.setBytes(2, mapping.getLongUrlHash());
+                        ps.setString(3, mapping.getShortCode());
+                        ps.setTimestamp(4, Timestamp.valueOf(mapping.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < chunk.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            chunk.get(i).setId(((Number) key).longValue());
+        }
+    }
+}
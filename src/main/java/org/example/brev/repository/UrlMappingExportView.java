@@ -0,0 +1,17 @@
+package org.example.brev.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the exported columns of a URL mapping
+ */
+public interface UrlMappingExportView {
+
+    Long getId();
+
+    String getShortCode();
+
+    String getLongUrl();
+
+    LocalDateTime getCreatedAt();
+}
@@ -1,12 +1,16 @@
 package org.example.brev.repository;
 
 import org.example.brev.entity.UrlMapping;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,9 +24,47 @@ public interface UrlMappingRepository extends JpaRepository<UrlMapping, Long> {
 
     /**
      * Find URL mapping by long URL
+     * Scans the unindexed long_url column; prefer {@link #findByLongUrlHash(byte[])}
      */
     Optional<UrlMapping> findByLongUrl(String longUrl);
 
+    /**
+     * Find URL mapping by the digest of its long URL (unique index lookup)
+     * The caller must confirm the match against the full long URL
+     */
+    Optional<UrlMapping> findByLongUrlHash(byte[] longUrlHash);
+
+    /**
+     * Find URL mappings for a set of long URL digests (batch dedupe)
+     * The caller must confirm each match against the full long URL
+     */
+    List<UrlMapping> findByLongUrlHashIn(Collection<byte[]> longUrlHashes);
+
+    /**
+     * Find which of the given short codes are already taken
+     */
+    @Query("select m.shortCode from UrlMapping m where m.shortCode in :shortCodes")
+    List<String> findExistingShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+
+    /**
+     * Find which of the given long URL digests are already taken
+     */
+    @Query("select m.longUrlHash from UrlMapping m where m.longUrlHash in :hashes")
+    List<byte[]> findExistingLongUrlHashes(@Param("hashes") Collection<byte[]> hashes);
+
+    /**
+     * Find the next page of rows without a long URL digest, in ID order
+     */
+    @Query("select m.id as id, m.longUrl as longUrl from UrlMapping m where m.longUrlHash is null and m.id > :afterId order by m.id")
+    List<LongUrlView> findUnhashedAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Set the long URL digest of a row that does not have one yet
+     */
+    @Modifying
+    @Query("update UrlMapping m set m.longUrlHash = :hash where m.id = :id and m.longUrlHash is null")
+    int updateLongUrlHash(@Param("id") long id, @Param("hash") byte[] hash);
+
     /**
      * Check if short code already exists
      */
@@ -44,9 +86,63 @@ public interface UrlMappingRepository extends JpaRepository<UrlMapping, Long> {
     List<UrlMapping> findByCreatedAtBefore(LocalDateTime date);
 
     /**
-     * Delete URL mappings older than specified date
+     * Find the next page of short codes with an ID greater than the given one, in ID order.
+     * Used for keyset scans over the whole table.
+     */
+    @Query("select m.id as id, m.shortCode as shortCode from UrlMapping m where m.id > :afterId order by m.id")
+    List<ShortCodeView> findShortCodesAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Find the short codes of the newest mappings, newest first (walks the primary key backwards)
+     */
+    @Query("select m.shortCode from UrlMapping m order by m.id desc")
+    List<String> findNewestShortCodes(Pageable pageable);
+
+    /**
+     * Find the long URLs for a set of short codes (unique index lookups); unknown codes are absent
+     */
+    @Query("select m.shortCode as shortCode, m.longUrl as longUrl from UrlMapping m where m.shortCode in :shortCodes")
+    List<CacheEntryView> findCacheEntries(@Param("shortCodes") Collection<String> shortCodes);
+
+    /**
+     * Find the next page of mappings created in [from, to) with an ID greater than the given one,
+     * in ID order. Keyset pagination for streaming exports: each page is an index range scan
+     * and no entities enter the persistence context.
+     */
+    @Query("select m.id as id, m.shortCode as shortCode, m.longUrl as longUrl, m.createdAt as createdAt "
+            + "from UrlMapping m where m.id > :afterId and m.createdAt >= :from and m.createdAt < :to order by m.id")
+    List<UrlMappingExportView> findForExportAfterId(@Param("afterId") long afterId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to,
+                                                    Pageable pageable);
+
+    /**
+     * Find the first chunk of mappings created before the cutoff, in (created_at, id) order
+     */
+    @Query("select m.id as id, m.shortCode as shortCode, m.createdAt as createdAt from UrlMapping m "
+            + "where m.createdAt < :cutoff order by m.createdAt, m.id")
+    List<ExpiredMappingView> findExpired(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Find the next chunk of mappings created before the cutoff, after the given (created_at, id) keyset
+     * Resuming after the last row seen keeps each query from re-walking index entries deleted earlier
+     */
+    @Query("select m.id as id, m.shortCode as shortCode, m.createdAt as createdAt from UrlMapping m "
+            + "where m.createdAt < :cutoff "
+            + "and (m.createdAt > :afterCreatedAt or (m.createdAt = :afterCreatedAt and m.id > :afterId)) "
+            + "order by m.createdAt, m.id")
+    List<ExpiredMappingView> findExpiredAfter(@Param("cutoff") LocalDateTime cutoff,
+                                              @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterId") long afterId,
+                                              Pageable pageable);
+
+    /**
+     * Delete URL mappings by ID with a single bulk DELETE in its own transaction
+     *
+     * @return the number of rows deleted
      */
     @Modifying
     @Transactional
-    void deleteByCreatedAtBefore(LocalDateTime date);
+    @Query("delete from UrlMapping m where m.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
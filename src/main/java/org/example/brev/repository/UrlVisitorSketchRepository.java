@@ -0,0 +1,145 @@
+package org.example.brev.repository;
+
+import org.example.brev.util.HyperLogLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC access to url_visitor_sketch.
+ *
+ * Sketches cannot be combined in SQL, so a flush locks the stored rows of its keys, merges in
+ * Java and writes the union back. HyperLogLog merges are idempotent, which makes a flush that
+ * fails halfway (for example on a concurrent first insert by another instance) safe to retry.
+ */
+@Repository
+public class UrlVisitorSketchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO url_visitor_sketch (short_code, visit_date, sketch) VALUES (?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE url_visitor_sketch SET sketch = ? WHERE short_code = ? AND visit_date = ?";
+
+    private static final String SELECT_RANGE =
+            "SELECT visit_date, sketch FROM url_visitor_sketch "
+            + "WHERE short_code = ? AND visit_date >= ? AND visit_date <= ? ORDER BY visit_date";
+
+    private static final String MYSQL_DELETE_CHUNK =
+            "DELETE FROM url_visitor_sketch WHERE visit_date < ? LIMIT ?";
+
+    private static final String H2_DELETE_CHUNK =
+            "DELETE FROM url_visitor_sketch WHERE visit_date < ? FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String deleteChunkSql;
+
+    public UrlVisitorSketchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deleteChunkSql = SqlDialect.detect(jdbcTemplate.getDataSource()) == SqlDialect.H2
+                ? H2_DELETE_CHUNK : MYSQL_DELETE_CHUNK;
+    }
+
+    /**
+     * Visitors of one short code on one day, as seen by this instance
+     */
+    public record SketchUpdate(String shortCode, LocalDate visitDate, HyperLogLog sketch) {
+    }
+
+    /**
+     * Stored sketch of one day
+     */
+    public record DailySketch(LocalDate visitDate, HyperLogLog sketch) {
+    }
+
+    /**
+     * Merges sketches into the stored ones in one transaction.
+     * Rows are locked in (visit_date, short_code) order so concurrent flushes cannot deadlock.
+     *
+     * @param updates Sketches to merge, at most one per (short code, day)
+     */
+    @Transactional
+    public void mergeAll(List<SketchUpdate> updates) {
+        Map<LocalDate, Map<String, HyperLogLog>> byDate = new TreeMap<>();
+        for (SketchUpdate update : updates) {
+            byDate.computeIfAbsent(update.visitDate(), date -> new TreeMap<>())
+                    .put(update.shortCode(), update.sketch());
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> changes = new ArrayList<>();
+        for (Map.Entry<LocalDate, Map<String, HyperLogLog>> day : byDate.entrySet()) {
+            Date visitDate = Date.valueOf(day.getKey());
+            Map<String, byte[]> stored = lockStored(visitDate, new ArrayList<>(day.getValue().keySet()));
+
+            for (Map.Entry<String, HyperLogLog> entry : day.getValue().entrySet()) {
+                byte[] existing = stored.get(entry.getKey());
+                if (existing == null) {
+                    inserts.add(new Object[]{entry.getKey(), visitDate, entry.getValue().toBytes()});
+                    continue;
+                }
+                HyperLogLog merged = HyperLogLog.fromBytes(existing);
+                if (merged.merge(entry.getValue())) {
+                    changes.add(new Object[]{merged.toBytes(), entry.getKey(), visitDate});
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!changes.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, changes);
+        }
+    }
+
+    /**
+     * Reads the stored sketches of one short code for the days in [from, to]
+     *
+     * @return sketches in ascending date order; days without visitors have no row
+     */
+    public List<DailySketch> findRange(String shortCode, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(SELECT_RANGE,
+                (rs, rowNum) -> new DailySketch(rs.getDate(1).toLocalDate(), HyperLogLog.fromBytes(rs.getBytes(2))),
+                shortCode, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Deletes one chunk of sketches for days before the cutoff
+     *
+     * @return the number of rows deleted; fewer than chunkSize means none are left
+     */
+    public int deleteOlderThan(LocalDate cutoff, int chunkSize) {
+        return jdbcTemplate.update(deleteChunkSql, Date.valueOf(cutoff), chunkSize);
+    }
+
+    private Map<String, byte[]> lockStored(Date visitDate, List<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return new HashMap<>();
+        }
+        String sql = "SELECT short_code, sketch FROM url_visitor_sketch WHERE visit_date = ? AND short_code IN ("
+                + String.join(", ", Collections.nCopies(shortCodes.size(), "?"))
+                + ") ORDER BY short_code FOR UPDATE";
+
+        Object[] args = new Object[shortCodes.size() + 1];
+        args[0] = visitDate;
+        for (int i = 0; i < shortCodes.size(); i++) {
+            args[i + 1] = shortCodes.get(i);
+        }
+
+        Map<String, byte[]> stored = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> stored.put(rs.getString(1), rs.getBytes(2)), args);
+        return stored;
+    }
+}
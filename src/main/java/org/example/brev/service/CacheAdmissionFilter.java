@@ -0,0 +1,127 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.util.BloomFilter;
+import org.example.brev.util.HashUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Second-hit admission for Redis writes on cache misses (a "doorkeeper", as in TinyLFU).
+ *
+ * The first miss for a code only records it in a Bloom filter; the mapping is served from the
+ * database and the local cache but not written to Redis. A second miss within the window finds the
+ * code in the filter and is written back. One-off clicks, most of a Zipf tail, therefore never take
+ * Redis memory, and under allkeys-lru they no longer push hot entries out.
+ *
+ * Two filters are kept, the current window's and the previous one's; each window a fresh filter
+ * replaces the older one, so a code is remembered for between one and two windows. A false
+ * positive admits a one-off code, which is what would have happened without the filter.
+ *
+ * Writes that are not cache misses bypass it: new links are written through on creation, warming
+ * writes popular links, and early refresh only runs for codes already in Redis.
+ */
+@Service
+public class CacheAdmissionFilter {
+
+    private static final Logger logger = LogManager.getLogger(CacheAdmissionFilter.class);
+
+    private final boolean enabled;
+    private final long expectedCodes;
+    private final double falsePositiveRate;
+    private final long windowMillis;
+    private final AtomicReference<Generations> generations;
+
+    private final Counter admittedCounter;
+    private final Counter rejectedCounter;
+
+    /**
+     * The filters for the current and the previous window; previous is null after an idle window
+     */
+    private record Generations(long epoch, BloomFilter current, BloomFilter previous) {
+    }
+
+    public CacheAdmissionFilter(@Value("${app.cache.admission.enabled:true}") boolean enabled,
+                                @Value("${app.cache.admission.expected-codes:1000000}") long expectedCodes,
+                                @Value("${app.cache.admission.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${app.cache.admission.window:1h}") Duration window,
+                                MeterRegistry meterRegistry) {
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("Admission window must be positive: " + window);
+        }
+        this.enabled = enabled;
+        this.expectedCodes = expectedCodes;
+        this.falsePositiveRate = falsePositiveRate;
+        this.windowMillis = window.toMillis();
+
+        // Builds the first filter up front so bad sizes fail at startup rather than on the first miss
+        BloomFilter first = new BloomFilter(expectedCodes, falsePositiveRate);
+        this.generations = new AtomicReference<>(new Generations(Long.MIN_VALUE, first, null));
+
+        this.admittedCounter = Counter.builder("brev.cache.admission")
+                .tags("tier", "redis", "result", "admitted")
+                .description("Cache misses written back to Redis")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("brev.cache.admission")
+                .tags("tier", "redis", "result", "rejected")
+                .description("First misses within the window, not written to Redis")
+                .register(meterRegistry);
+
+        logger.info("Redis admission filter {} - Window: {}s, Expected codes: {}, Memory: {} KB",
+                   enabled ? "enabled" : "disabled", window.toSeconds(), expectedCodes,
+                   2 * first.memoryBytes() / 1024);
+    }
+
+    /**
+     * Records a cache miss and decides whether its mapping should be written to Redis
+     *
+     * @param shortCode The short code that missed
+     * @return true if the code already missed within the window, or the filter is disabled
+     */
+    public boolean admit(String shortCode) {
+        return admit(shortCode, System.currentTimeMillis());
+    }
+
+    /**
+     * As {@link #admit(String)}, at a given time; used by simulations that replay traffic
+     */
+    public boolean admit(String shortCode, long nowMillis) {
+        if (!enabled) {
+            return true;
+        }
+
+        long hash = HashUtils.hash64(shortCode);
+        Generations current = generationsAt(nowMillis);
+        boolean firstInWindow = current.current().put(hash);
+        boolean seen = !firstInWindow || (current.previous() != null && current.previous().mightContain(hash));
+        (seen ? admittedCounter : rejectedCounter).increment();
+        return seen;
+    }
+
+    private Generations generationsAt(long nowMillis) {
+        long epoch = Math.floorDiv(nowMillis, windowMillis);
+        while (true) {
+            Generations existing = generations.get();
+            if (existing.epoch() >= epoch) {
+                return existing;
+            }
+            Generations rotated;
+            if (existing.epoch() == Long.MIN_VALUE) {
+                // First miss: the filter built at startup becomes the current window's
+                rotated = new Generations(epoch, existing.current(), null);
+            } else {
+                BloomFilter previous = existing.epoch() == epoch - 1 ? existing.current() : null;
+                rotated = new Generations(epoch, new BloomFilter(expectedCodes, falsePositiveRate), previous);
+            }
+            if (generations.compareAndSet(existing, rotated)) {
+                return rotated;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.brev.service;
+
+/**
+ * Strategy for how long a URL mapping stays in Redis once it has been loaded.
+ * The active implementation is selected with {@code app.cache.ttl-policy.strategy}.
+ */
+public interface CacheTtlPolicy {
+
+    /**
+     * Chooses the TTL for a mapping about to be written on a cache miss, a creation or cache warming
+     *
+     * @param shortCode The short code being cached
+     * @return TTL in seconds, before {@link RedisCacheService} applies jitter
+     */
+    long ttlSeconds(String shortCode);
+}
@@ -0,0 +1,293 @@
+package org.example.brev.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.repository.CacheEntryView;
+import org.example.brev.repository.UrlClickStatsRepository;
+import org.example.brev.repository.UrlMappingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads Redis and the local cache with the links most likely to be requested.
+ *
+ * Without it, a deploy or a Redis restart sends every hot link to the database at once until the
+ * caches refill on their own. The candidate short codes are picked in one query (most clicked,
+ * newest, or the in-memory hot-link tracker), then resolved and written in batches: each batch is
+ * one MGET, then one IN query on the short_code index and one Redis pipeline for the codes Redis
+ * does not hold. After a deploy, when Redis is still warm, a batch is a single MGET that fills the
+ * local cache and leaves the Redis TTLs as they are. Batches run on a small fixed pool,
+ * so the database sees at most {@code concurrency} warming queries at a time, and work still
+ * queued when the deadline passes is dropped. The deadline also bounds the candidate query, which
+ * runs in a read-only transaction timing out with it: the most-clicked query sorts url_click_stats.
+ *
+ * The startup run is an ApplicationRunner. Spring Boot calls runners after it publishes
+ * LivenessState.CORRECT and before ReadinessState.ACCEPTING_TRAFFIC, so warming holds
+ * /actuator/health/readiness at OUT_OF_SERVICE until it finishes or the deadline passes, while
+ * /actuator/health/liveness is already UP and a liveness probe does not restart the pod. The admin run
+ * does not touch readiness: every instance shares Redis, so taking them all out of rotation after a
+ * Redis restart would be worse than the misses.
+ */
+@Service
+public class CacheWarmingService implements ApplicationRunner {
+
+    private static final Logger logger = LogManager.getLogger(CacheWarmingService.class);
+
+    static final int MAX_LIMIT = 100_000;
+
+    /**
+     * Where the candidate short codes come from
+     */
+    public enum Source {
+        /** Most clicked first (url_click_stats), topped up with the newest links */
+        CLICKS,
+        /** Newest links first */
+        RECENT,
+        /** Most redirected over the hot-link tracker's window; only useful once the instance has traffic */
+        HOT;
+
+        /**
+         * @throws IllegalArgumentException for unknown sources
+         */
+        public static Source fromName(String name) {
+            for (Source source : values()) {
+                if (source.name().equalsIgnoreCase(name)) {
+                    return source;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported warming source: " + name + ". Expected clicks, recent or hot");
+        }
+    }
+
+    /**
+     * Outcome of one warming run
+     *
+     * @param candidates Short codes selected for warming
+     * @param warmed Mappings written to the caches
+     * @param completed false if the deadline passed before every batch ran
+     */
+    public record WarmResult(Source source, int candidates, int warmed, boolean completed, long durationMillis) {
+    }
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final UrlClickStatsRepository urlClickStatsRepository;
+    private final RedisCacheService redisCacheService;
+    private final LocalCacheService localCacheService;
+    private final HotLinkTracker hotLinkTracker;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean onStartup;
+    private final Source startupSource;
+    private final int limit;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration deadline;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CacheWarmingService(UrlMappingRepository urlMappingRepository,
+                               UrlClickStatsRepository urlClickStatsRepository,
+                               RedisCacheService redisCacheService,
+                               LocalCacheService localCacheService,
+                               HotLinkTracker hotLinkTracker,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.cache.warming.on-startup:true}") boolean onStartup,
+                               @Value("${app.cache.warming.source:clicks}") String startupSource,
+                               @Value("${app.cache.warming.limit:10000}") int limit,
+                               @Value("${app.cache.redis.batch-size:500}") int batchSize,
+                               @Value("${app.cache.warming.concurrency:4}") int concurrency,
+                               @Value("${app.cache.warming.deadline:30s}") Duration deadline) {
+        if (limit < 1 || limit > MAX_LIMIT || batchSize < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("Cache warming needs 1 <= limit <= " + MAX_LIMIT
+                    + " and a positive batch size and concurrency");
+        }
+        this.urlMappingRepository = urlMappingRepository;
+        this.urlClickStatsRepository = urlClickStatsRepository;
+        this.redisCacheService = redisCacheService;
+        this.localCacheService = localCacheService;
+        this.hotLinkTracker = hotLinkTracker;
+        this.transactionManager = transactionManager;
+        this.onStartup = onStartup;
+        this.startupSource = Source.fromName(startupSource);
+        this.limit = limit;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmOnStartup();
+    }
+
+    /**
+     * Warms the caches before the instance reports ready; failures are logged and never block startup
+     */
+    public void warmOnStartup() {
+        if (!onStartup) {
+            logger.info("Startup cache warming is disabled");
+            return;
+        }
+
+        try {
+            warm(startupSource, limit);
+        } catch (Exception e) {
+            logger.error("Startup cache warming failed, continuing with cold caches: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads up to {@code count} mappings from the given source into Redis and the local cache
+     *
+     * @param source Where to take the candidate short codes from
+     * @param count Maximum number of mappings to load
+     * @return what was warmed, and whether the deadline cut the run short
+     * @throws IllegalArgumentException if count is out of range
+     * @throws IllegalStateException if another warming run is in progress
+     */
+    public WarmResult warm(Source source, int count) {
+        if (count < 1 || count > MAX_LIMIT) {
+            throw new IllegalArgumentException("Warming limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Cache warming is already running");
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            long deadlineNanos = startTime + deadline.toNanos();
+            List<String> candidates;
+            try {
+                candidates = selectCandidates(source, count, deadlineNanos);
+            } catch (QueryTimeoutException | TransactionTimedOutException e) {
+                long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                logger.warn("Cache warming stopped at the {}s deadline while selecting candidates - Source: {}",
+                           deadline.toSeconds(), source);
+                return new WarmResult(source, 0, 0, false, durationMillis);
+            }
+            logger.info("Cache warming started - Source: {}, Candidates: {}, Batch size: {}, Concurrency: {}, Deadline: {}s",
+                       source, candidates.size(), batchSize, concurrency, deadline.toSeconds());
+
+            AtomicInteger warmed = new AtomicInteger();
+            boolean completed = runBatches(candidates, warmed, deadlineNanos);
+
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            if (completed) {
+                logger.info("Cache warming completed - Source: {}, Warmed: {} of {}, Took: {} ms",
+                           source, warmed.get(), candidates.size(), durationMillis);
+            } else {
+                logger.warn("Cache warming stopped at the {}s deadline - Source: {}, Warmed: {} of {}",
+                           deadline.toSeconds(), source, warmed.get(), candidates.size());
+            }
+            return new WarmResult(source, candidates.size(), warmed.get(), completed, durationMillis);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<String> selectCandidates(Source source, int count, long deadlineNanos) {
+        if (source == Source.HOT) {
+            return selectFrom(source, count);
+        }
+
+        // Query timeouts follow the transaction timeout, which is in whole seconds
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + 999_999_999)));
+        return transactionTemplate.execute(status -> selectFrom(source, count));
+    }
+
+    private List<String> selectFrom(Source source, int count) {
+        Set<String> shortCodes = new LinkedHashSet<>();
+        switch (source) {
+            case CLICKS -> {
+                shortCodes.addAll(urlClickStatsRepository.findMostClickedShortCodes(PageRequest.of(0, count)));
+                if (shortCodes.size() < count) {
+                    // Few links have click history yet (new deployment, or stats were purged)
+                    for (String shortCode : urlMappingRepository.findNewestShortCodes(PageRequest.of(0, count))) {
+                        if (shortCodes.size() >= count) {
+                            break;
+                        }
+                        shortCodes.add(shortCode);
+                    }
+                }
+            }
+            case RECENT -> shortCodes.addAll(urlMappingRepository.findNewestShortCodes(PageRequest.of(0, count)));
+            case HOT -> hotLinkTracker.topK(hotLinkTracker.maxWindow(), Math.min(count, hotLinkTracker.capacity()))
+                    .forEach(link -> shortCodes.add(link.shortCode()));
+        }
+        return new ArrayList<>(shortCodes);
+    }
+
+    /**
+     * @return true if every batch ran before the deadline
+     */
+    private boolean runBatches(List<String> shortCodes, AtomicInteger warmed, long deadlineNanos) {
+        if (shortCodes.isEmpty()) {
+            return true;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "cache-warming-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        try {
+            for (int from = 0; from < shortCodes.size(); from += batchSize) {
+                List<String> batch = shortCodes.subList(from, Math.min(from + batchSize, shortCodes.size()));
+                executor.execute(() -> warmBatch(batch, warmed));
+            }
+            executor.shutdown();
+            return executor.awaitTermination(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            // Drops queued batches; batches already running finish their current round trip
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmBatch(List<String> shortCodes, AtomicInteger warmed) {
+        try {
+            Map<String, String> cached = redisCacheService.getCachedUrlMappings(shortCodes);
+            cached.forEach(localCacheService::put);
+
+            List<String> missing = shortCodes.stream().filter(shortCode -> !cached.containsKey(shortCode)).toList();
+            Map<String, String> entries = new HashMap<>();
+            if (!missing.isEmpty()) {
+                for (CacheEntryView entry : urlMappingRepository.findCacheEntries(missing)) {
+                    entries.put(entry.getShortCode(), entry.getLongUrl());
+                }
+                redisCacheService.cacheUrlMappings(entries);
+                entries.forEach(localCacheService::put);
+            }
+            warmed.addAndGet(cached.size() + entries.size());
+        } catch (Exception e) {
+            logger.error("Failed to warm batch of {} short codes: {}", shortCodes.size(), e.getMessage(), e);
+        }
+    }
+}
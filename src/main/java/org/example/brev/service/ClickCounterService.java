@@ -0,0 +1,245 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.entity.UrlClickStats;
+import org.example.brev.repository.UrlClickStatsBatchRepository;
+import org.example.brev.repository.UrlClickStatsBatchRepository.ClickDelta;
+import org.example.brev.repository.UrlClickStatsRepository;
+import org.example.brev.util.RetirableAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-link click counting.
+ *
+ * Redirects increment a striped {@link RetirableAdder} per short code, so the hot path
+ * takes no lock and does no I/O. Every few seconds the clicks accumulated since the previous
+ * flush are written to url_click_stats in one batched upsert. A failed flush keeps its
+ * clicks for the next attempt, and the counters are flushed once more on shutdown.
+ *
+ * A counter idle for a whole flush interval is retired and dropped from memory; a click
+ * racing with that is either part of the retired total, which moves to a fresh counter,
+ * or refused and recorded on the fresh counter itself.
+ */
+@Service
+public class ClickCounterService {
+
+    private static final Logger logger = LogManager.getLogger(ClickCounterService.class);
+
+    private final UrlClickStatsRepository urlClickStatsRepository;
+    private final UrlClickStatsBatchRepository urlClickStatsBatchRepository;
+    private final boolean enabled;
+    private final int flushBatchSize;
+
+    private final ConcurrentHashMap<String, ClickCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushedCounter;
+    private final Counter flushFailureCounter;
+
+    public ClickCounterService(UrlClickStatsRepository urlClickStatsRepository,
+                               UrlClickStatsBatchRepository urlClickStatsBatchRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.clicks.enabled:true}") boolean enabled,
+                               @Value("${app.clicks.flush-batch-size:1000}") int flushBatchSize) {
+        if (flushBatchSize < 1) {
+            throw new IllegalArgumentException("Click flush batch size must be positive: " + flushBatchSize);
+        }
+        this.urlClickStatsRepository = urlClickStatsRepository;
+        this.urlClickStatsBatchRepository = urlClickStatsBatchRepository;
+        this.enabled = enabled;
+        this.flushBatchSize = flushBatchSize;
+
+        this.flushedCounter = Counter.builder("brev.clicks.flushed")
+                .description("Clicks written to url_click_stats")
+                .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("brev.clicks.flush.failures")
+                .description("Click flushes that failed and were retried later")
+                .register(meterRegistry);
+        Gauge.builder("brev.clicks.tracked", counters, Map::size)
+                .description("Short codes with in-memory click counters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records one click on a short code
+     *
+     * @param shortCode The short code that was resolved
+     */
+    public void recordClick(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+
+        while (true) {
+            ClickCounter counter = counters.get(shortCode);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(shortCode, code -> new ClickCounter());
+            }
+            if (counter.clicks.increment()) {
+                return;
+            }
+            // Retired by the flush, which drops it from the map; the next lookup creates a fresh one
+            counters.remove(shortCode, counter);
+        }
+    }
+
+    /**
+     * Returns the stored click statistics plus clicks not yet flushed by this instance
+     *
+     * @param shortCode The short code to look up
+     * @return the click count and the time of the last flushed click, if any
+     */
+    public ClickStats getClickStats(String shortCode) {
+        Optional<UrlClickStats> stored = urlClickStatsRepository.findById(shortCode);
+        long clickCount = stored.map(UrlClickStats::getClickCount).orElse(0L) + pendingClicks(shortCode);
+        LocalDateTime lastClickedAt = stored.map(UrlClickStats::getLastClickedAt).orElse(null);
+        return new ClickStats(clickCount, lastClickedAt);
+    }
+
+    /**
+     * Click statistics for one short code
+     */
+    public record ClickStats(long clickCount, LocalDateTime lastClickedAt) {
+    }
+
+    /**
+     * Writes the clicks accumulated since the previous flush
+     */
+    @Scheduled(fixedDelayString = "${app.clicks.flush-interval-ms:5000}")
+    public void flush() {
+        if (!enabled || counters.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes outstanding clicks so a deploy does not lose them
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing click counters before shutdown - Tracked codes: {}", counters.size());
+        flush();
+    }
+
+    /**
+     * @return the number of clicks recorded but not yet written for a short code
+     */
+    long pendingClicks(String shortCode) {
+        ClickCounter counter = counters.get(shortCode);
+        return counter == null ? 0L : Math.max(0L, counter.clicks.sum() - counter.flushed);
+    }
+
+    private void flushPending() {
+        List<String> codes = new ArrayList<>(flushBatchSize);
+        List<ClickDelta> deltas = new ArrayList<>(flushBatchSize);
+        List<Long> totals = new ArrayList<>(flushBatchSize);
+        long flushedClicks = 0;
+
+        for (Map.Entry<String, ClickCounter> entry : counters.entrySet()) {
+            ClickCounter counter = entry.getValue();
+            long total = counter.clicks.sum();
+            long delta = total - counter.flushed;
+            if (delta == 0) {
+                retire(entry.getKey(), counter);
+                continue;
+            }
+
+            codes.add(entry.getKey());
+            deltas.add(new ClickDelta(entry.getKey(), delta));
+            totals.add(total);
+            if (deltas.size() == flushBatchSize) {
+                if (!writeBatch(codes, deltas, totals)) {
+                    return;
+                }
+                flushedClicks += sum(deltas);
+                codes.clear();
+                deltas.clear();
+                totals.clear();
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            if (!writeBatch(codes, deltas, totals)) {
+                return;
+            }
+            flushedClicks += sum(deltas);
+        }
+
+        if (flushedClicks > 0) {
+            logger.debug("Flushed {} clicks", flushedClicks);
+        }
+    }
+
+    /**
+     * Drops a counter idle since the previous flush. Clicks that got in before it was
+     * retired move to a fresh counter; later ones are refused and recorded there anyway.
+     */
+    private void retire(String shortCode, ClickCounter counter) {
+        long residual = counter.clicks.retire() - counter.flushed;
+        counter.flushed += residual;
+        counters.remove(shortCode, counter);
+        if (residual > 0) {
+            counters.computeIfAbsent(shortCode, code -> new ClickCounter()).clicks.add(residual);
+        }
+    }
+
+    private boolean writeBatch(List<String> codes, List<ClickDelta> deltas, List<Long> totals) {
+        try {
+            urlClickStatsBatchRepository.addClicks(deltas, LocalDateTime.now());
+        } catch (Exception e) {
+            flushFailureCounter.increment();
+            logger.error("Failed to flush {} click counters, retrying on the next flush: {}",
+                        deltas.size(), e.getMessage(), e);
+            return false;
+        }
+
+        // Only advance the watermark once the database has the clicks
+        for (int i = 0; i < codes.size(); i++) {
+            ClickCounter counter = counters.get(codes.get(i));
+            if (counter != null) {
+                counter.flushed = totals.get(i);
+            }
+        }
+        flushedCounter.increment(sum(deltas));
+        return true;
+    }
+
+    private static long sum(List<ClickDelta> deltas) {
+        long sum = 0;
+        for (ClickDelta delta : deltas) {
+            sum += delta.clicks();
+        }
+        return sum;
+    }
+
+    /**
+     * Cumulative clicks for one short code and how many of them have been written.
+     * {@code flushed} is only touched by the flushing thread under the flush lock.
+     */
+    private static final class ClickCounter {
+
+        private final RetirableAdder clicks = new RetirableAdder();
+        private volatile long flushed;
+    }
+}
@@ -0,0 +1,421 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.entity.UrlClickRollup.Granularity;
+import org.example.brev.repository.UrlClickRollupRepository;
+import org.example.brev.repository.UrlClickRollupRepository.RollupBucket;
+import org.example.brev.repository.UrlClickRollupRepository.RollupDelta;
+import org.example.brev.util.RetirableAdder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-bucketed click rollups per short code.
+ *
+ * Redirects increment a per-minute bucket in a small in-memory ring per active code; the
+ * hot path takes no lock and does no I/O. A scheduled compaction folds completed minutes
+ * into minute, hour and day rows of url_click_rollup in one transaction, and a daily
+ * downsampling pass drops minute and hour rows past their retention, leaving the coarser
+ * rollups. Range queries read only rollup rows, never raw clicks.
+ *
+ * Rings that went idle are retired before they are dropped, the same way as the counters in
+ * {@link ClickCounterService}: a click racing with that is either moved to a fresh ring with
+ * the rest of the residual, or refused and recorded on the fresh ring itself.
+ */
+@Service
+public class ClickRollupService {
+
+    private static final Logger logger = LogManager.getLogger(ClickRollupService.class);
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final UrlClickRollupRepository urlClickRollupRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int ringMinutes;
+    private final int minuteRetentionHours;
+    private final int hourRetentionDays;
+    private final int maxPoints;
+    private final int deleteChunkSize;
+
+    private final ConcurrentHashMap<String, MinuteRing> rings = new ConcurrentHashMap<>();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final Counter compactedCounter;
+    private final Counter compactionFailureCounter;
+    private final Counter droppedCounter;
+
+    @Autowired
+    public ClickRollupService(UrlClickRollupRepository urlClickRollupRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.clicks.rollup.enabled:true}") boolean enabled,
+                              @Value("${app.clicks.rollup.ring-minutes:15}") int ringMinutes,
+                              @Value("${app.clicks.rollup.minute-retention-hours:48}") int minuteRetentionHours,
+                              @Value("${app.clicks.rollup.hour-retention-days:90}") int hourRetentionDays,
+                              @Value("${app.clicks.rollup.max-points:10000}") int maxPoints,
+                              @Value("${app.cleanup.chunk-size:1000}") int deleteChunkSize) {
+        this(urlClickRollupRepository, meterRegistry, Clock.systemDefaultZone(), enabled, ringMinutes,
+             minuteRetentionHours, hourRetentionDays, maxPoints, deleteChunkSize);
+    }
+
+    ClickRollupService(UrlClickRollupRepository urlClickRollupRepository, MeterRegistry meterRegistry, Clock clock,
+                       boolean enabled, int ringMinutes, int minuteRetentionHours, int hourRetentionDays,
+                       int maxPoints, int deleteChunkSize) {
+        if (ringMinutes < 2) {
+            throw new IllegalArgumentException("Click rollup ring must hold at least 2 minutes: " + ringMinutes);
+        }
+        this.urlClickRollupRepository = urlClickRollupRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.ringMinutes = ringMinutes;
+        this.minuteRetentionHours = minuteRetentionHours;
+        this.hourRetentionDays = hourRetentionDays;
+        this.maxPoints = maxPoints;
+        this.deleteChunkSize = deleteChunkSize;
+
+        this.compactedCounter = Counter.builder("brev.clicks.rollup.compacted")
+                .description("Clicks folded into url_click_rollup")
+                .register(meterRegistry);
+        this.compactionFailureCounter = Counter.builder("brev.clicks.rollup.compaction.failures")
+                .description("Rollup compactions that failed and were retried later")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("brev.clicks.rollup.dropped")
+                .description("Clicks lost because their minute left the ring before it was compacted")
+                .register(meterRegistry);
+        Gauge.builder("brev.clicks.rollup.tracked", rings, Map::size)
+                .description("Short codes with an in-memory minute ring")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records one click on a short code in the current minute bucket
+     *
+     * @param shortCode The short code that was resolved
+     */
+    public void recordClick(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+
+        while (true) {
+            MinuteRing ring = rings.get(shortCode);
+            if (ring == null) {
+                ring = rings.computeIfAbsent(shortCode, code -> new MinuteRing(ringMinutes));
+            }
+            if (ring.add(currentMinute(), 1L)) {
+                return;
+            }
+            // Retired by the compaction, which drops it from the map; the next lookup creates a fresh one
+            rings.remove(shortCode, ring);
+        }
+    }
+
+    /**
+     * Returns clicks per bucket in [from, to) at the given granularity.
+     * Stored rollups are combined with minutes this instance has not compacted yet.
+     * Minute and hour series only reach back as far as their retention.
+     *
+     * @param shortCode The short code to report on
+     * @param granularity Bucket size
+     * @param from Inclusive start, truncated to the bucket containing it
+     * @param to Exclusive end
+     * @return buckets with at least one click, in ascending order
+     * @throws IllegalArgumentException if the range is empty or spans more than max-points buckets
+     */
+    public TimeSeries getTimeSeries(String shortCode, Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Time series range must have from before to");
+        }
+        LocalDateTime start = granularity.truncate(from);
+        if (granularity.getUnit().between(start, to) >= maxPoints) {
+            throw new IllegalArgumentException("Time series range exceeds " + maxPoints + " " + granularity
+                    + " buckets; use a coarser granularity");
+        }
+
+        TreeMap<LocalDateTime, Long> clicks = new TreeMap<>();
+        for (RollupBucket bucket : urlClickRollupRepository.findBuckets(shortCode, granularity, start, to)) {
+            clicks.merge(bucket.bucketStart(), bucket.clicks(), Long::sum);
+        }
+
+        MinuteRing ring = rings.get(shortCode);
+        if (ring != null) {
+            for (int i = 0; i < ring.slots.length(); i++) {
+                MinuteBucket bucket = ring.slots.get(i);
+                if (bucket == null || bucket == MinuteBucket.RETIRED) {
+                    continue;
+                }
+                long pending = bucket.clicks.sum() - bucket.compacted;
+                LocalDateTime minuteStart = toDateTime(bucket.minute);
+                if (pending > 0 && !minuteStart.isBefore(start) && minuteStart.isBefore(to)) {
+                    clicks.merge(granularity.truncate(minuteStart), pending, Long::sum);
+                }
+            }
+        }
+
+        List<TimeSeries.Point> points = new ArrayList<>(clicks.size());
+        long total = 0;
+        for (Map.Entry<LocalDateTime, Long> entry : clicks.entrySet()) {
+            points.add(new TimeSeries.Point(entry.getKey(), entry.getValue()));
+            total += entry.getValue();
+        }
+        return new TimeSeries(granularity, start, to, total, points);
+    }
+
+    /**
+     * Clicks per bucket for one short code
+     */
+    public record TimeSeries(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                             long totalClicks, List<Point> points) {
+
+        public record Point(LocalDateTime bucketStart, long clicks) {
+        }
+    }
+
+    /**
+     * Folds completed minutes into minute, hour and day rollups
+     *
+     * @return the number of clicks written
+     */
+    public long compact() {
+        return compact(false);
+    }
+
+    /**
+     * Deletes minute and hour rollups past their retention; day rollups are kept
+     *
+     * @return the number of rows deleted
+     */
+    public long downsample() {
+        if (!enabled) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        long deleted = deleteOlderThan(Granularity.MINUTE, now.minusHours(minuteRetentionHours));
+        deleted += deleteOlderThan(Granularity.HOUR, now.minusDays(hourRetentionDays));
+        return deleted;
+    }
+
+    /**
+     * Compacts every minute, including the current one, so a deploy does not lose clicks
+     */
+    @PreDestroy
+    public void compactOnShutdown() {
+        logger.info("Compacting click rollups before shutdown - Tracked codes: {}", rings.size());
+        compact(true);
+    }
+
+    long compact(boolean includeCurrentMinute) {
+        if (!enabled || rings.isEmpty()) {
+            return 0;
+        }
+
+        compactionLock.lock();
+        try {
+            return compactPending(includeCurrentMinute);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private long compactPending(boolean includeCurrentMinute) {
+        long currentMinute = currentMinute();
+        List<MinuteBucket> buckets = new ArrayList<>();
+        List<Long> totals = new ArrayList<>();
+        Map<RollupKey, Long> deltas = new LinkedHashMap<>();
+        long compactedClicks = 0;
+
+        for (Map.Entry<String, MinuteRing> entry : rings.entrySet()) {
+            MinuteRing ring = entry.getValue();
+            if (ring.isIdle(currentMinute)) {
+                removeIdle(entry.getKey(), ring);
+                continue;
+            }
+
+            for (int i = 0; i < ring.slots.length(); i++) {
+                MinuteBucket bucket = ring.slots.get(i);
+                if (bucket == null || (!includeCurrentMinute && bucket.minute >= currentMinute)) {
+                    continue;
+                }
+                long total = bucket.clicks.sum();
+                long delta = total - bucket.compacted;
+                if (delta == 0) {
+                    continue;
+                }
+
+                LocalDateTime minuteStart = toDateTime(bucket.minute);
+                for (Granularity granularity : Granularity.values()) {
+                    deltas.merge(new RollupKey(entry.getKey(), granularity, granularity.truncate(minuteStart)),
+                                 delta, Long::sum);
+                }
+                buckets.add(bucket);
+                totals.add(total);
+                compactedClicks += delta;
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        List<RollupDelta> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, clicks) -> rows.add(
+                new RollupDelta(key.shortCode(), key.granularity(), key.bucketStart(), clicks)));
+        try {
+            urlClickRollupRepository.addClicks(rows);
+        } catch (Exception e) {
+            compactionFailureCounter.increment();
+            logger.error("Failed to compact {} click rollup rows, retrying on the next compaction: {}",
+                        rows.size(), e.getMessage(), e);
+            return 0;
+        }
+
+        // Only advance the watermarks once the database has the clicks
+        for (int i = 0; i < buckets.size(); i++) {
+            buckets.get(i).compacted = totals.get(i);
+        }
+        compactedCounter.increment(compactedClicks);
+        logger.debug("Compacted {} clicks into {} rollup rows", compactedClicks, rows.size());
+        return compactedClicks;
+    }
+
+    private void removeIdle(String shortCode, MinuteRing ring) {
+        // Retired before removal: clicks that got in are moved below, later ones are refused and retried
+        Map<Long, Long> residualByMinute = new LinkedHashMap<>();
+        for (int i = 0; i < ring.slots.length(); i++) {
+            MinuteBucket bucket = ring.slots.getAndSet(i, MinuteBucket.RETIRED);
+            if (bucket == null) {
+                continue;
+            }
+            long residual = bucket.clicks.retire() - bucket.compacted;
+            if (residual > 0) {
+                residualByMinute.put(bucket.minute, residual);
+                bucket.compacted += residual;
+            }
+        }
+        rings.remove(shortCode, ring);
+
+        residualByMinute.forEach((minute, residual) ->
+                rings.computeIfAbsent(shortCode, code -> new MinuteRing(ringMinutes)).add(minute, residual));
+    }
+
+    private long deleteOlderThan(Granularity granularity, LocalDateTime cutoff) {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = urlClickRollupRepository.deleteOlderThan(granularity, cutoff, deleteChunkSize);
+            deleted += chunk;
+        } while (chunk == deleteChunkSize);
+
+        logger.info("Downsampled click rollups - Granularity: {}, Cutoff: {}, Deleted: {}",
+                   granularity, cutoff, deleted);
+        return deleted;
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), MILLIS_PER_MINUTE);
+    }
+
+    private LocalDateTime toDateTime(long minute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(minute * MILLIS_PER_MINUTE), clock.getZone());
+    }
+
+    private record RollupKey(String shortCode, Granularity granularity, LocalDateTime bucketStart) {
+    }
+
+    /**
+     * The last few minutes of clicks for one short code, one slot per minute.
+     * A slot is reused once its minute is ringMinutes old; clicks that were not compacted
+     * by then are counted as dropped. A retired ring holds the RETIRED bucket in every slot.
+     */
+    private final class MinuteRing {
+
+        private final AtomicReferenceArray<MinuteBucket> slots;
+
+        private MinuteRing(int minutes) {
+            this.slots = new AtomicReferenceArray<>(minutes);
+        }
+
+        /**
+         * @return false if the ring has been retired and the clicks were not recorded
+         */
+        private boolean add(long minute, long clicks) {
+            int index = (int) Math.floorMod(minute, (long) slots.length());
+            while (true) {
+                MinuteBucket bucket = slots.get(index);
+                if (bucket == MinuteBucket.RETIRED) {
+                    return false;
+                }
+                if (bucket != null && bucket.minute == minute) {
+                    return bucket.clicks.add(clicks);
+                }
+                if (bucket != null && bucket.minute > minute) {
+                    // A click older than the ring; its slot already holds a newer minute
+                    droppedCounter.increment(clicks);
+                    return true;
+                }
+
+                MinuteBucket fresh = new MinuteBucket(minute);
+                if (slots.compareAndSet(index, bucket, fresh)) {
+                    if (bucket != null) {
+                        long lost = bucket.clicks.sum() - bucket.compacted;
+                        if (lost > 0) {
+                            droppedCounter.increment(lost);
+                        }
+                    }
+                    return fresh.clicks.add(clicks);
+                }
+            }
+        }
+
+        /**
+         * @return true if every bucket is compacted and none belongs to the current minute
+         */
+        private boolean isIdle(long currentMinute) {
+            for (int i = 0; i < slots.length(); i++) {
+                MinuteBucket bucket = slots.get(i);
+                if (bucket != null && (bucket.minute >= currentMinute || bucket.clicks.sum() != bucket.compacted)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Cumulative clicks in one minute and how many of them have been compacted.
+     * {@code compacted} is only touched by the compacting thread under the compaction lock.
+     */
+    private static final class MinuteBucket {
+
+        /**
+         * Fills the slots of a retired ring
+         */
+        private static final MinuteBucket RETIRED = new MinuteBucket(Long.MAX_VALUE);
+
+        private final long minute;
+        private final RetirableAdder clicks = new RetirableAdder();
+        private volatile long compacted;
+
+        private MinuteBucket(long minute) {
+            this.minute = minute;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.brev.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives every mapping {@code app.cache.url-mapping.ttl}, however often it is requested.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.ttl-policy.strategy", havingValue = "fixed")
+public class FixedCacheTtlPolicy implements CacheTtlPolicy {
+
+    private final long ttlSeconds;
+
+    public FixedCacheTtlPolicy(@Value("${app.cache.url-mapping.ttl:3600}") long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public long ttlSeconds(String shortCode) {
+        return ttlSeconds;
+    }
+}
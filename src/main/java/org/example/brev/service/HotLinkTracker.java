@@ -0,0 +1,274 @@
+package org.example.brev.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.util.CountMinSketch;
+import org.example.brev.util.HashUtils;
+import org.example.brev.util.TopKHeap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Streaming heavy-hitters tracker for short codes.
+ *
+ * Time is cut into fixed slices (one minute by default) held in a ring; each slice has its own
+ * Count-Min Sketch and a min-heap of its top candidates. A redirect does a fixed amount of
+ * work: a handful of atomic increments in the current slice's sketch, and a heap update only
+ * when the code's estimate beats the heap minimum and the heap lock is free. Old slices are
+ * reused as the ring turns, so memory is fixed and counts age out after the ring span.
+ *
+ * A window query sums the sketch estimates of the candidates of every slice in the window.
+ * The result feeds the admin hot-links endpoint and cache warming. Single codes can also be
+ * estimated, for any code, which is how the popularity TTL policy sizes Redis TTLs.
+ */
+@Service
+public class HotLinkTracker {
+
+    private static final Logger logger = LogManager.getLogger(HotLinkTracker.class);
+
+    private final boolean enabled;
+    private final long sliceMillis;
+    private final int capacity;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Slice> slices;
+
+    @Autowired
+    public HotLinkTracker(@Value("${app.hot-links.enabled:true}") boolean enabled,
+                          @Value("${app.hot-links.slice-seconds:60}") long sliceSeconds,
+                          @Value("${app.hot-links.slices:60}") int sliceCount,
+                          @Value("${app.hot-links.capacity:100}") int capacity,
+                          @Value("${app.hot-links.sketch-width:2048}") int sketchWidth,
+                          @Value("${app.hot-links.sketch-depth:4}") int sketchDepth) {
+        this(enabled, sliceSeconds * 1000, sliceCount, capacity, sketchWidth, sketchDepth, System::currentTimeMillis);
+    }
+
+    HotLinkTracker(boolean enabled, long sliceMillis, int sliceCount, int capacity,
+                   int sketchWidth, int sketchDepth, LongSupplier clock) {
+        if (sliceMillis < 1 || sliceCount < 1) {
+            throw new IllegalArgumentException("Hot-link slices must be positive: " + sliceCount + " x "
+                    + sliceMillis + "ms");
+        }
+        this.enabled = enabled;
+        this.sliceMillis = sliceMillis;
+        this.capacity = capacity;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.clock = clock;
+        this.slices = new AtomicReferenceArray<>(sliceCount);
+
+        // Builds one slice up front so bad sizes fail at startup rather than on the first redirect
+        long sliceBytes = new Slice(0).sketch.memoryBytes();
+        logger.info("Hot-link tracker initialized - Enabled: {}, Slices: {} x {}ms, Capacity: {}, Max sketch memory: {} KB",
+                   enabled, sliceCount, sliceMillis, capacity, sliceCount * sliceBytes / 1024);
+    }
+
+    /**
+     * Counts one redirect of a short code
+     *
+     * @param shortCode The short code that was resolved
+     */
+    public void record(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        currentSlice().record(shortCode, HashUtils.hash64(shortCode));
+    }
+
+    /**
+     * Returns the most requested short codes over a recent window
+     *
+     * @param window How far back to look; rounded up to whole slices and capped at the ring span
+     * @param limit Maximum number of codes to return, at most the heap capacity
+     * @return codes with their estimated redirect counts, highest first
+     */
+    public List<HotLink> topK(Duration window, int limit) {
+        if (!enabled || limit < 1) {
+            return List.of();
+        }
+
+        long currentEpoch = Math.floorDiv(clock.getAsLong(), sliceMillis);
+        long windowSlices = Math.min(slices.length(),
+                Math.max(1, (window.toMillis() + sliceMillis - 1) / sliceMillis));
+
+        List<Slice> active = new ArrayList<>();
+        Set<String> candidates = new HashSet<>();
+        for (int i = 0; i < slices.length(); i++) {
+            Slice slice = slices.get(i);
+            if (slice != null && slice.epoch > currentEpoch - windowSlices && slice.epoch <= currentEpoch) {
+                active.add(slice);
+                candidates.addAll(slice.candidates());
+            }
+        }
+
+        List<HotLink> ranked = new ArrayList<>(candidates.size());
+        for (String shortCode : candidates) {
+            long hash = HashUtils.hash64(shortCode);
+            long estimate = 0;
+            for (Slice slice : active) {
+                estimate += slice.sketch.estimate(hash);
+            }
+            ranked.add(new HotLink(shortCode, estimate));
+        }
+        ranked.sort(Comparator.comparingLong(HotLink::estimatedRequests).reversed());
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+
+    /**
+     * Estimates the redirects of one short code over a recent window.
+     * Uses the debiased sketch estimate, so cold codes read close to zero even under heavy traffic.
+     *
+     * @param shortCode Any short code, tracked in the top-K or not
+     * @param window How far back to look; rounded up to whole slices and capped at the ring span
+     * @return the estimated number of redirects, zero when tracking is disabled
+     */
+    public long estimate(String shortCode, Duration window) {
+        if (!enabled) {
+            return 0;
+        }
+
+        long currentEpoch = Math.floorDiv(clock.getAsLong(), sliceMillis);
+        long windowSlices = Math.min(slices.length(),
+                Math.max(1, (window.toMillis() + sliceMillis - 1) / sliceMillis));
+        long hash = HashUtils.hash64(shortCode);
+        long estimate = 0;
+        for (int i = 0; i < slices.length(); i++) {
+            Slice slice = slices.get(i);
+            if (slice != null && slice.epoch > currentEpoch - windowSlices && slice.epoch <= currentEpoch) {
+                estimate += slice.sketch.estimateDebiased(hash);
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * A short code and its estimated number of redirects in the queried window.
+     * Estimates can overcount slightly but never undercount.
+     */
+    public record HotLink(String shortCode, long estimatedRequests) {
+    }
+
+    /**
+     * @return the longest window the ring can answer
+     */
+    public Duration maxWindow() {
+        return Duration.ofMillis(sliceMillis * slices.length());
+    }
+
+    /**
+     * @return false if redirects are not being counted, so every estimate is zero
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the largest useful limit for {@link #topK(Duration, int)}
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Parses a window such as 30s, 5m, 1h or an ISO-8601 duration (PT5M)
+     *
+     * @throws IllegalArgumentException if the window is not a positive duration
+     */
+    public static Duration parseWindow(String window) {
+        if (window == null || window.isBlank()) {
+            throw new IllegalArgumentException("Window cannot be empty");
+        }
+        String value = window.trim().toLowerCase(Locale.ROOT);
+        Duration duration;
+        try {
+            if (value.startsWith("pt")) {
+                duration = Duration.parse(value.toUpperCase(Locale.ROOT));
+            } else {
+                long amount = Long.parseLong(value.substring(0, value.length() - 1));
+                duration = switch (value.charAt(value.length() - 1)) {
+                    case 's' -> Duration.ofSeconds(amount);
+                    case 'm' -> Duration.ofMinutes(amount);
+                    case 'h' -> Duration.ofHours(amount);
+                    default -> throw new IllegalArgumentException("Unsupported window unit: " + window);
+                };
+            }
+        } catch (NumberFormatException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid window: " + window + " (expected e.g. 30s, 5m or 1h)");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        return duration;
+    }
+
+    private Slice currentSlice() {
+        long epoch = Math.floorDiv(clock.getAsLong(), sliceMillis);
+        int index = (int) Math.floorMod(epoch, (long) slices.length());
+        while (true) {
+            Slice slice = slices.get(index);
+            // A thread that read the clock just before a rotation counts into the newer slice
+            if (slice != null && slice.epoch >= epoch) {
+                return slice;
+            }
+            Slice fresh = new Slice(epoch);
+            if (slices.compareAndSet(index, slice, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * Counts for one time slice. The heap is only touched by codes whose estimate beats its
+     * minimum, and never waited for: a code skipped under contention is re-offered on its next hit.
+     */
+    private final class Slice {
+
+        private final long epoch;
+        private final CountMinSketch sketch;
+        private final TopKHeap heap;
+        private final ReentrantLock heapLock = new ReentrantLock();
+        private volatile long admissionThreshold;
+
+        private Slice(long epoch) {
+            this.epoch = epoch;
+            this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+            this.heap = new TopKHeap(capacity);
+        }
+
+        private void record(String shortCode, long hash) {
+            long estimate = sketch.increment(hash);
+            if (estimate <= admissionThreshold || !heapLock.tryLock()) {
+                return;
+            }
+            try {
+                heap.offer(shortCode, estimate);
+                admissionThreshold = heap.admissionThreshold();
+            } finally {
+                heapLock.unlock();
+            }
+        }
+
+        private List<String> candidates() {
+            heapLock.lock();
+            try {
+                return heap.keys();
+            } finally {
+                heapLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.brev.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.service.RedisCacheService.CachedUrlMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process (L1) cache for URL mappings, checked before Redis on the redirect path.
+ * Bounded by an approximate size in bytes and backed by Caffeine's W-TinyLFU policy,
+ * so that one-off lookups cannot push frequently used links out of the cache.
+ *
+ * An entry read from Redis expires no later than its Redis key, and {@link #getWithTtl} reports
+ * how long an entry has left, so a hot link served from here is still refreshed before it
+ * expires (see {@link UrlService#shouldRefreshEarly}).
+ */
+@Service
+public class LocalCacheService {
+
+    private static final Logger logger = LogManager.getLogger(LocalCacheService.class);
+
+    static final String CACHE_NAME = "url-mapping";
+    static final String TIER = "local";
+
+    /**
+     * Approximate fixed cost of one entry (cache node, two String headers and their arrays)
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    /**
+     * A cached long URL and the ticker time at which it expires
+     */
+    private record Entry(String longUrl, long expiresAtNanos) {
+    }
+
+    private final Cache<String, Entry> cache;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Ticker ticker;
+
+    @Autowired
+    public LocalCacheService(@Value("${app.cache.local.enabled:true}") boolean enabled,
+                             @Value("${app.cache.local.max-size-bytes:67108864}") long maxSizeBytes,
+                             @Value("${app.cache.local.ttl:${app.cache.url-mapping.ttl:3600}}") long localTtl,
+                             @Value("${app.cache.url-mapping.ttl:3600}") long urlMappingTtl,
+                             MeterRegistry meterRegistry) {
+        this(enabled, maxSizeBytes, localTtl, urlMappingTtl, meterRegistry, Ticker.systemTicker());
+    }
+
+    LocalCacheService(boolean enabled, long maxSizeBytes, long localTtl, long urlMappingTtl,
+                      MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = enabled;
+        this.ticker = ticker;
+
+        // Never keep an entry locally for longer than Redis would
+        long effectiveTtl = Math.min(localTtl, urlMappingTtl);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(effectiveTtl);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .weigher((String shortCode, Entry entry) -> weigh(shortCode, entry.longUrl()))
+                .expireAfter(Expiry.writing((String shortCode, Entry entry) ->
+                        Duration.ofNanos(Math.max(0L, entry.expiresAtNanos() - ticker.read()))))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, "tier", TIER);
+
+        logger.info("Local URL mapping cache {} - MaxSize: {} bytes, TTL: {}s",
+                   enabled ? "enabled" : "disabled", maxSizeBytes, effectiveTtl);
+    }
+
+    /**
+     * Retrieve a URL mapping from the local cache
+     *
+     * @param shortCode The short code key
+     * @return The cached long URL, or null if not present or the cache is disabled
+     */
+    public String get(String shortCode) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(shortCode);
+        return entry != null ? entry.longUrl() : null;
+    }
+
+    /**
+     * Retrieve a URL mapping from the local cache with the time its entry has left
+     *
+     * @param shortCode The short code key
+     * @return The cached long URL and remaining lifetime, or null if not present or the cache is disabled
+     */
+    public CachedUrlMapping getWithTtl(String shortCode) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(shortCode);
+        if (entry == null) {
+            return null;
+        }
+        long remainingNanos = Math.max(0L, entry.expiresAtNanos() - ticker.read());
+        return new CachedUrlMapping(entry.longUrl(), TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+    }
+
+    /**
+     * Store a URL mapping in the local cache
+     *
+     * @param shortCode The short code key
+     * @param longUrl The long URL value
+     */
+    public void put(String shortCode, String longUrl) {
+        if (enabled) {
+            cache.put(shortCode, new Entry(longUrl, ticker.read() + ttlNanos));
+        }
+    }
+
+    /**
+     * Store a URL mapping read from Redis, expiring it no later than its Redis key
+     *
+     * @param shortCode The short code key
+     * @param longUrl The long URL value
+     * @param redisTtlMillis Time the Redis key has left; negative if it has no expiry
+     */
+    public void put(String shortCode, String longUrl, long redisTtlMillis) {
+        if (enabled) {
+            long lifetimeNanos = redisTtlMillis < 0
+                    ? ttlNanos
+                    : Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(redisTtlMillis));
+            cache.put(shortCode, new Entry(longUrl, ticker.read() + lifetimeNanos));
+        }
+    }
+
+    /**
+     * Remove a URL mapping from the local cache
+     *
+     * @param shortCode The short code key to remove
+     */
+    public void invalidate(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    /**
+     * Remove several URL mappings from the local cache
+     *
+     * @param shortCodes The short code keys to remove
+     */
+    public void invalidateAll(Collection<String> shortCodes) {
+        cache.invalidateAll(shortCodes);
+    }
+
+    /**
+     * @return the approximate number of entries currently held
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Approximate heap footprint of an entry, assuming Latin-1 compact strings (URLs are ASCII)
+     */
+    private static int weigh(String shortCode, String longUrl) {
+        return ENTRY_OVERHEAD_BYTES + shortCode.length() + longUrl.length();
+    }
+}
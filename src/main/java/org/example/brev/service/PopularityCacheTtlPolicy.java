@@ -0,0 +1,79 @@
+package org.example.brev.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sizes each TTL from the code's recent redirect count, as estimated by the {@link HotLinkTracker}.
+ *
+ * A code requested at least {@code hot-requests} times in the window keeps the maximum TTL. A code
+ * with no recent requests, such as a new link or one clicked once a year, gets the minimum. Codes
+ * in between, the long tail, are spread between the two on a log scale of their request count.
+ * Under a Zipf workload this keeps roughly the hit rate of a fixed TTL while the
+ * tail, which is most of the keys, spends far less time in Redis.
+ *
+ * Falls back to {@code app.cache.url-mapping.ttl} when hot-link tracking is disabled, since every
+ * code would otherwise look cold.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.ttl-policy.strategy", havingValue = "popularity", matchIfMissing = true)
+public class PopularityCacheTtlPolicy implements CacheTtlPolicy {
+
+    private static final Logger logger = LogManager.getLogger(PopularityCacheTtlPolicy.class);
+
+    private final HotLinkTracker hotLinkTracker;
+    private final long fallbackTtlSeconds;
+    private final long minTtlSeconds;
+    private final long maxTtlSeconds;
+    private final long hotRequests;
+    private final Duration window;
+
+    public PopularityCacheTtlPolicy(HotLinkTracker hotLinkTracker,
+                                    @Value("${app.cache.url-mapping.ttl:3600}") long fallbackTtlSeconds,
+                                    @Value("${app.cache.ttl-policy.min-ttl:300}") long minTtlSeconds,
+                                    @Value("${app.cache.ttl-policy.max-ttl:86400}") long maxTtlSeconds,
+                                    @Value("${app.cache.ttl-policy.hot-requests:60}") long hotRequests,
+                                    @Value("${app.cache.ttl-policy.window:1h}") Duration window) {
+        if (minTtlSeconds < 1 || maxTtlSeconds < minTtlSeconds || hotRequests < 1) {
+            throw new IllegalArgumentException("TTL policy needs 1 <= min-ttl <= max-ttl and hot-requests >= 1: "
+                    + minTtlSeconds + ", " + maxTtlSeconds + ", " + hotRequests);
+        }
+        this.hotLinkTracker = hotLinkTracker;
+        this.fallbackTtlSeconds = fallbackTtlSeconds;
+        this.minTtlSeconds = minTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.hotRequests = hotRequests;
+        this.window = window;
+
+        logger.info("Popularity TTL policy initialized - TTL: {}s to {}s, Hot at: {} requests per {}s",
+                   minTtlSeconds, maxTtlSeconds, hotRequests, window.toSeconds());
+    }
+
+    @Override
+    public long ttlSeconds(String shortCode) {
+        if (!hotLinkTracker.isEnabled()) {
+            return fallbackTtlSeconds;
+        }
+        return ttlForRequests(hotLinkTracker.estimate(shortCode, window));
+    }
+
+    /**
+     * @param requests Estimated redirects in the window
+     * @return min-ttl at zero, max-ttl from hot-requests up, log-interpolated in between
+     */
+    public long ttlForRequests(long requests) {
+        if (requests <= 0) {
+            return minTtlSeconds;
+        }
+        if (requests >= hotRequests) {
+            return maxTtlSeconds;
+        }
+        double position = Math.log1p(requests) / Math.log1p(hotRequests);
+        return Math.round(minTtlSeconds * Math.pow((double) maxTtlSeconds / minTtlSeconds, position));
+    }
+}
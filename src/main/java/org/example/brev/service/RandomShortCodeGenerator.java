@@ -0,0 +1,47 @@
+package org.example.brev.service;
+
+import org.example.brev.util.Base62;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+/**
+ * Draws six random characters from a shared SecureRandom.
+ * Codes may collide with existing ones, so every code has to be probed against the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.shortcode.strategy", havingValue = "random")
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final String CHARACTERS = Base62.ALPHABET;
+    private static final int SHORT_CODE_LENGTH = 6;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Override
+    public String generate() {
+        return generateRandomShortCode();
+    }
+
+    @Override
+    public boolean isCollisionFree() {
+        return false;
+    }
+
+    /**
+     * Generates a random short code
+     *
+     * @return A random alphanumeric short code
+     */
+    public String generateRandomShortCode() {
+        StringBuilder shortCode = new StringBuilder(SHORT_CODE_LENGTH);
+
+        for (int i = 0; i < SHORT_CODE_LENGTH; i++) {
+            int randomIndex = secureRandom.nextInt(CHARACTERS.length());
+            shortCode.append(CHARACTERS.charAt(randomIndex));
+        }
+
+        return shortCode.toString();
+    }
+}
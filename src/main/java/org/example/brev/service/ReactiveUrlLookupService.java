@@ -0,0 +1,307 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.entity.UrlMapping;
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.service.UrlServiceMetrics.LookupStage;
+import org.example.brev.service.UrlServiceMetrics.Result;
+import org.example.brev.service.UrlServiceMetrics.Source;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of {@link UrlService#getLongUrl(String)} for the reactive redirect path.
+ *
+ * Same lookup order: cuckoo filter, local cache, Redis, database. Redis is read and written
+ * through the reactive Lettuce client, so a waiting request holds no thread. The database
+ * lookup is the only blocking step and runs on a bounded elastic pool sized to the JDBC pool,
+ * with a bounded task queue, so a database slowdown cannot spawn unbounded threads. Lookups that
+ * reach Redis are bounded by app.reactive-redirect.timeout; the servlet async timeout is left to
+ * the streaming export.
+ *
+ * As in UrlService, concurrent misses on one short code share a single database load, and
+ * lookups are timed under the same brev.url.lookup meters (see {@link UrlServiceMetrics}).
+ */
+@Service
+@Profile("reactive-redirect")
+public class ReactiveUrlLookupService {
+
+    private static final Logger logger = LogManager.getLogger(ReactiveUrlLookupService.class);
+    private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
+    private static final String CACHE_NAME = "url-mapping";
+    private static final String TIER = "redis";
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final UrlMappingRepository urlMappingRepository;
+    private final LocalCacheService localCacheService;
+    private final ShortCodeFilterService shortCodeFilterService;
+    private final CacheTtlPolicy ttlPolicy;
+    private final CacheAdmissionFilter admissionFilter;
+    private final double ttlJitter;
+    private final Duration timeout;
+    private final Scheduler databaseScheduler;
+    private final boolean coalescingEnabled;
+    private final UrlServiceMetrics metrics;
+
+    /**
+     * Database loads in progress, by short code; each is cached so that every caller shares its
+     * one query, and leaves the map when it terminates
+     */
+    private final ConcurrentMap<String, Mono<String>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+
+    public ReactiveUrlLookupService(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                    UrlMappingRepository urlMappingRepository,
+                                    LocalCacheService localCacheService,
+                                    ShortCodeFilterService shortCodeFilterService,
+                                    CacheTtlPolicy ttlPolicy,
+                                    CacheAdmissionFilter admissionFilter,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.cache.url-mapping.ttl-jitter:0.1}") double ttlJitter,
+                                    @Value("${app.reactive-redirect.db-threads:10}") int dbThreads,
+                                    @Value("${app.reactive-redirect.db-queue:10000}") int dbQueue,
+                                    @Value("${app.reactive-redirect.timeout:5s}") Duration timeout,
+                                    @Value("${app.lookup.coalescing.enabled:true}") boolean coalescingEnabled) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.urlMappingRepository = urlMappingRepository;
+        this.localCacheService = localCacheService;
+        this.shortCodeFilterService = shortCodeFilterService;
+        this.ttlPolicy = ttlPolicy;
+        this.admissionFilter = admissionFilter;
+        this.ttlJitter = ttlJitter;
+        this.timeout = timeout;
+        this.databaseScheduler = Schedulers.newBoundedElastic(dbThreads, dbQueue, "reactive-redirect-db");
+        this.coalescingEnabled = coalescingEnabled;
+        this.metrics = new UrlServiceMetrics(meterRegistry);
+
+        // Registered under the same names and tags as RedisCacheService, so both paths report into one meter
+        this.hitCounter = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "tier", TIER, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "tier", TIER, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value, or null.")
+                .register(meterRegistry);
+        this.putCounter = Counter.builder("cache.puts")
+                .tags("cache", CACHE_NAME, "tier", TIER)
+                .description("The number of entries added to the cache")
+                .register(meterRegistry);
+
+        logger.info("Reactive redirect lookup initialized - DB threads: {}, DB queue: {}, Timeout: {} ms, Coalescing: {}",
+                   dbThreads, dbQueue, timeout.toMillis(), coalescingEnabled);
+    }
+
+    /**
+     * Resolves a short code to its long URL without blocking the calling thread
+     *
+     * @param shortCode The short code to look up
+     * @return Mono with the long URL; errors with IllegalArgumentException for an empty code,
+     *         ShortCodeNotFoundException for an unknown one and TimeoutException if Redis and the
+     *         database take longer than the timeout
+     */
+    public Mono<String> getLongUrl(String shortCode) {
+        if (shortCode == null || shortCode.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Short code cannot be null or empty"));
+        }
+        String trimmedShortCode = shortCode.trim();
+
+        return Mono.defer(() -> {
+            Timer.Sample lookupSample = metrics.start();
+            // The step that answered, or failed, the lookup
+            AtomicReference<Source> source = new AtomicReference<>(Source.FILTER);
+            return lookup(trimmedShortCode, source)
+                    .doOnSuccess(longUrl -> metrics.lookup(lookupSample, source.get(), Result.HIT))
+                    .doOnError(e -> metrics.lookup(lookupSample, source.get(),
+                            e instanceof ShortCodeNotFoundException ? Result.NOT_FOUND : Result.ERROR));
+        });
+    }
+
+    private Mono<String> lookup(String shortCode, AtomicReference<Source> source) {
+        // Step 0: Reject codes that were never issued before doing any I/O
+        if (shortCodeFilterService.isDefinitelyAbsent(shortCode)) {
+            return withTimeout(resolveFilteredShortCode(shortCode), shortCode);
+        }
+
+        // Step 1: Check the in-process cache
+        source.set(Source.LOCAL);
+        Timer.Sample stageSample = metrics.start();
+        String localLongUrl = localCacheService.get(shortCode);
+        metrics.lookupStage(stageSample, LookupStage.LOCAL_CACHE, localLongUrl != null ? Result.HIT : Result.MISS);
+        if (localLongUrl != null) {
+            auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}", shortCode, localLongUrl);
+            return Mono.just(localLongUrl);
+        }
+
+        // Step 2: Redis, then Step 3: database on a miss
+        source.set(Source.REDIS);
+        Mono<String> cached = Mono.defer(() -> {
+            Timer.Sample redisSample = metrics.start();
+            return getCached(shortCode)
+                    .doOnNext(longUrl -> metrics.lookupStage(redisSample, LookupStage.REDIS_GET, Result.HIT))
+                    .switchIfEmpty(Mono.fromRunnable(
+                            () -> metrics.lookupStage(redisSample, LookupStage.REDIS_GET, Result.MISS)));
+        });
+        return withTimeout(cached
+                .doOnNext(longUrl -> {
+                    localCacheService.put(shortCode, longUrl);
+                    auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}", shortCode, longUrl);
+                })
+                .switchIfEmpty(Mono.defer(() -> coalescedLoad(shortCode, source))), shortCode);
+    }
+
+    /**
+     * Fails the lookup once the timeout passes; a database query already running finishes on its
+     * thread, but the request is answered and no longer waits for it
+     */
+    private Mono<String> withTimeout(Mono<String> lookup, String shortCode) {
+        return lookup.timeout(timeout)
+                .doOnError(TimeoutException.class, e -> logger.warn("Lookup for short code {} timed out after {} ms",
+                        shortCode, timeout.toMillis()));
+    }
+
+    private Mono<String> resolveFilteredShortCode(String shortCode) {
+        Mono<String> notFound = Mono.defer(() -> {
+            logger.debug("Short code rejected by filter: {}", shortCode);
+            auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", shortCode);
+            return Mono.error(new ShortCodeNotFoundException(shortCode));
+        });
+        if (!shortCodeFilterService.shouldVerifyNegativesInCache()) {
+            return notFound;
+        }
+        return getCached(shortCode)
+                .doOnNext(longUrl -> {
+                    shortCodeFilterService.add(shortCode);
+                    localCacheService.put(shortCode, longUrl);
+                    auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}", shortCode, longUrl);
+                })
+                .switchIfEmpty(notFound);
+    }
+
+    /**
+     * Joins the database load of the short code already in progress on this node, or starts one.
+     * Waiters hold no thread, so unlike UrlService they wait for the load up to the lookup timeout
+     * rather than app.lookup.coalescing.timeout-ms; a waiter that times out leaves the load running.
+     */
+    private Mono<String> coalescedLoad(String shortCode, AtomicReference<Source> source) {
+        source.set(Source.DATABASE);
+        if (!coalescingEnabled) {
+            return loadFromDatabase(shortCode);
+        }
+
+        Mono<String> inFlight = inFlightLoads.get(shortCode);
+        if (inFlight == null) {
+            AtomicReference<Mono<String>> self = new AtomicReference<>();
+            Mono<String> load = loadFromDatabase(shortCode)
+                    .doFinally(signal -> inFlightLoads.remove(shortCode, self.get()))
+                    .cache();
+            self.set(load);
+            inFlight = inFlightLoads.putIfAbsent(shortCode, load);
+            if (inFlight == null) {
+                return load;
+            }
+        }
+
+        source.set(Source.COALESCED);
+        metrics.coalescedWaiter();
+        return inFlight
+                .doOnNext(longUrl -> auditLogger.info("URL_LOOKUP_SUCCESS_DB - ShortCode: {}, URL: {}", shortCode, longUrl))
+                .onErrorMap(ShortCodeNotFoundException.class, e -> {
+                    auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", shortCode);
+                    return new ShortCodeNotFoundException(shortCode);
+                });
+    }
+
+    /**
+     * Steps 3 and 4 of a lookup: reads the mapping on the database pool and fills both cache tiers
+     */
+    private Mono<String> loadFromDatabase(String shortCode) {
+        return Mono.fromCallable(() -> {
+                    Timer.Sample stageSample = metrics.start();
+                    Optional<UrlMapping> urlMapping;
+                    try {
+                        urlMapping = urlMappingRepository.findByShortCode(shortCode);
+                    } catch (RuntimeException e) {
+                        metrics.lookupStage(stageSample, LookupStage.DB_LOOKUP, Result.ERROR);
+                        throw e;
+                    }
+                    metrics.lookupStage(stageSample, LookupStage.DB_LOOKUP,
+                            urlMapping.isPresent() ? Result.HIT : Result.NOT_FOUND);
+                    return urlMapping;
+                })
+                .subscribeOn(databaseScheduler)
+                .flatMap(urlMapping -> urlMapping.map(UrlMapping::getLongUrl).map(Mono::just)
+                        .orElseGet(() -> {
+                            logger.warn("Short code not found: {}", shortCode);
+                            auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", shortCode);
+                            return Mono.error(new ShortCodeNotFoundException(shortCode));
+                        }))
+                .flatMap(longUrl -> {
+                    Timer.Sample stageSample = metrics.start();
+                    localCacheService.put(shortCode, longUrl);
+                    auditLogger.info("URL_LOOKUP_SUCCESS_DB - ShortCode: {}, URL: {}", shortCode, longUrl);
+                    Mono<String> fill = admissionFilter.admit(shortCode)
+                            ? cache(shortCode, longUrl).thenReturn(longUrl)
+                            : Mono.just(longUrl);
+                    return fill.doOnSuccess(
+                            filled -> metrics.lookupStage(stageSample, LookupStage.CACHE_FILL, Result.OK));
+                });
+    }
+
+    /**
+     * Redis GET; a Redis error counts as a miss so the lookup falls through to the database
+     */
+    private Mono<String> getCached(String shortCode) {
+        return reactiveRedisTemplate.opsForValue().get(RedisCacheService.buildUrlMappingKey(shortCode))
+                .doOnNext(longUrl -> hitCounter.increment())
+                .switchIfEmpty(Mono.fromRunnable(missCounter::increment))
+                .onErrorResume(e -> {
+                    missCounter.increment();
+                    logger.error("Failed to retrieve cached URL mapping for short code: {}, error: {}",
+                                shortCode, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Redis SET with the TTL from the {@link CacheTtlPolicy}, as in {@link RedisCacheService#cacheUrlMapping};
+     * failures are logged and never fail the redirect
+     */
+    private Mono<Void> cache(String shortCode, String longUrl) {
+        return reactiveRedisTemplate.opsForValue()
+                .set(RedisCacheService.buildUrlMappingKey(shortCode), longUrl,
+                        Duration.ofSeconds(RedisCacheService.jitteredTtlSeconds(ttlPolicy.ttlSeconds(shortCode), ttlJitter)))
+                .doOnNext(stored -> putCounter.increment())
+                .onErrorResume(e -> {
+                    logger.error("Failed to cache URL mapping for short code: {}, error: {}", shortCode, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        databaseScheduler.dispose();
+    }
+}
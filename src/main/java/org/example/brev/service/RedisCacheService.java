@@ -1,33 +1,95 @@
 package org.example.brev.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Service for handling Redis cache operations for URL mappings
+ *
+ * Every write, single (cache misses, creations) or batched (cache warming, batch creations), takes
+ * its TTL from the {@link CacheTtlPolicy}, so hot codes stay longer than cold ones.
+ *
+ * Every write takes up to {@code app.cache.url-mapping.ttl-jitter} off its TTL, so keys
+ * written together (a cache warming run, a burst of creations) do not all expire in the same second.
  */
 @Service
 public class RedisCacheService {
 
     private static final Logger logger = LogManager.getLogger(RedisCacheService.class);
     private static final String URL_MAPPING_KEY_PREFIX = "url:";
+    private static final String CACHE_NAME = "url-mapping";
+    private static final String TIER = "redis";
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final long urlMappingTtl;
+    private final CacheTtlPolicy ttlPolicy;
+    private final CacheAdmissionFilter admissionFilter;
+    private final double ttlJitter;
+    private final int batchSize;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+    private final Counter evictionCounter;
 
     public RedisCacheService(RedisTemplate<String, String> redisTemplate,
-                           @Value("${app.cache.url-mapping.ttl:3600}") long urlMappingTtl) {
+                           CacheTtlPolicy ttlPolicy,
+                           CacheAdmissionFilter admissionFilter,
+                           @Value("${app.cache.url-mapping.ttl-jitter:0.1}") double ttlJitter,
+                           @Value("${app.cache.redis.batch-size:500}") int batchSize,
+                           MeterRegistry meterRegistry) {
+        if (ttlJitter < 0.0 || ttlJitter >= 1.0) {
+            throw new IllegalArgumentException("TTL jitter must be in [0, 1): " + ttlJitter);
+        }
         this.redisTemplate = redisTemplate;
-        this.urlMappingTtl = urlMappingTtl;
+        this.ttlPolicy = ttlPolicy;
+        this.admissionFilter = admissionFilter;
+        this.ttlJitter = ttlJitter;
+        this.batchSize = batchSize;
+
+        // Same meter names and tags as the local tier so both can be compared side by side
+        this.hitCounter = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "tier", TIER, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "tier", TIER, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value, or null.")
+                .register(meterRegistry);
+        this.putCounter = Counter.builder("cache.puts")
+                .tags("cache", CACHE_NAME, "tier", TIER)
+                .description("The number of entries added to the cache")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("cache.evictions")
+                .tags("cache", CACHE_NAME, "tier", TIER)
+                .description("The number of entries explicitly removed from the cache")
+                .register(meterRegistry);
     }
 
     /**
-     * Cache a URL mapping with TTL
+     * A cached long URL and how long its key has left
+     *
+     * @param ttlMillis Remaining TTL in milliseconds, or a negative value if the key has none
+     */
+    public record CachedUrlMapping(String longUrl, long ttlMillis) {
+    }
+
+    /**
+     * Cache a URL mapping with the TTL chosen by the policy
      *
      * @param shortCode The short code key
      * @param longUrl The long URL value
@@ -35,15 +97,110 @@ public class RedisCacheService {
     public void cacheUrlMapping(String shortCode, String longUrl) {
         try {
             String key = buildUrlMappingKey(shortCode);
-            redisTemplate.opsForValue().set(key, longUrl, urlMappingTtl, TimeUnit.SECONDS);
+            long ttl = jitteredTtlSeconds(ttlPolicy.ttlSeconds(shortCode), ttlJitter);
+            redisTemplate.opsForValue().set(key, longUrl, ttl, TimeUnit.SECONDS);
+            putCounter.increment();
             logger.debug("Cached URL mapping - ShortCode: {}, LongUrl: {}, TTL: {}s",
-                        shortCode, longUrl, urlMappingTtl);
+                        shortCode, longUrl, ttl);
         } catch (Exception e) {
             logger.error("Failed to cache URL mapping for short code: {}, error: {}",
                         shortCode, e.getMessage(), e);
         }
     }
 
+    /**
+     * Cache a URL mapping loaded on a cache miss, if the admission filter lets it in
+     * First misses are skipped, so one-off clicks cannot push hot entries out of Redis
+     *
+     * @param shortCode The short code key
+     * @param longUrl The long URL value
+     * @return true if the mapping was written
+     */
+    public boolean cacheUrlMappingOnMiss(String shortCode, String longUrl) {
+        if (!admissionFilter.admit(shortCode)) {
+            logger.debug("First miss in the admission window, not caching short code: {}", shortCode);
+            return false;
+        }
+        cacheUrlMapping(shortCode, longUrl);
+        return true;
+    }
+
+    /**
+     * Cache many URL mappings, each with the TTL chosen by the policy, one pipelined round trip per batch
+     * MSET cannot carry a TTL, so each batch is a pipeline of SET ... EX commands
+     *
+     * @param mappings Short code to long URL
+     */
+    public void cacheUrlMappings(Map<String, String> mappings) {
+        if (mappings.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, String>> entries = new ArrayList<>(mappings.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<String, String>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            // Chosen before the pipeline opens, as commands queued inside it return no results
+            long[] ttls = new long[batch.size()];
+            for (int i = 0; i < ttls.length; i++) {
+                ttls[i] = jitteredTtlSeconds(ttlPolicy.ttlSeconds(batch.get(i).getKey()), ttlJitter);
+            }
+            try {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                        for (int i = 0; i < ttls.length; i++) {
+                            Map.Entry<String, String> entry = batch.get(i);
+                            stringOperations.opsForValue().set(buildUrlMappingKey(entry.getKey()), entry.getValue(),
+                                    ttls[i], TimeUnit.SECONDS);
+                        }
+                        return null;
+                    }
+                });
+                putCounter.increment(batch.size());
+            } catch (Exception e) {
+                logger.error("Failed to cache batch of {} URL mappings, error: {}", batch.size(), e.getMessage(), e);
+            }
+        }
+        logger.debug("Cached {} URL mappings in batches of {}", mappings.size(), batchSize);
+    }
+
+    /**
+     * Retrieve many URL mappings from cache, one MGET per batch
+     *
+     * @param shortCodes The short code keys
+     * @return Short code to long URL for the codes found; missing codes and failed batches are absent
+     */
+    public Map<String, String> getCachedUrlMappings(Collection<String> shortCodes) {
+        Map<String, String> found = new HashMap<>();
+        List<String> codes = new ArrayList<>(shortCodes);
+
+        for (int from = 0; from < codes.size(); from += batchSize) {
+            List<String> batch = codes.subList(from, Math.min(from + batchSize, codes.size()));
+            try {
+                List<String> keys = batch.stream().map(RedisCacheService::buildUrlMappingKey).toList();
+                List<String> values = redisTemplate.opsForValue().multiGet(keys);
+                int hits = 0;
+                for (int i = 0; values != null && i < batch.size(); i++) {
+                    if (values.get(i) != null) {
+                        found.put(batch.get(i), values.get(i));
+                        hits++;
+                    }
+                }
+                hitCounter.increment(hits);
+                missCounter.increment(batch.size() - hits);
+            } catch (Exception e) {
+                missCounter.increment(batch.size());
+                logger.error("Failed to retrieve batch of {} cached URL mappings, error: {}",
+                            batch.size(), e.getMessage(), e);
+            }
+        }
+
+        logger.debug("Multi-get of {} URL mappings returned {} hits", codes.size(), found.size());
+        return found;
+    }
+
     /**
      * Retrieve a URL mapping from cache
      *
@@ -56,13 +213,55 @@ public class RedisCacheService {
             String longUrl = redisTemplate.opsForValue().get(key);
 
             if (longUrl != null) {
+                hitCounter.increment();
                 logger.debug("Cache hit for short code: {} -> {}", shortCode, longUrl);
             } else {
+                missCounter.increment();
                 logger.debug("Cache miss for short code: {}", shortCode);
             }
 
             return longUrl;
         } catch (Exception e) {
+            missCounter.increment();
+            logger.error("Failed to retrieve cached URL mapping for short code: {}, error: {}",
+                        shortCode, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Retrieve a URL mapping and its remaining TTL in one pipelined round trip (GET and PTTL)
+     *
+     * @param shortCode The short code key
+     * @return The cached long URL and its TTL, or null if not found or on error
+     */
+    public CachedUrlMapping getCachedUrlMappingWithTtl(String shortCode) {
+        try {
+            String key = buildUrlMappingKey(shortCode);
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                    stringOperations.opsForValue().get(key);
+                    stringOperations.getExpire(key, TimeUnit.MILLISECONDS);
+                    return null;
+                }
+            });
+
+            String longUrl = results.isEmpty() ? null : (String) results.get(0);
+            if (longUrl == null) {
+                missCounter.increment();
+                logger.debug("Cache miss for short code: {}", shortCode);
+                return null;
+            }
+
+            hitCounter.increment();
+            long ttlMillis = results.size() > 1 && results.get(1) instanceof Long ttl ? ttl : -1L;
+            logger.debug("Cache hit for short code: {} -> {}, TTL: {}ms", shortCode, longUrl, ttlMillis);
+            return new CachedUrlMapping(longUrl, ttlMillis);
+        } catch (Exception e) {
+            missCounter.increment();
             logger.error("Failed to retrieve cached URL mapping for short code: {}, error: {}",
                         shortCode, e.getMessage(), e);
             return null;
@@ -79,6 +278,7 @@ public class RedisCacheService {
             String key = buildUrlMappingKey(shortCode);
             Boolean deleted = redisTemplate.delete(key);
             if (deleted) {
+                evictionCounter.increment();
                 logger.debug("Evicted URL mapping from cache: {}", shortCode);
             } else {
                 logger.debug("URL mapping not found in cache for eviction: {}", shortCode);
@@ -89,6 +289,34 @@ public class RedisCacheService {
         }
     }
 
+    /**
+     * Remove many URL mappings from cache, one UNLINK per batch
+     * UNLINK frees the memory in a background thread, so large batches do not block Redis
+     *
+     * @param shortCodes The short codes to remove
+     */
+    public void evictUrlMappings(Collection<String> shortCodes) {
+        List<String> codes = new ArrayList<>(shortCodes);
+        long evicted = 0;
+
+        for (int from = 0; from < codes.size(); from += batchSize) {
+            List<String> batch = codes.subList(from, Math.min(from + batchSize, codes.size()));
+            try {
+                List<String> keys = batch.stream().map(RedisCacheService::buildUrlMappingKey).toList();
+                Long unlinked = redisTemplate.unlink(keys);
+                if (unlinked != null && unlinked > 0) {
+                    evictionCounter.increment(unlinked);
+                    evicted += unlinked;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to evict batch of {} URL mappings from cache, error: {}",
+                            batch.size(), e.getMessage(), e);
+            }
+        }
+
+        logger.debug("Evicted {} of {} URL mappings from cache", evicted, codes.size());
+    }
+
     /**
      * Check if Redis is available
      *
@@ -105,13 +333,28 @@ public class RedisCacheService {
         }
     }
 
+    /**
+     * Picks a TTL uniformly between {@code ttlSeconds * (1 - jitter)} and {@code ttlSeconds}
+     *
+     * @param ttlSeconds The configured TTL, never exceeded
+     * @param jitter Fraction of the TTL that may be taken off
+     * @return The TTL for one write, at least one second
+     */
+    public static long jitteredTtlSeconds(long ttlSeconds, double jitter) {
+        long maxJitter = (long) (ttlSeconds * jitter);
+        if (maxJitter <= 0) {
+            return ttlSeconds;
+        }
+        return Math.max(1L, ttlSeconds - ThreadLocalRandom.current().nextLong(maxJitter + 1));
+    }
+
     /**
      * Build the full Redis key for URL mapping
      *
      * @param shortCode The short code
      * @return The full Redis key
      */
-    private String buildUrlMappingKey(String shortCode) {
+    public static String buildUrlMappingKey(String shortCode) {
         return URL_MAPPING_KEY_PREFIX + shortCode;
     }
 }
@@ -23,6 +23,8 @@ public class ScheduledMaintenanceService {
     
     private final UrlService urlService;
     private final RedisCacheService redisCacheService;
+    private final ClickRollupService clickRollupService;
+    private final UniqueVisitorService uniqueVisitorService;
 
     @Value("${app.cleanup.retention-days:30}")
     private int retentionDays;
@@ -33,9 +35,13 @@ public class ScheduledMaintenanceService {
     @Value("${app.cleanup.enabled:true}")
     private boolean cleanupEnabled;
 
-    public ScheduledMaintenanceService(UrlService urlService, RedisCacheService redisCacheService) {
+    public ScheduledMaintenanceService(UrlService urlService, RedisCacheService redisCacheService,
+                                       ClickRollupService clickRollupService,
+                                       UniqueVisitorService uniqueVisitorService) {
         this.urlService = urlService;
         this.redisCacheService = redisCacheService;
+        this.clickRollupService = clickRollupService;
+        this.uniqueVisitorService = uniqueVisitorService;
     }
 
     /**
@@ -110,12 +116,9 @@ public class ScheduledMaintenanceService {
             logger.info("Starting scheduled cleanup of old URL mappings older than {} days...", retentionDays);
             
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-            long countBefore = urlService.getTotalMappingsCount();
-            
-            urlService.deleteOldMappings(cutoffDate);
-            
-            long countAfter = urlService.getTotalMappingsCount();
-            long deletedCount = countBefore - countAfter;
+
+            // Deleted count comes from the DELETE results, no COUNT(*) around the cleanup
+            long deletedCount = urlService.deleteOldMappings(cutoffDate);
             
             logger.info("Cleanup completed - Deleted {} old URL mappings (cutoff date: {})", 
                        deletedCount, cutoffDate.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
@@ -123,8 +126,8 @@ public class ScheduledMaintenanceService {
             auditLogger.info("SCHEDULED_CLEANUP_COMPLETED - DeletedCount: {}, CutoffDate: {}, RetentionDays: {}", 
                            deletedCount, cutoffDate, retentionDays);
             
-            statsLogger.info("CLEANUP_STATS - Before: {}, After: {}, Deleted: {}, RetentionDays: {}", 
-                            countBefore, countAfter, deletedCount, retentionDays);
+            statsLogger.info("CLEANUP_STATS - Deleted: {}, RetentionDays: {}", 
+                            deletedCount, retentionDays);
 
         } catch (Exception e) {
             logger.error("Error occurred during scheduled cleanup: {}", e.getMessage(), e);
@@ -132,6 +135,60 @@ public class ScheduledMaintenanceService {
         }
     }
 
+    /**
+     * Compact in-memory per-minute click buckets into the minute, hour and day rollups
+     * Runs every minute by default; failed compactions keep their clicks for the next run
+     */
+    @Scheduled(fixedDelayString = "${app.clicks.rollup.compact-interval-ms:60000}")
+    public void compactClickRollups() {
+        try {
+            long compacted = clickRollupService.compact();
+            if (compacted > 0) {
+                logger.debug("Click rollup compaction completed - Clicks: {}", compacted);
+            }
+        } catch (Exception e) {
+            logger.error("Error occurred during click rollup compaction: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Downsample click rollups daily at 2:15 AM
+     * Drops minute and hour rows past their retention; day rows keep the totals
+     */
+    @Scheduled(cron = "${app.clicks.rollup.downsample-cron:0 15 2 * * *}")
+    public void downsampleClickRollups() {
+        try {
+            logger.info("Starting scheduled downsampling of click rollups...");
+
+            long deletedCount = clickRollupService.downsample();
+
+            logger.info("Click rollup downsampling completed - Deleted {} rows", deletedCount);
+            statsLogger.info("ROLLUP_DOWNSAMPLE_STATS - Deleted: {}", deletedCount);
+
+        } catch (Exception e) {
+            logger.error("Error occurred during click rollup downsampling: {}", e.getMessage(), e);
+            auditLogger.error("SCHEDULED_ROLLUP_DOWNSAMPLE_ERROR - Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Purge unique visitor sketches daily at 2:20 AM
+     * Removes daily sketches older than app.visitors.retention-days
+     */
+    @Scheduled(cron = "${app.visitors.purge-cron:0 20 2 * * *}")
+    public void purgeVisitorSketches() {
+        try {
+            long deletedCount = uniqueVisitorService.purgeExpired();
+
+            logger.info("Visitor sketch purge completed - Deleted {} daily sketches", deletedCount);
+            statsLogger.info("VISITOR_SKETCH_PURGE_STATS - Deleted: {}", deletedCount);
+
+        } catch (Exception e) {
+            logger.error("Error occurred during visitor sketch purge: {}", e.getMessage(), e);
+            auditLogger.error("SCHEDULED_VISITOR_PURGE_ERROR - Error: {}", e.getMessage());
+        }
+    }
+
     /**
      * Perform Redis health check every 30 minutes
      * Logs Redis connectivity status for monitoring
@@ -0,0 +1,203 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.exception.ShortCodeGenerationException;
+import org.example.brev.util.Base62;
+import org.example.brev.util.IdPermutation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Segment (hi/lo) generator: sequence numbers are leased from the database in blocks
+ * and handed out from memory, so creating a short code costs no database round trip.
+ *
+ * The next segment is prefetched in the background once the current one drops below
+ * the prefetch threshold (double buffering), so callers normally never wait for a lease.
+ * Values left in a segment when the instance stops are skipped, never reused.
+ *
+ * Sequence numbers are passed through a keyed 41-bit permutation and encoded as exactly
+ * seven base62 characters, which keeps them apart from legacy six-character random codes
+ * and ten-character Snowflake codes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.shortcode.strategy", havingValue = "segment")
+public class SegmentShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final Logger logger = LogManager.getLogger(SegmentShortCodeGenerator.class);
+
+    static final String SEGMENT_NAME = "url_mapping";
+    static final int ID_BITS = 41;
+    static final int CODE_LENGTH = 7;
+    private static final long MAX_VALUE = (1L << ID_BITS) - 1;
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+
+    private final ShortCodeSegmentService shortCodeSegmentService;
+    private final IdPermutation permutation;
+    private final int segmentSize;
+    private final long prefetchThreshold;
+
+    private final ReentrantLock switchLock = new ReentrantLock();
+    private final ExecutorService prefetchExecutor;
+    private final Counter refillCounter;
+
+    private volatile Segment current = new Segment(0L, 0L);
+    private volatile CompletableFuture<Segment> prefetched;
+
+    public SegmentShortCodeGenerator(ShortCodeSegmentService shortCodeSegmentService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.shortcode.segment.size:1000}") int segmentSize,
+                                     @Value("${app.shortcode.segment.prefetch-threshold:0.2}") double prefetchRatio,
+                                     @Value("${app.shortcode.obfuscation-key:0}") long obfuscationKey) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.shortCodeSegmentService = shortCodeSegmentService;
+        this.permutation = new IdPermutation(ID_BITS, obfuscationKey);
+        this.segmentSize = segmentSize;
+        this.prefetchThreshold = Math.max(1L, (long) (segmentSize * prefetchRatio));
+        this.prefetchExecutor = Executors.newSingleThreadExecutor(runnable ->
+                Thread.ofPlatform().name("shortcode-segment-prefetch").daemon(true).unstarted(runnable));
+
+        this.refillCounter = Counter.builder("brev.shortcode.segment.refills")
+                .description("Segments leased from the database")
+                .register(meterRegistry);
+        Gauge.builder("brev.shortcode.segment.remaining", this, SegmentShortCodeGenerator::remaining)
+                .description("Values left in the current segment")
+                .register(meterRegistry);
+
+        logger.info("Segment short code generator initialized - SegmentSize: {}, PrefetchThreshold: {}",
+                   segmentSize, prefetchThreshold);
+    }
+
+    @Override
+    public String generate() {
+        while (true) {
+            Segment segment = current;
+            long value = segment.next.getAndIncrement();
+            if (value < segment.end) {
+                if (segment.end - value == prefetchThreshold) {
+                    startPrefetch();
+                }
+                return encode(value);
+            }
+            switchSegment(segment);
+        }
+    }
+
+    @Override
+    public boolean isCollisionFree() {
+        return true;
+    }
+
+    /**
+     * @return the number of values left in the current segment
+     */
+    long remaining() {
+        Segment segment = current;
+        return Math.max(0L, segment.end - segment.next.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private String encode(long value) {
+        if (value > MAX_VALUE) {
+            throw new ShortCodeGenerationException("Segment sequence space exhausted");
+        }
+        return Base62.encode(permutation.permute(value), CODE_LENGTH);
+    }
+
+    /**
+     * Replaces an exhausted segment, using the prefetched one when available.
+     * Uses a ReentrantLock rather than synchronized so waiting callers do not pin virtual threads.
+     */
+    private void switchSegment(Segment exhausted) {
+        switchLock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+
+            CompletableFuture<Segment> pending = prefetched;
+            prefetched = null;
+
+            Segment next = null;
+            if (pending != null) {
+                try {
+                    next = pending.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ShortCodeGenerationException("Interrupted while waiting for a short code segment");
+                } catch (ExecutionException e) {
+                    logger.warn("Prefetching short code segment failed, leasing synchronously: {}",
+                               e.getCause().getMessage());
+                }
+            }
+
+            current = next != null ? next : leaseSegment();
+        } finally {
+            switchLock.unlock();
+        }
+    }
+
+    private void startPrefetch() {
+        switchLock.lock();
+        try {
+            if (prefetched == null) {
+                prefetched = CompletableFuture.supplyAsync(this::leaseSegment, prefetchExecutor);
+            }
+        } finally {
+            switchLock.unlock();
+        }
+    }
+
+    private Segment leaseSegment() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = shortCodeSegmentService.leaseSegment(SEGMENT_NAME, segmentSize);
+                refillCounter.increment();
+                logger.info("Leased short code segment [{}, {})", start, start + segmentSize);
+                return new Segment(start, start + segmentSize);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the allocation row at the same time
+                if (attempt >= MAX_LEASE_ATTEMPTS) {
+                    throw new ShortCodeGenerationException("Unable to lease a short code segment", attempt);
+                }
+                logger.debug("Retrying short code segment lease after conflict on attempt {}", attempt);
+            } catch (RuntimeException e) {
+                logger.error("Failed to lease short code segment: {}", e.getMessage(), e);
+                throw new ShortCodeGenerationException("Unable to lease a short code segment");
+            }
+        }
+    }
+
+    /**
+     * A leased range [start, end) and the next value to hand out
+     */
+    private static final class Segment {
+
+        private final long end;
+        private final AtomicLong next;
+
+        private Segment(long start, long end) {
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.repository.ShortCodeView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.util.CuckooFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Negative lookup guard for short codes.
+ *
+ * Keeps a cuckoo filter over every short code in the url_mapping table so that
+ * lookups for codes that were never issued can be rejected before any cache or
+ * database I/O. The filter is built from the table at startup, updated on create
+ * and delete, synced with rows created by other instances every few seconds and
+ * rebuilt nightly to drop entries deleted elsewhere.
+ *
+ * AUTO_INCREMENT ids are not committed in id order, so each sync re-scans a trailing
+ * range of ids below the highest one seen to pick up rows that committed late. Rows
+ * already in the filter, whether synced or created on this instance, are skipped, as
+ * adding a code twice would hold two fingerprints for it.
+ *
+ * Deletions are removed only from the filter that was live when their rows were deleted. A
+ * filter rebuilt since may never have held a deleted code, and removing a code a cuckoo filter
+ * does not hold can drop another code's matching fingerprint; see {@link #generation()}.
+ *
+ * Until the first build has finished every code is reported as possibly present.
+ */
+@Service
+public class ShortCodeFilterService {
+
+    private static final Logger logger = LogManager.getLogger(ShortCodeFilterService.class);
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final boolean enabled;
+    private final long expectedEntries;
+    private final int scanBatchSize;
+    private final long syncOverlapIds;
+    private final boolean verifyNegativesInCache;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Counter rejectedCounter;
+
+    private volatile FilterState state;
+    private volatile boolean ready;
+    private volatile long highestSyncedId;
+
+    public ShortCodeFilterService(UrlMappingRepository urlMappingRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.shortcode-filter.enabled:true}") boolean enabled,
+                                  @Value("${app.shortcode-filter.expected-entries:1000000}") long expectedEntries,
+                                  @Value("${app.shortcode-filter.scan-batch-size:10000}") int scanBatchSize,
+                                  @Value("${app.shortcode-filter.sync-overlap-ids:10000}") long syncOverlapIds,
+                                  @Value("${app.shortcode-filter.verify-negatives-in-cache:true}") boolean verifyNegativesInCache) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.scanBatchSize = scanBatchSize;
+        this.syncOverlapIds = syncOverlapIds;
+        this.verifyNegativesInCache = verifyNegativesInCache;
+        this.state = new FilterState(new CuckooFilter(expectedEntries), 0L);
+
+        this.rejectedCounter = Counter.builder("brev.shortcode.filter.rejections")
+                .description("Lookups rejected by the short code filter without any I/O")
+                .register(meterRegistry);
+        Gauge.builder("brev.shortcode.filter.entries", this, service -> service.state.filter().size())
+                .description("Fingerprints held by the short code filter")
+                .register(meterRegistry);
+        Gauge.builder("brev.shortcode.filter.memory", this, service -> service.state.filter().memoryBytes())
+                .description("Memory held by the short code filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a short code is definitely not issued
+     *
+     * @param shortCode The short code to check
+     * @return true if the code was never issued (or has been deleted); false if it may exist
+     */
+    public boolean isDefinitelyAbsent(String shortCode) {
+        if (!enabled || !ready) {
+            return false;
+        }
+
+        boolean absent = !state.filter().mightContain(shortCode);
+        if (absent) {
+            rejectedCounter.increment();
+        }
+        return absent;
+    }
+
+    /**
+     * Whether a negative answer should still be confirmed against the Redis cache.
+     * Codes created on another instance reach Redis immediately but this filter only
+     * at the next sync, so confirming avoids a short window of false 404s in multi-node
+     * deployments. The database is never consulted for a negative answer either way.
+     */
+    public boolean shouldVerifyNegativesInCache() {
+        return verifyNegativesInCache;
+    }
+
+    /**
+     * Records a short code created on this instance
+     *
+     * @param id The ID of the new mapping
+     * @param shortCode The short code to add
+     */
+    public void add(long id, String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        FilterState current = state;
+        if (current.recentIds().add(id)) {
+            current.filter().add(shortCode);
+        }
+    }
+
+    /**
+     * Records an existing short code whose ID is not known, such as one found in Redis
+     * before the sync reached it; the sync will not add it again
+     *
+     * @param shortCode The short code to add
+     */
+    public void add(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        FilterState current = state;
+        if (current.unsyncedCodes().add(shortCode)) {
+            current.filter().add(shortCode);
+        }
+    }
+
+    /**
+     * Identifies the live filter; read it before deleting rows and pass it to {@link #removeAll}
+     *
+     * @return The generation of the live filter, which changes whenever a rebuild swaps it
+     */
+    public long generation() {
+        return state.generation();
+    }
+
+    /**
+     * Removes deleted short codes, unless the filter has been rebuilt since the rows were deleted.
+     * The rebuilt filter then either never held them or holds them until the next rebuild, which
+     * only costs a lookup that the filter would otherwise have rejected.
+     *
+     * @param shortCodes The short codes to remove
+     * @param generation The {@link #generation()} read before the rows were deleted
+     */
+    public void removeAll(Collection<String> shortCodes, long generation) {
+        if (!enabled || !ready) {
+            return;
+        }
+        FilterState current = state;
+        if (current.generation() != generation) {
+            logger.debug("Short code filter rebuilt during a delete, leaving {} codes for the next rebuild",
+                        shortCodes.size());
+            return;
+        }
+        for (String shortCode : shortCodes) {
+            current.unsyncedCodes().remove(shortCode);
+            current.filter().remove(shortCode);
+        }
+    }
+
+    /**
+     * Builds the filter in the background once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            logger.info("Short code filter is disabled");
+            return;
+        }
+
+        Thread.ofPlatform()
+                .name("shortcode-filter-build")
+                .daemon(true)
+                .start(this::rebuild);
+    }
+
+    /**
+     * Adds short codes created by other instances since the last sync, including rows
+     * within the trailing overlap that committed after an earlier sync had passed their id
+     */
+    @Scheduled(fixedDelayString = "${app.shortcode-filter.sync-interval-ms:5000}")
+    public void syncNewShortCodes() {
+        if (!enabled || !ready || rebuilding.get()) {
+            return;
+        }
+
+        try {
+            long added = scanInto(state, Math.max(0L, highestSyncedId - syncOverlapIds));
+            if (added > 0) {
+                logger.debug("Short code filter synced {} new short codes", added);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to sync short code filter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the url_mapping table and swaps it in atomically.
+     * Also drops stale entries for codes that were deleted by other instances.
+     */
+    @Scheduled(cron = "${app.shortcode-filter.rebuild-cron:0 30 2 * * *}")
+    public void rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long startTime = System.currentTimeMillis();
+            long totalMappings = urlMappingRepository.count();
+            FilterState rebuilt = new FilterState(
+                    new CuckooFilter(Math.max(expectedEntries, totalMappings + totalMappings / 4)),
+                    state.generation() + 1);
+
+            long scanned = scanInto(rebuilt, 0L);
+
+            // Codes created locally while the scan ran are picked up by the next sync
+            state = rebuilt;
+            ready = true;
+
+            logger.info("Short code filter built - Entries: {}, Layers: {}, Memory: {} KB, Took: {} ms",
+                       scanned, rebuilt.filter().layerCount(), rebuilt.filter().memoryBytes() / 1024,
+                       System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            logger.error("Failed to build short code filter: {}", e.getMessage(), e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * @return true once the filter has been built and is answering lookups
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * @return the number of short codes added, leaving out rows already in the filter
+     */
+    private long scanInto(FilterState target, long afterId) {
+        long added = 0;
+        long lastId = afterId;
+
+        while (true) {
+            List<ShortCodeView> page = urlMappingRepository.findShortCodesAfterId(
+                    lastId, PageRequest.of(0, scanBatchSize));
+            for (ShortCodeView view : page) {
+                lastId = view.getId();
+                if (target.recentIds().add(lastId) && !target.unsyncedCodes().remove(view.getShortCode())) {
+                    target.filter().add(view.getShortCode());
+                    added++;
+                }
+            }
+            // Only IDs within the overlap can be scanned again
+            target.recentIds().headSet(lastId - syncOverlapIds, true).clear();
+            if (page.size() < scanBatchSize) {
+                break;
+            }
+        }
+
+        if (lastId > highestSyncedId || afterId == 0L) {
+            highestSyncedId = lastId;
+        }
+        return added;
+    }
+
+    /**
+     * The filter with the IDs of its recent rows and the codes added without an ID,
+     * swapped as one when the filter is rebuilt
+     */
+    private record FilterState(CuckooFilter filter, NavigableSet<Long> recentIds, Set<String> unsyncedCodes,
+                               long generation) {
+
+        FilterState(CuckooFilter filter, long generation) {
+            this(filter, new ConcurrentSkipListSet<>(), ConcurrentHashMap.newKeySet(), generation);
+        }
+    }
+}
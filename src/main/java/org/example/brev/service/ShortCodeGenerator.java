@@ -0,0 +1,24 @@
+package org.example.brev.service;
+
+/**
+ * Strategy for producing new short codes.
+ * The active implementation is selected with {@code app.shortcode.strategy}.
+ */
+public interface ShortCodeGenerator {
+
+    /**
+     * Produces the next short code
+     *
+     * @return A new alphanumeric short code
+     * @throws org.example.brev.exception.ShortCodeGenerationException if no code can be produced
+     */
+    String generate();
+
+    /**
+     * Whether generated codes are unique by construction.
+     * When false, callers must check each code against the database before using it.
+     *
+     * @return true if no existence check is needed
+     */
+    boolean isCollisionFree();
+}
@@ -0,0 +1,51 @@
+package org.example.brev.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.entity.ShortCodeSegment;
+import org.example.brev.repository.ShortCodeSegmentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Leases ranges of sequence numbers from the short_code_segment table
+ */
+@Service
+public class ShortCodeSegmentService {
+
+    private static final Logger logger = LogManager.getLogger(ShortCodeSegmentService.class);
+
+    private final ShortCodeSegmentRepository shortCodeSegmentRepository;
+
+    public ShortCodeSegmentService(ShortCodeSegmentRepository shortCodeSegmentRepository) {
+        this.shortCodeSegmentRepository = shortCodeSegmentRepository;
+    }
+
+    /**
+     * Leases the next segment in its own short transaction.
+     * Call it without holding a transaction (UrlService generates codes before opening one): REQUIRES_NEW
+     * would otherwise need a second pooled connection, and a burst of creates the size of the pool
+     * waiting on a segment switch could exhaust it.
+     * The allocation row is created on first use; if two instances race to create it
+     * one of them fails with a DataIntegrityViolationException and should simply retry.
+     *
+     * @param name The allocation row name
+     * @param size The number of values to lease
+     * @return The first value of the leased range [start, start + size)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long leaseSegment(String name, int size) {
+        ShortCodeSegment segment = shortCodeSegmentRepository.findForUpdate(name)
+                .orElseGet(() -> shortCodeSegmentRepository.saveAndFlush(new ShortCodeSegment(name, 0L)));
+
+        long start = segment.getNextValue();
+        segment.setNextValue(start + size);
+        segment.setUpdatedAt(LocalDateTime.now());
+
+        logger.debug("Leased short code segment - Name: {}, Range: [{}, {})", name, start, start + size);
+        return start;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.brev.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.exception.ShortCodeGenerationException;
+import org.example.brev.util.Base62;
+import org.example.brev.util.IdPermutation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style generator: codes are unique across nodes by construction,
+ * so no database probe is needed.
+ *
+ * Each ID packs 39 bits of milliseconds since 2025-01-01T00:00:00Z (good until 2042),
+ * 8 bits of node ID and 12 bits of per-millisecond sequence into 59 bits, which always
+ * fits in ten base62 characters. IDs can optionally be passed through a keyed reversible
+ * permutation so that consecutive codes do not look consecutive.
+ *
+ * Generation is lock-free: the last timestamp and sequence live in one AtomicLong.
+ * When the clock moves backwards, or more than 4096 codes are requested within one
+ * millisecond, the generator keeps counting on its own logical clock instead of waiting.
+ * Node IDs must be unique per running instance, so there is no default: startup fails
+ * unless app.shortcode.node-id is set.
+ *
+ * The logical clock is not persisted, so a restarted instance could reissue IDs that its
+ * predecessor handed out ahead of wall time, or before the clock was stepped back. Codes are
+ * therefore only reported collision-free once the startup probe window has passed and while
+ * the logical clock is not ahead of wall time; otherwise callers check them against the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.shortcode.strategy", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final Logger logger = LogManager.getLogger(SnowflakeShortCodeGenerator.class);
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int TIMESTAMP_BITS = 39;
+    static final int NODE_ID_BITS = 8;
+    static final int SEQUENCE_BITS = 12;
+    static final int ID_BITS = TIMESTAMP_BITS + NODE_ID_BITS + SEQUENCE_BITS;
+    static final int CODE_LENGTH = 10;
+
+    private static final long MAX_NODE_ID = (1L << NODE_ID_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+
+    private final long nodeId;
+    private final IdPermutation permutation;
+    private final LongSupplier clock;
+
+    /**
+     * Wall time until which codes are probed after startup
+     */
+    private final long probeUntilMillis;
+
+    /**
+     * Packed (logical timestamp << SEQUENCE_BITS | sequence) of the last issued ID
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SnowflakeShortCodeGenerator(@Value("${app.shortcode.node-id:}") Long nodeId,
+                                       @Value("${app.shortcode.obfuscate:true}") boolean obfuscate,
+                                       @Value("${app.shortcode.obfuscation-key:0}") long obfuscationKey,
+                                       @Value("${app.shortcode.startup-probe-ms:10000}") long startupProbeMillis) {
+        this(requireNodeId(nodeId), obfuscate ? new IdPermutation(ID_BITS, obfuscationKey) : null,
+             System::currentTimeMillis, startupProbeMillis);
+    }
+
+    SnowflakeShortCodeGenerator(long nodeId, IdPermutation permutation, LongSupplier clock, long startupProbeMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.permutation = permutation;
+        this.clock = clock;
+        this.probeUntilMillis = clock.getAsLong() + startupProbeMillis;
+
+        logger.info("Snowflake short code generator initialized - NodeId: {}, Obfuscated: {}, StartupProbeMs: {}",
+                   nodeId, permutation != null, startupProbeMillis);
+    }
+
+    private static long requireNodeId(Long nodeId) {
+        if (nodeId == null) {
+            // Two instances left on a shared default would issue identical codes in the same millisecond
+            throw new IllegalArgumentException("app.shortcode.node-id (NODE_ID) must be set to an ID between 0 and "
+                    + MAX_NODE_ID + " that no other running instance uses");
+        }
+        return nodeId;
+    }
+
+    @Override
+    public String generate() {
+        return encode(nextId());
+    }
+
+    @Override
+    public boolean isCollisionFree() {
+        long now = clock.getAsLong();
+        return now >= probeUntilMillis && state.get() >>> SEQUENCE_BITS <= now - EPOCH_MILLIS;
+    }
+
+    /**
+     * @return the next raw, unobfuscated 59-bit ID
+     */
+    long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long previous = state.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+
+            long next;
+            if (now > previousTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = previous + 1;
+            } else {
+                // Sequence exhausted for this millisecond: borrow the next one
+                next = (previousTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                if (timestamp > MAX_TIMESTAMP) {
+                    throw new ShortCodeGenerationException("Snowflake timestamp space exhausted");
+                }
+                return (timestamp << (NODE_ID_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private String encode(long id) {
+        long value = permutation != null ? permutation.permute(id) : id;
+        return Base62.encode(value, CODE_LENGTH);
+    }
+}
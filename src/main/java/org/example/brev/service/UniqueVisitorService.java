@@ -0,0 +1,327 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.repository.UrlVisitorSketchRepository;
+import org.example.brev.repository.UrlVisitorSketchRepository.DailySketch;
+import org.example.brev.repository.UrlVisitorSketchRepository.SketchUpdate;
+import org.example.brev.util.HashUtils;
+import org.example.brev.util.HyperLogLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Unique visitor estimation per short code and day.
+ *
+ * Each redirect adds the hashed client IP to an in-memory HyperLogLog sketch for the code and
+ * the current day; IPs themselves are never stored. Sketches start sparse and grow to 4 KB at
+ * the default precision (about 1.6% standard error). A scheduled flush merges changed sketches into
+ * url_visitor_sketch and then drops them from memory. Queries merge the stored daily sketches
+ * of a date range, so a range estimate counts a visitor once no matter how many days or
+ * instances saw them.
+ */
+@Service
+public class UniqueVisitorService {
+
+    private static final Logger logger = LogManager.getLogger(UniqueVisitorService.class);
+
+    private final UrlVisitorSketchRepository urlVisitorSketchRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int precision;
+    private final int flushBatchSize;
+    private final int maxRangeDays;
+    private final int retentionDays;
+    private final int deleteChunkSize;
+
+    private final ConcurrentHashMap<LocalDate, ConcurrentHashMap<String, VisitorSketch>> sketchesByDay =
+            new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushedCounter;
+    private final Counter flushFailureCounter;
+
+    @Autowired
+    public UniqueVisitorService(UrlVisitorSketchRepository urlVisitorSketchRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.visitors.enabled:true}") boolean enabled,
+                                @Value("${app.visitors.precision:12}") int precision,
+                                @Value("${app.visitors.flush-batch-size:500}") int flushBatchSize,
+                                @Value("${app.visitors.max-range-days:366}") int maxRangeDays,
+                                @Value("${app.visitors.retention-days:400}") int retentionDays,
+                                @Value("${app.cleanup.chunk-size:1000}") int deleteChunkSize) {
+        this(urlVisitorSketchRepository, meterRegistry, Clock.systemDefaultZone(), enabled, precision,
+             flushBatchSize, maxRangeDays, retentionDays, deleteChunkSize);
+    }
+
+    UniqueVisitorService(UrlVisitorSketchRepository urlVisitorSketchRepository, MeterRegistry meterRegistry,
+                         Clock clock, boolean enabled, int precision, int flushBatchSize, int maxRangeDays,
+                         int retentionDays, int deleteChunkSize) {
+        if (flushBatchSize < 1) {
+            throw new IllegalArgumentException("Visitor flush batch size must be positive: " + flushBatchSize);
+        }
+        // Fail fast on an invalid precision rather than on the first redirect
+        new HyperLogLog(precision);
+
+        this.urlVisitorSketchRepository = urlVisitorSketchRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.precision = precision;
+        this.flushBatchSize = flushBatchSize;
+        this.maxRangeDays = maxRangeDays;
+        this.retentionDays = retentionDays;
+        this.deleteChunkSize = deleteChunkSize;
+
+        this.flushedCounter = Counter.builder("brev.visitors.sketches.flushed")
+                .description("Visitor sketches merged into url_visitor_sketch")
+                .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("brev.visitors.flush.failures")
+                .description("Visitor sketch flushes that failed and were retried later")
+                .register(meterRegistry);
+        Gauge.builder("brev.visitors.sketches.tracked", sketchesByDay,
+                      days -> days.values().stream().mapToInt(Map::size).sum())
+                .description("In-memory visitor sketches")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a visit to a short code
+     *
+     * @param shortCode The short code that was resolved
+     * @param clientIp The visitor's IP address, as resolved by HttpUtils.getClientIpAddress
+     */
+    public void recordVisit(String shortCode, String clientIp) {
+        if (!enabled || clientIp == null || clientIp.isEmpty()) {
+            return;
+        }
+
+        ConcurrentHashMap<String, VisitorSketch> sketches = sketchesFor(LocalDate.now(clock));
+        long hash = HashUtils.hash64(clientIp);
+        while (true) {
+            VisitorSketch sketch = sketches.get(shortCode);
+            if (sketch == null) {
+                sketch = sketches.computeIfAbsent(shortCode, code -> new VisitorSketch(precision));
+            }
+            sketch.add(hash);
+            // Evicted meanwhile; adding the hash to the fresh sketch as well is harmless
+            if (!sketch.retired) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Estimates unique visitors per day and over the whole range [from, to]
+     * Stored sketches are merged with the ones this instance has not flushed yet.
+     *
+     * @param shortCode The short code to report on
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return per-day estimates and the range estimate, which counts each visitor once
+     * @throws IllegalArgumentException if the range is empty or longer than max-range-days
+     */
+    public VisitorEstimate estimate(String shortCode, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Visitor range must have from on or before to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Visitor range exceeds " + maxRangeDays + " days");
+        }
+
+        TreeMap<LocalDate, HyperLogLog> daily = new TreeMap<>();
+        for (DailySketch stored : urlVisitorSketchRepository.findRange(shortCode, from, to)) {
+            daily.put(stored.visitDate(), stored.sketch());
+        }
+        for (Map.Entry<LocalDate, ConcurrentHashMap<String, VisitorSketch>> day : sketchesByDay.entrySet()) {
+            VisitorSketch pending = day.getValue().get(shortCode);
+            if (pending != null && !day.getKey().isBefore(from) && !day.getKey().isAfter(to)) {
+                daily.computeIfAbsent(day.getKey(), date -> new HyperLogLog(precision)).merge(pending.sketch);
+            }
+        }
+
+        HyperLogLog range = new HyperLogLog(precision);
+        List<VisitorEstimate.Day> days = new ArrayList<>(daily.size());
+        for (Map.Entry<LocalDate, HyperLogLog> entry : daily.entrySet()) {
+            days.add(new VisitorEstimate.Day(entry.getKey(), entry.getValue().estimate()));
+            range.merge(entry.getValue());
+        }
+        return new VisitorEstimate(from, to, range.estimate(), range.standardError(), days);
+    }
+
+    /**
+     * Unique visitor estimates for one short code
+     *
+     * @param uniqueVisitors Distinct visitors over the whole range
+     * @param standardError Relative standard error of each estimate
+     * @param days Per-day estimates; days without visitors are omitted
+     */
+    public record VisitorEstimate(LocalDate from, LocalDate to, long uniqueVisitors, double standardError,
+                                  List<Day> days) {
+
+        public record Day(LocalDate date, long uniqueVisitors) {
+        }
+    }
+
+    /**
+     * Merges the sketches changed since the previous flush into storage
+     */
+    @Scheduled(fixedDelayString = "${app.visitors.flush-interval-ms:60000}")
+    public void flush() {
+        if (!enabled || sketchesByDay.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes outstanding sketches so a deploy does not lose visitors
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing visitor sketches before shutdown - Days: {}", sketchesByDay.size());
+        flush();
+    }
+
+    /**
+     * Deletes stored sketches older than the retention period
+     *
+     * @return the number of rows deleted
+     */
+    public long purgeExpired() {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(retentionDays);
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = urlVisitorSketchRepository.deleteOlderThan(cutoff, deleteChunkSize);
+            deleted += chunk;
+        } while (chunk == deleteChunkSize);
+        return deleted;
+    }
+
+    private void flushPending() {
+        LocalDate today = LocalDate.now(clock);
+        List<SketchUpdate> batch = new ArrayList<>(flushBatchSize);
+        List<VisitorSketch> flushing = new ArrayList<>(flushBatchSize);
+        int flushed = 0;
+
+        for (Map.Entry<LocalDate, ConcurrentHashMap<String, VisitorSketch>> day : sketchesByDay.entrySet()) {
+            for (Map.Entry<String, VisitorSketch> entry : day.getValue().entrySet()) {
+                VisitorSketch sketch = entry.getValue();
+                // Cleared before the write; a visit racing with it marks the sketch dirty again
+                if (!sketch.dirty.getAndSet(false)) {
+                    continue;
+                }
+                batch.add(new SketchUpdate(entry.getKey(), day.getKey(), sketch.sketch));
+                flushing.add(sketch);
+                if (batch.size() == flushBatchSize) {
+                    if (!writeBatch(batch, flushing)) {
+                        return;
+                    }
+                    flushed += batch.size();
+                    batch.clear();
+                    flushing.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            if (!writeBatch(batch, flushing)) {
+                return;
+            }
+            flushed += batch.size();
+        }
+
+        // Flushed sketches are fully stored, so memory only holds codes visited since the last flush
+        for (Map.Entry<LocalDate, ConcurrentHashMap<String, VisitorSketch>> day : sketchesByDay.entrySet()) {
+            for (Map.Entry<String, VisitorSketch> entry : day.getValue().entrySet()) {
+                if (!entry.getValue().dirty.get()) {
+                    evict(day.getValue(), entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        sketchesByDay.entrySet().removeIf(day -> day.getKey().isBefore(today) && day.getValue().isEmpty());
+
+        if (flushed > 0) {
+            logger.debug("Flushed {} visitor sketches", flushed);
+        }
+    }
+
+    private boolean writeBatch(List<SketchUpdate> batch, List<VisitorSketch> flushing) {
+        try {
+            urlVisitorSketchRepository.mergeAll(batch);
+        } catch (Exception e) {
+            flushing.forEach(sketch -> sketch.dirty.set(true));
+            flushFailureCounter.increment();
+            logger.error("Failed to flush {} visitor sketches, retrying on the next flush: {}",
+                        batch.size(), e.getMessage(), e);
+            return false;
+        }
+        flushedCounter.increment(batch.size());
+        return true;
+    }
+
+    private void evict(ConcurrentHashMap<String, VisitorSketch> sketches, String shortCode, VisitorSketch sketch) {
+        // Retired before the dirty check: a racing visit either sees the flag and retries, or is merged below
+        sketch.retired = true;
+        sketches.remove(shortCode, sketch);
+        if (sketch.dirty.get()) {
+            // A visit raced with the removal; carry it over, merges are idempotent
+            VisitorSketch replacement = sketches.computeIfAbsent(shortCode, code -> new VisitorSketch(precision));
+            if (replacement.sketch.merge(sketch.sketch)) {
+                replacement.dirty.set(true);
+            }
+        }
+    }
+
+    private ConcurrentHashMap<String, VisitorSketch> sketchesFor(LocalDate day) {
+        ConcurrentHashMap<String, VisitorSketch> sketches = sketchesByDay.get(day);
+        if (sketches == null) {
+            sketches = sketchesByDay.computeIfAbsent(day, date -> new ConcurrentHashMap<>());
+        }
+        return sketches;
+    }
+
+    /**
+     * One day's sketch for one short code, and whether it changed since it was last flushed.
+     * Repeat visitors rarely raise a register, so they leave the sketch clean. A retired sketch
+     * has been dropped from the map and no longer takes visits.
+     */
+    private static final class VisitorSketch {
+
+        private final HyperLogLog sketch;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private VisitorSketch(int precision) {
+            this.sketch = new HyperLogLog(precision);
+        }
+
+        private void add(long hash) {
+            if (sketch.addHash(hash) && !dirty.get()) {
+                dirty.set(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.brev.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.repository.UrlMappingExportView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Streams URL mappings out of the database in constant memory.
+ *
+ * Rows are read page by page with keyset pagination on the primary key, each page in
+ * its own short query, and written straight to the output stream, which is flushed
+ * after every page. Memory use depends on the page size only, never on the table size.
+ */
+@Service
+public class UrlExportService {
+
+    private static final Logger logger = LogManager.getLogger(UrlExportService.class);
+    private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
+
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String CSV_HEADER = "id,short_code,long_url,created_at";
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+
+    public UrlExportService(UrlMappingRepository urlMappingRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${app.export.page-size:5000}") int pageSize) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Output formats supported by the export
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for unknown formats
+         */
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name + ". Expected ndjson or csv");
+        }
+    }
+
+    /**
+     * Writes all mappings created in [from, to) to the stream, in ID order
+     *
+     * @param out The stream to write to; flushed but not closed
+     * @param format The output format
+     * @param from Inclusive lower bound on created_at, or null for no bound
+     * @param to Exclusive upper bound on created_at, or null for no bound
+     * @return the number of rows written
+     */
+    public long export(OutputStream out, Format format, LocalDateTime from, LocalDateTime to) throws IOException {
+        LocalDateTime lower = from != null ? from : MIN_CREATED_AT;
+        LocalDateTime upper = to != null ? to : MAX_CREATED_AT;
+        long startTime = System.currentTimeMillis();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        JsonGenerator generator = null;
+        if (format == Format.NDJSON) {
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline written after each object, not by the default space
+            generator.setRootValueSeparator(null);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        long afterId = 0L;
+        while (true) {
+            List<UrlMappingExportView> page = urlMappingRepository.findForExportAfterId(
+                    afterId, lower, upper, PageRequest.of(0, pageSize));
+
+            for (UrlMappingExportView row : page) {
+                if (generator != null) {
+                    writeJson(generator, row);
+                } else {
+                    writeCsv(writer, row);
+                }
+                afterId = row.getId();
+            }
+            rows += page.size();
+
+            if (generator != null) {
+                generator.flush();
+            }
+            writer.flush();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        logger.info("Exported {} URL mappings as {} in {} ms", rows, format, System.currentTimeMillis() - startTime);
+        auditLogger.info("URL_EXPORT - Format: {}, From: {}, To: {}, Rows: {}", format, from, to, rows);
+        return rows;
+    }
+
+    private static void writeJson(JsonGenerator generator, UrlMappingExportView row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        generator.writeStringField("shortCode", row.getShortCode());
+        generator.writeStringField("longUrl", row.getLongUrl());
+        generator.writeStringField("createdAt", row.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeCsv(Writer writer, UrlMappingExportView row) throws IOException {
+        writer.write(Long.toString(row.getId()));
+        writer.write(',');
+        writer.write(row.getShortCode());
+        writer.write(',');
+        writer.write(escapeCsv(row.getLongUrl()));
+        writer.write(',');
+        writer.write(row.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        writer.write('\n');
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * @return the download file name for a format, with .gz appended when compressed
+     */
+    public static String fileName(Format format, boolean gzip) {
+        return "url-mappings." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+}
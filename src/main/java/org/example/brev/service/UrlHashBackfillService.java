@@ -0,0 +1,129 @@
+package org.example.brev.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.brev.repository.LongUrlView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.util.UrlDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Online backfill of the long_url_hash column for rows created before it existed.
+ *
+ * Walks the table in ID order in small batches, each in its own short transaction,
+ * so the job can run against live traffic. Rows whose URL duplicates one that already
+ * holds the digest are left without one: they still resolve by short code, and
+ * dedupe on create returns the hashed row instead.
+ */
+@Service
+public class UrlHashBackfillService {
+
+    private static final Logger logger = LogManager.getLogger(UrlHashBackfillService.class);
+    private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
+
+    private final UrlMappingRepository urlMappingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private volatile long lastProcessedId;
+    private volatile boolean completed;
+    private long totalHashed;
+    private long totalSkipped;
+
+    public UrlHashBackfillService(UrlMappingRepository urlMappingRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.backfill.url-hash.enabled:true}") boolean enabled,
+                                  @Value("${app.backfill.url-hash.batch-size:500}") int batchSize) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Hashes the next batch of rows; stops scheduling work once no unhashed rows are left
+     */
+    @Scheduled(initialDelayString = "${app.backfill.url-hash.initial-delay-ms:30000}",
+               fixedDelayString = "${app.backfill.url-hash.interval-ms:1000}")
+    public void backfillNextBatch() {
+        if (!enabled || completed) {
+            return;
+        }
+
+        try {
+            int scanned = backfillBatch();
+            if (scanned < batchSize) {
+                completed = true;
+                logger.info("Long URL digest backfill completed - Hashed: {}, Skipped duplicates: {}",
+                           totalHashed, totalSkipped);
+                auditLogger.info("URL_HASH_BACKFILL_COMPLETED - Hashed: {}, SkippedDuplicates: {}",
+                               totalHashed, totalSkipped);
+            }
+        } catch (Exception e) {
+            logger.error("Long URL digest backfill failed after ID {}: {}", lastProcessedId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return true once every row has been visited
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Processes one batch in a single transaction
+     *
+     * @return the number of rows scanned
+     */
+    int backfillBatch() {
+        Integer scanned = transactionTemplate.execute(status -> {
+            List<LongUrlView> rows = urlMappingRepository.findUnhashedAfterId(
+                    lastProcessedId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            // First row wins when URLs repeat within the batch
+            Map<ByteBuffer, LongUrlView> candidates = new LinkedHashMap<>();
+            for (LongUrlView row : rows) {
+                candidates.putIfAbsent(ByteBuffer.wrap(UrlDigest.of(row.getLongUrl())), row);
+            }
+
+            List<byte[]> hashes = new ArrayList<>(candidates.size());
+            candidates.keySet().forEach(key -> hashes.add(key.array()));
+            Set<ByteBuffer> taken = new HashSet<>();
+            urlMappingRepository.findExistingLongUrlHashes(hashes)
+                    .forEach(hash -> taken.add(ByteBuffer.wrap(hash)));
+
+            int hashed = 0;
+            for (Map.Entry<ByteBuffer, LongUrlView> entry : candidates.entrySet()) {
+                if (!taken.contains(entry.getKey())) {
+                    hashed += urlMappingRepository.updateLongUrlHash(entry.getValue().getId(), entry.getKey().array());
+                }
+            }
+
+            totalHashed += hashed;
+            totalSkipped += rows.size() - hashed;
+            lastProcessedId = rows.get(rows.size() - 1).getId();
+            logger.debug("Long URL digest backfill batch - Scanned: {}, Hashed: {}, LastId: {}",
+                        rows.size(), hashed, lastProcessedId);
+            return rows.size();
+        });
+        return scanned != null ? scanned : 0;
+    }
+}
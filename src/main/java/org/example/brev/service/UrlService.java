@@ -1,17 +1,53 @@
 package org.example.brev.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.example.brev.entity.UrlMapping;
 import org.example.brev.exception.ShortCodeGenerationException;
 import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.exception.UrlServiceException;
+import org.example.brev.repository.ExpiredMappingView;
+import org.example.brev.repository.UrlMappingBatchRepository;
 import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.service.RedisCacheService.CachedUrlMapping;
+import org.example.brev.service.UrlServiceMetrics.CreateStage;
+import org.example.brev.service.UrlServiceMetrics.LookupStage;
+import org.example.brev.service.UrlServiceMetrics.Result;
+import org.example.brev.service.UrlServiceMetrics.Source;
+import org.example.brev.util.UrlDigest;
+import org.example.brev.util.UrlUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Transactional
@@ -20,30 +56,90 @@ public class UrlService {
     private static final Logger logger = LogManager.getLogger(UrlService.class);
     private static final Logger auditLogger = LogManager.getLogger("org.example.brev.audit");
 
-    private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int SHORT_CODE_LENGTH = 6;
     private static final int MAX_RETRY_ATTEMPTS = 5;
     private static final int MAX_URL_LENGTH = 2048;
 
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+    // Assumed reload time until the first database lookup has been measured
+    private static final long INITIAL_RECOMPUTE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
     private final UrlMappingRepository urlMappingRepository;
+    private final UrlMappingBatchRepository urlMappingBatchRepository;
     private final RedisCacheService redisCacheService;
-    private final SecureRandom secureRandom;
+    private final LocalCacheService localCacheService;
+    private final ShortCodeFilterService shortCodeFilterService;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final UrlServiceMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+
+    // Database loads in progress, so concurrent misses on one short code share a single query
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlightLoads = new ConcurrentHashMap<>();
+
+    // Early refreshes queued or running, so a hot key is reloaded once however many reads pick it
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    // Moving average of a database load plus cache fill, the "delta" of the early refresh decision
+    private volatile long recomputeNanos = INITIAL_RECOMPUTE_NANOS;
+
+    @Value("${app.lookup.coalescing.enabled:true}")
+    private boolean coalescingEnabled = true;
+
+    @Value("${app.lookup.coalescing.timeout-ms:2000}")
+    private long coalescingTimeoutMs = 2000;
+
+    @Value("${app.cache.early-refresh.enabled:true}")
+    private boolean earlyRefreshEnabled = true;
+
+    @Value("${app.cache.early-refresh.beta:1.0}")
+    private double earlyRefreshBeta = 1.0;
+
+    @Value("${app.cleanup.chunk-size:1000}")
+    private int cleanupChunkSize = 1000;
+
+    @Value("${app.cleanup.chunk-pause-ms:100}")
+    private long cleanupChunkPauseMs = 100;
 
     public UrlService(final UrlMappingRepository urlMappingRepository,
-                     final RedisCacheService redisCacheService) {
+                     final UrlMappingBatchRepository urlMappingBatchRepository,
+                     final RedisCacheService redisCacheService,
+                     final LocalCacheService localCacheService,
+                     final ShortCodeFilterService shortCodeFilterService,
+                     final ShortCodeGenerator shortCodeGenerator,
+                     final MeterRegistry meterRegistry,
+                     final PlatformTransactionManager transactionManager) {
         this.urlMappingRepository = urlMappingRepository;
+        this.urlMappingBatchRepository = urlMappingBatchRepository;
         this.redisCacheService = redisCacheService;
-        this.secureRandom = new SecureRandom();
+        this.localCacheService = localCacheService;
+        this.shortCodeFilterService = shortCodeFilterService;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.metrics = new UrlServiceMetrics(meterRegistry);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshExecutor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+                runnable -> Thread.ofPlatform().name("cache-early-refresh").daemon(true).unstarted(runnable));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 
     /**
      * Creates a short URL for the given long URL
+     * Generates the code before opening the transaction for the lookup and insert, so this thread holds
+     * no pooled connection while a segment lease (see {@link SegmentShortCodeGenerator}) waits for one.
+     * Concurrent creates of the same URL all return the row that was inserted first, and a code that
+     * turns out to be taken on insert is replaced by a probed one.
      *
      * @param longUrl The original URL to be shortened
      * @return UrlMapping entity with the generated short code
      * @throws IllegalArgumentException if the URL is invalid
      * @throws ShortCodeGenerationException if unable to generate unique short code after max attempts
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UrlMapping createShortUrl(String longUrl) {
         logger.info("Creating short URL for: {}", longUrl);
 
@@ -61,48 +157,214 @@ public class UrlService {
         }
 
         // Normalize URL (ensure it has protocol)
-        String normalizedUrl = normalizeUrl(longUrl.trim());
+        String normalizedUrl = UrlUtils.normalizeUrl(longUrl.trim());
         logger.debug("Normalized URL from '{}' to '{}'", longUrl, normalizedUrl);
 
-        // Check if URL already exists
-        Optional<UrlMapping> existingMapping = urlMappingRepository.findByLongUrl(normalizedUrl);
-        if (existingMapping.isPresent()) {
-            logger.info("Found existing mapping for URL: {}, returning short code: {}",
-                       normalizedUrl, existingMapping.get().getShortCode());
-            auditLogger.info("URL_RETRIEVAL_EXISTING - URL: {}, ShortCode: {}",
-                           normalizedUrl, existingMapping.get().getShortCode());
-            return existingMapping.get();
+        Timer.Sample createSample = metrics.start();
+        Timer.Sample stageSample = metrics.start();
+        CreateStage stage = CreateStage.GENERATE;
+        try {
+            // Generate the code before the transaction opens, as a segment lease needs a connection of
+            // its own. An unused code is skipped, like a segment's tail
+            String shortCode = generateUniqueShortCode(false);
+            metrics.createStage(stageSample, stage, Result.OK);
+            stage = null;
+            logger.debug("Generated unique short code: {}", shortCode);
+
+            // Look up and insert in one transaction, so both run on a single pooled connection
+            SaveOutcome outcome = null;
+            for (int attempt = 1; outcome == null; attempt++) {
+                String candidate = shortCode;
+                try {
+                    outcome = transactionTemplate.execute(status -> findOrSaveMapping(normalizedUrl, candidate));
+                } catch (DataIntegrityViolationException e) {
+                    Optional<UrlMapping> winner = findExistingMapping(normalizedUrl);
+                    if (winner.isPresent()) {
+                        // A concurrent create of the same URL inserted first (uk_long_url_hash); return its row
+                        logger.debug("Concurrent create of URL {} won the insert with short code {}",
+                                    normalizedUrl, winner.get().getShortCode());
+                        outcome = new SaveOutcome(winner.get(), false);
+                    } else if (attempt < MAX_RETRY_ATTEMPTS && urlMappingRepository.existsByShortCode(candidate)) {
+                        // Another row holds the code, e.g. from a node that shares our Snowflake node id
+                        metrics.codeAttempts(0, 1);
+                        logger.warn("Short code {} was taken on insert, retrying with a probed code", candidate);
+                        stageSample = metrics.start();
+                        stage = CreateStage.GENERATE;
+                        shortCode = generateUniqueShortCode(true);
+                        metrics.createStage(stageSample, stage, Result.OK);
+                        stage = null;
+                    } else {
+                        throw e;
+                    }
+                }
+            }
+            UrlMapping savedMapping = outcome.mapping();
+            if (!outcome.created()) {
+                logger.info("Found existing mapping for URL: {}, returning short code: {}",
+                           normalizedUrl, savedMapping.getShortCode());
+                auditLogger.info("URL_RETRIEVAL_EXISTING - URL: {}, ShortCode: {}",
+                               normalizedUrl, savedMapping.getShortCode());
+                metrics.create(createSample, Result.EXISTING);
+                return savedMapping;
+            }
+            shortCodeFilterService.add(savedMapping.getId(), shortCode);
+
+            // Cache the new URL mapping in Redis for future lookups
+            stageSample = metrics.start();
+            stage = CreateStage.CACHE_FILL;
+            redisCacheService.cacheUrlMapping(shortCode, normalizedUrl);
+            localCacheService.put(shortCode, normalizedUrl);
+            metrics.createStage(stageSample, stage, Result.OK);
+            stage = null;
+
+            logger.info("Successfully created short URL mapping - Long URL: {}, Short Code: {}, ID: {}",
+                       normalizedUrl, shortCode, savedMapping.getId());
+            auditLogger.info("URL_CREATION - URL: {}, ShortCode: {}, ID: {}, Timestamp: {}",
+                            normalizedUrl, shortCode, savedMapping.getId(), savedMapping.getCreatedAt());
+
+            metrics.create(createSample, Result.CREATED);
+            return savedMapping;
+        } catch (RuntimeException e) {
+            if (stage != null) {
+                metrics.createStage(stageSample, stage, Result.ERROR);
+            }
+            metrics.create(createSample, Result.ERROR);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the mapping of an existing long URL, or saves a new one with the given short code
+     *
+     * @param normalizedUrl The normalized long URL
+     * @param shortCode The freshly generated short code, used only if the URL is new
+     * @return The existing or saved mapping, and whether it was created
+     */
+    private SaveOutcome findOrSaveMapping(String normalizedUrl, String shortCode) {
+        Timer.Sample stageSample = metrics.start();
+        CreateStage stage = CreateStage.DEDUPE_LOOKUP;
+        try {
+            Optional<UrlMapping> existingMapping = findExistingMapping(normalizedUrl);
+            metrics.createStage(stageSample, stage, existingMapping.isPresent() ? Result.HIT : Result.MISS);
+            if (existingMapping.isPresent()) {
+                return new SaveOutcome(existingMapping.get(), false);
+            }
+
+            stageSample = metrics.start();
+            stage = CreateStage.SAVE;
+            UrlMapping savedMapping = urlMappingRepository.save(new UrlMapping(normalizedUrl, shortCode));
+            metrics.createStage(stageSample, stage, Result.OK);
+            return new SaveOutcome(savedMapping, true);
+        } catch (RuntimeException e) {
+            metrics.createStage(stageSample, stage, Result.ERROR);
+            throw e;
         }
+    }
 
-        // Generate unique short code
-        String shortCode = generateUniqueShortCode();
-        logger.debug("Generated unique short code: {}", shortCode);
+    /**
+     * Finds the mapping of a long URL by digest index lookup, confirmed against the full URL
+     */
+    private Optional<UrlMapping> findExistingMapping(String normalizedUrl) {
+        return urlMappingRepository.findByLongUrlHash(UrlDigest.of(normalizedUrl))
+                .filter(mapping -> normalizedUrl.equals(mapping.getLongUrl()));
+    }
 
-        // Create and save new URL mapping
-        UrlMapping urlMapping = new UrlMapping(normalizedUrl, shortCode);
-        UrlMapping savedMapping = urlMappingRepository.save(urlMapping);
+    /**
+     * Outcome of {@link #findOrSaveMapping(String, String)}
+     *
+     * @param mapping The existing or saved mapping
+     * @param created Whether the mapping was saved by this call
+     */
+    private record SaveOutcome(UrlMapping mapping, boolean created) {
+    }
 
-        // Cache the new URL mapping in Redis for future lookups
-        redisCacheService.cacheUrlMapping(shortCode, normalizedUrl);
+    /**
+     * Creates short URLs for many long URLs at once
+     * Repeated URLs are deduped within the batch and against the database with one set-based
+     * query, new rows are written with JDBC batch inserts and Redis is filled in one pipeline.
+     * As with {@link #createShortUrl(String)}, codes are generated before the transaction opens.
+     *
+     * @param longUrls The original URLs to be shortened
+     * @return The mappings in request order, and how many of them were newly created
+     * @throws IllegalArgumentException if any URL is invalid
+     * @throws ShortCodeGenerationException if unable to generate unique short codes after max attempts
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BatchResult createShortUrls(List<String> longUrls) {
+        logger.info("Creating short URLs for a batch of {} URLs", longUrls.size());
+
+        // Validate and normalize in one pass
+        List<String> normalizedUrls = new ArrayList<>(longUrls.size());
+        for (int i = 0; i < longUrls.size(); i++) {
+            String longUrl = longUrls.get(i);
+            if (longUrl == null || longUrl.trim().isEmpty()) {
+                throw new IllegalArgumentException("Long URL at index " + i + " cannot be null or empty");
+            }
+            if (longUrl.length() > MAX_URL_LENGTH) {
+                throw new IllegalArgumentException("Long URL at index " + i + " cannot exceed "
+                        + MAX_URL_LENGTH + " characters");
+            }
+            normalizedUrls.add(UrlUtils.normalizeUrl(longUrl.trim()));
+        }
 
-        logger.info("Successfully created short URL mapping - Long URL: {}, Short Code: {}, ID: {}",
-                   normalizedUrl, shortCode, savedMapping.getId());
-        auditLogger.info("URL_CREATION - URL: {}, ShortCode: {}, ID: {}, Timestamp: {}",
-                        normalizedUrl, shortCode, savedMapping.getId(), savedMapping.getCreatedAt());
+        // Dedupe within the batch, keyed by digest
+        Map<String, ByteBuffer> uniqueUrls = new LinkedHashMap<>();
+        for (String normalizedUrl : normalizedUrls) {
+            uniqueUrls.computeIfAbsent(normalizedUrl, url -> ByteBuffer.wrap(UrlDigest.of(url)));
+        }
 
-        return savedMapping;
+        Map<String, UrlMapping> mappingsByUrl = new HashMap<>();
+        List<UrlMapping> newMappings = insertMissingMappings(uniqueUrls, mappingsByUrl);
+
+        Map<String, String> cacheEntries = new HashMap<>();
+        for (UrlMapping mapping : newMappings) {
+            cacheEntries.put(mapping.getShortCode(), mapping.getLongUrl());
+        }
+        redisCacheService.cacheUrlMappings(cacheEntries);
+
+        List<UrlMapping> results = normalizedUrls.stream().map(mappingsByUrl::get).toList();
+
+        logger.info("Successfully processed URL batch - Requested: {}, Unique: {}, Created: {}",
+                   longUrls.size(), uniqueUrls.size(), newMappings.size());
+        auditLogger.info("URL_BATCH_CREATION - Requested: {}, Unique: {}, Created: {}",
+                        longUrls.size(), uniqueUrls.size(), newMappings.size());
+
+        return new BatchResult(results, newMappings.size());
+    }
+
+    /**
+     * Imports already validated and normalized URLs in one insert transaction, skipping any that exist
+     * Used by the offline bulk loader; unlike {@link #createShortUrls(List)} it does not fill the
+     * Redis cache, and re-importing the same URLs is a no-op, which makes replays after a crash safe.
+     *
+     * @param normalizedUrls Validated, normalized long URLs
+     * @return the number of mappings created
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int importUrls(List<String> normalizedUrls) {
+        Map<String, ByteBuffer> uniqueUrls = new LinkedHashMap<>();
+        for (String normalizedUrl : normalizedUrls) {
+            uniqueUrls.computeIfAbsent(normalizedUrl, url -> ByteBuffer.wrap(UrlDigest.of(url)));
+        }
+
+        return insertMissingMappings(uniqueUrls, new HashMap<>()).size();
     }
 
     /**
      * Retrieves the original long URL using the short code
-     * Uses Redis cache-aside pattern: check cache first, then database if cache miss
+     * Uses a two-tier cache-aside pattern: in-process cache, then Redis, then database on a miss.
+     * Runs without a surrounding transaction so that cache hits never borrow a database connection.
+     * Concurrent misses on the same short code are coalesced: the first caller runs the database
+     * lookup and the cache fill, later callers wait for its result instead of querying again.
+     * A local or Redis hit close to its expiry may reload the mapping in the background (see
+     * {@link #shouldRefreshEarly}), so hot links are refreshed before they expire and no request waits for the reload.
      *
      * @param shortCode The short code to look up
      * @return The original long URL
      * @throws IllegalArgumentException if short code is invalid
      * @throws ShortCodeNotFoundException if short code is not found
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public String getLongUrl(String shortCode) {
         logger.debug("Retrieving long URL for short code: {}", shortCode);
 
@@ -114,38 +376,302 @@ public class UrlService {
 
         String trimmedShortCode = shortCode.trim();
 
-        // Step 1: Check Redis cache first
-        String cachedLongUrl = redisCacheService.getCachedUrlMapping(trimmedShortCode);
-        if (cachedLongUrl != null) {
-            logger.info("Cache hit - Retrieved long URL from Redis for short code: {} -> {}",
-                       trimmedShortCode, cachedLongUrl);
-            auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}",
+        Timer.Sample lookupSample = metrics.start();
+        Source source = Source.FILTER;
+        try {
+            // Step 0: Reject codes that were never issued before doing any I/O
+            if (shortCodeFilterService.isDefinitelyAbsent(trimmedShortCode)) {
+                String filteredLongUrl = resolveFilteredShortCode(trimmedShortCode);
+                metrics.lookup(lookupSample, source, Result.HIT);
+                return filteredLongUrl;
+            }
+
+            // Step 1: Check the in-process cache
+            source = Source.LOCAL;
+            Timer.Sample stageSample = metrics.start();
+            String localLongUrl;
+            if (earlyRefreshEnabled) {
+                CachedUrlMapping local = localCacheService.getWithTtl(trimmedShortCode);
+                localLongUrl = local != null ? local.longUrl() : null;
+                if (local != null && shouldRefreshEarly(local.ttlMillis(), recomputeNanos, earlyRefreshBeta,
+                        1.0 - ThreadLocalRandom.current().nextDouble())) {
+                    scheduleEarlyRefresh(trimmedShortCode);
+                }
+            } else {
+                localLongUrl = localCacheService.get(trimmedShortCode);
+            }
+            metrics.lookupStage(stageSample, LookupStage.LOCAL_CACHE, localLongUrl != null ? Result.HIT : Result.MISS);
+            if (localLongUrl != null) {
+                logger.debug("Local cache hit for short code: {} -> {}", trimmedShortCode, localLongUrl);
+                auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}",
+                               trimmedShortCode, localLongUrl);
+                metrics.lookup(lookupSample, source, Result.HIT);
+                return localLongUrl;
+            }
+
+            // Step 2: Check Redis cache
+            source = Source.REDIS;
+            stageSample = metrics.start();
+            String cachedLongUrl;
+            long cachedTtlMillis = -1L;
+            if (earlyRefreshEnabled) {
+                CachedUrlMapping cached = redisCacheService.getCachedUrlMappingWithTtl(trimmedShortCode);
+                cachedLongUrl = cached != null ? cached.longUrl() : null;
+                cachedTtlMillis = cached != null ? cached.ttlMillis() : -1L;
+                if (cached != null && shouldRefreshEarly(cached.ttlMillis(), recomputeNanos, earlyRefreshBeta,
+                        1.0 - ThreadLocalRandom.current().nextDouble())) {
+                    scheduleEarlyRefresh(trimmedShortCode);
+                }
+            } else {
+                cachedLongUrl = redisCacheService.getCachedUrlMapping(trimmedShortCode);
+            }
+            metrics.lookupStage(stageSample, LookupStage.REDIS_GET, cachedLongUrl != null ? Result.HIT : Result.MISS);
+            if (cachedLongUrl != null) {
+                // Expire locally with the Redis key, so the local copy never outlives it
+                localCacheService.put(trimmedShortCode, cachedLongUrl, cachedTtlMillis);
+                logger.info("Cache hit - Retrieved long URL from Redis for short code: {} -> {}",
                            trimmedShortCode, cachedLongUrl);
-            return cachedLongUrl;
+                auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}",
+                               trimmedShortCode, cachedLongUrl);
+                metrics.lookup(lookupSample, source, Result.HIT);
+                return cachedLongUrl;
+            }
+
+            // Step 3: Cache miss - fetch from database, one loader per short code on this node
+            logger.debug("Cache miss - Fetching from database for short code: {}", trimmedShortCode);
+            source = Source.DATABASE;
+            CompletableFuture<String> load = null;
+            if (coalescingEnabled) {
+                load = new CompletableFuture<>();
+                CompletableFuture<String> inFlight = inFlightLoads.putIfAbsent(trimmedShortCode, load);
+                if (inFlight != null) {
+                    source = Source.COALESCED;
+                    String coalescedLongUrl = awaitInFlightLoad(trimmedShortCode, inFlight);
+                    if (coalescedLongUrl != null) {
+                        metrics.lookup(lookupSample, source, Result.HIT);
+                        return coalescedLongUrl;
+                    }
+                    // The loader is too slow; fall back to a lookup of our own
+                    source = Source.DATABASE;
+                    load = null;
+                }
+            }
+
+            try {
+                String longUrl = loadFromDatabase(trimmedShortCode);
+                if (load != null) {
+                    load.complete(longUrl);
+                }
+                metrics.lookup(lookupSample, source, Result.HIT);
+                return longUrl;
+            } catch (RuntimeException | Error e) {
+                if (load != null) {
+                    load.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                if (load != null) {
+                    inFlightLoads.remove(trimmedShortCode, load);
+                }
+            }
+        } catch (ShortCodeNotFoundException e) {
+            metrics.lookup(lookupSample, source, Result.NOT_FOUND);
+            throw e;
+        } catch (RuntimeException e) {
+            metrics.lookup(lookupSample, source, Result.ERROR);
+            throw e;
         }
+    }
 
-        // Step 2: Cache miss - fetch from database
-        logger.debug("Cache miss - Fetching from database for short code: {}", trimmedShortCode);
-        Optional<UrlMapping> urlMapping = urlMappingRepository.findByShortCode(trimmedShortCode);
+    /**
+     * Steps 3 and 4 of a lookup: reads the mapping from the database and fills both cache tiers
+     *
+     * @param shortCode The trimmed short code
+     * @return The long URL
+     * @throws ShortCodeNotFoundException if the code does not exist
+     */
+    private String loadFromDatabase(String shortCode) {
+        long startTime = System.nanoTime();
+        Timer.Sample stageSample = metrics.start();
+        Optional<UrlMapping> urlMapping;
+        try {
+            urlMapping = urlMappingRepository.findByShortCode(shortCode);
+        } catch (RuntimeException e) {
+            metrics.lookupStage(stageSample, LookupStage.DB_LOOKUP, Result.ERROR);
+            throw e;
+        }
+        metrics.lookupStage(stageSample, LookupStage.DB_LOOKUP,
+                urlMapping.isPresent() ? Result.HIT : Result.NOT_FOUND);
 
         if (urlMapping.isEmpty()) {
-            logger.warn("Short code not found: {}", trimmedShortCode);
-            auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", trimmedShortCode);
-            throw new ShortCodeNotFoundException(trimmedShortCode);
+            logger.warn("Short code not found: {}", shortCode);
+            auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", shortCode);
+            throw new ShortCodeNotFoundException(shortCode);
         }
 
         String longUrl = urlMapping.get().getLongUrl();
 
-        // Step 3: Store in Redis cache for future requests
-        redisCacheService.cacheUrlMapping(trimmedShortCode, longUrl);
+        // Step 4: Store in both cache tiers for future requests; Redis only from the second miss on
+        stageSample = metrics.start();
+        redisCacheService.cacheUrlMappingOnMiss(shortCode, longUrl);
+        localCacheService.put(shortCode, longUrl);
+        metrics.lookupStage(stageSample, LookupStage.CACHE_FILL, Result.OK);
+        recordRecomputeTime(System.nanoTime() - startTime);
 
         logger.info("Successfully retrieved long URL from database for short code: {} -> {}",
-                   trimmedShortCode, longUrl);
-        auditLogger.info("URL_LOOKUP_SUCCESS_DB - ShortCode: {}, URL: {}", trimmedShortCode, longUrl);
-
+                   shortCode, longUrl);
+        auditLogger.info("URL_LOOKUP_SUCCESS_DB - ShortCode: {}, URL: {}", shortCode, longUrl);
         return longUrl;
     }
 
+    /**
+     * Waits for another caller's database load of the same short code
+     *
+     * @param shortCode The trimmed short code
+     * @param inFlight The load started by the first caller
+     * @return The long URL, or null if the load did not finish within the coalescing timeout
+     * @throws ShortCodeNotFoundException if the loader found no mapping
+     */
+    private String awaitInFlightLoad(String shortCode, CompletableFuture<String> inFlight) {
+        metrics.coalescedWaiter();
+        try {
+            String longUrl = inFlight.get(coalescingTimeoutMs, TimeUnit.MILLISECONDS);
+            auditLogger.info("URL_LOOKUP_SUCCESS_DB - ShortCode: {}, URL: {}", shortCode, longUrl);
+            return longUrl;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ShortCodeNotFoundException) {
+                auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", shortCode);
+                throw new ShortCodeNotFoundException(shortCode);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UrlServiceException("Failed to load short code: " + shortCode, cause);
+        } catch (TimeoutException e) {
+            metrics.coalescedTimeout();
+            logger.warn("Coalesced lookup for short code {} timed out after {}ms", shortCode, coalescingTimeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UrlServiceException("Interrupted while waiting for short code: " + shortCode, e);
+        }
+    }
+
+    /**
+     * XFetch (Vattani et al., "Optimal Probabilistic Cache Stampede Prevention"): refresh when
+     * {@code delta * beta * -ln(random)} reaches the time the key has left. Far from expiry the
+     * chance is negligible; it rises steeply over the last few reload times, so under load a hot key
+     * is reloaded by one read just before it expires while rarely read keys simply expire.
+     *
+     * @param ttlMillis Time the Redis key has left; negative if it has no expiry
+     * @param recomputeNanos Measured time to reload the mapping (delta)
+     * @param beta Values above 1 refresh earlier, below 1 later
+     * @param random Uniform in (0, 1]
+     * @return true if this read should trigger a background reload
+     */
+    static boolean shouldRefreshEarly(long ttlMillis, long recomputeNanos, double beta, double random) {
+        if (ttlMillis < 0) {
+            return false;
+        }
+        double gapMillis = recomputeNanos / 1_000_000.0 * beta * -Math.log(random);
+        return gapMillis >= ttlMillis;
+    }
+
+    private void scheduleEarlyRefresh(String shortCode) {
+        if (inFlightLoads.containsKey(shortCode) || !pendingRefreshes.add(shortCode)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refreshEarly(shortCode));
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down; the key expires normally and the next miss reloads it
+            pendingRefreshes.remove(shortCode);
+            logger.debug("Early refresh of short code {} rejected: {}", shortCode, e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads a mapping and rewrites both cache tiers with a fresh TTL. Registers as the in-flight
+     * load for the code, so a miss that arrives meanwhile waits for it instead of querying again.
+     */
+    private void refreshEarly(String shortCode) {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        boolean registered = false;
+        Timer.Sample stageSample = metrics.start();
+        try {
+            if (coalescingEnabled) {
+                if (inFlightLoads.putIfAbsent(shortCode, load) != null) {
+                    // A miss is already reloading it
+                    return;
+                }
+                registered = true;
+            }
+
+            long startTime = System.nanoTime();
+            Optional<UrlMapping> urlMapping = urlMappingRepository.findByShortCode(shortCode);
+            if (urlMapping.isEmpty()) {
+                // Deleted since it was cached
+                redisCacheService.evictUrlMapping(shortCode);
+                localCacheService.invalidate(shortCode);
+                load.completeExceptionally(new ShortCodeNotFoundException(shortCode));
+                metrics.lookupStage(stageSample, LookupStage.EARLY_REFRESH, Result.NOT_FOUND);
+                return;
+            }
+
+            String longUrl = urlMapping.get().getLongUrl();
+            redisCacheService.cacheUrlMapping(shortCode, longUrl);
+            localCacheService.put(shortCode, longUrl);
+            recordRecomputeTime(System.nanoTime() - startTime);
+            load.complete(longUrl);
+            metrics.lookupStage(stageSample, LookupStage.EARLY_REFRESH, Result.OK);
+            logger.debug("Refreshed cached mapping ahead of expiry for short code: {}", shortCode);
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            metrics.lookupStage(stageSample, LookupStage.EARLY_REFRESH, Result.ERROR);
+            logger.warn("Early refresh failed for short code: {}, error: {}", shortCode, e.getMessage());
+        } finally {
+            if (registered) {
+                inFlightLoads.remove(shortCode, load);
+            }
+            pendingRefreshes.remove(shortCode);
+        }
+    }
+
+    // Racy read-modify-write is fine: an occasionally lost sample barely moves the average
+    private void recordRecomputeTime(long nanos) {
+        long current = recomputeNanos;
+        recomputeNanos = current + (nanos - current) / 8;
+    }
+
+    /**
+     * Handles a short code that the filter reports as never issued.
+     * Optionally confirms against Redis only, to cover codes created on another
+     * instance since the last filter sync; the database is never queried.
+     *
+     * @param shortCode The trimmed short code
+     * @return The long URL if Redis knows the code
+     * @throws ShortCodeNotFoundException otherwise
+     */
+    private String resolveFilteredShortCode(String shortCode) {
+        if (shortCodeFilterService.shouldVerifyNegativesInCache()) {
+            String cachedLongUrl = redisCacheService.getCachedUrlMapping(shortCode);
+            if (cachedLongUrl != null) {
+                shortCodeFilterService.add(shortCode);
+                localCacheService.put(shortCode, cachedLongUrl);
+                auditLogger.info("URL_LOOKUP_SUCCESS_CACHE - ShortCode: {}, URL: {}", shortCode, cachedLongUrl);
+                return cachedLongUrl;
+            }
+        }
+
+        logger.debug("Short code rejected by filter: {}", shortCode);
+        auditLogger.warn("URL_LOOKUP_FAILED - ShortCode: {}", shortCode);
+        throw new ShortCodeNotFoundException(shortCode);
+    }
+
     /**
      * Retrieves the complete URL mapping using the short code
      *
@@ -188,31 +714,75 @@ public class UrlService {
 
     /**
      * Deletes URL mappings older than the specified date
-     * Also invalidates cache entries for deleted mappings
+     * Works in chunks in (created_at, id) order: each chunk is one bulk DELETE by ID in its own
+     * short transaction, followed by one batched cache eviction and a short pause, so cleanup
+     * never holds long transactions or large lock sets.
      *
      * @param cutoffDate The date before which mappings should be deleted
+     * @return the number of mappings deleted, as reported by the DELETE statements
      */
-    public void deleteOldMappings(LocalDateTime cutoffDate) {
-        if (cutoffDate != null) {
-            logger.info("Deleting URL mappings older than: {}", cutoffDate);
-
-            // Get mappings to be deleted for cache invalidation
-            var mappingsToDelete = urlMappingRepository.findByCreatedAtBefore(cutoffDate);
-
-            long countBefore = urlMappingRepository.count();
-            urlMappingRepository.deleteByCreatedAtBefore(cutoffDate);
-            long countAfter = urlMappingRepository.count();
-            long deletedCount = countBefore - countAfter;
-
-            // Invalidate cache entries for deleted mappings
-            mappingsToDelete.forEach(mapping ->
-                redisCacheService.evictUrlMapping(mapping.getShortCode()));
-
-            logger.info("Successfully deleted {} URL mappings older than {} and invalidated cache entries",
-                       deletedCount, cutoffDate);
-            auditLogger.info("URL_CLEANUP - DeletedCount: {}, CutoffDate: {}", deletedCount, cutoffDate);
-        } else {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long deleteOldMappings(LocalDateTime cutoffDate) {
+        if (cutoffDate == null) {
             logger.warn("Attempted to delete old mappings with null cutoff date");
+            return 0;
+        }
+
+        logger.info("Deleting URL mappings older than: {} in chunks of {}", cutoffDate, cleanupChunkSize);
+        long deletedCount = 0;
+        int chunks = 0;
+
+        List<ExpiredMappingView> chunk = urlMappingRepository.findExpired(
+                cutoffDate, PageRequest.of(0, cleanupChunkSize));
+        while (!chunk.isEmpty()) {
+            List<Long> ids = new ArrayList<>(chunk.size());
+            List<String> shortCodes = new ArrayList<>(chunk.size());
+            for (ExpiredMappingView mapping : chunk) {
+                ids.add(mapping.getId());
+                shortCodes.add(mapping.getShortCode());
+            }
+
+            // Read before the delete, so a filter rebuilt meanwhile is left alone
+            long filterGeneration = shortCodeFilterService.generation();
+            deletedCount += urlMappingRepository.deleteByIds(ids);
+            chunks++;
+
+            // Invalidate cache entries for the deleted chunk in one batch
+            redisCacheService.evictUrlMappings(shortCodes);
+            localCacheService.invalidateAll(shortCodes);
+            shortCodeFilterService.removeAll(shortCodes, filterGeneration);
+
+            if (chunk.size() < cleanupChunkSize || !pauseBetweenChunks()) {
+                break;
+            }
+
+            ExpiredMappingView last = chunk.get(chunk.size() - 1);
+            chunk = urlMappingRepository.findExpiredAfter(
+                    cutoffDate, last.getCreatedAt(), last.getId(), PageRequest.of(0, cleanupChunkSize));
+        }
+
+        logger.info("Successfully deleted {} URL mappings older than {} in {} chunks and invalidated cache entries",
+                   deletedCount, cutoffDate, chunks);
+        auditLogger.info("URL_CLEANUP - DeletedCount: {}, CutoffDate: {}, Chunks: {}", deletedCount, cutoffDate, chunks);
+        return deletedCount;
+    }
+
+    /**
+     * Sleeps between cleanup chunks to leave room for foreground traffic and replication
+     *
+     * @return false if the thread was interrupted and cleanup should stop
+     */
+    private boolean pauseBetweenChunks() {
+        if (cleanupChunkPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(cleanupChunkPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("URL cleanup interrupted; remaining mappings are removed on the next run");
+            return false;
         }
     }
 
@@ -224,27 +794,37 @@ public class UrlService {
     public void evictFromCache(String shortCode) {
         if (shortCode != null && !shortCode.trim().isEmpty()) {
             redisCacheService.evictUrlMapping(shortCode.trim());
+            localCacheService.invalidate(shortCode.trim());
             logger.info("Manually evicted short code from cache: {}", shortCode);
         }
     }
 
     /**
-     * Generates a unique short code
+     * Generates a unique short code.
+     * Collision-free generators are trusted as-is unless a probe is asked for; others are probed against the database.
      *
+     * @param probe Whether to check the code even if the generator reports it collision-free
      * @return A unique short code
      * @throws ShortCodeGenerationException if unable to generate unique code after max attempts
      */
-    private String generateUniqueShortCode() {
+    private String generateUniqueShortCode(boolean probe) {
         logger.debug("Generating unique short code");
 
+        if (!probe && shortCodeGenerator.isCollisionFree()) {
+            metrics.codeAttempts(1, 0);
+            return shortCodeGenerator.generate();
+        }
+
         for (int attempt = 0; attempt < MAX_RETRY_ATTEMPTS; attempt++) {
-            String shortCode = generateRandomShortCode();
+            String shortCode = shortCodeGenerator.generate();
 
             if (!urlMappingRepository.existsByShortCode(shortCode)) {
+                metrics.codeAttempts(1, 0);
                 logger.debug("Generated unique short code '{}' on attempt {}", shortCode, attempt + 1);
                 return shortCode;
             }
 
+            metrics.codeAttempts(1, 1);
             logger.debug("Short code collision detected for '{}' on attempt {}", shortCode, attempt + 1);
         }
 
@@ -253,33 +833,118 @@ public class UrlService {
     }
 
     /**
-     * Generates a random short code
+     * Dedupes URLs against the database with one set-based lookup and batch-inserts the rest
      *
-     * @return A random alphanumeric short code
+     * @param uniqueUrls Distinct normalized URLs and their digests
+     * @param mappingsByUrl Filled with the existing or new mapping of every URL
+     * @return the newly created mappings
      */
-    private String generateRandomShortCode() {
-        StringBuilder shortCode = new StringBuilder(SHORT_CODE_LENGTH);
+    private List<UrlMapping> insertMissingMappings(Map<String, ByteBuffer> uniqueUrls,
+                                                   Map<String, UrlMapping> mappingsByUrl) {
+        // One code per unique URL, generated before the transaction opens (see createShortUrl); codes
+        // of URLs that already exist are left unused
+        List<UrlMapping> newMappings;
+        for (int attempt = 1; ; attempt++) {
+            List<String> shortCodes = generateUniqueShortCodes(uniqueUrls.size(), attempt > 1);
+            try {
+                newMappings = transactionTemplate.execute(
+                        status -> dedupeAndInsert(uniqueUrls, shortCodes, mappingsByUrl));
+                break;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent create took one of the URLs or codes; dedupe again, with probed codes
+                if (attempt >= MAX_RETRY_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Batch insert of {} URLs hit a unique constraint, retrying (attempt {}): {}",
+                           uniqueUrls.size(), attempt, e.getMessage());
+                mappingsByUrl.clear();
+            }
+        }
+        newMappings.forEach(mapping -> shortCodeFilterService.add(mapping.getId(), mapping.getShortCode()));
+
+        return newMappings;
+    }
 
-        for (int i = 0; i < SHORT_CODE_LENGTH; i++) {
-            int randomIndex = secureRandom.nextInt(CHARACTERS.length());
-            shortCode.append(CHARACTERS.charAt(randomIndex));
+    private List<UrlMapping> dedupeAndInsert(Map<String, ByteBuffer> uniqueUrls, List<String> shortCodes,
+                                             Map<String, UrlMapping> mappingsByUrl) {
+        List<byte[]> hashes = new ArrayList<>(uniqueUrls.size());
+        uniqueUrls.values().forEach(hash -> hashes.add(hash.array()));
+        for (UrlMapping existing : urlMappingRepository.findByLongUrlHashIn(hashes)) {
+            if (uniqueUrls.containsKey(existing.getLongUrl())) {
+                mappingsByUrl.put(existing.getLongUrl(), existing);
+            }
         }
 
-        return shortCode.toString();
+        List<String> newUrls = uniqueUrls.keySet().stream()
+                .filter(url -> !mappingsByUrl.containsKey(url))
+                .toList();
+
+        List<UrlMapping> newMappings = new ArrayList<>(newUrls.size());
+        for (int i = 0; i < newUrls.size(); i++) {
+            UrlMapping mapping = new UrlMapping(newUrls.get(i), shortCodes.get(i));
+            newMappings.add(mapping);
+            mappingsByUrl.put(mapping.getLongUrl(), mapping);
+        }
+        urlMappingBatchRepository.insertAll(newMappings);
+
+        return newMappings;
     }
 
     /**
-     * Normalizes the URL by ensuring it has a proper protocol
+     * Generates a number of unique short codes.
+     * Codes from non collision-free generators, or all codes if a probe is asked for, are checked
+     * with one set-based query per round.
      *
-     * @param url The URL to normalize
-     * @return The normalized URL
+     * @param count The number of codes to generate
+     * @param probe Whether to check the codes even if the generator reports them collision-free
+     * @return Distinct short codes not present in the database
+     * @throws ShortCodeGenerationException if unable to generate unique codes after max attempts
      */
-    private String normalizeUrl(String url) {
-        // Check protocol using lowercase comparison but preserve original URL case
-        if (!url.toLowerCase().startsWith("http://") && !url.toLowerCase().startsWith("https://")) {
-            return "https://" + url;
+    private List<String> generateUniqueShortCodes(int count, boolean probe) {
+        List<String> shortCodes = new ArrayList<>(count);
+        if (count == 0) {
+            return shortCodes;
+        }
+
+        if (!probe && shortCodeGenerator.isCollisionFree()) {
+            for (int i = 0; i < count; i++) {
+                shortCodes.add(shortCodeGenerator.generate());
+            }
+            metrics.codeAttempts(count, 0);
+            return shortCodes;
+        }
+
+        Set<String> accepted = new HashSet<>(count * 2);
+        for (int attempt = 0; attempt < MAX_RETRY_ATTEMPTS && accepted.size() < count; attempt++) {
+            Set<String> candidates = new HashSet<>();
+            while (candidates.size() < count - accepted.size()) {
+                String candidate = shortCodeGenerator.generate();
+                if (!accepted.contains(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+
+            int generated = candidates.size();
+            candidates.removeAll(urlMappingRepository.findExistingShortCodes(candidates));
+            metrics.codeAttempts(generated, generated - candidates.size());
+            accepted.addAll(candidates);
         }
 
-        return url;
+        if (accepted.size() < count) {
+            logger.error("Failed to generate {} unique short codes after {} attempts", count, MAX_RETRY_ATTEMPTS);
+            throw new ShortCodeGenerationException(MAX_RETRY_ATTEMPTS);
+        }
+
+        shortCodes.addAll(accepted);
+        return shortCodes;
+    }
+
+    /**
+     * Outcome of a batch creation
+     *
+     * @param mappings The mappings in request order
+     * @param createdCount How many mappings were newly created
+     */
+    public record BatchResult(List<UrlMapping> mappings, int createdCount) {
     }
 }
@@ -0,0 +1,121 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency timers and counters for the stages of {@link UrlService} lookups and creations,
+ * also recorded by {@link ReactiveUrlLookupService} for its lookups.
+ *
+ * Every tag value comes from the fixed sets below, never from request data, so the number of
+ * series is bounded. Percentile histograms are switched on per prefix in application.properties
+ * (management.metrics.distribution.*.brev.url).
+ */
+final class UrlServiceMetrics {
+
+    static final String LOOKUP = "brev.url.lookup";
+    static final String LOOKUP_STAGE = "brev.url.lookup.stage";
+    static final String CREATE = "brev.url.create";
+    static final String CREATE_STAGE = "brev.url.create.stage";
+
+    /** Where a lookup was answered from; COALESCED means another caller's database load of the same code */
+    enum Source { FILTER, LOCAL, REDIS, DATABASE, COALESCED }
+
+    enum LookupStage { LOCAL_CACHE, REDIS_GET, DB_LOOKUP, CACHE_FILL, EARLY_REFRESH }
+
+    enum CreateStage { DEDUPE_LOOKUP, GENERATE, SAVE, CACHE_FILL }
+
+    enum Result { HIT, MISS, NOT_FOUND, CREATED, EXISTING, OK, ERROR }
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter codeAttempts;
+    private final Counter codeCollisions;
+    private final Counter coalescedWaiters;
+    private final Counter coalescedTimeouts;
+
+    UrlServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.codeAttempts = Counter.builder("brev.url.create.code.attempts")
+                .description("Short codes generated while creating URLs, including ones that collided")
+                .register(meterRegistry);
+        this.codeCollisions = Counter.builder("brev.url.create.code.collisions")
+                .description("Generated short codes rejected because they were already taken")
+                .register(meterRegistry);
+        this.coalescedWaiters = Counter.builder("brev.url.lookup.coalesced")
+                .description("Lookups that waited for another caller's database load of the same short code")
+                .register(meterRegistry);
+        this.coalescedTimeouts = Counter.builder("brev.url.lookup.coalesced.timeouts")
+                .description("Coalesced lookups that gave up waiting and queried the database themselves")
+                .register(meterRegistry);
+    }
+
+    Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    void lookup(Timer.Sample sample, Source source, Result result) {
+        sample.stop(timer(LOOKUP, "source", source, "result", result,
+                "End-to-end short code resolution"));
+    }
+
+    void lookupStage(Timer.Sample sample, LookupStage stage, Result result) {
+        sample.stop(timer(LOOKUP_STAGE, "stage", stage, "result", result,
+                "One stage of short code resolution"));
+    }
+
+    void create(Timer.Sample sample, Result result) {
+        sample.stop(timer(CREATE, "result", result, null, null,
+                "End-to-end short URL creation"));
+    }
+
+    void createStage(Timer.Sample sample, CreateStage stage, Result result) {
+        sample.stop(timer(CREATE_STAGE, "stage", stage, "result", result,
+                "One stage of short URL creation"));
+    }
+
+    void codeAttempts(int attempts, int collisions) {
+        codeAttempts.increment(attempts);
+        if (collisions > 0) {
+            codeCollisions.increment(collisions);
+        }
+    }
+
+    void coalescedWaiter() {
+        coalescedWaiters.increment();
+    }
+
+    void coalescedTimeout() {
+        coalescedTimeouts.increment();
+    }
+
+    /**
+     * Meters are cached by name and tags, so the hot path does one map lookup instead of
+     * a builder and a registry lookup per request
+     */
+    private Timer timer(String name, String tag1, Enum<?> value1, String tag2, Enum<?> value2, String description) {
+        String cacheKey = name + ':' + value1 + ':' + value2;
+        Timer timer = timers.get(cacheKey);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(cacheKey, key -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag(tag1, tagValue(value1));
+            if (tag2 != null) {
+                builder.tag(tag2, tagValue(value2));
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
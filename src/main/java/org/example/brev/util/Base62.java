@@ -0,0 +1,61 @@
+package org.example.brev.util;
+
+/**
+ * Utility class for base62 encoding of non-negative numbers into short codes
+ */
+public final class Base62 {
+
+    /**
+     * Same alphabet and order as the randomly generated short codes
+     */
+    public static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private static final int BASE = ALPHABET.length();
+
+    private Base62() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Encodes a value, left-padding with the first alphabet character up to the given length
+     *
+     * @param value The non-negative value to encode
+     * @param minLength The minimum length of the result
+     * @return The base62 representation
+     */
+    public static String encode(long value, int minLength) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+
+        char[] buffer = new char[Math.max(11, minLength)];
+        int position = buffer.length;
+        do {
+            buffer[--position] = ALPHABET.charAt((int) (value % BASE));
+            value /= BASE;
+        } while (value > 0);
+
+        while (buffer.length - position < minLength) {
+            buffer[--position] = ALPHABET.charAt(0);
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Decodes a base62 string produced by {@link #encode(long, int)}
+     *
+     * @param encoded The encoded value
+     * @return The decoded value
+     */
+    public static long decode(String encoded) {
+        long value = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            int digit = ALPHABET.indexOf(encoded.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid base62 character: " + encoded.charAt(i));
+            }
+            value = value * BASE + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.brev.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, fixed-size Bloom filter over pre-hashed items.
+ *
+ * Sized from the expected number of items and the target false positive rate: about 9.6 bits per
+ * item at 1%. There is no removal and no growth; past the expected count the false positive rate
+ * rises, so callers that see an unbounded stream replace the filter periodically.
+ *
+ * Bit indexes come from one 64-bit hash via double hashing, as in {@link CountMinSketch}. Setting
+ * a bit is a CAS on its word, so concurrent adds never lose each other's bits.
+ */
+public class BloomFilter {
+
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLongArray words;
+
+    /**
+     * @param expectedItems Number of distinct items the filter is sized for
+     * @param falsePositiveRate Target false positive rate at that count, in (0, 1)
+     */
+    public BloomFilter(long expectedItems, double falsePositiveRate) {
+        if (expectedItems < 1 || falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0) {
+            throw new IllegalArgumentException("Bloom filter needs expectedItems >= 1 and 0 < rate < 1: "
+                    + expectedItems + ", " + falsePositiveRate);
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedItems * ln2));
+        this.words = new AtomicLongArray(wordCount);
+    }
+
+    /**
+     * Adds a pre-hashed item
+     *
+     * @param hash Well-mixed 64-bit hash of the item
+     * @return true if the item was definitely not in the filter before this call
+     */
+    public boolean put(long hash) {
+        long h1 = hash;
+        long h2 = HashUtils.mix64(hash) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+                current = words.get(word);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param hash Well-mixed 64-bit hash of the item
+     * @return false if the item was definitely never added
+     */
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = HashUtils.mix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the memory held by the bit array in bytes
+     */
+    public long memoryBytes() {
+        return bitCount / 8;
+    }
+}
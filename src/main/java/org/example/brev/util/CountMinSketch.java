@@ -0,0 +1,117 @@
+package org.example.brev.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Count-Min Sketch for approximate frequency counting in fixed memory.
+ *
+ * Estimates never undercount. With width w and depth d an estimate exceeds the true count by
+ * more than (e / w) * total with probability at most e^-d; the defaults used for hot-link
+ * tracking (2048 x 4, 64 KB) overcount by at most 0.13% of all events with 98% confidence.
+ *
+ * That error grows with overall traffic; {@link #estimateDebiased(long)} removes most of it when rare
+ * items have to be compared against a fixed threshold.
+ *
+ * Each update is d atomic increments and no lock. Row indexes come from one 64-bit hash via
+ * double hashing, so callers can hash an item once and reuse it across sketches.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param width Counters per row, rounded up to a power of two
+     * @param depth Number of rows
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Count-Min Sketch width and depth must be positive: "
+                    + width + " x " + depth);
+        }
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    /**
+     * Counts one occurrence of a pre-hashed item
+     *
+     * @param hash Well-mixed 64-bit hash of the item
+     * @return the item's estimated count after this occurrence
+     */
+    public long increment(long hash) {
+        long h1 = hash;
+        long h2 = HashUtils.mix64(hash) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        total.increment();
+        return estimate;
+    }
+
+    /**
+     * @param hash Well-mixed 64-bit hash of the item
+     * @return the item's estimated count, never lower than the true count
+     */
+    public long estimate(long hash) {
+        long h1 = hash;
+        long h2 = HashUtils.mix64(hash) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counters.get(index));
+        }
+        return estimate;
+    }
+
+    /**
+     * Count-Mean-Min estimate (Deng and Rafiei): each row's counter minus the average count the other
+     * items put in a counter of that row, (total - c) / (w - 1), then the median across rows.
+     * The noise is subtracted rather than minimised, so a rare item stays near its true count however
+     * busy the sketch is. It may undercount, and is capped at {@link #estimate(long)}.
+     *
+     * @param hash Well-mixed 64-bit hash of the item
+     * @return the item's estimated count, between zero and the plain estimate
+     */
+    public long estimateDebiased(long hash) {
+        long h1 = hash;
+        long h2 = HashUtils.mix64(hash) | 1;
+        long events = total.sum();
+        long[] rowEstimates = new long[depth];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((h1 + row * h2) & mask);
+            long count = counters.get(index);
+            estimate = Math.min(estimate, count);
+            rowEstimates[row] = width == 1 ? count : count - Math.round((double) (events - count) / (width - 1));
+        }
+        Arrays.sort(rowEstimates);
+        long median = (depth & 1) == 1
+                ? rowEstimates[depth / 2]
+                : (rowEstimates[depth / 2 - 1] + rowEstimates[depth / 2]) / 2;
+        return Math.max(0L, Math.min(estimate, median));
+    }
+
+    /**
+     * @return the number of occurrences counted so far
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * @return the approximate memory held by the counters in bytes
+     */
+    public long memoryBytes() {
+        return (long) width * depth * Long.BYTES;
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.brev.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Scalable, thread-safe cuckoo filter for approximate set membership with delete support.
+ *
+ * Each layer stores 16-bit fingerprints in buckets of four slots (false positive rate of
+ * roughly 0.012% per layer). When a layer cannot take another fingerprint a new layer with
+ * twice the capacity is appended, so the filter never rejects an insert.
+ *
+ * A negative answer from {@link #mightContain(String)} is definite: the item was never added,
+ * or it was removed. Only items that were actually added may be removed; removing anything
+ * else can evict another item's fingerprint and cause false negatives.
+ *
+ * Lookups use an optimistic read and only fall back to a read lock while a writer is active.
+ */
+public class CuckooFilter {
+
+    private static final int SLOTS_PER_BUCKET = 4;
+    private static final int MAX_KICKS = 500;
+    private static final double TARGET_LOAD_FACTOR = 0.95;
+    private static final int MIN_BUCKETS = 16;
+    private static final int MAX_BUCKETS = 1 << 26;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Layer[] layers;
+    private long size;
+
+    /**
+     * @param expectedEntries The number of entries the first layer is sized for
+     */
+    public CuckooFilter(long expectedEntries) {
+        this.layers = new Layer[]{new Layer(bucketsFor(expectedEntries))};
+    }
+
+    /**
+     * Adds an item to the filter. Adding the same item twice stores two fingerprints.
+     *
+     * @param item The item to add
+     */
+    public void add(String item) {
+        long hash = HashUtils.hash64(item);
+        short fingerprint = fingerprint(hash);
+
+        long stamp = lock.writeLock();
+        try {
+            Layer[] current = layers;
+            Layer last = current[current.length - 1];
+            if (!last.insert(fingerprint, hash)) {
+                Layer[] grown = new Layer[current.length + 1];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                Layer next = new Layer(Math.min(last.buckets.length / SLOTS_PER_BUCKET * 2, MAX_BUCKETS));
+                next.insert(fingerprint, hash);
+                grown[current.length] = next;
+                layers = grown;
+            }
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Checks whether an item may be in the filter
+     *
+     * @param item The item to check
+     * @return false if the item is definitely absent, true if it may be present
+     */
+    public boolean mightContain(String item) {
+        long hash = HashUtils.hash64(item);
+        short fingerprint = fingerprint(hash);
+
+        long stamp = lock.tryOptimisticRead();
+        boolean found = containsInLayers(fingerprint, hash);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return containsInLayers(fingerprint, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Removes one fingerprint of a previously added item
+     *
+     * @param item The item to remove
+     * @return true if a matching fingerprint was removed
+     */
+    public boolean remove(String item) {
+        long hash = HashUtils.hash64(item);
+        short fingerprint = fingerprint(hash);
+
+        long stamp = lock.writeLock();
+        try {
+            Layer[] current = layers;
+            for (int i = current.length - 1; i >= 0; i--) {
+                if (current[i].delete(fingerprint, hash)) {
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the number of fingerprints currently stored
+     */
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the number of layers allocated so far
+     */
+    public int layerCount() {
+        return layers.length;
+    }
+
+    /**
+     * @return the approximate memory held by the fingerprint tables in bytes
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += (long) layer.buckets.length * Short.BYTES;
+        }
+        return bytes;
+    }
+
+    private boolean containsInLayers(short fingerprint, long hash) {
+        for (Layer layer : layers) {
+            if (layer.contains(fingerprint, hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static short fingerprint(long hash) {
+        short fingerprint = (short) (hash >>> 48);
+        // Zero marks an empty slot
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static int bucketsFor(long expectedEntries) {
+        long needed = (long) Math.ceil(expectedEntries / (SLOTS_PER_BUCKET * TARGET_LOAD_FACTOR));
+        long buckets = Long.highestOneBit(Math.max(MIN_BUCKETS, needed - 1)) << 1;
+        return (int) Math.min(buckets, MAX_BUCKETS);
+    }
+
+    /**
+     * One fixed-size cuckoo table. A fingerprint that could not be placed after
+     * the maximum number of kicks is parked in the victim slot, after which the
+     * layer is full and accepts no more inserts.
+     */
+    private static final class Layer {
+
+        private final short[] buckets;
+        private final int mask;
+        private short victimFingerprint;
+        private int victimIndex;
+
+        private Layer(int bucketCount) {
+            this.buckets = new short[bucketCount * SLOTS_PER_BUCKET];
+            this.mask = bucketCount - 1;
+        }
+
+        private boolean insert(short fingerprint, long hash) {
+            if (victimFingerprint != 0) {
+                return false;
+            }
+
+            int index1 = index(hash);
+            int index2 = altIndex(index1, fingerprint);
+            if (tryPlace(index1, fingerprint) || tryPlace(index2, fingerprint)) {
+                return true;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int index = random.nextBoolean() ? index1 : index2;
+            short current = fingerprint;
+            for (int kick = 0; kick < MAX_KICKS; kick++) {
+                int slot = index * SLOTS_PER_BUCKET + random.nextInt(SLOTS_PER_BUCKET);
+                short evicted = buckets[slot];
+                buckets[slot] = current;
+                current = evicted;
+                index = altIndex(index, current);
+                if (tryPlace(index, current)) {
+                    return true;
+                }
+            }
+
+            // Every fingerprint is still represented; the layer is now full
+            victimFingerprint = current;
+            victimIndex = index;
+            return true;
+        }
+
+        private boolean contains(short fingerprint, long hash) {
+            int index1 = index(hash);
+            int index2 = altIndex(index1, fingerprint);
+            if (bucketContains(index1, fingerprint) || bucketContains(index2, fingerprint)) {
+                return true;
+            }
+            return victimFingerprint == fingerprint
+                    && (victimIndex == index1 || victimIndex == index2);
+        }
+
+        private boolean delete(short fingerprint, long hash) {
+            int index1 = index(hash);
+            int index2 = altIndex(index1, fingerprint);
+            if (deleteFromBucket(index1, fingerprint) || deleteFromBucket(index2, fingerprint)) {
+                reinsertVictim();
+                return true;
+            }
+            if (victimFingerprint == fingerprint && (victimIndex == index1 || victimIndex == index2)) {
+                victimFingerprint = 0;
+                return true;
+            }
+            return false;
+        }
+
+        private void reinsertVictim() {
+            if (victimFingerprint == 0) {
+                return;
+            }
+            short fingerprint = victimFingerprint;
+            int index = victimIndex;
+            if (tryPlace(index, fingerprint) || tryPlace(altIndex(index, fingerprint), fingerprint)) {
+                victimFingerprint = 0;
+            }
+        }
+
+        private int index(long hash) {
+            return (int) hash & mask;
+        }
+
+        private int altIndex(int index, short fingerprint) {
+            return (index ^ (int) HashUtils.mix64(fingerprint)) & mask;
+        }
+
+        private boolean tryPlace(int bucket, short fingerprint) {
+            int base = bucket * SLOTS_PER_BUCKET;
+            for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+                if (buckets[base + i] == 0) {
+                    buckets[base + i] = fingerprint;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean bucketContains(int bucket, short fingerprint) {
+            int base = bucket * SLOTS_PER_BUCKET;
+            for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+                if (buckets[base + i] == fingerprint) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean deleteFromBucket(int bucket, short fingerprint) {
+            int base = bucket * SLOTS_PER_BUCKET;
+            for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+                if (buckets[base + i] == fingerprint) {
+                    buckets[base + i] = 0;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
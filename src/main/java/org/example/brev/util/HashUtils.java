@@ -0,0 +1,46 @@
+package org.example.brev.util;
+
+/**
+ * Utility class for fast, non-cryptographic hashing used by the in-memory sketches
+ */
+public final class HashUtils {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private HashUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of a character sequence.
+     * FNV-1a over the UTF-16 code units followed by the MurmurHash3 finalizer,
+     * so that every output bit depends on every input character.
+     *
+     * @param value The value to hash
+     * @return 64-bit hash
+     */
+    public static long hash64(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer (fmix64)
+     *
+     * @param value The value to mix
+     * @return Mixed value
+     */
+    public static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.brev.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Thread-safe HyperLogLog sketch for approximate distinct counting.
+ *
+ * With precision p the sketch has 2^p one-byte registers and a relative standard error of
+ * 1.04 / sqrt(2^p): the default p = 12 uses 4 KB and is accurate to about 1.6%. Sketches of
+ * the same precision merge losslessly by taking the register-wise maximum, and merging is
+ * idempotent, so the same sketch may be merged into storage more than once.
+ *
+ * Small sketches stay sparse (a set of register updates) until they would be a quarter of
+ * the dense size, so long-tail keys cost a few hundred bytes. Dense updates are a single
+ * volatile read for values that do not raise a register, and a CAS otherwise.
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+    private static final byte FORMAT_DENSE = 1;
+    private static final byte FORMAT_SPARSE = 2;
+    private static final int RANK_BITS = 6;
+    private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int precision;
+    private final int registerCount;
+    private final int sparseLimit;
+
+    /**
+     * Dense registers, or null while the sketch is sparse. Published once, never replaced.
+     */
+    private volatile byte[] registers;
+
+    /**
+     * Open-addressing set of (index << 6 | rank) updates; guarded by this, null once dense
+     */
+    private int[] sparse;
+    private int sparseSize;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision Number of index bits, between 4 and 16
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        // Sparse entries are 4 bytes, so switch once they would take a quarter of the dense size
+        this.sparseLimit = registerCount / 16;
+        this.sparse = new int[Math.max(16, sparseLimit * 2)];
+    }
+
+    /**
+     * Adds an item
+     *
+     * @param item The item to count
+     * @return true if the sketch changed
+     */
+    public boolean add(CharSequence item) {
+        return addHash(HashUtils.hash64(item));
+    }
+
+    /**
+     * Adds a pre-hashed item; the hash must be well mixed across all 64 bits
+     *
+     * @param hash 64-bit hash of the item
+     * @return true if the sketch changed
+     */
+    public boolean addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The guard bit caps the rank at 64 - p + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        return update(index, rank);
+    }
+
+    /**
+     * Merges another sketch of the same precision into this one
+     *
+     * @param other The sketch to merge
+     * @return true if this sketch changed
+     */
+    public boolean merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of precision "
+                    + other.precision + " into " + precision);
+        }
+        byte[] source = other.snapshotRegisters();
+        boolean changed = false;
+        for (int i = 0; i < source.length; i++) {
+            if (source[i] != 0 && update(i, source[i])) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the estimated number of distinct items added
+     */
+    public long estimate() {
+        byte[] snapshot = snapshotRegisters();
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : snapshot) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double m = registerCount;
+        double estimate = alpha(registerCount) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = m * Math.log(m / zeros);
+        }
+        // 64-bit hashes make the large-range correction unnecessary
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return the relative standard error of {@link #estimate()}
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(registerCount);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Serializes the sketch: sparse sketches as their update list, dense ones as raw registers
+     *
+     * @return the encoded sketch, readable by {@link #fromBytes(byte[])}
+     */
+    public byte[] toBytes() {
+        synchronized (this) {
+            if (registers == null) {
+                ByteBuffer buffer = ByteBuffer.allocate(2 + Integer.BYTES * sparseSize);
+                buffer.put(FORMAT_SPARSE).put((byte) precision);
+                for (int entry : sparse) {
+                    if (entry != 0) {
+                        buffer.putInt(entry);
+                    }
+                }
+                return buffer.array();
+            }
+        }
+
+        byte[] snapshot = snapshotRegisters();
+        byte[] bytes = new byte[2 + snapshot.length];
+        bytes[0] = FORMAT_DENSE;
+        bytes[1] = (byte) precision;
+        System.arraycopy(snapshot, 0, bytes, 2, snapshot.length);
+        return bytes;
+    }
+
+    /**
+     * Reads a sketch written by {@link #toBytes()}
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid sketch
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) {
+            throw new IllegalArgumentException("Truncated HyperLogLog sketch");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[1]);
+        if (bytes[0] == FORMAT_DENSE) {
+            if (bytes.length != 2 + sketch.registerCount) {
+                throw new IllegalArgumentException("Dense HyperLogLog sketch has " + (bytes.length - 2)
+                        + " registers, expected " + sketch.registerCount);
+            }
+            byte[] dense = new byte[sketch.registerCount];
+            System.arraycopy(bytes, 2, dense, 0, dense.length);
+            sketch.sparse = null;
+            sketch.registers = dense;
+        } else if (bytes[0] == FORMAT_SPARSE) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+            while (buffer.remaining() >= Integer.BYTES) {
+                int entry = buffer.getInt();
+                sketch.update(entry >>> RANK_BITS, entry & RANK_MASK);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown HyperLogLog sketch format: " + bytes[0]);
+        }
+        return sketch;
+    }
+
+    private boolean update(int index, int rank) {
+        byte[] dense = registers;
+        if (dense == null) {
+            synchronized (this) {
+                dense = registers;
+                if (dense == null) {
+                    return addSparse(index, rank);
+                }
+            }
+        }
+        return raise(dense, index, rank);
+    }
+
+    private static boolean raise(byte[] dense, int index, int rank) {
+        byte current = (byte) REGISTER.getVolatile(dense, index);
+        while (current < rank) {
+            if (REGISTER.compareAndSet(dense, index, current, (byte) rank)) {
+                return true;
+            }
+            current = (byte) REGISTER.getVolatile(dense, index);
+        }
+        return false;
+    }
+
+    private boolean addSparse(int index, int rank) {
+        int entry = index << RANK_BITS | rank;
+        int mask = sparse.length - 1;
+        int slot = (int) HashUtils.mix64(entry) & mask;
+        while (sparse[slot] != 0) {
+            if (sparse[slot] == entry) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        sparse[slot] = entry;
+        sparseSize++;
+
+        if (sparseSize > sparseLimit) {
+            byte[] dense = new byte[registerCount];
+            for (int existing : sparse) {
+                if (existing != 0) {
+                    raise(dense, existing >>> RANK_BITS, existing & RANK_MASK);
+                }
+            }
+            sparse = null;
+            registers = dense;
+        }
+        return true;
+    }
+
+    private byte[] snapshotRegisters() {
+        byte[] dense = registers;
+        if (dense == null) {
+            synchronized (this) {
+                dense = registers;
+                if (dense == null) {
+                    byte[] snapshot = new byte[registerCount];
+                    for (int entry : sparse) {
+                        if (entry != 0) {
+                            raise(snapshot, entry >>> RANK_BITS, entry & RANK_MASK);
+                        }
+                    }
+                    return snapshot;
+                }
+            }
+        }
+        byte[] snapshot = new byte[registerCount];
+        for (int i = 0; i < registerCount; i++) {
+            snapshot[i] = (byte) REGISTER.getVolatile(dense, i);
+        }
+        return snapshot;
+    }
+
+    private static double alpha(int registerCount) {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+}
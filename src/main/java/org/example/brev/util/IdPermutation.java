@@ -0,0 +1,86 @@
+package org.example.brev.util;
+
+/**
+ * Keyed, reversible permutation of the integers in [0, 2^bits).
+ *
+ * Used to obfuscate sequential IDs so that consecutive short codes do not look
+ * consecutive. Built from steps that are each bijective modulo 2^bits: XOR with
+ * the key, multiplication by an odd constant and a right xorshift. This is
+ * obfuscation, not encryption.
+ */
+public final class IdPermutation {
+
+    private static final long MULTIPLIER_1 = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER_2 = 0xBF58476D1CE4E5B9L;
+
+    private final int bits;
+    private final long mask;
+    private final long key;
+    private final int shift;
+    private final long inverseMultiplier1;
+    private final long inverseMultiplier2;
+
+    /**
+     * @param bits The width of the domain in bits (1 to 63)
+     * @param key The obfuscation key; only the low {@code bits} bits are used
+     */
+    public IdPermutation(int bits, long key) {
+        if (bits < 1 || bits > 63) {
+            throw new IllegalArgumentException("Bits must be between 1 and 63: " + bits);
+        }
+        this.bits = bits;
+        this.mask = (1L << bits) - 1;
+        this.key = key & mask;
+        this.shift = bits / 2 + 1;
+        this.inverseMultiplier1 = modularInverse(MULTIPLIER_1);
+        this.inverseMultiplier2 = modularInverse(MULTIPLIER_2);
+    }
+
+    /**
+     * @param value A value in [0, 2^bits)
+     * @return The permuted value, also in [0, 2^bits)
+     */
+    public long permute(long value) {
+        long x = (value ^ key) & mask;
+        x = (x * MULTIPLIER_1) & mask;
+        x ^= x >>> shift;
+        x = (x * MULTIPLIER_2) & mask;
+        x ^= x >>> shift;
+        return x;
+    }
+
+    /**
+     * @param value A value produced by {@link #permute(long)}
+     * @return The original value
+     */
+    public long invert(long value) {
+        long x = undoXorShift(value & mask);
+        x = (x * inverseMultiplier2) & mask;
+        x = undoXorShift(x);
+        x = (x * inverseMultiplier1) & mask;
+        return (x ^ key) & mask;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    private long undoXorShift(long value) {
+        long x = value;
+        for (int applied = shift; applied < bits; applied += shift) {
+            x = value ^ (x >>> shift);
+        }
+        return x;
+    }
+
+    /**
+     * Inverse of an odd number modulo 2^64 via Newton's iteration; also valid modulo any smaller power of two
+     */
+    private static long modularInverse(long odd) {
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse;
+    }
+}
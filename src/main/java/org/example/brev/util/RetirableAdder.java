@@ -0,0 +1,141 @@
+package org.example.brev.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped counter, like {@link java.util.concurrent.atomic.LongAdder}, that can be retired.
+ *
+ * Additions go to a single base cell until two threads collide on it; from then on each
+ * thread adds to its own cache-line-padded stripe with a wait-free getAndAdd, so a hot
+ * counter does not serialise its writers on one cache line. Idle counters stay one cell.
+ *
+ * {@link #retire()} swaps every cell for a negative sentinel and returns the total. Each
+ * concurrent addition sees either its cell's count, and is part of that total, or the
+ * sentinel, and is refused, so a retired counter can be dropped without losing anything
+ * that {@link #add(long)} reported as counted.
+ */
+public class RetirableAdder {
+
+    private static final long RETIRED = Long.MIN_VALUE;
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+    // 16 longs = 128 bytes between stripes, so neighbouring stripes never share a cache line
+    private static final int PADDING = 16;
+    private static final AtomicLongArray RETIRED_STRIPES = new AtomicLongArray(0);
+
+    private static final VarHandle STRIPES_HANDLE;
+
+    static {
+        try {
+            STRIPES_HANDLE = MethodHandles.lookup().findVarHandle(RetirableAdder.class, "stripes", AtomicLongArray.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final AtomicLong base = new AtomicLong();
+
+    /**
+     * Null until the base cell is contended, then published once; RETIRED_STRIPES once retired
+     */
+    private volatile AtomicLongArray stripes;
+
+    private volatile long retiredSum = -1;
+
+    /**
+     * Adds one
+     *
+     * @return false if the counter has been retired and nothing was added
+     */
+    public boolean increment() {
+        return add(1L);
+    }
+
+    /**
+     * Adds a non-negative amount
+     *
+     * @param x The amount to add
+     * @return false if the counter has been retired and nothing was added
+     */
+    public boolean add(long x) {
+        AtomicLongArray current = stripes;
+        if (current == null) {
+            long value = base.get();
+            if (value < 0) {
+                return false;
+            }
+            if (base.compareAndSet(value, value + x)) {
+                return true;
+            }
+            current = inflate();
+        }
+        if (current == RETIRED_STRIPES) {
+            return false;
+        }
+        return current.getAndAdd(stripeIndex(), x) >= 0;
+    }
+
+    /**
+     * Returns the current total. Concurrent additions may or may not be included, and while
+     * {@link #retire()} is running the result can briefly be low; once retired it is exact.
+     *
+     * @return the sum of everything added
+     */
+    public long sum() {
+        long retired = retiredSum;
+        if (retired >= 0) {
+            return retired;
+        }
+        long sum = Math.max(0L, base.get());
+        AtomicLongArray current = stripes;
+        if (current != null && current != RETIRED_STRIPES) {
+            for (int i = 0; i < current.length(); i += PADDING) {
+                sum += Math.max(0L, current.get(i));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Closes the counter to further additions
+     *
+     * @return the final total
+     * @throws IllegalStateException if the counter is already retired
+     */
+    public long retire() {
+        long total = base.getAndSet(RETIRED);
+        if (total < 0) {
+            throw new IllegalStateException("Counter is already retired");
+        }
+        AtomicLongArray current = (AtomicLongArray) STRIPES_HANDLE.getAndSet(this, RETIRED_STRIPES);
+        if (current != null) {
+            for (int i = 0; i < current.length(); i += PADDING) {
+                total += current.getAndSet(i, RETIRED);
+            }
+        }
+        retiredSum = total;
+        return total;
+    }
+
+    /**
+     * @return true once {@link #retire()} has started
+     */
+    public boolean isRetired() {
+        return base.get() < 0;
+    }
+
+    private AtomicLongArray inflate() {
+        AtomicLongArray created = new AtomicLongArray(STRIPES * PADDING);
+        AtomicLongArray witness = (AtomicLongArray) STRIPES_HANDLE.compareAndExchange(this, null, created);
+        return witness == null ? created : witness;
+    }
+
+    private static int stripeIndex() {
+        // Fibonacci hashing spreads sequential thread ids over the stripes
+        long mixed = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return ((int) (mixed >>> 32) & (STRIPES - 1)) * PADDING;
+    }
+}
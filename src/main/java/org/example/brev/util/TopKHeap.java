@@ -0,0 +1,131 @@
+package org.example.brev.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded indexed min-heap that keeps the K keys with the highest counts.
+ *
+ * The root is the smallest retained count, so deciding whether a new key qualifies is O(1) and
+ * admitting it or raising a retained key's count is O(log K). Not thread-safe; callers guard it.
+ */
+public class TopKHeap {
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    /**
+     * @param capacity Maximum number of keys retained
+     */
+    public TopKHeap(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Top-K capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Offers a key with its current count. Retained keys keep the highest count seen; a new key
+     * replaces the current minimum when the heap is full and its count is larger.
+     *
+     * @param key The key
+     * @param count The key's current count
+     * @return true if the key is retained after the call
+     */
+    public boolean offer(String key, long count) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            if (count > counts[position]) {
+                counts[position] = count;
+                siftDown(position);
+            }
+            return true;
+        }
+
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = count;
+            positions.put(key, size);
+            siftUp(size++);
+            return true;
+        }
+
+        if (count <= counts[0]) {
+            return false;
+        }
+        positions.remove(keys[0]);
+        keys[0] = key;
+        counts[0] = count;
+        positions.put(key, 0);
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * @return the smallest retained count, or 0 while the heap is not full
+     */
+    public long admissionThreshold() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    /**
+     * @return the retained keys, in no particular order
+     */
+    public List<String> keys() {
+        List<String> snapshot = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            snapshot.add(keys[i]);
+        }
+        return snapshot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && counts[right] < counts[left] ? right : left;
+            if (counts[index] <= counts[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        long count = counts[a];
+        keys[a] = keys[b];
+        counts[a] = counts[b];
+        keys[b] = key;
+        counts[b] = count;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.brev.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Utility class for the fixed-width digest used to index long URLs
+ */
+public final class UrlDigest {
+
+    /**
+     * Digest length in bytes (128 bits)
+     */
+    public static final int LENGTH = 16;
+
+    private static final MessageDigest PROTOTYPE = createPrototype();
+
+    private UrlDigest() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Computes the 128-bit digest of a URL: SHA-256 truncated to 16 bytes.
+     * Equal digests do not guarantee equal URLs; callers must confirm against the full URL.
+     *
+     * @param url The normalized URL
+     * @return 16-byte digest
+     */
+    public static byte[] of(String url) {
+        MessageDigest digest = newDigest();
+        byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(hash, LENGTH);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return (MessageDigest) PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return createPrototype();
+        }
+    }
+
+    private static MessageDigest createPrototype() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
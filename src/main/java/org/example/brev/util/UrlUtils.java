@@ -0,0 +1,26 @@
+package org.example.brev.util;
+
+/**
+ * Utility class for URL handling shared by the API and the offline loader
+ */
+public final class UrlUtils {
+
+    private UrlUtils() {
+        // Utility class, prevent instantiation
+    }
+
+    /**
+     * Normalizes the URL by ensuring it has a proper protocol
+     *
+     * @param url The URL to normalize
+     * @return The normalized URL
+     */
+    public static String normalizeUrl(String url) {
+        // Check protocol using lowercase comparison but preserve original URL case
+        if (!url.toLowerCase().startsWith("http://") && !url.toLowerCase().startsWith("https://")) {
+            return "https://" + url;
+        }
+
+        return url;
+    }
+}
@@ -10,7 +10,7 @@ import java.lang.annotation.*;
  */
 @Documented
 @Constraint(validatedBy = ValidLongUrlValidator.class)
-@Target({ElementType.FIELD})
+@Target({ElementType.FIELD, ElementType.TYPE_USE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ValidLongUrl {
     String message() default "Invalid URL";
@@ -20,34 +20,44 @@ public class ValidLongUrlValidator implements ConstraintValidator<ValidLongUrl,
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
+        String error = validate(value);
+        if (error == null) {
+            return true;
+        }
+
         // Disable default constraint violation
         context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(error)
+                .addConstraintViolation();
+        return false;
+    }
 
+    /**
+     * Applies the same checks outside of bean validation, e.g. in the offline bulk loader
+     *
+     * @param value The URL to check
+     * @return the violation message, or null if the URL is valid
+     */
+    public static String validate(String value) {
         // 1. First check if the value is null or blank (after trimming)
         if (value == null || value.trim().isEmpty()) {
-            context.buildConstraintViolationWithTemplate("Long URL cannot be blank")
-                    .addConstraintViolation();
-            return false;
+            return "Long URL cannot be blank";
         }
 
         // 2. Then check the length
         if (value.length() > MAX_URL_LENGTH) {
-            context.buildConstraintViolationWithTemplate("Long URL cannot exceed " + MAX_URL_LENGTH + " characters")
-                    .addConstraintViolation();
-            return false;
+            return "Long URL cannot exceed " + MAX_URL_LENGTH + " characters";
         }
 
         // 3. Finally check if it's a valid URL format
         if (!isValidUrl(value)) {
-            context.buildConstraintViolationWithTemplate("Long URL must be a valid URL")
-                    .addConstraintViolation();
-            return false;
+            return "Long URL must be a valid URL";
         }
 
-        return true;
+        return null;
     }
 
-    private boolean isValidUrl(String url) {
+    private static boolean isValidUrl(String url) {
         try {
             new URL(url.trim());
             return true;
@@ -0,0 +1,62 @@
+package org.example.brev.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared inputs for the JMH benchmarks.
+ *
+ * Each benchmark walks a small array of realistic values instead of repeating one constant,
+ * so the JIT cannot fold the work away and branch predictors see some variety.
+ */
+final class BenchmarkInputs {
+
+    static final String[] LONG_URLS = {
+            "https://www.example.com/articles/2024/05/how-to-build-a-url-shortener?utm_source=newsletter&utm_medium=email",
+            "http://example.org/search?q=distributed+caching&page=2",
+            "https://docs.example.net/reference/api/v3/resources/links#create",
+            "https://shop.example.com/products/4815162342?variant=blue&size=m&ref=homepage-carousel",
+            "https://news.example.co.uk/world/europe/2024/06/01/summit-ends-without-agreement",
+            "https://cdn.example.com/assets/img/hero@2x.png",
+            "https://example.com/",
+            "https://very-long-subdomain-name.eu-west-1.example-cloud-provider.com/bucket/key/with/many/path/segments/file.pdf"
+    };
+
+    static final String[] SCHEMELESS_URLS = {
+            "www.example.com/articles/2024/05/how-to-build-a-url-shortener",
+            "example.org/search?q=distributed+caching&page=2",
+            "docs.example.net/reference/api/v3/resources/links#create",
+            "shop.example.com/products/4815162342?variant=blue"
+    };
+
+    static final String[] INVALID_URLS = {
+            "not a url",
+            "htp:/broken.example.com",
+            "://missing-scheme.example.com",
+            "example dot com"
+    };
+
+    static final String[] SHORT_CODES = {
+            "aZ3kP9", "Qw8rT2", "b7XyL0", "M4nVc1", "zz9Ab2", "K0pLm8", "r5TgH3", "Yx2Wq7"
+    };
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Per-thread position in the input arrays, so threads never share a write
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        /**
+         * @param length The array length; must be a power of two
+         * @return The next index, wrapping around
+         */
+        int next(int length) {
+            return next++ & (length - 1);
+        }
+    }
+}
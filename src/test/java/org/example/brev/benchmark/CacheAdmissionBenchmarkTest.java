@@ -0,0 +1,164 @@
+package org.example.brev.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.service.CacheAdmissionFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what second-hit admission does to Redis writes and to churn of hot entries.
+ *
+ * Replays a simulated Zipf trace against a model of the Redis tier as docker/redis/redis.conf runs
+ * it: a fixed key budget standing in for maxmemory, evicted least recently used first
+ * (allkeys-lru), with every key written for app.cache.url-mapping.ttl. Each miss goes to the
+ * database and is written back either always or only when {@link CacheAdmissionFilter} admits it.
+ * The filter is the shipped one, driven on simulated time.
+ *
+ * Reported per mode: Redis writes, hit ratio, database reads, evictions of live keys and evictions
+ * of hot keys (the most requested ranks). The local cache and creations are left out.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=CacheAdmissionBenchmarkTest
+ * Tunable with -Dbenchmark.admission.links, .rate, .hours, .warmup-hours, .zipf-exponent, .seed,
+ * .redis-keys, .hot-ranks, .window-minutes
+ */
+@Tag("benchmark")
+@DisplayName("Cache Admission Benchmark")
+class CacheAdmissionBenchmarkTest {
+
+    private static final int LINKS = Integer.getInteger("benchmark.admission.links", 1_000_000);
+    private static final int RATE = Integer.getInteger("benchmark.admission.rate", 200);
+    private static final int HOURS = Integer.getInteger("benchmark.admission.hours", 6);
+    private static final int WARMUP_HOURS = Integer.getInteger("benchmark.admission.warmup-hours", 1);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("benchmark.admission.zipf-exponent", "0.8"));
+    private static final long SEED = Long.getLong("benchmark.admission.seed", 42L);
+    private static final int REDIS_KEYS = Integer.getInteger("benchmark.admission.redis-keys", 20_000);
+    private static final int HOT_RANKS = Integer.getInteger("benchmark.admission.hot-ranks", 1_000);
+    private static final int WINDOW_MINUTES = Integer.getInteger("benchmark.admission.window-minutes", 60);
+
+    // app.cache.url-mapping.ttl
+    private static final double TTL_SECONDS = 3_600;
+
+    private record Result(long requests, long hits, long writes, long evictions, long hotEvictions) {
+
+        double hitRatio() {
+            return (double) hits / requests;
+        }
+    }
+
+    /**
+     * Key budget evicted least recently used first; values are expiry times in seconds
+     */
+    private static final class LruRedis extends LinkedHashMap<Integer, Double> {
+
+        private double now;
+        private boolean measured;
+        private long evictions;
+        private long hotEvictions;
+
+        LruRedis() {
+            super(REDIS_KEYS * 2, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Double> eldest) {
+            if (size() <= REDIS_KEYS) {
+                return false;
+            }
+            // Evicting an already expired key costs nothing; only live keys count as churn
+            if (measured && eldest.getValue() > now) {
+                evictions++;
+                if (eldest.getKey() < HOT_RANKS) {
+                    hotEvictions++;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Test
+    @DisplayName("Should report Redis writes and hot-entry churn with and without second-hit admission")
+    void compareAdmission() {
+        ZipfSampler zipf = new ZipfSampler(LINKS, ZIPF_EXPONENT);
+
+        Result writeAll = simulate(zipf, null);
+        Result secondHit = simulate(zipf, new CacheAdmissionFilter(true, LINKS, 0.01,
+                Duration.ofMinutes(WINDOW_MINUTES), new SimpleMeterRegistry()));
+
+        System.out.printf("%nRedis tier model: %,d keys LRU, %,d links, Zipf s=%.2f, %,d req/s Poisson, %dh measured after %dh warm-up%n",
+                REDIS_KEYS, LINKS, ZIPF_EXPONENT, RATE, HOURS - WARMUP_HOURS, WARMUP_HOURS);
+        System.out.printf("%-22s %12s %10s %12s %12s %14s%n",
+                "admission", "redis writes", "hit ratio", "db reads", "evictions", "hot evictions");
+        print("every miss", writeAll);
+        print(String.format("second hit (%dm)", WINDOW_MINUTES), secondHit);
+        System.out.printf("Second-hit admission writes %.1f%% less to Redis and evicts %.1f%% fewer hot (top %,d) entries%n",
+                100.0 * (1.0 - (double) secondHit.writes() / writeAll.writes()),
+                writeAll.hotEvictions() == 0 ? 0.0 : 100.0 * (1.0 - (double) secondHit.hotEvictions() / writeAll.hotEvictions()),
+                HOT_RANKS);
+
+        assertThat(secondHit.requests()).isEqualTo(writeAll.requests());
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-22s %,12d %9.2f%% %,12d %,12d %,14d%n", label, result.writes(),
+                100.0 * result.hitRatio(), result.requests() - result.hits(), result.evictions(), result.hotEvictions());
+    }
+
+    /**
+     * @param admissionFilter null to write every miss back
+     */
+    private static Result simulate(ZipfSampler zipf, CacheAdmissionFilter admissionFilter) {
+        // Same seed for both modes, so they replay the same requests
+        Random random = new Random(SEED);
+        LruRedis redis = new LruRedis();
+        double end = HOURS * 3_600.0;
+        double warmupEnd = WARMUP_HOURS * 3_600.0;
+
+        long requests = 0;
+        long hits = 0;
+        long writes = 0;
+        double now = 0;
+        while (true) {
+            // Exponential gaps give Poisson arrivals
+            now += -Math.log(1.0 - random.nextDouble()) / RATE;
+            if (now >= end) {
+                break;
+            }
+            int link = zipf.sample(random);
+            boolean measured = now >= warmupEnd;
+            redis.now = now;
+            redis.measured = measured;
+
+            Double expiresAt = redis.get(link);
+            if (expiresAt != null && expiresAt > now) {
+                if (measured) {
+                    requests++;
+                    hits++;
+                }
+                continue;
+            }
+            if (measured) {
+                requests++;
+            }
+
+            boolean admitted = admissionFilter == null
+                    || admissionFilter.admit("code" + link, (long) (now * 1_000));
+            if (admitted) {
+                redis.put(link, now + TTL_SECONDS);
+                if (measured) {
+                    writes++;
+                }
+            } else if (expiresAt != null) {
+                redis.remove(link);
+            }
+        }
+        return new Result(requests, hits, writes, redis.evictions, redis.hotEvictions);
+    }
+}
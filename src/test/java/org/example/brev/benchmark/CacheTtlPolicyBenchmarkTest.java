@@ -0,0 +1,198 @@
+package org.example.brev.benchmark;
+
+import org.example.brev.service.HotLinkTracker;
+import org.example.brev.service.PopularityCacheTtlPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compares the Redis footprint of fixed and popularity-based TTLs under a Zipf workload.
+ *
+ * Replays one simulated trace (Poisson arrivals, Zipf-distributed short codes) against a model of
+ * the Redis tier: a request for a live key is a hit, anything else is a miss that writes the key
+ * with the TTL the policy picks. Memory is the time-averaged number of live keys. The popularity
+ * policy is the shipped {@link PopularityCacheTtlPolicy}, fed exact per-code counts over its
+ * window; the hot-link tracker's estimation error, the local cache in front of Redis, early
+ * refresh and TTL jitter are left out. A binary search then finds the fixed TTL that reaches the
+ * same hit ratio, so the two memory figures compare equal hit rates.
+ *
+ * Runs on simulated time, so hours of traffic take seconds and results are repeatable per seed.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=CacheTtlPolicyBenchmarkTest
+ * Tunable with -Dbenchmark.ttl.links, .rate, .hours, .warmup-hours, .zipf-exponent, .seed, .entry-bytes,
+ * .min-ttl, .max-ttl, .hot-requests
+ */
+@Tag("benchmark")
+@DisplayName("Cache TTL Policy Benchmark")
+class CacheTtlPolicyBenchmarkTest {
+
+    private static final int LINKS = Integer.getInteger("benchmark.ttl.links", 100_000);
+    private static final int RATE = Integer.getInteger("benchmark.ttl.rate", 100);
+    private static final int HOURS = Integer.getInteger("benchmark.ttl.hours", 12);
+    private static final int WARMUP_HOURS = Integer.getInteger("benchmark.ttl.warmup-hours", 2);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("benchmark.ttl.zipf-exponent", "1.0"));
+    private static final long SEED = Long.getLong("benchmark.ttl.seed", 42L);
+    // Key "url:" + code, a typical long URL and Redis's per-key overhead (dict entry, robj, expiry)
+    private static final int ENTRY_BYTES = Integer.getInteger("benchmark.ttl.entry-bytes", 160);
+    private static final long MIN_TTL = Long.getLong("benchmark.ttl.min-ttl", 300L);
+    private static final long MAX_TTL = Long.getLong("benchmark.ttl.max-ttl", 86_400L);
+    private static final long HOT_REQUESTS = Long.getLong("benchmark.ttl.hot-requests", 60L);
+
+    // app.cache.url-mapping.ttl and the hot-link tracker's ring (60 one-minute slices)
+    private static final long FIXED_TTL = 3_600L;
+    private static final int SLICE_SECONDS = 60;
+    private static final int SLICES = 60;
+
+    /**
+     * Picks a TTL in seconds from the code's requests in the last window, not counting this one
+     */
+    @FunctionalInterface
+    private interface TtlChooser {
+        double ttlSeconds(long recentRequests);
+    }
+
+    private record Trace(double[] times, int[] links, double warmupEnd, double end) {
+    }
+
+    private record Result(long hits, long misses, double averageKeys) {
+
+        double hitRatio() {
+            return (double) hits / (hits + misses);
+        }
+
+        double megabytes() {
+            return averageKeys * ENTRY_BYTES / (1024.0 * 1024.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report Redis memory for fixed and popularity TTLs at equal hit ratio")
+    void comparePolicies() {
+        Trace trace = generateTrace(new Random(SEED));
+        PopularityCacheTtlPolicy policy = new PopularityCacheTtlPolicy(
+                new HotLinkTracker(false, SLICE_SECONDS, SLICES, 100, 2048, 4),
+                FIXED_TTL, MIN_TTL, MAX_TTL, HOT_REQUESTS, Duration.ofSeconds((long) SLICE_SECONDS * SLICES));
+
+        Result fixed = simulate(trace, requests -> FIXED_TTL, false);
+        Result popularity = simulate(trace, policy::ttlForRequests, true);
+
+        // Hit ratio rises monotonically with a fixed TTL, so bisect for the one matching the policy
+        double low = 1;
+        double high = MAX_TTL * 4.0;
+        Result matched = null;
+        double matchedTtl = high;
+        for (int i = 0; i < 30; i++) {
+            double ttl = Math.sqrt(low * high);
+            Result result = simulate(trace, requests -> ttl, false);
+            if (result.hitRatio() < popularity.hitRatio()) {
+                low = ttl;
+            } else {
+                high = ttl;
+                matched = result;
+                matchedTtl = ttl;
+            }
+        }
+        assertThat(matched).isNotNull();
+
+        System.out.printf("%nRedis tier model: %,d links, Zipf s=%.2f, %,d req/s Poisson, %dh measured after %dh warm-up (%,d requests)%n",
+                LINKS, ZIPF_EXPONENT, RATE, HOURS - WARMUP_HOURS, WARMUP_HOURS, trace.times().length);
+        System.out.printf("%-40s %10s %14s %12s%n", "policy", "hit ratio", "avg keys", "memory MB");
+        print(String.format("fixed %,ds", FIXED_TTL), fixed);
+        print(String.format("popularity %,ds..%,ds (hot >= %d/h)", MIN_TTL, MAX_TTL, HOT_REQUESTS), popularity);
+        print(String.format("fixed %,.0fs (same hit ratio)", matchedTtl), matched);
+        System.out.printf("Popularity TTLs hold %.1f%% fewer keys than a fixed TTL at the same hit ratio%n",
+                100.0 * (1.0 - popularity.averageKeys() / matched.averageKeys()));
+
+        assertThat(matched.hitRatio()).isCloseTo(popularity.hitRatio(), within(0.001));
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-40s %9.2f%% %,14.0f %12.1f%n",
+                label, 100.0 * result.hitRatio(), result.averageKeys(), result.megabytes());
+    }
+
+    private static Trace generateTrace(Random random) {
+        ZipfSampler zipf = new ZipfSampler(LINKS, ZIPF_EXPONENT);
+        double end = HOURS * 3_600.0;
+        int expected = (int) (RATE * end * 1.01) + 1_000;
+        double[] times = new double[expected];
+        int[] links = new int[expected];
+        int count = 0;
+        double now = 0;
+        while (count < expected) {
+            // Exponential gaps give Poisson arrivals
+            now += -Math.log(1.0 - random.nextDouble()) / RATE;
+            if (now >= end) {
+                break;
+            }
+            times[count] = now;
+            links[count] = zipf.sample(random);
+            count++;
+        }
+        return new Trace(Arrays.copyOf(times, count), Arrays.copyOf(links, count), WARMUP_HOURS * 3_600.0, end);
+    }
+
+    /**
+     * Replays the trace against a Redis that stores every missed key with the chosen TTL
+     *
+     * @param countRequests whether the chooser needs per-code counts over the window
+     */
+    private static Result simulate(Trace trace, TtlChooser chooser, boolean countRequests) {
+        double[] expiresAt = new double[LINKS];
+        Arrays.fill(expiresAt, -1);
+        int[] buckets = countRequests ? new int[LINKS * SLICES] : null;
+        int[] lastEpoch = countRequests ? new int[LINKS] : null;
+        if (countRequests) {
+            Arrays.fill(lastEpoch, -1);
+        }
+
+        long hits = 0;
+        long misses = 0;
+        double keySeconds = 0;
+        double[] times = trace.times();
+        int[] links = trace.links();
+        for (int i = 0; i < times.length; i++) {
+            double now = times[i];
+            int link = links[i];
+            boolean measured = now >= trace.warmupEnd();
+
+            long recentRequests = 0;
+            if (countRequests) {
+                int epoch = (int) (now / SLICE_SECONDS);
+                int base = link * SLICES;
+                // Clear the slices this link skipped since its last request, as the tracker's ring would
+                for (int e = Math.max(lastEpoch[link] + 1, epoch - SLICES + 1); e <= epoch; e++) {
+                    buckets[base + e % SLICES] = 0;
+                }
+                lastEpoch[link] = epoch;
+                for (int slice = 0; slice < SLICES; slice++) {
+                    recentRequests += buckets[base + slice];
+                }
+                buckets[base + epoch % SLICES]++;
+            }
+
+            if (expiresAt[link] > now) {
+                if (measured) {
+                    hits++;
+                }
+                continue;
+            }
+            if (measured) {
+                misses++;
+            }
+            double expiry = now + chooser.ttlSeconds(recentRequests);
+            expiresAt[link] = expiry;
+            // Time this copy of the key spends in Redis during the measured span
+            keySeconds += Math.max(0, Math.min(expiry, trace.end()) - Math.max(now, trace.warmupEnd()));
+        }
+        return new Result(hits, misses, keySeconds / (trace.end() - trace.warmupEnd()));
+    }
+}
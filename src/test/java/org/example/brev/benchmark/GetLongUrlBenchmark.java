@@ -0,0 +1,182 @@
+package org.example.brev.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.entity.UrlMapping;
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.repository.ShortCodeView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.service.CacheAdmissionFilter;
+import org.example.brev.service.LocalCacheService;
+import org.example.brev.service.RedisCacheService;
+import org.example.brev.service.ShortCodeFilterService;
+import org.example.brev.service.UrlService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole UrlService.getLongUrl path with in-memory stand-ins for Redis and the database.
+ *
+ * The real cuckoo filter, Caffeine local cache, metrics and audit logging all run; only network
+ * round trips are missing, so this measures the service's own CPU and allocation per lookup.
+ * Each source picks the tier that answers:
+ * - local: local cache hit
+ * - redis: local cache disabled, Redis stand-in hit
+ * - database: local cache disabled, Redis stand-in never retains, so every lookup reaches the repository
+ * - filtered: codes that were never issued, rejected by the filter and confirmed against Redis
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetLongUrlBenchmark {
+
+    // Power of two for BenchmarkInputs.Cursor
+    private static final int MAPPINGS = 16_384;
+
+    @Param({"local", "redis", "database", "filtered"})
+    public String source;
+
+    private UrlService urlService;
+    private String[] lookups;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Map<String, UrlMapping> mappings = new HashMap<>();
+        String[] shortCodes = new String[MAPPINGS];
+        String[] unknownCodes = new String[MAPPINGS];
+        String[] urls = BenchmarkInputs.LONG_URLS;
+        for (int i = 0; i < MAPPINGS; i++) {
+            shortCodes[i] = String.format("b%05d", i);
+            unknownCodes[i] = String.format("x%05d", i);
+            UrlMapping mapping = new UrlMapping(urls[i % urls.length] + "&id=" + i, shortCodes[i]);
+            mapping.setId((long) i + 1);
+            mappings.put(shortCodes[i], mapping);
+        }
+        UrlMappingRepository repository = inMemoryRepository(mappings, shortCodes);
+
+        boolean localEnabled = source.equals("local");
+        LocalCacheService localCacheService = new LocalCacheService(localEnabled, 64L * 1024 * 1024, 3600, 3600,
+                meterRegistry);
+        InMemoryRedisCacheService redisCacheService = new InMemoryRedisCacheService(meterRegistry,
+                !source.equals("database"));
+        ShortCodeFilterService filterService = new ShortCodeFilterService(repository, meterRegistry,
+                true, MAPPINGS, 10_000, 10_000, true);
+        filterService.rebuild();
+
+        urlService = new UrlService(repository, null, redisCacheService, localCacheService, filterService,
+                null, meterRegistry, null);
+
+        lookups = source.equals("filtered") ? unknownCodes : shortCodes;
+        if (!source.equals("database") && !source.equals("filtered")) {
+            // Fill whichever cache tier is enabled
+            for (String shortCode : shortCodes) {
+                urlService.getLongUrl(shortCode);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object getLongUrl(BenchmarkInputs.Cursor cursor) {
+        try {
+            return urlService.getLongUrl(lookups[cursor.next(lookups.length)]);
+        } catch (ShortCodeNotFoundException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Answers the queries the lookup path and the filter rebuild make; anything else fails loudly
+     */
+    private static UrlMappingRepository inMemoryRepository(Map<String, UrlMapping> mappings, String[] shortCodes) {
+        return (UrlMappingRepository) Proxy.newProxyInstance(UrlMappingRepository.class.getClassLoader(),
+                new Class<?>[]{UrlMappingRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByShortCode" -> Optional.ofNullable(mappings.get((String) args[0]));
+                    case "count" -> (long) mappings.size();
+                    case "findShortCodesAfterId" -> shortCodesAfterId(shortCodes, (long) args[0], (Pageable) args[1]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUrlMappingRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<ShortCodeView> shortCodesAfterId(String[] shortCodes, long afterId, Pageable pageable) {
+        List<ShortCodeView> page = new ArrayList<>(pageable.getPageSize());
+        for (long id = afterId + 1; id <= shortCodes.length && page.size() < pageable.getPageSize(); id++) {
+            page.add(new View(id, shortCodes[(int) id - 1]));
+        }
+        return page;
+    }
+
+    private record View(Long id, String shortCode) implements ShortCodeView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getShortCode() {
+            return shortCode;
+        }
+    }
+
+    /**
+     * Redis tier backed by a map; the template is never connected because every call it would serve is overridden
+     */
+    private static final class InMemoryRedisCacheService extends RedisCacheService {
+
+        private final Map<String, String> entries = new ConcurrentHashMap<>();
+        private final boolean retain;
+
+        InMemoryRedisCacheService(MeterRegistry meterRegistry, boolean retain) {
+            super(new StringRedisTemplate(), shortCode -> 3600,
+                    new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry),
+                    0.0, 500, meterRegistry);
+            this.retain = retain;
+        }
+
+        @Override
+        public void cacheUrlMapping(String shortCode, String longUrl) {
+            if (retain) {
+                entries.put(shortCode, longUrl);
+            }
+        }
+
+        @Override
+        public String getCachedUrlMapping(String shortCode) {
+            return entries.get(shortCode);
+        }
+
+        @Override
+        public CachedUrlMapping getCachedUrlMappingWithTtl(String shortCode) {
+            String longUrl = entries.get(shortCode);
+            return longUrl == null ? null : new CachedUrlMapping(longUrl, TimeUnit.HOURS.toMillis(1));
+        }
+    }
+}
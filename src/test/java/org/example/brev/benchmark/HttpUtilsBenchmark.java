@@ -0,0 +1,53 @@
+package org.example.brev.benchmark;
+
+import org.example.brev.util.HttpUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client IP extraction, done once per redirect.
+ * Header lookups on the mock request stand in for Tomcat's, so compare runs rather than absolute numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpUtilsBenchmark {
+
+    @Param({"forwarded-for", "real-ip", "remote-addr"})
+    public String source;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/aZ3kP9");
+        request.setRemoteAddr("10.0.0.12");
+        switch (source) {
+            case "forwarded-for" -> request.addHeader("X-Forwarded-For", "203.0.113.195, 70.41.3.18, 150.172.238.178");
+            case "real-ip" -> request.addHeader("X-Real-IP", "203.0.113.195");
+            default -> {
+                // Direct connection, no proxy headers
+            }
+        }
+    }
+
+    @Benchmark
+    public String getClientIpAddress() {
+        return HttpUtils.getClientIpAddress(request);
+    }
+}
@@ -0,0 +1,301 @@
+package org.example.brev.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal Redis stand-in speaking RESP2 on a loopback port, for running the whole app without Docker.
+ *
+ * Implements only the string commands the application sends (GET, SET with EX/PX/NX/XX, SETEX,
+ * MGET, DEL, UNLINK, EXISTS) plus the connection handshake Lettuce performs; HELLO is refused so
+ * the client falls back to RESP2. Pipelined commands are answered in order and flushed together.
+ * Expired keys are dropped lazily on access. No persistence, eviction or cluster support.
+ */
+final class InProcessRedisServer implements AutoCloseable {
+
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PONG = "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL_BULK = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocket serverSocket;
+    private final ConcurrentMap<String, Entry> data = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder commands = new LongAdder();
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return expiresAtNanos != 0 && now - expiresAtNanos > 0;
+        }
+    }
+
+    private InProcessRedisServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().name("redis-stand-in-accept").daemon(true).start(this::acceptLoop);
+    }
+
+    /**
+     * Starts a server on a free loopback port
+     */
+    static InProcessRedisServer start() throws IOException {
+        return new InProcessRedisServer();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Drops every key, as FLUSHALL would
+     */
+    void flushAll() {
+        data.clear();
+    }
+
+    long keyCount() {
+        return data.size();
+    }
+
+    long commandCount() {
+        return commands.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread.ofVirtual().name("redis-stand-in-conn").start(() -> serve(socket));
+            } catch (IOException e) {
+                // Closed by close(); any other accept failure also ends the server
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024);
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                commands.increment();
+                boolean quit = execute(command, out);
+                // Replies to a pipeline go out together once the client stops sending
+                if (quit || in.available() == 0) {
+                    out.flush();
+                }
+                if (quit) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Client disconnected
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * @return true if the connection should be closed
+     */
+    private boolean execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+        long now = System.nanoTime();
+        switch (name) {
+            case "PING" -> out.write(PONG);
+            case "HELLO" -> writeError(out, "ERR unknown command 'HELLO'");
+            case "CLIENT", "SELECT", "READONLY" -> out.write(OK);
+            case "QUIT" -> {
+                out.write(OK);
+                return true;
+            }
+            case "GET" -> {
+                Entry entry = get(key(command.get(1)), now);
+                writeBulk(out, entry == null ? null : entry.value());
+            }
+            case "MGET" -> {
+                writeArrayHeader(out, command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    Entry entry = get(key(command.get(i)), now);
+                    writeBulk(out, entry == null ? null : entry.value());
+                }
+            }
+            case "SET" -> set(command, out, now);
+            case "SETEX" -> {
+                long seconds = Long.parseLong(new String(command.get(2), StandardCharsets.US_ASCII));
+                data.put(key(command.get(1)), new Entry(command.get(3), now + TimeUnit.SECONDS.toNanos(seconds)));
+                out.write(OK);
+            }
+            case "DEL", "UNLINK" -> {
+                long removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    Entry entry = data.remove(key(command.get(i)));
+                    if (entry != null && !entry.isExpired(now)) {
+                        removed++;
+                    }
+                }
+                writeInteger(out, removed);
+            }
+            case "EXISTS" -> {
+                long found = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (get(key(command.get(i)), now) != null) {
+                        found++;
+                    }
+                }
+                writeInteger(out, found);
+            }
+            case "FLUSHALL", "FLUSHDB" -> {
+                data.clear();
+                out.write(OK);
+            }
+            default -> writeError(out, "ERR unknown command '" + name + "'");
+        }
+        return false;
+    }
+
+    private void set(List<byte[]> command, OutputStream out, long now) throws IOException {
+        String key = key(command.get(1));
+        long expiresAt = 0;
+        boolean onlyIfAbsent = false;
+        boolean onlyIfPresent = false;
+        for (int i = 3; i < command.size(); i++) {
+            String option = new String(command.get(i), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+            switch (option) {
+                case "EX" -> expiresAt = now + TimeUnit.SECONDS.toNanos(
+                        Long.parseLong(new String(command.get(++i), StandardCharsets.US_ASCII)));
+                case "PX" -> expiresAt = now + TimeUnit.MILLISECONDS.toNanos(
+                        Long.parseLong(new String(command.get(++i), StandardCharsets.US_ASCII)));
+                case "NX" -> onlyIfAbsent = true;
+                case "XX" -> onlyIfPresent = true;
+                default -> {
+                    writeError(out, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+
+        boolean exists = get(key, now) != null;
+        if ((onlyIfAbsent && exists) || (onlyIfPresent && !exists)) {
+            out.write(NULL_BULK);
+            return;
+        }
+        data.put(key, new Entry(command.get(2), expiresAt));
+        out.write(OK);
+    }
+
+    private Entry get(String key, long now) {
+        Entry entry = data.get(key);
+        if (entry != null && entry.isExpired(now)) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // ISO-8859-1 maps every byte to one char, so any binary key round-trips
+    private static String key(byte[] key) {
+        return new String(key, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads one command sent as a RESP array of bulk strings
+     *
+     * @return the command and its arguments, or null at end of stream
+     */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int marker = in.read();
+        if (marker == -1) {
+            return null;
+        }
+        if (marker != '*') {
+            throw new IOException("Expected a RESP array, got '" + (char) marker + "'");
+        }
+        int count = (int) readNumber(in);
+        List<byte[]> arguments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("Expected a RESP bulk string");
+            }
+            int length = (int) readNumber(in);
+            byte[] argument = in.readNBytes(length);
+            if (argument.length < length || in.read() != '\r' || in.read() != '\n') {
+                throw new EOFException("Truncated RESP bulk string");
+            }
+            arguments.add(argument);
+        }
+        return arguments.isEmpty() ? readCommand(in) : arguments;
+    }
+
+    private static long readNumber(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException("Truncated RESP length");
+            }
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        if (in.read() != '\n') {
+            throw new IOException("Malformed RESP line ending");
+        }
+        return negative ? -value : value;
+    }
+
+    private static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write(NULL_BULK);
+            return;
+        }
+        out.write(('$' + Integer.toString(value.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    private static void writeArrayHeader(OutputStream out, int size) throws IOException {
+        out.write(('*' + Integer.toString(size) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((':' + Long.toString(value) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.brev.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the JMH microbenchmarks in this package, once single-threaded and once with one thread per core.
+ *
+ * Allocation per operation comes from the gc profiler (gc.alloc.rate.norm), so a change that
+ * adds garbage on a hot path shows up even when the timing barely moves. Results are also
+ * written as JSON to target/jmh-result-&lt;threads&gt;t.json for comparing runs.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=JmhBenchmarkTest
+ * Tunable with -Dbenchmark.jmh.include (regex, e.g. GetLongUrl), .threads (e.g. 1,16), .profilers (e.g. gc,stack)
+ */
+@Tag("benchmark")
+@DisplayName("JMH Microbenchmarks")
+class JmhBenchmarkTest {
+
+    private static final String INCLUDE = System.getProperty("benchmark.jmh.include",
+            JmhBenchmarkTest.class.getPackageName().replace(".", "\\.") + "\\..*Benchmark");
+    private static final String THREADS = System.getProperty("benchmark.jmh.threads",
+            "1," + Runtime.getRuntime().availableProcessors());
+    private static final String PROFILERS = System.getProperty("benchmark.jmh.profilers", "gc");
+
+    @Test
+    @DisplayName("Should run every microbenchmark single- and multi-threaded")
+    void runMicrobenchmarks() throws Exception {
+        int[] threadCounts = Arrays.stream(THREADS.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .distinct()
+                .toArray();
+
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(INCLUDE)
+                    .threads(threads)
+                    .jvmArgsAppend("-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-result-" + threads + "t.json");
+            for (String profiler : PROFILERS.split(",")) {
+                if (!profiler.isBlank()) {
+                    options.addProfiler(profiler.trim());
+                }
+            }
+
+            Collection<RunResult> results = new Runner(options.build()).run();
+            assertThat(results).isNotEmpty();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package org.example.brev.benchmark;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Statistic;
+import org.example.brev.entity.UrlMapping;
+import org.example.brev.service.UrlService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end macro benchmark: the whole application over HTTP, on H2 and an in-process Redis stand-in.
+ *
+ * Seeds the database through the batch create path, then drives a mix of creates and redirects
+ * whose short codes follow a Zipf distribution, like real link traffic. Arrivals are an open
+ * model: requests start on a Poisson schedule at the offered rate, each on its own virtual thread,
+ * whether or not earlier ones have finished. Latency is measured from each request's scheduled
+ * start, so time spent queued behind a stall is counted (coordinated-omission corrected); the
+ * service time from the actual send is reported next to it to show how far the two diverge.
+ *
+ * Cache tier hit ratios come from the application's own meters, diffed over the measured run.
+ * Redis is flushed after seeding by default so the run starts with cold caches and every tier
+ * shows up; set -Dbenchmark.load.redis-preload=true to keep the write-through entries.
+ *
+ * Absolute numbers reflect H2 and loopback, not MySQL and a networked Redis, so compare runs
+ * against each other rather than against production.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=LoadGeneratorBenchmarkTest
+ * Tunable with -Dbenchmark.load.rate, .seconds, .warmup-seconds, .links, .create-ratio, .zipf-exponent, .seed
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.config=classpath:log4j2-benchmark.xml")
+@DisplayName("End-to-End Load Benchmark")
+class LoadGeneratorBenchmarkTest {
+
+    private static final int RATE = Integer.getInteger("benchmark.load.rate", 2_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.load.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.load.warmup-seconds", 10);
+    private static final int LINKS = Integer.getInteger("benchmark.load.links", 100_000);
+    private static final double CREATE_RATIO = Double.parseDouble(System.getProperty("benchmark.load.create-ratio", "0.05"));
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("benchmark.load.zipf-exponent", "1.0"));
+    private static final long SEED = Long.getLong("benchmark.load.seed", 42L);
+    private static final boolean REDIS_PRELOAD = Boolean.getBoolean("benchmark.load.redis-preload");
+
+    private static final int SEED_BATCH_SIZE = 1_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    // Histogram bucket bounds double from here
+    private static final long FIRST_BUCKET_MICROS = 250;
+
+    private static InProcessRedisServer redis;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private enum Operation { REDIRECT, CREATE }
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+        redis = InProcessRedisServer.start();
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", redis::port);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report throughput, corrected latency and cache tier hit ratios")
+    void runLoad() throws Exception {
+        List<String> shortCodes = seed();
+        if (!REDIS_PRELOAD) {
+            redis.flushAll();
+        }
+        ZipfSampler zipf = new ZipfSampler(shortCodes.size(), ZIPF_EXPONENT);
+
+        ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(clientExecutor)
+                .build();
+
+        try {
+            run(client, shortCodes, zipf, WARMUP_SECONDS, new Random(SEED + 1));
+
+            TierCounts before = TierCounts.read(meterRegistry);
+            RunResult result = run(client, shortCodes, zipf, SECONDS, new Random(SEED));
+            TierCounts after = TierCounts.read(meterRegistry);
+
+            report(result, after.minus(before));
+            assertThat(result.completed()).isPositive();
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the link population through the batch path, which also writes it through to Redis
+     */
+    private List<String> seed() {
+        long start = System.nanoTime();
+        List<String> shortCodes = new ArrayList<>(LINKS);
+        for (int offset = 0; offset < LINKS; offset += SEED_BATCH_SIZE) {
+            List<String> longUrls = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = offset; i < Math.min(LINKS, offset + SEED_BATCH_SIZE); i++) {
+                longUrls.add("https://example.com/seed/" + i + "?ref=load-benchmark");
+            }
+            for (UrlMapping mapping : urlService.createShortUrls(longUrls).mappings()) {
+                shortCodes.add(mapping.getShortCode());
+            }
+        }
+        System.out.printf("%nSeeded %,d links in %,d ms, Redis stand-in holds %,d keys%n",
+                shortCodes.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), redis.keyCount());
+        return shortCodes;
+    }
+
+    private RunResult run(HttpClient client, List<String> shortCodes, ZipfSampler zipf, int seconds, Random random)
+            throws InterruptedException {
+        int total = (int) ((long) RATE * seconds);
+        Operation[] operations = new Operation[total];
+        long[] correctedNanos = new long[total];
+        long[] serviceNanos = new long[total];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(total);
+        String baseUrl = "http://localhost:" + port;
+
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) RATE;
+        long start = System.nanoTime();
+        double scheduledOffset = 0;
+
+        for (int i = 0; i < total; i++) {
+            // Poisson arrivals: exponential gaps around the mean interval
+            scheduledOffset += -Math.log(1 - random.nextDouble()) * meanIntervalNanos;
+            long scheduledStart = start + (long) scheduledOffset;
+            long wait;
+            while ((wait = scheduledStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int index = i;
+            Operation operation = random.nextDouble() < CREATE_RATIO ? Operation.CREATE : Operation.REDIRECT;
+            HttpRequest request = operation == Operation.CREATE
+                    ? createRequest(baseUrl, seconds, index, random)
+                    : HttpRequest.newBuilder(URI.create(baseUrl + "/" + shortCodes.get(zipf.sample(random))))
+                            .timeout(REQUEST_TIMEOUT)
+                            .GET()
+                            .build();
+            operations[index] = operation;
+
+            Thread.ofVirtual().start(() -> {
+                long sent = System.nanoTime();
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status != (operation == Operation.CREATE ? 201 : 302)) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+                long end = System.nanoTime();
+                correctedNanos[index] = end - scheduledStart;
+                serviceNanos[index] = end - sent;
+                done.countDown();
+            });
+        }
+
+        // Array writes above are published to this thread by the latch
+        assertThat(done.await(REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS)).isTrue();
+        long elapsed = System.nanoTime() - start;
+        return new RunResult(operations, correctedNanos, serviceNanos, errors.get(), total,
+                total / (elapsed / 1e9));
+    }
+
+    private static HttpRequest createRequest(String baseUrl, int seconds, int index, Random random) {
+        // Unique per run so every create inserts a new row
+        String longUrl = "https://example.com/load/" + seconds + "-" + index + "-" + Long.toHexString(random.nextLong());
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/urls"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"longUrl\":\"" + longUrl + "\"}"))
+                .build();
+    }
+
+    private void report(RunResult result, TierCounts tiers) {
+        System.out.printf("%nOffered %,d req/s for %ds (Poisson arrivals), %.0f%% creates, Zipf s=%.2f over %,d links%n",
+                RATE, SECONDS, CREATE_RATIO * 100, ZIPF_EXPONENT, LINKS);
+        System.out.printf("Completed %,d requests at %,.0f req/s, %,d errors%n",
+                result.completed(), result.throughput(), result.errors());
+
+        System.out.printf("%n%-22s %9s %9s %9s %9s %9s %9s %9s%n",
+                "latency (ms)", "count", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        for (Operation operation : Operation.values()) {
+            printPercentiles(operation.name().toLowerCase() + " corrected", result.latencies(operation, true));
+            printPercentiles(operation.name().toLowerCase() + " service", result.latencies(operation, false));
+        }
+
+        System.out.printf("%nRedirect latency histogram (corrected)%n");
+        printHistogram(result.latencies(Operation.REDIRECT, true));
+
+        System.out.printf("%nCache tiers during the measured run%n");
+        System.out.printf("%-10s %12s %12s %10s%n", "tier", "hits", "misses", "hit ratio");
+        printTier("local", tiers.localHits(), tiers.localMisses());
+        printTier("redis", tiers.redisHits(), tiers.redisMisses());
+        printTier("database", tiers.databaseHits(), tiers.databaseNotFound());
+        long lookups = tiers.lookups();
+        System.out.printf("Lookups answered by the filter %.2f%%, local %.2f%%, redis %.2f%%, database %.2f%% (%,d lookups)%n",
+                percent(tiers.filterAnswers(), lookups), percent(tiers.localAnswers(), lookups),
+                percent(tiers.redisAnswers(), lookups), percent(tiers.databaseAnswers(), lookups), lookups);
+    }
+
+    private static void printPercentiles(String label, long[] sortedNanos) {
+        System.out.printf("%-22s %,9d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label, sortedNanos.length,
+                percentile(sortedNanos, 0.50), percentile(sortedNanos, 0.90), percentile(sortedNanos, 0.99),
+                percentile(sortedNanos, 0.999), percentile(sortedNanos, 0.9999), percentile(sortedNanos, 1.0));
+    }
+
+    /**
+     * Log-scale buckets, each bound double the previous, with a cumulative percentage
+     */
+    private static void printHistogram(long[] sortedNanos) {
+        if (sortedNanos.length == 0) {
+            return;
+        }
+        int from = 0;
+        long upperMicros = FIRST_BUCKET_MICROS;
+        while (from < sortedNanos.length) {
+            long upperNanos = TimeUnit.MICROSECONDS.toNanos(upperMicros);
+            int to = from;
+            while (to < sortedNanos.length && sortedNanos[to] <= upperNanos) {
+                to++;
+            }
+            int count = to - from;
+            int bar = (int) Math.round(40.0 * count / sortedNanos.length);
+            System.out.printf("  <= %9.2f ms %,10d %7.3f%% %s%n", upperMicros / 1000.0, count,
+                    100.0 * to / sortedNanos.length, "#".repeat(bar));
+            from = to;
+            upperMicros *= 2;
+        }
+    }
+
+    private static void printTier(String tier, long hits, long misses) {
+        System.out.printf("%-10s %,12d %,12d %9.2f%%%n", tier, hits, misses, percent(hits, hits + misses));
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? Double.NaN : 100.0 * part / whole;
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(quantile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record RunResult(Operation[] operations, long[] correctedNanos, long[] serviceNanos,
+                             long errors, int completed, double throughput) {
+
+        long[] latencies(Operation operation, boolean corrected) {
+            long[] source = corrected ? correctedNanos : serviceNanos;
+            long[] selected = new long[source.length];
+            int count = 0;
+            for (int i = 0; i < source.length; i++) {
+                if (operations[i] == operation) {
+                    selected[count++] = source[i];
+                }
+            }
+            long[] sorted = Arrays.copyOf(selected, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Cumulative counts read from the application's cache and lookup meters
+     */
+    private record TierCounts(long localHits, long localMisses, long redisHits, long redisMisses,
+                              long databaseHits, long databaseNotFound,
+                              long filterAnswers, long localAnswers, long redisAnswers, long databaseAnswers) {
+
+        static TierCounts read(MeterRegistry registry) {
+            return new TierCounts(
+                    count(registry, "cache.gets", "tier", "local", "result", "hit"),
+                    count(registry, "cache.gets", "tier", "local", "result", "miss"),
+                    count(registry, "cache.gets", "tier", "redis", "result", "hit"),
+                    count(registry, "cache.gets", "tier", "redis", "result", "miss"),
+                    count(registry, "brev.url.lookup.stage", "stage", "db_lookup", "result", "hit"),
+                    count(registry, "brev.url.lookup.stage", "stage", "db_lookup", "result", "not_found"),
+                    count(registry, "brev.url.lookup", "source", "filter"),
+                    count(registry, "brev.url.lookup", "source", "local"),
+                    count(registry, "brev.url.lookup", "source", "redis"),
+                    count(registry, "brev.url.lookup", "source", "database"));
+        }
+
+        TierCounts minus(TierCounts other) {
+            return new TierCounts(localHits - other.localHits, localMisses - other.localMisses,
+                    redisHits - other.redisHits, redisMisses - other.redisMisses,
+                    databaseHits - other.databaseHits, databaseNotFound - other.databaseNotFound,
+                    filterAnswers - other.filterAnswers, localAnswers - other.localAnswers,
+                    redisAnswers - other.redisAnswers, databaseAnswers - other.databaseAnswers);
+        }
+
+        long lookups() {
+            return filterAnswers + localAnswers + redisAnswers + databaseAnswers;
+        }
+
+        /**
+         * Sums the COUNT statistic, so counters, function counters (Caffeine) and timers all work
+         */
+        private static long count(MeterRegistry registry, String name, String... tags) {
+            double total = 0;
+            for (Meter meter : registry.find(name).tags(tags).meters()) {
+                for (Measurement measurement : meter.measure()) {
+                    if (measurement.getStatistic() == Statistic.COUNT) {
+                        total += measurement.getValue();
+                    }
+                }
+            }
+            return (long) total;
+        }
+    }
+}
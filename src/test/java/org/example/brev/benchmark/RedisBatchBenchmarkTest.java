@@ -0,0 +1,128 @@
+package org.example.brev.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.service.CacheAdmissionFilter;
+import org.example.brev.service.RedisCacheService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares per-key and batched Redis writes, reads and evictions through {@link RedisCacheService}.
+ *
+ * Each operation runs over the same keys once per key (SET, GET, DEL) and once through the batch
+ * methods (pipelined SET ... EX, MGET, UNLINK, one round trip per batch), against
+ * {@link InProcessRedisServer} on loopback. Loopback round trips cost tens of microseconds;
+ * across a network each saved round trip is worth the RTT, so these figures are a lower bound.
+ * Every figure is the best of several rounds, after one warm-up round.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=RedisBatchBenchmarkTest
+ * Tunable with -Dbenchmark.redis-batch.keys, .batch-size, .rounds
+ */
+@Tag("benchmark")
+@DisplayName("Redis Batch Benchmark")
+class RedisBatchBenchmarkTest {
+
+    private static final int KEYS = Integer.getInteger("benchmark.redis-batch.keys", 10_000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.redis-batch.batch-size", 500);
+    private static final int ROUNDS = Integer.getInteger("benchmark.redis-batch.rounds", 5);
+
+    private static InProcessRedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisCacheService redisCacheService;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = InProcessRedisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", redis.port()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        redisCacheService = new RedisCacheService(redisTemplate, shortCode -> 3600L,
+                new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry),
+                0.1, BATCH_SIZE, meterRegistry);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report per-key and batched times for writes, reads and evictions")
+    void compareBatching() {
+        Map<String, String> mappings = new LinkedHashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            mappings.put(String.format("c%08d", i), "https://example.com/articles/" + i);
+        }
+        List<String> shortCodes = new ArrayList<>(mappings.keySet());
+
+        long[] best = new long[6];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int round = 0; round <= ROUNDS; round++) {
+            long[] times = new long[6];
+
+            times[0] = time(() -> mappings.forEach(redisCacheService::cacheUrlMapping));
+            times[2] = time(() -> shortCodes.forEach(redisCacheService::getCachedUrlMapping));
+            times[4] = time(() -> shortCodes.forEach(redisCacheService::evictUrlMapping));
+            assertThat(redis.keyCount()).isZero();
+
+            times[1] = time(() -> redisCacheService.cacheUrlMappings(mappings));
+            long readStart = System.nanoTime();
+            Map<String, String> found = redisCacheService.getCachedUrlMappings(shortCodes);
+            times[3] = System.nanoTime() - readStart;
+            assertThat(found).isEqualTo(mappings);
+            times[5] = time(() -> redisCacheService.evictUrlMappings(shortCodes));
+            assertThat(redis.keyCount()).isZero();
+
+            // Round 0 warms up the JIT and the connection
+            for (int i = 0; round > 0 && i < times.length; i++) {
+                best[i] = Math.min(best[i], times[i]);
+            }
+        }
+
+        int batches = (KEYS + BATCH_SIZE - 1) / BATCH_SIZE;
+        System.out.printf("%nRedis batching, %,d keys, batch size %d, best of %d rounds%n", KEYS, BATCH_SIZE, ROUNDS);
+        System.out.printf("%-8s %14s %14s %10s %16s%n", "op", "per-key ms", "batched ms", "speedup", "round trips");
+        report("write", best[0], best[1], batches);
+        report("read", best[2], best[3], batches);
+        report("evict", best[4], best[5], batches);
+
+        assertThat(best[1]).isLessThan(best[0]);
+        assertThat(best[3]).isLessThan(best[2]);
+        assertThat(best[5]).isLessThan(best[4]);
+    }
+
+    private static void report(String operation, long perKeyNanos, long batchedNanos, int batches) {
+        System.out.printf("%-8s %14.1f %14.1f %9.1fx %8d -> %-6d%n", operation, perKeyNanos / 1e6, batchedNanos / 1e6,
+                (double) perKeyNanos / batchedNanos, KEYS, batches);
+    }
+
+    private static long time(Runnable operation) {
+        long start = System.nanoTime();
+        operation.run();
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.brev.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.brev.dto.CreateUrlResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the create response, with the mapper configured as Spring Boot configures it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CreateUrlResponse[] responses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        String[] urls = BenchmarkInputs.LONG_URLS;
+        String[] shortCodes = BenchmarkInputs.SHORT_CODES;
+        responses = new CreateUrlResponse[urls.length];
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 17, 9, 30, 12, 345_000_000);
+        for (int i = 0; i < urls.length; i++) {
+            responses[i] = new CreateUrlResponse((long) i + 1, urls[i], shortCodes[i],
+                    "http://localhost:8080/" + shortCodes[i], createdAt.plusSeconds(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCreateUrlResponse(BenchmarkInputs.Cursor cursor) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses[cursor.next(responses.length)]);
+    }
+}
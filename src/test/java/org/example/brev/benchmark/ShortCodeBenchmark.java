@@ -0,0 +1,43 @@
+package org.example.brev.benchmark;
+
+import org.example.brev.service.RandomShortCodeGenerator;
+import org.example.brev.service.RedisCacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short code generation and Redis key building, both on every create or lookup.
+ *
+ * The generator is shared by all benchmark threads, as the singleton bean is, so the
+ * multi-threaded run shows contention on its SecureRandom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortCodeBenchmark {
+
+    private final RandomShortCodeGenerator generator = new RandomShortCodeGenerator();
+
+    @Benchmark
+    public String generateRandomShortCode() {
+        return generator.generateRandomShortCode();
+    }
+
+    @Benchmark
+    public String buildRedisKey(BenchmarkInputs.Cursor cursor) {
+        String[] shortCodes = BenchmarkInputs.SHORT_CODES;
+        return RedisCacheService.buildUrlMappingKey(shortCodes[cursor.next(shortCodes.length)]);
+    }
+}
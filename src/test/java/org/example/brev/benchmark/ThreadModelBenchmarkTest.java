@@ -0,0 +1,195 @@
+package org.example.brev.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform threads, virtual threads and the reactive pipeline on the redirect path's shape.
+ *
+ * Each simulated request does a Redis GET; on a miss it borrows a database connection for the
+ * lookup and does a Redis SET. Redis needs no pool (Lettuce multiplexes one connection), so only
+ * the JDBC pool bounds concurrency. Runs with the shipped Hikari size, then with a pool sized for
+ * the load, because virtual threads only raise throughput when the pool, not the worker threads,
+ * has headroom. The reactive mode waits for Redis on timers instead of sleeping threads and runs
+ * the database step on a bounded elastic pool, like ReactiveUrlLookupService.
+ *
+ * The client side is a closed loop of virtual threads, one per connection, so latencies are
+ * service times as seen by a waiting client (no coordinated-omission correction).
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=ThreadModelBenchmarkTest
+ * Tunable with -Dbenchmark.connections, .seconds, .redis-latency-us, .db-latency-us, .hit-ratio
+ */
+@Tag("benchmark")
+@DisplayName("Thread Model Benchmark")
+class ThreadModelBenchmarkTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 10_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int REDIS_LATENCY_US = Integer.getInteger("benchmark.redis-latency-us", 1_000);
+    private static final int DB_LATENCY_US = Integer.getInteger("benchmark.db-latency-us", 5_000);
+    private static final double HIT_RATIO = Double.parseDouble(System.getProperty("benchmark.hit-ratio", "0.95"));
+
+    // Tomcat's default maxThreads
+    private static final int PLATFORM_WORKERS = 200;
+    // Hikari connection-timeout and the reactive profile's DB queue from the properties files
+    private static final long DB_MAX_WAIT_MS = 30_000;
+    private static final int DB_QUEUE = 10_000;
+
+    private enum Mode { PLATFORM, VIRTUAL, REACTIVE }
+
+    @Test
+    @DisplayName("Should report throughput and tail latency for each thread model")
+    void compareThreadModels() throws Exception {
+        System.out.printf("%nRedirect path: %,d connections, %ds per run, Redis %dus, DB %dus, hit ratio %.2f%n",
+                CONNECTIONS, SECONDS, REDIS_LATENCY_US, DB_LATENCY_US, HIT_RATIO);
+        System.out.printf("%-9s %-16s %12s %9s %9s %9s %9s %8s%n",
+                "threads", "pools", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+
+        for (int dbPoolSize : new int[]{10, 100}) {
+            for (Mode mode : Mode.values()) {
+                // Short warm-up run so JIT and pool ramp-up do not skew the measured run
+                run(mode, dbPoolSize, 2);
+                Result result = run(mode, dbPoolSize, SECONDS);
+                System.out.printf("%-9s %-16s %,12.0f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                        mode.name().toLowerCase(), "db pool " + dbPoolSize,
+                        result.throughput(), result.percentile(0.50), result.percentile(0.99),
+                        result.percentile(0.999), result.percentile(1.0), result.errors());
+                assertThat(result.latenciesNanos()).isNotEmpty();
+            }
+        }
+    }
+
+    private Result run(Mode mode, int dbPoolSize, int seconds) throws Exception {
+        Semaphore dbPool = new Semaphore(dbPoolSize);
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService server = switch (mode) {
+            case PLATFORM -> new ThreadPoolExecutor(PLATFORM_WORKERS, PLATFORM_WORKERS, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>());
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case REACTIVE -> null;
+        };
+        Scheduler databaseScheduler = Schedulers.newBoundedElastic(dbPoolSize, DB_QUEUE, "benchmark-db");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] perClient = new long[CONNECTIONS][];
+        List<Thread> clients = new ArrayList<>(CONNECTIONS);
+
+        for (int c = 0; c < CONNECTIONS; c++) {
+            int index = c;
+            clients.add(Thread.ofVirtual().start(() -> {
+                long[] latencies = new long[256];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        if (server != null) {
+                            server.submit(() -> handleRedirect(dbPool, errors)).get();
+                        } else {
+                            handleRedirectReactive(dbPool, databaseScheduler).block();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                // Published to the joining thread by Thread.join
+                perClient[index] = Arrays.copyOf(latencies, count);
+            }));
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        if (server != null) {
+            server.shutdown();
+            server.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        databaseScheduler.dispose();
+
+        long[] all = Arrays.stream(perClient).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), (double) all.length / seconds);
+    }
+
+    private static void handleRedirect(Semaphore dbPool, AtomicLong errors) {
+        try {
+            boolean hit = ThreadLocalRandom.current().nextDouble() < HIT_RATIO;
+            TimeUnit.MICROSECONDS.sleep(latencyMicros(REDIS_LATENCY_US));
+            if (!hit) {
+                queryDatabase(dbPool);
+                TimeUnit.MICROSECONDS.sleep(latencyMicros(REDIS_LATENCY_US));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.incrementAndGet();
+        }
+    }
+
+    private static Mono<String> handleRedirectReactive(Semaphore dbPool, Scheduler databaseScheduler) {
+        boolean hit = ThreadLocalRandom.current().nextDouble() < HIT_RATIO;
+        Mono<String> get = Mono.delay(Duration.ofNanos(latencyMicros(REDIS_LATENCY_US) * 1_000)).thenReturn("url");
+        if (hit) {
+            return get;
+        }
+        return get.then(Mono.fromCallable(() -> {
+                    queryDatabase(dbPool);
+                    return "url";
+                }).subscribeOn(databaseScheduler))
+                .delayUntil(url -> Mono.delay(Duration.ofNanos(latencyMicros(REDIS_LATENCY_US) * 1_000)));
+    }
+
+    /**
+     * Borrows a pooled database connection and holds it for one query
+     */
+    private static void queryDatabase(Semaphore dbPool) throws InterruptedException {
+        if (!dbPool.tryAcquire(DB_MAX_WAIT_MS, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Timed out waiting for a pooled connection");
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(latencyMicros(DB_LATENCY_US));
+        } finally {
+            dbPool.release();
+        }
+    }
+
+    /**
+     * One round trip: half the mean as a floor plus an exponential tail,
+     * which is roughly how network and server latency are shaped
+     */
+    private static long latencyMicros(int meanLatencyMicros) {
+        double tail = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanLatencyMicros / 2;
+        return meanLatencyMicros / 2 + (long) tail;
+    }
+
+    private record Result(long[] latenciesNanos, long errors, double throughput) {
+
+        double percentile(double quantile) {
+            if (latenciesNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(latenciesNanos.length - 1, Math.ceil(quantile * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.brev.benchmark;
+
+import org.example.brev.util.UrlUtils;
+import org.example.brev.validation.ValidLongUrlValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation and normalization of the long URL in a create request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlInputBenchmark {
+
+    private final ValidLongUrlValidator validator = new ValidLongUrlValidator();
+
+    @Benchmark
+    public String normalizeUrlWithScheme(BenchmarkInputs.Cursor cursor) {
+        String[] urls = BenchmarkInputs.LONG_URLS;
+        return UrlUtils.normalizeUrl(urls[cursor.next(urls.length)]);
+    }
+
+    @Benchmark
+    public String normalizeUrlWithoutScheme(BenchmarkInputs.Cursor cursor) {
+        String[] urls = BenchmarkInputs.SCHEMELESS_URLS;
+        return UrlUtils.normalizeUrl(urls[cursor.next(urls.length)]);
+    }
+
+    /**
+     * Valid URLs never touch the constraint context, so none is needed
+     */
+    @Benchmark
+    public boolean isValid(BenchmarkInputs.Cursor cursor) {
+        String[] urls = BenchmarkInputs.LONG_URLS;
+        return validator.isValid(urls[cursor.next(urls.length)], null);
+    }
+
+    /**
+     * Rejection path: the validator relies on a MalformedURLException, so this includes its cost
+     */
+    @Benchmark
+    public String validateInvalid(BenchmarkInputs.Cursor cursor) {
+        String[] urls = BenchmarkInputs.INVALID_URLS;
+        return ValidLongUrlValidator.validate(urls[cursor.next(urls.length)]);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.brev.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MappedLineReader Tests")
+class MappedLineReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read lines across window boundaries and resume from an offset")
+    void shouldReadAcrossWindowsAndResume() throws Exception {
+        // Given
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String line = "https://example.com/été/" + i;
+            expected.add(line);
+            content.append(line).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        content.append("https://example.com/last");
+        expected.add("https://example.com/last");
+        Path file = Files.writeString(tempDir.resolve("links.csv"), content);
+
+        // When
+        List<String> lines = new ArrayList<>();
+        long offset;
+        try (MappedLineReader reader = new MappedLineReader(file, 0, 64)) {
+            lines.addAll(reader.readLines(400));
+            offset = reader.position();
+        }
+        try (MappedLineReader reader = new MappedLineReader(file, offset, 100)) {
+            List<String> chunk;
+            while (!(chunk = reader.readLines(300)).isEmpty()) {
+                lines.addAll(chunk);
+            }
+        }
+
+        // Then
+        assertThat(lines).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should skip blank lines")
+    void shouldSkipBlankLines() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("links.csv"), "a\n\n  \nb\n");
+
+        // When & Then
+        try (MappedLineReader reader = new MappedLineReader(file, 0)) {
+            assertThat(reader.readLines(10)).containsExactly("a", "b");
+            assertThat(reader.readLines(10)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail on a line longer than the window")
+    void shouldFailOnOversizedLine() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("links.csv"), "x".repeat(100) + "\n");
+
+        // When & Then
+        try (MappedLineReader reader = new MappedLineReader(file, 0, 32)) {
+            assertThatThrownBy(reader::readLine).hasMessageContaining("longer than 32 bytes");
+        }
+    }
+
+    @Test
+    @DisplayName("Should extract quoted and unquoted CSV columns")
+    void shouldExtractCsvColumns() {
+        assertThat(BulkLoadRunner.extractCsvColumn("https://a.com,x", 0)).isEqualTo("https://a.com");
+        assertThat(BulkLoadRunner.extractCsvColumn("1,\"https://a.com/?q=1,2\",x", 1)).isEqualTo("https://a.com/?q=1,2");
+        assertThat(BulkLoadRunner.extractCsvColumn("\"say \"\"hi\"\"\",b", 0)).isEqualTo("say \"hi\"");
+        assertThat(BulkLoadRunner.extractCsvColumn("a,b", 2)).isNull();
+    }
+}
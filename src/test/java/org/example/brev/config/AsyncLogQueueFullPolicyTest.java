@@ -0,0 +1,77 @@
+package org.example.brev.config;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AsyncLogQueueFullPolicy Tests")
+class AsyncLogQueueFullPolicyTest {
+
+    private static final long OTHER_THREAD_ID = -1L;
+
+    private final AsyncLogQueueFullPolicy policy = new AsyncLogQueueFullPolicy();
+
+    @AfterEach
+    void tearDown() {
+        AsyncLogQueueFullPolicy.configure(AsyncLogQueueFullPolicy.Mode.BLOCK, 10);
+    }
+
+    @Test
+    @DisplayName("Should wait for space in block mode")
+    void shouldEnqueueInBlockMode() {
+        AsyncLogQueueFullPolicy.configure(AsyncLogQueueFullPolicy.Mode.BLOCK, 10);
+
+        assertThat(policy.getRoute(OTHER_THREAD_ID, Level.INFO)).isEqualTo(EventRoute.ENQUEUE);
+    }
+
+    @Test
+    @DisplayName("Should drop INFO but keep WARN in drop mode and count drops")
+    void shouldDropInfoButKeepWarn() {
+        // Given
+        AsyncLogQueueFullPolicy.configure(AsyncLogQueueFullPolicy.Mode.DROP, 10);
+        long droppedBefore = AsyncLogQueueFullPolicy.droppedEvents();
+
+        // When & Then
+        assertThat(policy.getRoute(OTHER_THREAD_ID, Level.INFO)).isEqualTo(EventRoute.DISCARD);
+        assertThat(policy.getRoute(OTHER_THREAD_ID, Level.WARN)).isEqualTo(EventRoute.ENQUEUE);
+        assertThat(AsyncLogQueueFullPolicy.droppedEvents()).isEqualTo(droppedBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep roughly one in sample-rate events in sample mode")
+    void shouldSampleEvents() {
+        // Given
+        AsyncLogQueueFullPolicy.configure(AsyncLogQueueFullPolicy.Mode.SAMPLE, 10);
+
+        // When
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (policy.getRoute(OTHER_THREAD_ID, Level.INFO) == EventRoute.ENQUEUE) {
+                kept++;
+            }
+        }
+
+        // Then
+        assertThat(kept).isBetween(700, 1300);
+    }
+
+    @Test
+    @DisplayName("Should log synchronously when called from the background thread")
+    void shouldRouteBackgroundThreadSynchronously() {
+        AsyncLogQueueFullPolicy.configure(AsyncLogQueueFullPolicy.Mode.DROP, 10);
+
+        assertThat(policy.getRoute(Thread.currentThread().threadId(), Level.INFO)).isEqualTo(EventRoute.SYNCHRONOUS);
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive sample rate")
+    void shouldRejectInvalidSampleRate() {
+        assertThatThrownBy(() -> AsyncLogQueueFullPolicy.configure(AsyncLogQueueFullPolicy.Mode.SAMPLE, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
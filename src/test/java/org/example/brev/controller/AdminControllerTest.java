@@ -1,7 +1,10 @@
 package org.example.brev.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.brev.service.CacheWarmingService;
+import org.example.brev.service.HotLinkTracker;
 import org.example.brev.service.ScheduledMaintenanceService;
+import org.example.brev.service.UrlExportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,9 +14,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +44,15 @@ class AdminControllerTest {
     @MockitoBean
     private ScheduledMaintenanceService scheduledMaintenanceService;
 
+    @MockitoBean
+    private UrlExportService urlExportService;
+
+    @MockitoBean
+    private HotLinkTracker hotLinkTracker;
+
+    @MockitoBean
+    private CacheWarmingService cacheWarmingService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -35,7 +60,7 @@ class AdminControllerTest {
 
     @BeforeEach
     void setUp() {
-        reset(scheduledMaintenanceService);
+        reset(scheduledMaintenanceService, urlExportService, hotLinkTracker, cacheWarmingService);
     }
 
     @Nested
@@ -448,4 +473,177 @@ class AdminControllerTest {
                     .andExpect(jsonPath("$.error").exists());
         }
     }
+
+    @Nested
+    @DisplayName("Export Tests")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should stream NDJSON export with the requested range")
+        void shouldStreamNdjsonExport() throws Exception {
+            // Given
+            when(urlExportService.export(any(OutputStream.class), eq(UrlExportService.Format.NDJSON),
+                    eq(LocalDateTime.of(2025, 1, 1, 0, 0)), isNull()))
+                    .thenAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(0);
+                        out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                        return 1L;
+                    });
+
+            // When
+            MvcResult result = mockMvc.perform(get(ADMIN_BASE_URL + "/export")
+                            .param("format", "ndjson")
+                            .param("from", "2025-01-01T00:00:00"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+                    .andExpect(header().string("Content-Disposition", containsString("url-mappings.ndjson")))
+                    .andExpect(content().string("{\"id\":1}\n"));
+        }
+
+        @Test
+        @DisplayName("Should gzip the export when requested")
+        void shouldGzipExport() throws Exception {
+            // Given
+            when(urlExportService.export(any(OutputStream.class), eq(UrlExportService.Format.CSV), isNull(), isNull()))
+                    .thenAnswer(invocation -> {
+                        OutputStream out = invocation.getArgument(0);
+                        out.write("id,short_code,long_url,created_at\n".getBytes(StandardCharsets.UTF_8));
+                        return 0L;
+                    });
+
+            // When
+            MvcResult result = mockMvc.perform(get(ADMIN_BASE_URL + "/export")
+                            .param("format", "csv")
+                            .param("gzip", "true"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            byte[] body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            // Then
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                        .isEqualTo("id,short_code,long_url,created_at\n");
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject unknown export format")
+        void shouldRejectUnknownFormat() throws Exception {
+            mockMvc.perform(get(ADMIN_BASE_URL + "/export").param("format", "xml"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(urlExportService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Hot Links Tests")
+    class HotLinksTests {
+
+        @BeforeEach
+        void setUpTracker() {
+            when(hotLinkTracker.capacity()).thenReturn(100);
+            when(hotLinkTracker.maxWindow()).thenReturn(Duration.ofHours(1));
+        }
+
+        @Test
+        @DisplayName("Should return the hottest links for the window")
+        void shouldReturnHotLinks() throws Exception {
+            // Given
+            when(hotLinkTracker.topK(Duration.ofMinutes(5), 2)).thenReturn(List.of(
+                    new HotLinkTracker.HotLink("abc123", 420L),
+                    new HotLinkTracker.HotLink("def456", 17L)));
+
+            // When & Then
+            mockMvc.perform(get(ADMIN_BASE_URL + "/hot-links")
+                            .param("window", "5m")
+                            .param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("success"))
+                    .andExpect(jsonPath("$.window").value("PT5M"))
+                    .andExpect(jsonPath("$.links", hasSize(2)))
+                    .andExpect(jsonPath("$.links[0].shortCode").value("abc123"))
+                    .andExpect(jsonPath("$.links[0].estimatedRequests").value(420))
+                    .andExpect(jsonPath("$.timestamp").exists());
+        }
+
+        @Test
+        @DisplayName("Should cap the window at the tracker's span")
+        void shouldCapWindow() throws Exception {
+            // Given
+            when(hotLinkTracker.topK(Duration.ofHours(1), 20)).thenReturn(List.of());
+
+            // When & Then
+            mockMvc.perform(get(ADMIN_BASE_URL + "/hot-links").param("window", "24h"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.window").value("PT1H"))
+                    .andExpect(jsonPath("$.links", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("Should reject malformed windows and limits")
+        void shouldRejectBadParameters() throws Exception {
+            mockMvc.perform(get(ADMIN_BASE_URL + "/hot-links").param("window", "5 minutes"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get(ADMIN_BASE_URL + "/hot-links").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+
+            verify(hotLinkTracker, never()).topK(any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Cache Warming Tests")
+    class CacheWarmingTests {
+
+        @Test
+        @DisplayName("Should warm from the requested source and report the result")
+        void shouldWarmCache() throws Exception {
+            // Given
+            when(cacheWarmingService.warm(CacheWarmingService.Source.RECENT, 500))
+                    .thenReturn(new CacheWarmingService.WarmResult(CacheWarmingService.Source.RECENT, 500, 498, true, 120L));
+
+            // When & Then
+            mockMvc.perform(post(ADMIN_BASE_URL + "/cache/warm")
+                            .param("source", "recent")
+                            .param("limit", "500"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("success"))
+                    .andExpect(jsonPath("$.result.source").value("RECENT"))
+                    .andExpect(jsonPath("$.result.warmed").value(498))
+                    .andExpect(jsonPath("$.result.completed").value(true))
+                    .andExpect(jsonPath("$.timestamp").exists());
+        }
+
+        @Test
+        @DisplayName("Should reject unknown sources")
+        void shouldRejectUnknownSource() throws Exception {
+            mockMvc.perform(post(ADMIN_BASE_URL + "/cache/warm").param("source", "popular"))
+                    .andExpect(status().isBadRequest());
+
+            verify(cacheWarmingService, never()).warm(any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return 409 while another warming run is in progress")
+        void shouldReturnConflictWhenRunning() throws Exception {
+            // Given
+            when(cacheWarmingService.warm(CacheWarmingService.Source.CLICKS, 10000))
+                    .thenThrow(new IllegalStateException("Cache warming is already running"));
+
+            // When & Then
+            mockMvc.perform(post(ADMIN_BASE_URL + "/cache/warm"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status").value("error"))
+                    .andExpect(jsonPath("$.message").value("Cache warming is already running"));
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package org.example.brev.controller;
+
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.service.ClickCounterService;
+import org.example.brev.service.ClickRollupService;
+import org.example.brev.service.HotLinkTracker;
+import org.example.brev.service.ReactiveUrlLookupService;
+import org.example.brev.service.UniqueVisitorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveRedirectController.class)
+@ActiveProfiles("reactive-redirect")
+@DisplayName("ReactiveRedirectController Tests")
+class ReactiveRedirectControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveUrlLookupService reactiveUrlLookupService;
+
+    @MockitoBean
+    private ClickCounterService clickCounterService;
+
+    @MockitoBean
+    private ClickRollupService clickRollupService;
+
+    @MockitoBean
+    private UniqueVisitorService uniqueVisitorService;
+
+    @MockitoBean
+    private HotLinkTracker hotLinkTracker;
+
+    @Test
+    @DisplayName("Should redirect asynchronously once the lookup completes")
+    void shouldRedirectAsynchronously() throws Exception {
+        // Given
+        String shortCode = "abc123";
+        String longUrl = "https://example.com";
+        when(reactiveUrlLookupService.getLongUrl(shortCode)).thenReturn(Mono.just(longUrl));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/" + shortCode))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", longUrl));
+        verify(clickCounterService).recordClick(shortCode);
+        verify(clickRollupService).recordClick(shortCode);
+        verify(uniqueVisitorService).recordVisit(eq(shortCode), anyString());
+        verify(hotLinkTracker).record(shortCode);
+    }
+
+    @Test
+    @DisplayName("Should return 404 when the lookup errors with not found")
+    void shouldReturnNotFound() throws Exception {
+        // Given
+        String shortCode = "notfound";
+        when(reactiveUrlLookupService.getLongUrl(shortCode))
+                .thenReturn(Mono.error(new ShortCodeNotFoundException(shortCode)));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/" + shortCode))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)));
+        verify(clickCounterService, never()).recordClick(anyString());
+    }
+}
@@ -1,6 +1,10 @@
 package org.example.brev.controller;
 
 import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.service.ClickCounterService;
+import org.example.brev.service.ClickRollupService;
+import org.example.brev.service.HotLinkTracker;
+import org.example.brev.service.UniqueVisitorService;
 import org.example.brev.service.UrlService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -30,6 +35,18 @@ class RedirectControllerTest {
     @MockitoBean
     private UrlService urlService;
 
+    @MockitoBean
+    private ClickCounterService clickCounterService;
+
+    @MockitoBean
+    private ClickRollupService clickRollupService;
+
+    @MockitoBean
+    private UniqueVisitorService uniqueVisitorService;
+
+    @MockitoBean
+    private HotLinkTracker hotLinkTracker;
+
     @Test
     @DisplayName("Should redirect to long URL with valid short code")
     void shouldRedirectToLongUrlSuccessfully() throws Exception {
@@ -45,6 +62,10 @@ class RedirectControllerTest {
                 .andExpect(header().string("Location", longUrl));
 
         verify(urlService, times(1)).getLongUrl(shortCode);
+        verify(clickCounterService, times(1)).recordClick(shortCode);
+        verify(clickRollupService, times(1)).recordClick(shortCode);
+        verify(uniqueVisitorService, times(1)).recordVisit(eq(shortCode), anyString());
+        verify(hotLinkTracker, times(1)).record(shortCode);
     }
 
     @Test
@@ -65,6 +86,7 @@ class RedirectControllerTest {
                 .andExpect(jsonPath("$.message", containsString(shortCode)));
 
         verify(urlService, times(1)).getLongUrl(shortCode);
+        verify(clickCounterService, never()).recordClick(anyString());
     }
 
     @Test
@@ -1,9 +1,15 @@
 package org.example.brev.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.brev.dto.CreateUrlBatchRequest;
 import org.example.brev.dto.CreateUrlRequest;
+import org.example.brev.entity.UrlClickRollup;
 import org.example.brev.entity.UrlMapping;
 import org.example.brev.exception.ShortCodeGenerationException;
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.service.ClickCounterService;
+import org.example.brev.service.ClickRollupService;
+import org.example.brev.service.UniqueVisitorService;
 import org.example.brev.service.UrlService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,11 +23,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +48,15 @@ class UrlControllerTest {
     @MockitoBean
     private UrlService urlService;
 
+    @MockitoBean
+    private ClickCounterService clickCounterService;
+
+    @MockitoBean
+    private ClickRollupService clickRollupService;
+
+    @MockitoBean
+    private UniqueVisitorService uniqueVisitorService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -292,4 +312,173 @@ class UrlControllerTest {
             }
         }
     }
+
+    @Nested
+    @DisplayName("POST /api/v1/urls/batch - Create Short URLs In Bulk Tests")
+    class CreateShortUrlsBatchTests {
+
+        @Test
+        @DisplayName("Should create short URLs in request order")
+        void shouldCreateShortUrlsInBatch() throws Exception {
+            // Given
+            UrlMapping second = new UrlMapping("https://example.org", "def456");
+            second.setId(2L);
+            second.setCreatedAt(LocalDateTime.of(2025, 7, 24, 22, 7, 16));
+            when(urlService.createShortUrls(anyList()))
+                    .thenReturn(new UrlService.BatchResult(List.of(mockUrlMapping, second), 1));
+
+            CreateUrlBatchRequest request = new CreateUrlBatchRequest(
+                    List.of("https://example.com", "https://example.org"));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/urls/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.requested", is(2)))
+                    .andExpect(jsonPath("$.created", is(1)))
+                    .andExpect(jsonPath("$.urls", hasSize(2)))
+                    .andExpect(jsonPath("$.urls[0].shortUrl", is("http://localhost/abc123")))
+                    .andExpect(jsonPath("$.urls[1].shortCode", is("def456")));
+
+            verify(urlService, times(1)).createShortUrls(List.of("https://example.com", "https://example.org"));
+        }
+
+        @Test
+        @DisplayName("Should reject batch containing an invalid URL")
+        void shouldRejectBatchWithInvalidUrl() throws Exception {
+            // Given
+            CreateUrlBatchRequest request = new CreateUrlBatchRequest(List.of("https://example.com", "not a url"));
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/urls/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.fieldErrors['longUrls[1]']", is("Long URL must be a valid URL")));
+
+            verify(urlService, never()).createShortUrls(anyList());
+        }
+
+        @Test
+        @DisplayName("Should reject empty batch")
+        void shouldRejectEmptyBatch() throws Exception {
+            mockMvc.perform(post("/api/v1/urls/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new CreateUrlBatchRequest(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verify(urlService, never()).createShortUrls(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/urls/{shortCode}/stats - Click Statistics Tests")
+    class UrlStatsTests {
+
+        @Test
+        @DisplayName("Should return click statistics for an existing short code")
+        void shouldReturnClickStats() throws Exception {
+            // Given
+            when(urlService.shortCodeExists("abc123")).thenReturn(true);
+            when(clickCounterService.getClickStats("abc123")).thenReturn(
+                    new ClickCounterService.ClickStats(42L, LocalDateTime.of(2025, 7, 25, 10, 0, 30)));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/urls/abc123/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shortCode", is("abc123")))
+                    .andExpect(jsonPath("$.clickCount", is(42)))
+                    .andExpect(jsonPath("$.lastClickedAt", is("2025-07-25T10:00:30")));
+
+            // Existence only; a stats poll must not count or cache as a redirect
+            verify(urlService, never()).getLongUrl(anyString());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown short code")
+        void shouldReturnNotFoundForUnknownShortCode() throws Exception {
+            // Given
+            when(urlService.shortCodeExists("nope00")).thenReturn(false);
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/urls/nope00/stats"))
+                    .andExpect(status().isNotFound());
+
+            verify(clickCounterService, never()).getClickStats(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/urls/{shortCode}/stats/timeseries - Click Time Series Tests")
+    class UrlTimeSeriesTests {
+
+        @Test
+        @DisplayName("Should return hourly buckets from the rollups")
+        void shouldReturnHourlyTimeSeries() throws Exception {
+            // Given
+            LocalDateTime from = LocalDateTime.of(2025, 7, 25, 10, 0);
+            LocalDateTime to = LocalDateTime.of(2025, 7, 25, 13, 0);
+            when(urlService.shortCodeExists("abc123")).thenReturn(true);
+            when(clickRollupService.getTimeSeries("abc123", UrlClickRollup.Granularity.HOUR, from, to))
+                    .thenReturn(new ClickRollupService.TimeSeries(UrlClickRollup.Granularity.HOUR, from, to, 7L, List.of(
+                            new ClickRollupService.TimeSeries.Point(LocalDateTime.of(2025, 7, 25, 10, 0), 3L),
+                            new ClickRollupService.TimeSeries.Point(LocalDateTime.of(2025, 7, 25, 12, 0), 4L))));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/urls/abc123/stats/timeseries")
+                            .param("granularity", "hour")
+                            .param("from", "2025-07-25T10:00:00")
+                            .param("to", "2025-07-25T13:00:00"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shortCode", is("abc123")))
+                    .andExpect(jsonPath("$.granularity", is("hour")))
+                    .andExpect(jsonPath("$.totalClicks", is(7)))
+                    .andExpect(jsonPath("$.points", hasSize(2)))
+                    .andExpect(jsonPath("$.points[1].bucketStart", is("2025-07-25T12:00:00")))
+                    .andExpect(jsonPath("$.points[1].clicks", is(4)));
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown granularity")
+        void shouldRejectUnknownGranularity() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/v1/urls/abc123/stats/timeseries")
+                            .param("granularity", "week")
+                            .param("from", "2025-07-25T10:00:00"))
+                    .andExpect(status().isBadRequest());
+
+            verify(clickRollupService, never()).getTimeSeries(anyString(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/urls/{shortCode}/stats/visitors - Unique Visitor Tests")
+    class UrlVisitorsTests {
+
+        @Test
+        @DisplayName("Should return unique visitor estimates for a date range")
+        void shouldReturnVisitorEstimates() throws Exception {
+            // Given
+            LocalDate from = LocalDate.of(2025, 7, 24);
+            LocalDate to = LocalDate.of(2025, 7, 25);
+            when(urlService.shortCodeExists("abc123")).thenReturn(true);
+            when(uniqueVisitorService.estimate("abc123", from, to)).thenReturn(
+                    new UniqueVisitorService.VisitorEstimate(from, to, 150L, 0.01625, List.of(
+                            new UniqueVisitorService.VisitorEstimate.Day(from, 100L),
+                            new UniqueVisitorService.VisitorEstimate.Day(to, 80L))));
+
+            // When & Then
+            mockMvc.perform(get("/api/v1/urls/abc123/stats/visitors")
+                            .param("from", "2025-07-24")
+                            .param("to", "2025-07-25"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shortCode", is("abc123")))
+                    .andExpect(jsonPath("$.uniqueVisitors", is(150)))
+                    .andExpect(jsonPath("$.standardError", is(0.01625)))
+                    .andExpect(jsonPath("$.days", hasSize(2)))
+                    .andExpect(jsonPath("$.days[0].date", is("2025-07-24")))
+                    .andExpect(jsonPath("$.days[0].uniqueVisitors", is(100)));
+        }
+    }
 }
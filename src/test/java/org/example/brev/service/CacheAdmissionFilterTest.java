@@ -0,0 +1,68 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CacheAdmissionFilter Tests")
+class CacheAdmissionFilterTest {
+
+    private static final long WINDOW = Duration.ofMinutes(10).toMillis();
+    private static final long START = 1_753_444_800_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new CacheAdmissionFilter(true, 10_000, 0.01, Duration.ofMillis(WINDOW), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should reject the first miss and admit the second within the window")
+    void shouldAdmitOnSecondMiss() {
+        assertThat(filter.admit("abc123", START)).isFalse();
+        assertThat(filter.admit("abc123", START + 1_000)).isTrue();
+        assertThat(filter.admit("def456", START + 2_000)).isFalse();
+
+        assertThat(meterRegistry.get("brev.cache.admission").tag("result", "admitted").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("brev.cache.admission").tag("result", "rejected").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should remember a code into the next window and forget it after that")
+    void shouldRotateWindows() {
+        // Given
+        filter.admit("abc123", START);
+        filter.admit("def456", START);
+
+        // When & Then - previous window still counts
+        assertThat(filter.admit("abc123", START + WINDOW)).isTrue();
+
+        // Two windows on, only codes seen in the window just before survive
+        assertThat(filter.admit("abc123", START + 2 * WINDOW)).isTrue();
+        assertThat(filter.admit("def456", START + 2 * WINDOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should forget everything after an idle window")
+    void shouldDropFiltersAfterIdleWindow() {
+        filter.admit("abc123", START);
+
+        assertThat(filter.admit("abc123", START + 3 * WINDOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should admit every miss when disabled")
+    void shouldAdmitAllWhenDisabled() {
+        CacheAdmissionFilter disabled = new CacheAdmissionFilter(false, 10_000, 0.01, Duration.ofMillis(WINDOW), meterRegistry);
+
+        assertThat(disabled.admit("abc123", START)).isTrue();
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.brev.service;
+
+import org.example.brev.repository.CacheEntryView;
+import org.example.brev.repository.UrlClickStatsRepository;
+import org.example.brev.repository.UrlMappingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheWarmingService Tests")
+class CacheWarmingServiceTest {
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    @Mock
+    private UrlClickStatsRepository urlClickStatsRepository;
+
+    @Mock
+    private RedisCacheService redisCacheService;
+
+    @Mock
+    private LocalCacheService localCacheService;
+
+    @Mock
+    private HotLinkTracker hotLinkTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CacheWarmingService service(Duration deadline) {
+        return new CacheWarmingService(urlMappingRepository, urlClickStatsRepository, redisCacheService,
+                localCacheService, hotLinkTracker, transactionManager, true, "clicks", 4, 2, 2, deadline);
+    }
+
+    @Test
+    @DisplayName("Should warm the most clicked links, topped up with the newest, in batches")
+    void shouldWarmMostClickedTopUpWithNewest() {
+        // Given
+        when(urlClickStatsRepository.findMostClickedShortCodes(any())).thenReturn(List.of("hot1", "hot2"));
+        when(urlMappingRepository.findNewestShortCodes(any())).thenReturn(List.of("hot2", "new1", "new2", "new3"));
+        when(urlMappingRepository.findCacheEntries(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> shortCodes = invocation.getArgument(0);
+            return shortCodes.stream().map(shortCode -> entry(shortCode, "https://example.com/" + shortCode)).toList();
+        });
+
+        // When
+        CacheWarmingService.WarmResult result = service(Duration.ofSeconds(10)).warm(CacheWarmingService.Source.CLICKS, 4);
+
+        // Then
+        assertThat(result.candidates()).isEqualTo(4);
+        assertThat(result.warmed()).isEqualTo(4);
+        assertThat(result.completed()).isTrue();
+        verify(urlMappingRepository).findCacheEntries(List.of("hot1", "hot2"));
+        verify(urlMappingRepository).findCacheEntries(List.of("new1", "new2"));
+        verify(redisCacheService).cacheUrlMappings(Map.of("hot1", "https://example.com/hot1",
+                "hot2", "https://example.com/hot2"));
+        verify(localCacheService).put("new2", "https://example.com/new2");
+    }
+
+    @Test
+    @DisplayName("Should fill only the local cache for codes Redis still holds")
+    void shouldSkipDatabaseForCodesInRedis() {
+        // Given
+        when(urlMappingRepository.findNewestShortCodes(any())).thenReturn(List.of("a", "b"));
+        when(redisCacheService.getCachedUrlMappings(List.of("a", "b"))).thenReturn(Map.of("a", "https://example.com/a"));
+        when(urlMappingRepository.findCacheEntries(List.of("b"))).thenReturn(List.of(entry("b", "https://example.com/b")));
+
+        // When
+        CacheWarmingService.WarmResult result = service(Duration.ofSeconds(10)).warm(CacheWarmingService.Source.RECENT, 2);
+
+        // Then
+        assertThat(result.warmed()).isEqualTo(2);
+        verify(localCacheService).put("a", "https://example.com/a");
+        verify(localCacheService).put("b", "https://example.com/b");
+        verify(redisCacheService).cacheUrlMappings(Map.of("b", "https://example.com/b"));
+    }
+
+    @Test
+    @DisplayName("Should stop at the deadline and reject a second run while one is in progress")
+    void shouldStopAtDeadline() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(urlMappingRepository.findNewestShortCodes(any())).thenReturn(List.of("a", "b", "c", "d"));
+        when(urlMappingRepository.findCacheEntries(anyCollection())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        CacheWarmingService service = service(Duration.ofMillis(500));
+
+        // When
+        CompletableFuture<CacheWarmingService.WarmResult> firstRun =
+                CompletableFuture.supplyAsync(() -> service.warm(CacheWarmingService.Source.RECENT, 4));
+        verify(urlMappingRepository, timeout(1000).atLeastOnce()).findCacheEntries(anyCollection());
+
+        // Then
+        assertThatThrownBy(() -> service.warm(CacheWarmingService.Source.RECENT, 4))
+                .isInstanceOf(IllegalStateException.class);
+        CacheWarmingService.WarmResult result = firstRun.get(5, TimeUnit.SECONDS);
+        release.countDown();
+        assertThat(result.completed()).isFalse();
+        assertThat(result.warmed()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should select candidates in a read-only transaction that times out with the deadline")
+    void shouldBoundCandidateSelectionByDeadline() {
+        // Given
+        when(urlClickStatsRepository.findMostClickedShortCodes(any()))
+                .thenThrow(new QueryTimeoutException("Statement cancelled due to timeout"));
+
+        // When
+        CacheWarmingService.WarmResult result = service(Duration.ofSeconds(10)).warm(CacheWarmingService.Source.CLICKS, 4);
+
+        // Then
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        assertThat(definition.getValue().getTimeout()).isBetween(1, 10);
+        assertThat(result.completed()).isFalse();
+        assertThat(result.candidates()).isZero();
+        verifyNoInteractions(redisCacheService, localCacheService);
+    }
+
+    @Test
+    @DisplayName("Should take candidates from the hot-link tracker, capped at its capacity")
+    void shouldWarmHotLinks() {
+        // Given
+        when(hotLinkTracker.capacity()).thenReturn(2);
+        when(hotLinkTracker.maxWindow()).thenReturn(Duration.ofHours(1));
+        when(hotLinkTracker.topK(Duration.ofHours(1), 2)).thenReturn(List.of(
+                new HotLinkTracker.HotLink("abc123", 42L), new HotLinkTracker.HotLink("def456", 7L)));
+        when(urlMappingRepository.findCacheEntries(List.of("abc123", "def456")))
+                .thenReturn(List.of(entry("abc123", "https://example.com/a")));
+
+        // When
+        CacheWarmingService.WarmResult result = service(Duration.ofSeconds(10)).warm(CacheWarmingService.Source.HOT, 4);
+
+        // Then
+        assertThat(result.candidates()).isEqualTo(2);
+        assertThat(result.warmed()).isEqualTo(1);
+        verify(redisCacheService).cacheUrlMappings(Map.of("abc123", "https://example.com/a"));
+    }
+
+    @Test
+    @DisplayName("Should skip startup warming when disabled and survive failures when enabled")
+    void shouldHandleStartupWarming() {
+        // Given
+        CacheWarmingService disabled = new CacheWarmingService(urlMappingRepository, urlClickStatsRepository,
+                redisCacheService, localCacheService, hotLinkTracker, transactionManager, false, "clicks", 4, 2, 2,
+                Duration.ofSeconds(1));
+        when(urlClickStatsRepository.findMostClickedShortCodes(any())).thenThrow(new RuntimeException("DB down"));
+
+        // When
+        disabled.warmOnStartup();
+        service(Duration.ofSeconds(1)).warmOnStartup();
+
+        // Then
+        verify(urlClickStatsRepository, times(1)).findMostClickedShortCodes(any());
+        verifyNoInteractions(redisCacheService, localCacheService);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sources and out-of-range limits")
+    void shouldRejectBadArguments() {
+        assertThatThrownBy(() -> CacheWarmingService.Source.fromName("popular"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service(Duration.ofSeconds(1)).warm(CacheWarmingService.Source.RECENT, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CacheEntryView entry(String shortCode, String longUrl) {
+        return new CacheEntryView() {
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+
+            @Override
+            public String getLongUrl() {
+                return longUrl;
+            }
+        };
+    }
+}
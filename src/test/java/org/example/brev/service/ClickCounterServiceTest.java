@@ -0,0 +1,204 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.entity.UrlClickStats;
+import org.example.brev.repository.UrlClickStatsBatchRepository;
+import org.example.brev.repository.UrlClickStatsBatchRepository.ClickDelta;
+import org.example.brev.repository.UrlClickStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickCounterService Tests")
+class ClickCounterServiceTest {
+
+    @Mock
+    private UrlClickStatsRepository urlClickStatsRepository;
+
+    @Mock
+    private UrlClickStatsBatchRepository urlClickStatsBatchRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClickCounterService clickCounterService;
+    private List<List<ClickDelta>> writtenBatches;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clickCounterService = new ClickCounterService(
+                urlClickStatsRepository, urlClickStatsBatchRepository, meterRegistry, true, 2);
+        writtenBatches = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should write accumulated clicks per short code in batches")
+    void shouldFlushClicksInBatches() {
+        // Given
+        captureBatches();
+        clickCounterService.recordClick("abc123");
+        clickCounterService.recordClick("abc123");
+        clickCounterService.recordClick("def456");
+        clickCounterService.recordClick("ghi789");
+
+        // When
+        clickCounterService.flush();
+
+        // Then
+        assertThat(writtenBatches).hasSize(2);
+        assertThat(writtenBatches.stream().flatMap(List::stream).toList()).containsExactlyInAnyOrder(
+                new ClickDelta("abc123", 2L),
+                new ClickDelta("def456", 1L),
+                new ClickDelta("ghi789", 1L));
+        assertThat(meterRegistry.get("brev.clicks.flushed").counter().count()).isEqualTo(4.0);
+        assertThat(clickCounterService.pendingClicks("abc123")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should only write clicks recorded since the previous flush")
+    void shouldFlushOnlyNewClicks() {
+        // Given
+        captureBatches();
+        clickCounterService.recordClick("abc123");
+        clickCounterService.flush();
+
+        // When
+        clickCounterService.recordClick("abc123");
+        clickCounterService.recordClick("abc123");
+        clickCounterService.flush();
+
+        // Then
+        assertThat(writtenBatches).containsExactly(
+                List.of(new ClickDelta("abc123", 1L)),
+                List.of(new ClickDelta("abc123", 2L)));
+    }
+
+    @Test
+    @DisplayName("Should keep clicks for the next flush when the write fails")
+    void shouldKeepClicksWhenFlushFails() {
+        // Given
+        clickCounterService.recordClick("abc123");
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(urlClickStatsBatchRepository).addClicks(anyList(), any(LocalDateTime.class));
+
+        // When
+        clickCounterService.flush();
+
+        // Then
+        assertThat(clickCounterService.pendingClicks("abc123")).isEqualTo(1L);
+        assertThat(meterRegistry.get("brev.clicks.flush.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should drop idle counters and skip the database when nothing changed")
+    void shouldDropIdleCounters() {
+        // Given
+        captureBatches();
+        clickCounterService.recordClick("abc123");
+        clickCounterService.flush();
+
+        // When
+        clickCounterService.flush();
+
+        // Then
+        assertThat(writtenBatches).hasSize(1);
+        assertThat(meterRegistry.get("brev.clicks.tracked").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should add unflushed clicks to the stored count")
+    void shouldCombineStoredAndPendingClicks() {
+        // Given
+        LocalDateTime lastClickedAt = LocalDateTime.of(2025, 7, 25, 10, 0, 30);
+        when(urlClickStatsRepository.findById("abc123"))
+                .thenReturn(Optional.of(new UrlClickStats("abc123", 40L, lastClickedAt)));
+        clickCounterService.recordClick("abc123");
+        clickCounterService.recordClick("abc123");
+
+        // When
+        ClickCounterService.ClickStats stats = clickCounterService.getClickStats("abc123");
+
+        // Then
+        assertThat(stats.clickCount()).isEqualTo(42L);
+        assertThat(stats.lastClickedAt()).isEqualTo(lastClickedAt);
+    }
+
+    @Test
+    @DisplayName("Should neither count nor flush when disabled")
+    void shouldIgnoreClicksWhenDisabled() {
+        // Given
+        ClickCounterService disabled = new ClickCounterService(
+                urlClickStatsRepository, urlClickStatsBatchRepository, new SimpleMeterRegistry(), false, 2);
+
+        // When
+        disabled.recordClick("abc123");
+        disabled.flush();
+
+        // Then
+        assertThat(disabled.pendingClicks("abc123")).isZero();
+        verify(urlClickStatsBatchRepository, never()).addClicks(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should not lose clicks that race with dropping an idle counter")
+    void shouldKeepClicksRacingWithFlush() throws InterruptedException {
+        // Given
+        captureBatches();
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        // When - short bursts per code leave counters idle between flushes
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    clickCounterService.recordClick("code" + (i / 100) % 8);
+                    if (i % 100 == 0) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (recording.get()) {
+                clickCounterService.flush();
+            }
+        });
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        recording.set(false);
+        flusher.join();
+        clickCounterService.flush();
+
+        // Then
+        long written = writtenBatches.stream().flatMap(List::stream).mapToLong(ClickDelta::clicks).sum();
+        assertThat(written).isEqualTo(40_000L);
+    }
+
+    private void captureBatches() {
+        doAnswer(invocation -> {
+            List<ClickDelta> deltas = invocation.getArgument(0);
+            writtenBatches.add(List.copyOf(deltas));
+            return null;
+        }).when(urlClickStatsBatchRepository).addClicks(anyList(), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.entity.UrlClickRollup.Granularity;
+import org.example.brev.repository.UrlClickRollupRepository;
+import org.example.brev.repository.UrlClickRollupRepository.RollupBucket;
+import org.example.brev.repository.UrlClickRollupRepository.RollupDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClickRollupService Tests")
+class ClickRollupServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 7, 25, 10, 58);
+
+    @Mock
+    private UrlClickRollupRepository urlClickRollupRepository;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private ClickRollupService clickRollupService;
+    private List<RollupDelta> written;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        meterRegistry = new SimpleMeterRegistry();
+        clickRollupService = new ClickRollupService(
+                urlClickRollupRepository, meterRegistry, clock, true, 15, 48, 90, 100, 2);
+        written = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should fold completed minutes into minute, hour and day rollups")
+    void shouldCompactCompletedMinutes() {
+        // Given
+        captureWrites();
+        clickRollupService.recordClick("abc123");
+        clock.advanceMinutes(1);
+        clickRollupService.recordClick("abc123");
+        clickRollupService.recordClick("abc123");
+        clock.advanceMinutes(1);
+        clickRollupService.recordClick("abc123");
+
+        // When
+        long compacted = clickRollupService.compact();
+
+        // Then - 10:58 and 10:59 are complete, 11:00 is still open
+        assertThat(compacted).isEqualTo(3L);
+        assertThat(written).containsExactlyInAnyOrder(
+                new RollupDelta("abc123", Granularity.MINUTE, START, 1L),
+                new RollupDelta("abc123", Granularity.MINUTE, START.plusMinutes(1), 2L),
+                new RollupDelta("abc123", Granularity.HOUR, LocalDateTime.of(2025, 7, 25, 10, 0), 3L),
+                new RollupDelta("abc123", Granularity.DAY, LocalDateTime.of(2025, 7, 25, 0, 0), 3L));
+        assertThat(meterRegistry.get("brev.clicks.rollup.compacted").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should only write clicks not compacted before")
+    void shouldCompactOnlyNewClicks() {
+        // Given
+        captureWrites();
+        clickRollupService.recordClick("abc123");
+        clock.advanceMinutes(1);
+        clickRollupService.compact();
+        written.clear();
+
+        // When
+        clock.advanceMinutes(1);
+        long compacted = clickRollupService.compact();
+
+        // Then - nothing was clicked since 10:58, which is already stored
+        assertThat(compacted).isZero();
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep clicks for the next compaction when the write fails")
+    void shouldKeepClicksWhenCompactionFails() {
+        // Given
+        clickRollupService.recordClick("abc123");
+        clock.advanceMinutes(1);
+        doThrow(new QueryTimeoutException("timeout")).when(urlClickRollupRepository).addClicks(anyList());
+        clickRollupService.compact();
+
+        // When
+        captureWrites();
+        long compacted = clickRollupService.compact();
+
+        // Then
+        assertThat(compacted).isEqualTo(1L);
+        assertThat(meterRegistry.get("brev.clicks.rollup.compaction.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should combine stored rollups with clicks not yet compacted")
+    void shouldCombineStoredAndPendingBuckets() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2025, 7, 25, 9, 30);
+        LocalDateTime to = LocalDateTime.of(2025, 7, 25, 12, 0);
+        when(urlClickRollupRepository.findBuckets("abc123", Granularity.HOUR,
+                LocalDateTime.of(2025, 7, 25, 9, 0), to))
+                .thenReturn(List.of(
+                        new RollupBucket(LocalDateTime.of(2025, 7, 25, 9, 0), 5L),
+                        new RollupBucket(LocalDateTime.of(2025, 7, 25, 10, 0), 10L)));
+        clickRollupService.recordClick("abc123");
+        clickRollupService.recordClick("abc123");
+
+        // When
+        ClickRollupService.TimeSeries series = clickRollupService.getTimeSeries(
+                "abc123", Granularity.HOUR, from, to);
+
+        // Then
+        assertThat(series.from()).isEqualTo(LocalDateTime.of(2025, 7, 25, 9, 0));
+        assertThat(series.totalClicks()).isEqualTo(17L);
+        assertThat(series.points()).containsExactly(
+                new ClickRollupService.TimeSeries.Point(LocalDateTime.of(2025, 7, 25, 9, 0), 5L),
+                new ClickRollupService.TimeSeries.Point(LocalDateTime.of(2025, 7, 25, 10, 0), 12L));
+    }
+
+    @Test
+    @DisplayName("Should keep a click that lands while its idle ring is being dropped")
+    void shouldKeepClickRacingWithIdleRemoval() {
+        // Given - 10:58 is compacted, so the ring is idle from 10:59
+        captureWrites();
+        clickRollupService.recordClick("abc123");
+        clock.advanceMinutes(1);
+        clickRollupService.compact();
+        written.clear();
+
+        // When - the compaction drops the ring after the click has looked it up
+        clock.onNextRead(clickRollupService::compact);
+        clickRollupService.recordClick("abc123");
+        clock.advanceMinutes(1);
+        long compacted = clickRollupService.compact();
+
+        // Then
+        assertThat(compacted).isEqualTo(1L);
+        assertThat(written).contains(new RollupDelta("abc123", Granularity.MINUTE, START.plusMinutes(1), 1L));
+        assertThat(meterRegistry.get("brev.clicks.rollup.tracked").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject ranges wider than the point limit")
+    void shouldRejectTooManyBuckets() {
+        // When & Then
+        assertThatThrownBy(() -> clickRollupService.getTimeSeries(
+                "abc123", Granularity.MINUTE, START, START.plusHours(2)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("coarser granularity");
+        verifyNoInteractions(urlClickRollupRepository);
+    }
+
+    @Test
+    @DisplayName("Should delete expired minute and hour rollups in chunks")
+    void shouldDownsampleInChunks() {
+        // Given
+        when(urlClickRollupRepository.deleteOlderThan(eq(Granularity.MINUTE), any(LocalDateTime.class), anyInt()))
+                .thenReturn(2, 2, 1);
+        when(urlClickRollupRepository.deleteOlderThan(eq(Granularity.HOUR), any(LocalDateTime.class), anyInt()))
+                .thenReturn(0);
+
+        // When
+        long deleted = clickRollupService.downsample();
+
+        // Then
+        assertThat(deleted).isEqualTo(5L);
+        verify(urlClickRollupRepository, times(3)).deleteOlderThan(Granularity.MINUTE, START.minusHours(48), 2);
+        verify(urlClickRollupRepository).deleteOlderThan(Granularity.HOUR, START.minusDays(90), 2);
+    }
+
+    private void captureWrites() {
+        doAnswer(invocation -> {
+            List<RollupDelta> deltas = invocation.getArgument(0);
+            written.addAll(deltas);
+            return null;
+        }).when(urlClickRollupRepository).addClicks(anyList());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+        private Runnable onNextRead;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advanceMinutes(long minutes) {
+            instant = instant.plusSeconds(minutes * 60);
+        }
+
+        /**
+         * Runs an action the next time the time is read, before returning it
+         */
+        private void onNextRead(Runnable action) {
+            onNextRead = action;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            Runnable action = onNextRead;
+            if (action != null) {
+                onNextRead = null;
+                action.run();
+            }
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.brev.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("HotLinkTracker Tests")
+class HotLinkTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private AtomicLong now;
+    private HotLinkTracker hotLinkTracker;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_753_444_800_000L);
+        hotLinkTracker = new HotLinkTracker(true, MINUTE, 10, 5, 1024, 4, now::get);
+    }
+
+    @Test
+    @DisplayName("Should rank the most requested codes first")
+    void shouldRankHotLinks() {
+        // Given
+        record("hot", 50);
+        record("warm", 20);
+        for (int i = 0; i < 200; i++) {
+            record("tail-" + i, 1);
+        }
+
+        // When
+        List<HotLinkTracker.HotLink> links = hotLinkTracker.topK(Duration.ofMinutes(5), 2);
+
+        // Then
+        assertThat(links).extracting(HotLinkTracker.HotLink::shortCode).containsExactly("hot", "warm");
+        assertThat(links.get(0).estimatedRequests()).isGreaterThanOrEqualTo(50L);
+    }
+
+    @Test
+    @DisplayName("Should sum across slices inside the window and drop older ones")
+    void shouldSlideWindow() {
+        // Given
+        record("old", 100);
+        now.addAndGet(3 * MINUTE);
+        record("recent", 10);
+        now.addAndGet(MINUTE);
+        record("recent", 10);
+
+        // When
+        List<HotLinkTracker.HotLink> lastTwoMinutes = hotLinkTracker.topK(Duration.ofMinutes(2), 5);
+        List<HotLinkTracker.HotLink> lastFiveMinutes = hotLinkTracker.topK(Duration.ofMinutes(5), 5);
+
+        // Then
+        assertThat(lastTwoMinutes).containsExactly(new HotLinkTracker.HotLink("recent", 20L));
+        assertThat(lastFiveMinutes).extracting(HotLinkTracker.HotLink::shortCode).containsExactly("old", "recent");
+    }
+
+    @Test
+    @DisplayName("Should estimate single codes over the window, near zero for cold codes under load")
+    void shouldEstimateSingleCodes() {
+        // Given
+        record("warm", 30);
+        now.addAndGet(MINUTE);
+        record("warm", 30);
+        for (int i = 0; i < 20_000; i++) {
+            record("tail-" + i, 1);
+        }
+
+        // When
+        long warm = hotLinkTracker.estimate("warm", Duration.ofMinutes(5));
+        long lastMinute = hotLinkTracker.estimate("warm", Duration.ofMinutes(1));
+        long cold = hotLinkTracker.estimate("never-requested", Duration.ofMinutes(5));
+
+        // Then
+        assertThat(warm).isBetween(50L, 75L);
+        assertThat(lastMinute).isBetween(20L, 45L);
+        assertThat(cold).isLessThan(10L);
+        assertThat(new HotLinkTracker(false, MINUTE, 10, 5, 1024, 4, now::get).estimate("warm", Duration.ofMinutes(5)))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should reuse ring slots once the ring has turned")
+    void shouldExpireAfterRingSpan() {
+        // Given
+        record("old", 100);
+
+        // When
+        now.addAndGet(10 * MINUTE);
+        record("new", 1);
+
+        // Then
+        assertThat(hotLinkTracker.topK(Duration.ofHours(1), 5))
+                .containsExactly(new HotLinkTracker.HotLink("new", 1L));
+    }
+
+    @Test
+    @DisplayName("Should parse compact and ISO windows")
+    void shouldParseWindows() {
+        assertThat(HotLinkTracker.parseWindow("30s")).isEqualTo(Duration.ofSeconds(30));
+        assertThat(HotLinkTracker.parseWindow("5m")).isEqualTo(Duration.ofMinutes(5));
+        assertThat(HotLinkTracker.parseWindow("1H")).isEqualTo(Duration.ofHours(1));
+        assertThat(HotLinkTracker.parseWindow("PT15M")).isEqualTo(Duration.ofMinutes(15));
+        assertThatThrownBy(() -> HotLinkTracker.parseWindow("5d")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HotLinkTracker.parseWindow("m")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HotLinkTracker.parseWindow("0m")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldIgnoreWhenDisabled() {
+        // Given
+        HotLinkTracker disabled = new HotLinkTracker(false, MINUTE, 10, 5, 1024, 4, now::get);
+
+        // When
+        disabled.record("hot");
+
+        // Then
+        assertThat(disabled.topK(Duration.ofMinutes(5), 5)).isEmpty();
+    }
+
+    private void record(String shortCode, int times) {
+        for (int i = 0; i < times; i++) {
+            hotLinkTracker.record(shortCode);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LocalCacheService Tests")
+class LocalCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalCacheService localCacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        localCacheService = new LocalCacheService(true, 1024 * 1024, 3600, 3600, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should return cached value after put")
+    void shouldReturnCachedValueAfterPut() {
+        // When
+        localCacheService.put("abc123", "https://example.com");
+
+        // Then
+        assertThat(localCacheService.get("abc123")).isEqualTo("https://example.com");
+    }
+
+    @Test
+    @DisplayName("Should return null for unknown short code")
+    void shouldReturnNullForUnknownShortCode() {
+        assertThat(localCacheService.get("nope00")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should remove entries on invalidate")
+    void shouldRemoveEntriesOnInvalidate() {
+        // Given
+        localCacheService.put("abc123", "https://example.com/1");
+        localCacheService.put("def456", "https://example.com/2");
+        localCacheService.put("ghi789", "https://example.com/3");
+
+        // When
+        localCacheService.invalidate("abc123");
+        localCacheService.invalidateAll(List.of("def456"));
+
+        // Then
+        assertThat(localCacheService.get("abc123")).isNull();
+        assertThat(localCacheService.get("def456")).isNull();
+        assertThat(localCacheService.get("ghi789")).isEqualTo("https://example.com/3");
+    }
+
+    @Test
+    @DisplayName("Should expire an entry read from Redis with its Redis key")
+    void shouldExpireWithRedisKey() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        LocalCacheService ticking = new LocalCacheService(true, 1024 * 1024, 3600, 3600, meterRegistry, nanos::get);
+        ticking.put("abc123", "https://example.com/1", 60_000L);
+        ticking.put("def456", "https://example.com/2", -1L);
+
+        // When
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(45));
+
+        // Then
+        assertThat(ticking.getWithTtl("abc123").ttlMillis()).isEqualTo(15_000L);
+        assertThat(ticking.getWithTtl("def456").ttlMillis()).isEqualTo(3_555_000L);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        assertThat(ticking.get("abc123")).isNull();
+        assertThat(ticking.get("def456")).isEqualTo("https://example.com/2");
+    }
+
+    @Test
+    @DisplayName("Should neither store nor return entries when disabled")
+    void shouldBypassCacheWhenDisabled() {
+        // Given
+        LocalCacheService disabled = new LocalCacheService(false, 1024 * 1024, 3600, 3600, new SimpleMeterRegistry());
+
+        // When
+        disabled.put("abc123", "https://example.com");
+
+        // Then
+        assertThat(disabled.get("abc123")).isNull();
+        assertThat(disabled.estimatedSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should expose hit and miss counters for the local tier")
+    void shouldExposeHitAndMissCounters() {
+        // Given
+        localCacheService.put("abc123", "https://example.com");
+
+        // When
+        localCacheService.get("abc123");
+        localCacheService.get("nope00");
+
+        // Then
+        assertThat(meterRegistry.get("cache.gets").tag("tier", "local").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("tier", "local").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+}
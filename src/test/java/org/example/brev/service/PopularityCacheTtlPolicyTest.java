@@ -0,0 +1,75 @@
+package org.example.brev.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PopularityCacheTtlPolicy Tests")
+class PopularityCacheTtlPolicyTest {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+
+    @Mock
+    private HotLinkTracker hotLinkTracker;
+
+    private PopularityCacheTtlPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = new PopularityCacheTtlPolicy(hotLinkTracker, 3600, 300, 86400, 60, WINDOW);
+    }
+
+    @Test
+    @DisplayName("Should give hot codes the maximum TTL and unrequested codes the minimum")
+    void shouldScaleTtlWithRequests() {
+        // Given
+        when(hotLinkTracker.isEnabled()).thenReturn(true);
+        when(hotLinkTracker.estimate("hot", WINDOW)).thenReturn(5_000L);
+        when(hotLinkTracker.estimate("new", WINDOW)).thenReturn(0L);
+
+        // When & Then
+        assertThat(policy.ttlSeconds("hot")).isEqualTo(86400);
+        assertThat(policy.ttlSeconds("new")).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Should spread the long tail between the bounds, rising with requests")
+    void shouldInterpolateLongTail() {
+        long one = policy.ttlForRequests(1);
+        long ten = policy.ttlForRequests(10);
+        long fiftyNine = policy.ttlForRequests(59);
+
+        assertThat(one).isGreaterThan(300).isLessThan(ten);
+        assertThat(ten).isLessThan(fiftyNine);
+        assertThat(fiftyNine).isLessThanOrEqualTo(86400);
+        assertThat(policy.ttlForRequests(60)).isEqualTo(86400);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the configured TTL when hot-link tracking is disabled")
+    void shouldFallBackWhenTrackingDisabled() {
+        // Given
+        when(hotLinkTracker.isEnabled()).thenReturn(false);
+
+        // When & Then
+        assertThat(policy.ttlSeconds("abc123")).isEqualTo(3600);
+        verify(hotLinkTracker, never()).estimate(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject inverted bounds")
+    void shouldRejectBadBounds() {
+        assertThatThrownBy(() -> new PopularityCacheTtlPolicy(hotLinkTracker, 3600, 600, 300, 60, WINDOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,221 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.entity.UrlMapping;
+import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.repository.UrlMappingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveUrlLookupService Tests")
+class ReactiveUrlLookupServiceTest {
+
+    private static final String SHORT_CODE = "abc123";
+    private static final String LONG_URL = "https://example.com";
+    private static final String KEY = "url:" + SHORT_CODE;
+    // Differs from app.cache.url-mapping.ttl, so the write-back is seen to take the policy's TTL
+    private static final long POLICY_TTL = 300;
+
+    @Mock
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    @Mock
+    private LocalCacheService localCacheService;
+
+    @Mock
+    private ShortCodeFilterService shortCodeFilterService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReactiveUrlLookupService reactiveUrlLookupService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reactiveUrlLookupService = new ReactiveUrlLookupService(reactiveRedisTemplate, urlMappingRepository,
+                localCacheService, shortCodeFilterService, shortCode -> POLICY_TTL,
+                new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry), meterRegistry, 0.0, 2, 100, Duration.ofSeconds(5), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveUrlLookupService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return the Redis value without touching the database")
+    void shouldReturnCachedUrl() {
+        // Given
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(Mono.just(LONG_URL));
+
+        // When
+        String result = reactiveUrlLookupService.getLongUrl(SHORT_CODE).block();
+
+        // Then
+        assertThat(result).isEqualTo(LONG_URL);
+        verify(localCacheService).put(SHORT_CODE, LONG_URL);
+        verifyNoInteractions(urlMappingRepository);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("brev.url.lookup").tag("source", "redis").tag("result", "hit")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should load from the database on a miss and write both cache tiers with the policy TTL")
+    void shouldLoadFromDatabaseOnMiss() {
+        // Given
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+        when(valueOperations.set(KEY, LONG_URL, Duration.ofSeconds(POLICY_TTL))).thenReturn(Mono.just(true));
+        when(urlMappingRepository.findByShortCode(SHORT_CODE)).thenReturn(Optional.of(new UrlMapping(LONG_URL, SHORT_CODE)));
+
+        // When
+        String result = reactiveUrlLookupService.getLongUrl(SHORT_CODE).block();
+
+        // Then
+        assertThat(result).isEqualTo(LONG_URL);
+        verify(localCacheService).put(SHORT_CODE, LONG_URL);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.puts").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database when Redis fails")
+    void shouldFallBackWhenRedisFails() {
+        // Given
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+        when(valueOperations.set(KEY, LONG_URL, Duration.ofSeconds(POLICY_TTL)))
+                .thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+        when(urlMappingRepository.findByShortCode(SHORT_CODE)).thenReturn(Optional.of(new UrlMapping(LONG_URL, SHORT_CODE)));
+
+        // When
+        String result = reactiveUrlLookupService.getLongUrl(SHORT_CODE).block();
+
+        // Then
+        assertThat(result).isEqualTo(LONG_URL);
+    }
+
+    @Test
+    @DisplayName("Should error with ShortCodeNotFoundException for unknown codes")
+    void shouldFailForUnknownCode() {
+        // Given
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+        when(urlMappingRepository.findByShortCode(SHORT_CODE)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> reactiveUrlLookupService.getLongUrl(SHORT_CODE).block())
+                .isInstanceOf(ShortCodeNotFoundException.class);
+        verify(localCacheService, never()).put(anyString(), anyString());
+        assertThat(meterRegistry.get("brev.url.lookup").tag("source", "database").tag("result", "not_found")
+                .timer().count()).isEqualTo(1L);
+        assertThat(meterRegistry.get("brev.url.lookup.stage").tag("stage", "db_lookup").tag("result", "not_found")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should share one database load between concurrent misses on the same code")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // Given - the first load blocks until both lookups are in flight
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+        when(valueOperations.set(KEY, LONG_URL, Duration.ofSeconds(POLICY_TTL))).thenReturn(Mono.just(true));
+        when(urlMappingRepository.findByShortCode(SHORT_CODE)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new UrlMapping(LONG_URL, SHORT_CODE));
+        });
+
+        // When
+        CompletableFuture<String> first = reactiveUrlLookupService.getLongUrl(SHORT_CODE).toFuture();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = reactiveUrlLookupService.getLongUrl(SHORT_CODE).toFuture();
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(LONG_URL);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(LONG_URL);
+        verify(urlMappingRepository, times(1)).findByShortCode(SHORT_CODE);
+        assertThat(meterRegistry.get("brev.url.lookup.coalesced").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("brev.url.lookup").tag("source", "database").tag("result", "hit")
+                .timer().count()).isEqualTo(1L);
+        assertThat(meterRegistry.get("brev.url.lookup").tag("source", "coalesced").tag("result", "hit")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should fail with a TimeoutException when Redis does not answer in time")
+    void shouldTimeOutSlowLookups() {
+        // Given
+        ReactiveUrlLookupService service = new ReactiveUrlLookupService(reactiveRedisTemplate, urlMappingRepository,
+                localCacheService, shortCodeFilterService, shortCode -> POLICY_TTL,
+                new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry), meterRegistry,
+                0.0, 2, 100, Duration.ofMillis(50), true);
+        when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(KEY)).thenReturn(Mono.never());
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> service.getLongUrl(SHORT_CODE).block(Duration.ofSeconds(5)))
+                    .hasCauseInstanceOf(TimeoutException.class);
+            verifyNoInteractions(urlMappingRepository);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject filtered codes without any I/O")
+    void shouldRejectFilteredCode() {
+        // Given
+        when(shortCodeFilterService.isDefinitelyAbsent(SHORT_CODE)).thenReturn(true);
+        when(shortCodeFilterService.shouldVerifyNegativesInCache()).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> reactiveUrlLookupService.getLongUrl(SHORT_CODE).block())
+                .isInstanceOf(ShortCodeNotFoundException.class);
+        verifyNoInteractions(reactiveRedisTemplate, urlMappingRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject empty short codes")
+    void shouldRejectEmptyCode() {
+        assertThatThrownBy(() -> reactiveUrlLookupService.getLongUrl("  ").block())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,13 +1,20 @@
 package org.example.brev.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,11 +32,15 @@ class RedisCacheServiceTest {
 
     private RedisCacheService redisCacheService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private static final long TEST_TTL = 3600L;
 
     @BeforeEach
     void setUp() {
-        redisCacheService = new RedisCacheService(redisTemplate, TEST_TTL);
+        meterRegistry = new SimpleMeterRegistry();
+        redisCacheService = new RedisCacheService(redisTemplate, shortCode -> TEST_TTL,
+                new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry), 0.0, 2, meterRegistry);
     }
 
     @Test
@@ -62,6 +73,7 @@ class RedisCacheServiceTest {
         // Then
         assertEquals(longUrl, result);
         verify(valueOperations).get(expectedKey);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("tier", "redis").tag("result", "hit").counter().count());
     }
 
     @Test
@@ -78,6 +90,7 @@ class RedisCacheServiceTest {
         // Then
         assertNull(result);
         verify(valueOperations).get(expectedKey);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("tier", "redis").tag("result", "miss").counter().count());
     }
 
     @Test
@@ -132,4 +145,127 @@ class RedisCacheServiceTest {
         // When & Then - should not throw exception
         assertDoesNotThrow(() -> redisCacheService.cacheUrlMapping(shortCode, longUrl));
     }
+
+    @Test
+    void cacheUrlMappings_ShouldPipelineOneRoundTripPerBatch() {
+        // Given
+        Map<String, String> mappings = new LinkedHashMap<>();
+        mappings.put("a", "https://example.com/a");
+        mappings.put("b", "https://example.com/b");
+        mappings.put("c", "https://example.com/c");
+
+        // When
+        redisCacheService.cacheUrlMappings(mappings);
+
+        // Then
+        verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+        assertEquals(3.0, meterRegistry.get("cache.puts").tag("tier", "redis").counter().count());
+    }
+
+    @Test
+    void cacheUrlMappings_ShouldTakeEachTtlFromThePolicy() {
+        // Given
+        RedisCacheService popularity = new RedisCacheService(redisTemplate, shortCode -> shortCode.equals("hot") ? 86400L : 300L,
+                new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry), 0.0, 2, meterRegistry);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            SessionCallback<?> callback = invocation.getArgument(0);
+            callback.execute(redisTemplate);
+            return List.of();
+        });
+        Map<String, String> mappings = new LinkedHashMap<>();
+        mappings.put("hot", "https://example.com/hot");
+        mappings.put("cold", "https://example.com/cold");
+
+        // When
+        popularity.cacheUrlMappings(mappings);
+
+        // Then
+        verify(valueOperations).set("url:hot", "https://example.com/hot", 86400L, TimeUnit.SECONDS);
+        verify(valueOperations).set("url:cold", "https://example.com/cold", 300L, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void getCachedUrlMappings_ShouldMultiGetInBatchesAndSkipMisses() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("url:a", "url:b"))).thenReturn(Arrays.asList("https://example.com/a", null));
+        when(valueOperations.multiGet(List.of("url:c"))).thenReturn(Arrays.asList("https://example.com/c"));
+
+        // When
+        Map<String, String> result = redisCacheService.getCachedUrlMappings(List.of("a", "b", "c"));
+
+        // Then
+        assertEquals(Map.of("a", "https://example.com/a", "c", "https://example.com/c"), result);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("tier", "redis").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("tier", "redis").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void evictUrlMappings_ShouldUnlinkInBatches() {
+        // Given
+        when(redisTemplate.unlink(List.of("url:a", "url:b"))).thenReturn(2L);
+        when(redisTemplate.unlink(List.of("url:c"))).thenReturn(0L);
+
+        // When
+        redisCacheService.evictUrlMappings(List.of("a", "b", "c"));
+
+        // Then
+        verify(redisTemplate).unlink(List.of("url:a", "url:b"));
+        verify(redisTemplate).unlink(List.of("url:c"));
+        assertEquals(2.0, meterRegistry.get("cache.evictions").tag("tier", "redis").counter().count());
+    }
+
+    @Test
+    void getCachedUrlMappingWithTtl_ShouldReturnValueAndRemainingTtl() {
+        // Given
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(Arrays.asList("https://example.com", 1500L));
+
+        // When
+        RedisCacheService.CachedUrlMapping result = redisCacheService.getCachedUrlMappingWithTtl("abc123");
+
+        // Then
+        assertEquals(new RedisCacheService.CachedUrlMapping("https://example.com", 1500L), result);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("tier", "redis").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void getCachedUrlMappingWithTtl_ShouldReturnNullWhenNotExists() {
+        // Given
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(null, -2L));
+
+        // When & Then
+        assertNull(redisCacheService.getCachedUrlMappingWithTtl("abc123"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("tier", "redis").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void jitteredTtlSeconds_ShouldStayWithinJitterBelowConfiguredTtl() {
+        for (int i = 0; i < 1000; i++) {
+            long ttl = RedisCacheService.jitteredTtlSeconds(3600, 0.1);
+            assertTrue(ttl >= 3240 && ttl <= 3600, "TTL out of range: " + ttl);
+        }
+        assertEquals(3600, RedisCacheService.jitteredTtlSeconds(3600, 0.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RedisCacheService(redisTemplate, shortCode -> TEST_TTL,
+                        new CacheAdmissionFilter(false, 1_000, 0.01, Duration.ofHours(1), meterRegistry), 1.0, 2, meterRegistry));
+    }
+
+    @Test
+    void cacheUrlMappingOnMiss_ShouldSkipTheFirstMissAndWriteTheSecond() {
+        // Given
+        RedisCacheService admitting = new RedisCacheService(redisTemplate, shortCode -> TEST_TTL,
+                new CacheAdmissionFilter(true, 1_000, 0.01, Duration.ofHours(1), meterRegistry), 0.0, 2, meterRegistry);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        // When
+        boolean first = admitting.cacheUrlMappingOnMiss("abc123", "https://example.com");
+        boolean second = admitting.cacheUrlMappingOnMiss("abc123", "https://example.com");
+
+        // Then
+        assertFalse(first);
+        assertTrue(second);
+        verify(valueOperations, times(1)).set("url:abc123", "https://example.com", TEST_TTL, TimeUnit.SECONDS);
+    }
 }
@@ -22,6 +22,12 @@ class ScheduledMaintenanceServiceTest {
     @Mock
     private RedisCacheService redisCacheService;
 
+    @Mock
+    private ClickRollupService clickRollupService;
+
+    @Mock
+    private UniqueVisitorService uniqueVisitorService;
+
     @InjectMocks
     private ScheduledMaintenanceService scheduledMaintenanceService;
 
@@ -78,15 +84,14 @@ class ScheduledMaintenanceServiceTest {
     @DisplayName("Should perform cleanup when enabled")
     void shouldPerformCleanupWhenEnabled() {
         // Given
-        when(urlService.getTotalMappingsCount()).thenReturn(500L, 450L); // before and after cleanup
-        doNothing().when(urlService).deleteOldMappings(any());
+        when(urlService.deleteOldMappings(any())).thenReturn(50L);
 
         // When
         scheduledMaintenanceService.cleanupOldUrlMappings();
 
         // Then
-        verify(urlService, times(2)).getTotalMappingsCount();
         verify(urlService).deleteOldMappings(any());
+        verify(urlService, never()).getTotalMappingsCount();
     }
 
     @Test
@@ -106,13 +111,11 @@ class ScheduledMaintenanceServiceTest {
     @DisplayName("Should handle exception during cleanup gracefully")
     void shouldHandleExceptionDuringCleanup() {
         // Given
-        when(urlService.getTotalMappingsCount()).thenReturn(500L);
-        doThrow(new RuntimeException("Cleanup failed")).when(urlService).deleteOldMappings(any());
+        when(urlService.deleteOldMappings(any())).thenThrow(new RuntimeException("Cleanup failed"));
 
         // When & Then - should not throw exception
         scheduledMaintenanceService.cleanupOldUrlMappings();
 
-        verify(urlService).getTotalMappingsCount();
         verify(urlService).deleteOldMappings(any());
     }
 
@@ -187,14 +190,12 @@ class ScheduledMaintenanceServiceTest {
     @DisplayName("Should trigger manual cleanup")
     void shouldTriggerManualCleanup() {
         // Given
-        when(urlService.getTotalMappingsCount()).thenReturn(800L, 750L);
-        doNothing().when(urlService).deleteOldMappings(any());
+        when(urlService.deleteOldMappings(any())).thenReturn(50L);
 
         // When
         scheduledMaintenanceService.triggerCleanup();
 
         // Then
-        verify(urlService, times(2)).getTotalMappingsCount();
         verify(urlService).deleteOldMappings(any());
     }
 
@@ -228,4 +229,42 @@ class ScheduledMaintenanceServiceTest {
         assertThat(statistics).contains("Error retrieving statistics");
         assertThat(statistics).contains("Service unavailable");
     }
+
+    @Test
+    @DisplayName("Should compact click rollups and swallow failures")
+    void shouldCompactClickRollups() {
+        // Given
+        when(clickRollupService.compact()).thenThrow(new RuntimeException("Database error"));
+
+        // When & Then - should not throw exception
+        scheduledMaintenanceService.compactClickRollups();
+
+        verify(clickRollupService).compact();
+    }
+
+    @Test
+    @DisplayName("Should downsample click rollups")
+    void shouldDownsampleClickRollups() {
+        // Given
+        when(clickRollupService.downsample()).thenReturn(120L);
+
+        // When
+        scheduledMaintenanceService.downsampleClickRollups();
+
+        // Then
+        verify(clickRollupService).downsample();
+    }
+
+    @Test
+    @DisplayName("Should purge expired visitor sketches")
+    void shouldPurgeVisitorSketches() {
+        // Given
+        when(uniqueVisitorService.purgeExpired()).thenReturn(10L);
+
+        // When
+        scheduledMaintenanceService.purgeVisitorSketches();
+
+        // Then
+        verify(uniqueVisitorService).purgeExpired();
+    }
 }
@@ -0,0 +1,120 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.exception.ShortCodeGenerationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SegmentShortCodeGenerator Tests")
+class SegmentShortCodeGeneratorTest {
+
+    private static final int SEGMENT_SIZE = 100;
+
+    @Mock
+    private ShortCodeSegmentService shortCodeSegmentService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SegmentShortCodeGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        generator = new SegmentShortCodeGenerator(shortCodeSegmentService, meterRegistry, SEGMENT_SIZE, 0.2, 42L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hand out unique seven-character codes across segments and threads")
+    void shouldHandOutUniqueCodes() throws InterruptedException {
+        // Given
+        AtomicLong nextStart = new AtomicLong();
+        when(shortCodeSegmentService.leaseSegment(anyString(), anyInt()))
+                .thenAnswer(invocation -> nextStart.getAndAdd(SEGMENT_SIZE));
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2_500; i++) {
+                    codes.add(generator.generate());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(codes).hasSize(10_000).allMatch(code -> code.length() == 7);
+        assertThat(meterRegistry.get("brev.shortcode.segment.refills").counter().count())
+                .isGreaterThanOrEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Should lease one segment per segment size worth of codes")
+    void shouldLeaseOnceForFirstSegment() {
+        // Given
+        when(shortCodeSegmentService.leaseSegment(anyString(), anyInt())).thenReturn(0L);
+
+        // When
+        for (int i = 0; i < SEGMENT_SIZE / 2; i++) {
+            generator.generate();
+        }
+
+        // Then
+        verify(shortCodeSegmentService, times(1)).leaseSegment(SegmentShortCodeGenerator.SEGMENT_NAME, SEGMENT_SIZE);
+        assertThat(generator.remaining()).isEqualTo(SEGMENT_SIZE / 2);
+    }
+
+    @Test
+    @DisplayName("Should retry the lease when the allocation row is created concurrently")
+    void shouldRetryLeaseOnConflict() {
+        // Given
+        when(shortCodeSegmentService.leaseSegment(anyString(), anyInt()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(0L);
+
+        // When
+        String shortCode = generator.generate();
+
+        // Then
+        assertThat(shortCode).hasSize(7);
+        verify(shortCodeSegmentService, times(2)).leaseSegment(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should fail when the database cannot lease a segment")
+    void shouldFailWhenLeaseFails() {
+        // Given
+        when(shortCodeSegmentService.leaseSegment(anyString(), anyInt()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        // When & Then
+        assertThatThrownBy(() -> generator.generate())
+                .isInstanceOf(ShortCodeGenerationException.class);
+    }
+}
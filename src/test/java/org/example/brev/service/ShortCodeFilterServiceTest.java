@@ -0,0 +1,163 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.repository.ShortCodeView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShortCodeFilterService Tests")
+class ShortCodeFilterServiceTest {
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    private final List<ShortCodeView> committedRows = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ShortCodeFilterService filterService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filterService = new ShortCodeFilterService(urlMappingRepository, meterRegistry, true, 1_000, 2, 100, true);
+
+        // Keyset scan over the rows committed so far
+        when(urlMappingRepository.findShortCodesAfterId(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return committedRows.stream()
+                    .filter(row -> row.getId() > afterId)
+                    .sorted(Comparator.comparing(ShortCodeView::getId))
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Should pick up a row that committed after a sync had passed its id")
+    void shouldSyncLateCommittedRows() {
+        // Given - id 2 is still uncommitted when the filter is built
+        commit(1, "aaa111");
+        commit(3, "ccc333");
+        filterService.rebuild();
+        assertThat(filterService.isDefinitelyAbsent("bbb222")).isTrue();
+
+        // When
+        commit(2, "bbb222");
+        filterService.syncNewShortCodes();
+
+        // Then
+        assertThat(filterService.isDefinitelyAbsent("bbb222")).isFalse();
+        assertThat(filterEntries()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should not add codes created on this instance again")
+    void shouldSkipLocallyAddedRows() {
+        // Given
+        commit(1, "aaa111");
+        filterService.rebuild();
+
+        // When
+        filterService.add(2L, "bbb222");
+        commit(2, "bbb222");
+        filterService.syncNewShortCodes();
+        filterService.syncNewShortCodes();
+
+        // Then
+        assertThat(filterEntries()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should not add codes found in Redis again once the sync reaches them")
+    void shouldSkipCodesAddedWithoutId() {
+        // Given
+        commit(1, "aaa111");
+        filterService.rebuild();
+
+        // When - another instance created the code, and a lookup found it in Redis first
+        commit(2, "bbb222");
+        filterService.add("bbb222");
+        filterService.syncNewShortCodes();
+
+        // Then
+        assertThat(filterService.isDefinitelyAbsent("bbb222")).isFalse();
+        assertThat(filterEntries()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should remove deleted codes from the filter that was live when they were deleted")
+    void shouldRemoveDeletedCodes() {
+        // Given
+        commit(1, "aaa111");
+        commit(2, "bbb222");
+        filterService.rebuild();
+
+        // When
+        long generation = filterService.generation();
+        uncommit("aaa111");
+        filterService.removeAll(List.of("aaa111"), generation);
+
+        // Then
+        assertThat(filterService.isDefinitelyAbsent("aaa111")).isTrue();
+        assertThat(filterService.isDefinitelyAbsent("bbb222")).isFalse();
+        assertThat(filterEntries()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should leave a filter rebuilt during a delete to the next rebuild")
+    void shouldSkipRemovalAfterRebuild() {
+        // Given
+        commit(1, "aaa111");
+        commit(2, "bbb222");
+        filterService.rebuild();
+
+        // When - the nightly rebuild swaps the filter between the delete and the removal
+        long generation = filterService.generation();
+        filterService.rebuild();
+        uncommit("aaa111");
+        filterService.removeAll(List.of("aaa111"), generation);
+
+        // Then - the rebuilt filter is untouched, so no other code can lose its fingerprint
+        assertThat(filterService.generation()).isEqualTo(generation + 1);
+        assertThat(filterService.isDefinitelyAbsent("bbb222")).isFalse();
+        assertThat(filterEntries()).isEqualTo(2.0);
+    }
+
+    private void uncommit(String shortCode) {
+        committedRows.removeIf(row -> row.getShortCode().equals(shortCode));
+    }
+
+    private void commit(long id, String shortCode) {
+        committedRows.add(new ShortCodeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+        });
+    }
+
+    private double filterEntries() {
+        return meterRegistry.get("brev.shortcode.filter.entries").gauge().value();
+    }
+}
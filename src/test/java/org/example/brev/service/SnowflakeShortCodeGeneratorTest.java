@@ -0,0 +1,145 @@
+package org.example.brev.service;
+
+import org.example.brev.util.Base62;
+import org.example.brev.util.IdPermutation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SnowflakeShortCodeGenerator Tests")
+class SnowflakeShortCodeGeneratorTest {
+
+    private static final long NOW = SnowflakeShortCodeGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    @DisplayName("Should produce ten-character alphanumeric codes")
+    void shouldProduceTenCharacterAlphanumericCodes() {
+        // Given
+        SnowflakeShortCodeGenerator generator = new SnowflakeShortCodeGenerator(7L, true, 42L, 0L);
+
+        // When
+        String shortCode = generator.generate();
+
+        // Then
+        assertThat(shortCode).hasSize(10).matches("^[a-zA-Z0-9]+$");
+        assertThat(generator.isCollisionFree()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should produce unique codes across threads and nodes within the same millisecond")
+    void shouldProduceUniqueCodesAcrossThreadsAndNodes() throws InterruptedException {
+        // Given - a frozen clock forces the sequence to overflow into borrowed milliseconds
+        IdPermutation permutation = new IdPermutation(SnowflakeShortCodeGenerator.ID_BITS, 42L);
+        SnowflakeShortCodeGenerator node1 = new SnowflakeShortCodeGenerator(1, permutation, () -> NOW, 0L);
+        SnowflakeShortCodeGenerator node2 = new SnowflakeShortCodeGenerator(2, permutation, () -> NOW, 0L);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            SnowflakeShortCodeGenerator generator = t % 2 == 0 ? node1 : node2;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    codes.add(generator.generate());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(codes).hasSize(40_000);
+    }
+
+    @Test
+    @DisplayName("Should keep IDs increasing when the clock moves backwards")
+    void shouldKeepIdsIncreasingWhenClockMovesBackwards() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeShortCodeGenerator generator = new SnowflakeShortCodeGenerator(3, null, clock::get, 0L);
+
+        // When
+        long first = generator.nextId();
+        clock.addAndGet(-5_000);
+        long second = generator.nextId();
+
+        // Then
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    @DisplayName("Should ask for database probes while the logical clock is ahead of wall time")
+    void shouldNotBeCollisionFreeWhileAheadOfWallTime() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeShortCodeGenerator generator = new SnowflakeShortCodeGenerator(3, null, clock::get, 0L);
+        generator.nextId();
+        assertThat(generator.isCollisionFree()).isTrue();
+
+        // When
+        clock.addAndGet(-5_000);
+        generator.nextId();
+
+        // Then - a restart would reissue these IDs
+        assertThat(generator.isCollisionFree()).isFalse();
+        clock.addAndGet(5_000);
+        assertThat(generator.isCollisionFree()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ask for database probes during the startup window")
+    void shouldNotBeCollisionFreeRightAfterStartup() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeShortCodeGenerator generator = new SnowflakeShortCodeGenerator(3, null, clock::get, 10_000L);
+
+        // When
+        boolean duringWindow = generator.isCollisionFree();
+        clock.addAndGet(10_000);
+
+        // Then
+        assertThat(duringWindow).isFalse();
+        assertThat(generator.isCollisionFree()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should encode node ID and sequence in the raw ID")
+    void shouldEncodeNodeIdInRawId() {
+        // Given
+        SnowflakeShortCodeGenerator generator = new SnowflakeShortCodeGenerator(5, null, () -> NOW, 0L);
+
+        // When
+        String shortCode = generator.generate();
+        long id = Base62.decode(shortCode);
+
+        // Then
+        long nodeId = (id >>> SnowflakeShortCodeGenerator.SEQUENCE_BITS) & 0xFF;
+        long timestamp = id >>> (SnowflakeShortCodeGenerator.SEQUENCE_BITS + SnowflakeShortCodeGenerator.NODE_ID_BITS);
+        assertThat(nodeId).isEqualTo(5);
+        assertThat(timestamp).isEqualTo(NOW - SnowflakeShortCodeGenerator.EPOCH_MILLIS);
+    }
+
+    @Test
+    @DisplayName("Should reject node IDs outside the 8-bit range")
+    void shouldRejectInvalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeShortCodeGenerator(256L, false, 0L, 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a node ID")
+    void shouldRejectMissingNodeId() {
+        assertThatThrownBy(() -> new SnowflakeShortCodeGenerator(null, false, 0L, 0L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NODE_ID");
+    }
+}
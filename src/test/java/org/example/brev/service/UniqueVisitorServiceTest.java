@@ -0,0 +1,190 @@
+package org.example.brev.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brev.repository.UrlVisitorSketchRepository;
+import org.example.brev.repository.UrlVisitorSketchRepository.DailySketch;
+import org.example.brev.repository.UrlVisitorSketchRepository.SketchUpdate;
+import org.example.brev.util.HashUtils;
+import org.example.brev.util.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UniqueVisitorService Tests")
+class UniqueVisitorServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 7, 25);
+
+    @Mock
+    private UrlVisitorSketchRepository urlVisitorSketchRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UniqueVisitorService uniqueVisitorService;
+    private List<SketchUpdate> flushed;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        meterRegistry = new SimpleMeterRegistry();
+        uniqueVisitorService = new UniqueVisitorService(
+                urlVisitorSketchRepository, meterRegistry, clock, true, 12, 500, 31, 400, 1000);
+        flushed = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should flush one sketch per short code and day with repeat visitors counted once")
+    void shouldFlushSketches() {
+        // Given
+        captureFlushes();
+        uniqueVisitorService.recordVisit("abc123", "10.0.0.1");
+        uniqueVisitorService.recordVisit("abc123", "10.0.0.1");
+        uniqueVisitorService.recordVisit("abc123", "10.0.0.2");
+        uniqueVisitorService.recordVisit("def456", "10.0.0.1");
+
+        // When
+        uniqueVisitorService.flush();
+
+        // Then
+        assertThat(flushed).hasSize(2);
+        SketchUpdate abc = flushed.stream().filter(update -> update.shortCode().equals("abc123")).findFirst().orElseThrow();
+        assertThat(abc.visitDate()).isEqualTo(TODAY);
+        assertThat(abc.sketch().estimate()).isEqualTo(2L);
+        assertThat(meterRegistry.get("brev.visitors.sketches.tracked").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep sketches for the next flush when the write fails")
+    void shouldKeepSketchesWhenFlushFails() {
+        // Given
+        uniqueVisitorService.recordVisit("abc123", "10.0.0.1");
+        doThrow(new QueryTimeoutException("timeout")).when(urlVisitorSketchRepository).mergeAll(anyList());
+        uniqueVisitorService.flush();
+
+        // When
+        captureFlushes();
+        uniqueVisitorService.flush();
+
+        // Then
+        assertThat(flushed).hasSize(1);
+        assertThat(meterRegistry.get("brev.visitors.flush.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should merge stored and unflushed sketches across the range")
+    void shouldEstimateAcrossDays() {
+        // Given
+        HyperLogLog yesterday = new HyperLogLog();
+        for (int i = 0; i < 3; i++) {
+            yesterday.add("10.0.0." + i);
+        }
+        when(urlVisitorSketchRepository.findRange("abc123", TODAY.minusDays(1), TODAY))
+                .thenReturn(List.of(new DailySketch(TODAY.minusDays(1), yesterday)));
+        uniqueVisitorService.recordVisit("abc123", "10.0.0.2");
+        uniqueVisitorService.recordVisit("abc123", "10.0.0.9");
+
+        // When
+        UniqueVisitorService.VisitorEstimate estimate =
+                uniqueVisitorService.estimate("abc123", TODAY.minusDays(1), TODAY);
+
+        // Then - 10.0.0.2 visited on both days and is counted once over the range
+        assertThat(estimate.uniqueVisitors()).isEqualTo(4L);
+        assertThat(estimate.days()).containsExactly(
+                new UniqueVisitorService.VisitorEstimate.Day(TODAY.minusDays(1), 3L),
+                new UniqueVisitorService.VisitorEstimate.Day(TODAY, 2L));
+    }
+
+    @Test
+    @DisplayName("Should reject ranges longer than the limit")
+    void shouldRejectLongRanges() {
+        // When & Then
+        assertThatThrownBy(() -> uniqueVisitorService.estimate("abc123", TODAY.minusDays(31), TODAY))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(urlVisitorSketchRepository);
+    }
+
+    @Test
+    @DisplayName("Should ignore visits without a client IP")
+    void shouldIgnoreMissingClientIp() {
+        // When
+        uniqueVisitorService.recordVisit("abc123", null);
+        uniqueVisitorService.flush();
+
+        // Then
+        verify(urlVisitorSketchRepository, never()).mergeAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should not lose visits that race with evicting a flushed sketch")
+    void shouldKeepVisitsRacingWithFlush() throws InterruptedException {
+        // Given - copies, since an evicted sketch that lost a visit would still change afterwards
+        HyperLogLog stored = new HyperLogLog(12);
+        doAnswer(invocation -> {
+            List<SketchUpdate> updates = invocation.getArgument(0);
+            updates.forEach(update -> stored.merge(update.sketch()));
+            return null;
+        }).when(urlVisitorSketchRepository).mergeAll(anyList());
+        HyperLogLog expected = new HyperLogLog(12);
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    uniqueVisitorService.recordVisit("abc123", "10." + thread + "." + (i / 256) + "." + (i % 256));
+                    if (i % 50 == 0) {
+                        Thread.yield();
+                    }
+                }
+            }));
+            for (int i = 0; i < 5_000; i++) {
+                expected.addHash(HashUtils.hash64("10." + t + "." + (i / 256) + "." + (i % 256)));
+            }
+        }
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (recording.get()) {
+                uniqueVisitorService.flush();
+            }
+        });
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        recording.set(false);
+        flusher.join();
+        uniqueVisitorService.flush();
+
+        // Then
+        assertThat(stored.estimate()).isEqualTo(expected.estimate());
+    }
+
+    private void captureFlushes() {
+        doAnswer(invocation -> {
+            List<SketchUpdate> updates = invocation.getArgument(0);
+            flushed.addAll(updates);
+            return null;
+        }).when(urlVisitorSketchRepository).mergeAll(anyList());
+    }
+}
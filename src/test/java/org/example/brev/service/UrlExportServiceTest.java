@@ -0,0 +1,113 @@
+package org.example.brev.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.brev.repository.UrlMappingExportView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UrlExportService Tests")
+class UrlExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 7, 24, 22, 7, 16);
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    private UrlExportService urlExportService;
+
+    @BeforeEach
+    void setUp() {
+        urlExportService = new UrlExportService(urlMappingRepository, new ObjectMapper(), 2);
+    }
+
+    @Test
+    @DisplayName("Should page through the table by ID and write NDJSON")
+    void shouldWriteNdjsonAcrossPages() throws Exception {
+        // Given
+        when(urlMappingRepository.findForExportAfterId(eq(0L), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(view(1L, "abc123", "https://example.com/1"), view(2L, "def456", "https://example.com/2")));
+        when(urlMappingRepository.findForExportAfterId(eq(2L), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(view(5L, "ghi789", "https://example.com/\"5\"")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = urlExportService.export(out, UrlExportService.Format.NDJSON, null, null);
+
+        // Then
+        assertThat(rows).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"id\":1,\"shortCode\":\"abc123\",\"longUrl\":\"https://example.com/1\",\"createdAt\":\"2025-07-24T22:07:16\"}",
+                "{\"id\":2,\"shortCode\":\"def456\",\"longUrl\":\"https://example.com/2\",\"createdAt\":\"2025-07-24T22:07:16\"}",
+                "{\"id\":5,\"shortCode\":\"ghi789\",\"longUrl\":\"https://example.com/\\\"5\\\"\",\"createdAt\":\"2025-07-24T22:07:16\"}");
+    }
+
+    @Test
+    @DisplayName("Should write CSV with header and quoted fields, filtered by range")
+    void shouldWriteCsvWithRange() throws Exception {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(urlMappingRepository.findForExportAfterId(eq(0L), eq(from), eq(to), any(Pageable.class)))
+                .thenReturn(List.of(view(7L, "abc123", "https://example.com/?a=1,2")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = urlExportService.export(out, UrlExportService.Format.CSV, from, to);
+
+        // Then
+        assertThat(rows).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,short_code,long_url,created_at\n7,abc123,\"https://example.com/?a=1,2\",2025-07-24T22:07:16\n");
+        verify(urlMappingRepository).findForExportAfterId(eq(0L), eq(from), eq(to), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats")
+    void shouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> UrlExportService.Format.fromName("xml"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static UrlMappingExportView view(long id, String shortCode, String longUrl) {
+        return new UrlMappingExportView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+
+            @Override
+            public String getLongUrl() {
+                return longUrl;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return CREATED_AT;
+            }
+        };
+    }
+}
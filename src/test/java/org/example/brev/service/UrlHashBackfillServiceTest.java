@@ -0,0 +1,93 @@
+package org.example.brev.service;
+
+import org.example.brev.repository.LongUrlView;
+import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.util.UrlDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UrlHashBackfillService Tests")
+class UrlHashBackfillServiceTest {
+
+    @Mock
+    private UrlMappingRepository urlMappingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UrlHashBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new UrlHashBackfillService(urlMappingRepository, transactionManager, true, 10);
+    }
+
+    @Test
+    @DisplayName("Should hash unhashed rows and skip URLs whose digest is already taken")
+    void shouldHashRowsAndSkipTakenDigests() {
+        // Given
+        when(urlMappingRepository.findUnhashedAfterId(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                view(1L, "https://example.com/a"),
+                view(2L, "https://example.com/b"),
+                view(3L, "https://example.com/a")));
+        when(urlMappingRepository.findExistingLongUrlHashes(anyCollection()))
+                .thenReturn(List.of(UrlDigest.of("https://example.com/b")));
+        when(urlMappingRepository.updateLongUrlHash(1L, UrlDigest.of("https://example.com/a"))).thenReturn(1);
+
+        // When
+        backfillService.backfillNextBatch();
+
+        // Then
+        verify(urlMappingRepository).updateLongUrlHash(1L, UrlDigest.of("https://example.com/a"));
+        verify(urlMappingRepository, never()).updateLongUrlHash(eq(2L), any());
+        verify(urlMappingRepository, never()).updateLongUrlHash(eq(3L), any());
+        assertThat(backfillService.isCompleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stop once no unhashed rows are left")
+    void shouldStopWhenNothingLeft() {
+        // Given
+        when(urlMappingRepository.findUnhashedAfterId(anyLong(), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        backfillService.backfillNextBatch();
+        backfillService.backfillNextBatch();
+
+        // Then
+        assertThat(backfillService.isCompleted()).isTrue();
+        verify(urlMappingRepository).findUnhashedAfterId(anyLong(), any(Pageable.class));
+    }
+
+    private static LongUrlView view(long id, String longUrl) {
+        return new LongUrlView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getLongUrl() {
+                return longUrl;
+            }
+        };
+    }
+}
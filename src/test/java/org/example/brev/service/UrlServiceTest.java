@@ -1,20 +1,39 @@
 package org.example.brev.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.brev.entity.UrlMapping;
 import org.example.brev.exception.ShortCodeGenerationException;
 import org.example.brev.exception.ShortCodeNotFoundException;
+import org.example.brev.repository.ExpiredMappingView;
+import org.example.brev.repository.UrlMappingBatchRepository;
 import org.example.brev.repository.UrlMappingRepository;
+import org.example.brev.util.UrlDigest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,10 +46,25 @@ class UrlServiceTest {
     @Mock
     private UrlMappingRepository urlMappingRepository;
 
+    @Mock
+    private UrlMappingBatchRepository urlMappingBatchRepository;
+
     @Mock
     private RedisCacheService redisCacheService;
 
-    @InjectMocks
+    @Mock
+    private LocalCacheService localCacheService;
+
+    @Mock
+    private ShortCodeFilterService shortCodeFilterService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ShortCodeGenerator shortCodeGenerator = new RandomShortCodeGenerator();
+
+    private SimpleMeterRegistry meterRegistry;
     private UrlService urlService;
 
     private UrlMapping testUrlMapping;
@@ -40,6 +74,9 @@ class UrlServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        urlService = new UrlService(urlMappingRepository, urlMappingBatchRepository, redisCacheService,
+                localCacheService, shortCodeFilterService, shortCodeGenerator, meterRegistry, transactionManager);
         testUrlMapping = new UrlMapping(testLongUrl, testShortCode);
         testUrlMapping.setId(1L);
         testUrlMapping.setCreatedAt(LocalDateTime.now());
@@ -53,7 +90,7 @@ class UrlServiceTest {
         @DisplayName("Should create short URL successfully for new long URL")
         void shouldCreateShortUrlSuccessfully() {
             // Given
-            when(urlMappingRepository.findByLongUrl(testLongUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
             when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
 
@@ -64,31 +101,49 @@ class UrlServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getLongUrl()).isEqualTo(testLongUrl);
             assertThat(result.getShortCode()).isNotNull();
-            verify(urlMappingRepository).findByLongUrl(testLongUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(testLongUrl));
             verify(urlMappingRepository).save(any(UrlMapping.class));
+            verify(shortCodeFilterService).add(eq(1L), anyString());
         }
 
         @Test
         @DisplayName("Should return existing mapping if URL already exists")
         void shouldReturnExistingMappingIfUrlExists() {
             // Given
-            when(urlMappingRepository.findByLongUrl(testLongUrl)).thenReturn(Optional.of(testUrlMapping));
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.of(testUrlMapping));
 
             // When
             UrlMapping result = urlService.createShortUrl(testLongUrl);
 
             // Then
             assertThat(result).isEqualTo(testUrlMapping);
-            verify(urlMappingRepository).findByLongUrl(testLongUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(testLongUrl));
             verify(urlMappingRepository, never()).save(any(UrlMapping.class));
         }
 
+        @Test
+        @DisplayName("Should create new mapping when digest matches a different URL")
+        void shouldCreateNewMappingOnDigestCollision() {
+            // Given
+            UrlMapping otherMapping = new UrlMapping("https://other.example.com", "zzz999");
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.of(otherMapping));
+            when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
+            when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
+
+            // When
+            UrlMapping result = urlService.createShortUrl(testLongUrl);
+
+            // Then
+            assertThat(result).isEqualTo(testUrlMapping);
+            verify(urlMappingRepository).save(any(UrlMapping.class));
+        }
+
         @Test
         @DisplayName("Should normalize URL by adding https protocol")
         void shouldNormalizeUrlByAddingHttpsProtocol() {
             // Given
             String expectedNormalizedUrl = "https://" + testUrlWithoutProtocol;
-            when(urlMappingRepository.findByLongUrl(expectedNormalizedUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(expectedNormalizedUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
             when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
 
@@ -96,7 +151,7 @@ class UrlServiceTest {
             urlService.createShortUrl(testUrlWithoutProtocol);
 
             // Then
-            verify(urlMappingRepository).findByLongUrl(expectedNormalizedUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(expectedNormalizedUrl));
         }
 
         @Test
@@ -121,7 +176,7 @@ class UrlServiceTest {
         @DisplayName("Should handle short code collision and retry")
         void shouldHandleShortCodeCollisionAndRetry() {
             // Given
-            when(urlMappingRepository.findByLongUrl(testLongUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString()))
                     .thenReturn(true)  // First attempt - collision
                     .thenReturn(false); // Second attempt - success
@@ -135,17 +190,450 @@ class UrlServiceTest {
             verify(urlMappingRepository, times(2)).existsByShortCode(anyString());
         }
 
+        @Test
+        @DisplayName("Should skip database probe for collision-free generator")
+        void shouldSkipDatabaseProbeForCollisionFreeGenerator() {
+            // Given
+            doReturn(true).when(shortCodeGenerator).isCollisionFree();
+            doReturn("aaaaaaaaab").when(shortCodeGenerator).generate();
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.empty());
+            when(urlMappingRepository.save(any(UrlMapping.class))).thenAnswer(invocation -> {
+                UrlMapping saved = invocation.getArgument(0);
+                saved.setId(2L);
+                return saved;
+            });
+
+            // When
+            UrlMapping result = urlService.createShortUrl(testLongUrl);
+
+            // Then
+            assertThat(result.getShortCode()).isEqualTo("aaaaaaaaab");
+            verify(urlMappingRepository, never()).existsByShortCode(anyString());
+        }
+
+        @Test
+        @DisplayName("Should retry with a probed code when the short code is taken on insert")
+        void shouldRetryWhenShortCodeTakenOnInsert() {
+            // Given - another instance already stored the "collision-free" code
+            doReturn(true).when(shortCodeGenerator).isCollisionFree();
+            doReturn("aaaaaaaaab", "aaaaaaaaac").when(shortCodeGenerator).generate();
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.empty());
+            when(urlMappingRepository.existsByShortCode("aaaaaaaaab")).thenReturn(true);
+            when(urlMappingRepository.existsByShortCode("aaaaaaaaac")).thenReturn(false);
+            when(urlMappingRepository.save(any(UrlMapping.class))).thenAnswer(invocation -> {
+                UrlMapping saved = invocation.getArgument(0);
+                if (saved.getShortCode().equals("aaaaaaaaab")) {
+                    throw new DataIntegrityViolationException("Duplicate entry for key 'uk_short_code'");
+                }
+                saved.setId(2L);
+                return saved;
+            });
+
+            // When
+            UrlMapping result = urlService.createShortUrl(testLongUrl);
+
+            // Then
+            assertThat(result.getShortCode()).isEqualTo("aaaaaaaaac");
+            verify(urlMappingRepository, times(2)).save(any(UrlMapping.class));
+            verify(shortCodeFilterService).add(2L, "aaaaaaaaac");
+            assertThat(meterRegistry.get("brev.url.create").tag("result", "created").timer().count()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should return the winning row when a concurrent create inserts the same URL first")
+        void shouldReturnWinnerOfConcurrentCreate() {
+            // Given
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl)))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(testUrlMapping));
+            when(urlMappingRepository.save(any(UrlMapping.class)))
+                    .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_long_url_hash'"));
+
+            // When
+            UrlMapping result = urlService.createShortUrl(testLongUrl);
+
+            // Then
+            assertThat(result).isSameAs(testUrlMapping);
+            verify(shortCodeFilterService, never()).add(anyLong(), anyString());
+            verifyNoInteractions(redisCacheService);
+            assertThat(meterRegistry.get("brev.url.create").tag("result", "existing").timer().count()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should rethrow a constraint violation that is not a duplicate URL")
+        void shouldRethrowOtherConstraintViolations() {
+            // Given
+            DataIntegrityViolationException violation = new DataIntegrityViolationException("Duplicate short code");
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.empty());
+            when(urlMappingRepository.save(any(UrlMapping.class))).thenThrow(violation);
+
+            // When & Then
+            assertThatThrownBy(() -> urlService.createShortUrl(testLongUrl)).isSameAs(violation);
+        }
+
         @Test
         @DisplayName("Should throw exception when max retry attempts exceeded")
         void shouldThrowExceptionWhenMaxRetryAttemptsExceeded() {
             // Given
-            when(urlMappingRepository.findByLongUrl(testLongUrl)).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(true); // Always collision
 
             // When & Then
             assertThatThrownBy(() -> urlService.createShortUrl(testLongUrl))
                     .isInstanceOf(ShortCodeGenerationException.class)
                     .hasMessage("Unable to generate unique short code after 5 attempts");
+            verify(urlMappingRepository, never()).findByLongUrlHash(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("createShortUrls() Tests")
+    class CreateShortUrlsTests {
+
+        @BeforeEach
+        void assignIdsOnInsert() {
+            // Like the JDBC batch insert, set the generated IDs
+            AtomicLong nextId = new AtomicLong(100);
+            lenient().doAnswer(invocation -> {
+                List<UrlMapping> mappings = invocation.getArgument(0);
+                mappings.forEach(mapping -> mapping.setId(nextId.incrementAndGet()));
+                return null;
+            }).when(urlMappingBatchRepository).insertAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Should dedupe within the batch and against the database")
+        void shouldDedupeWithinBatchAndAgainstDatabase() {
+            // Given
+            String newUrl = "https://example.com/new";
+            when(urlMappingRepository.findByLongUrlHashIn(anyCollection())).thenReturn(List.of(testUrlMapping));
+            when(urlMappingRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of());
+
+            // When
+            UrlService.BatchResult result = urlService.createShortUrls(
+                    List.of(testLongUrl, "example.com/new", newUrl, testLongUrl));
+
+            // Then
+            assertThat(result.createdCount()).isEqualTo(1);
+            assertThat(result.mappings()).hasSize(4);
+            assertThat(result.mappings().get(0)).isSameAs(testUrlMapping);
+            assertThat(result.mappings().get(3)).isSameAs(testUrlMapping);
+            assertThat(result.mappings().get(1)).isSameAs(result.mappings().get(2));
+            assertThat(result.mappings().get(1).getLongUrl()).isEqualTo(newUrl);
+
+            verify(urlMappingBatchRepository).insertAll(argThat(mappings -> mappings.size() == 1));
+            verify(urlMappingRepository, never()).save(any(UrlMapping.class));
+            verify(urlMappingRepository, never()).existsByShortCode(anyString());
+            verify(redisCacheService).cacheUrlMappings(argThat((Map<String, String> entries) ->
+                    entries.size() == 1 && entries.containsValue(newUrl)));
+        }
+
+        @Test
+        @DisplayName("Should not probe the database for codes from a collision-free generator")
+        void shouldSkipProbeForCollisionFreeGenerator() {
+            // Given
+            doReturn(true).when(shortCodeGenerator).isCollisionFree();
+            when(urlMappingRepository.findByLongUrlHashIn(anyCollection())).thenReturn(List.of());
+
+            // When
+            UrlService.BatchResult result = urlService.createShortUrls(
+                    List.of("https://example.com/1", "https://example.com/2"));
+
+            // Then
+            assertThat(result.createdCount()).isEqualTo(2);
+            assertThat(result.mappings().get(0).getShortCode())
+                    .isNotEqualTo(result.mappings().get(1).getShortCode());
+            verify(urlMappingRepository, never()).findExistingShortCodes(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should import only URLs that do not exist yet, without touching Redis")
+        void shouldImportOnlyNewUrls() {
+            // Given
+            when(urlMappingRepository.findByLongUrlHashIn(anyCollection())).thenReturn(List.of(testUrlMapping));
+            when(urlMappingRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of());
+
+            // When
+            int created = urlService.importUrls(List.of(testLongUrl, "https://example.com/new", "https://example.com/new"));
+
+            // Then
+            assertThat(created).isEqualTo(1);
+            verify(urlMappingBatchRepository).insertAll(argThat(mappings -> mappings.size() == 1));
+            verifyNoInteractions(redisCacheService);
+        }
+
+        @Test
+        @DisplayName("Should reject the batch when any URL is blank")
+        void shouldRejectBatchWithBlankUrl() {
+            assertThatThrownBy(() -> urlService.createShortUrls(List.of("https://example.com", " ")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("index 1");
+
+            verifyNoInteractions(urlMappingBatchRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should time each lookup stage and tag the outcome")
+        void shouldTimeLookupStages() {
+            // Given
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenReturn(Optional.of(testUrlMapping));
+
+            // When
+            urlService.getLongUrl(testShortCode);
+
+            // Then
+            assertThat(meterRegistry.get("brev.url.lookup").tag("source", "database").tag("result", "hit")
+                    .timer().count()).isEqualTo(1L);
+            assertThat(meterRegistry.get("brev.url.lookup.stage").tag("stage", "redis_get").tag("result", "miss")
+                    .timer().count()).isEqualTo(1L);
+            assertThat(meterRegistry.get("brev.url.lookup.stage").tag("stage", "db_lookup").tag("result", "hit")
+                    .timer().count()).isEqualTo(1L);
+            assertThat(meterRegistry.get("brev.url.lookup.stage").tag("stage", "cache_fill")
+                    .timer().count()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should record not found and database errors as lookup outcomes")
+        void shouldTagFailedLookups() {
+            // Given
+            when(urlMappingRepository.findByShortCode("missing")).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByShortCode("broken")).thenThrow(new RuntimeException("connection reset"));
+
+            // When
+            assertThatThrownBy(() -> urlService.getLongUrl("missing")).isInstanceOf(ShortCodeNotFoundException.class);
+            assertThatThrownBy(() -> urlService.getLongUrl("broken")).isInstanceOf(RuntimeException.class);
+
+            // Then
+            assertThat(meterRegistry.get("brev.url.lookup").tag("result", "not_found").timer().count()).isEqualTo(1L);
+            assertThat(meterRegistry.get("brev.url.lookup").tag("result", "error").timer().count()).isEqualTo(1L);
+            assertThat(meterRegistry.get("brev.url.lookup.stage").tag("stage", "db_lookup").tag("result", "error")
+                    .timer().count()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should count code generation attempts and collisions")
+        void shouldCountCollisions() {
+            // Given
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(testLongUrl))).thenReturn(Optional.empty());
+            when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(true, true, false);
+            when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
+
+            // When
+            urlService.createShortUrl(testLongUrl);
+
+            // Then
+            assertThat(meterRegistry.get("brev.url.create.code.attempts").counter().count()).isEqualTo(3.0);
+            assertThat(meterRegistry.get("brev.url.create.code.collisions").counter().count()).isEqualTo(2.0);
+            assertThat(meterRegistry.get("brev.url.create").tag("result", "created").timer().count()).isEqualTo(1L);
+            assertThat(meterRegistry.get("brev.url.create.stage").tag("stage", "dedupe_lookup").tag("result", "miss")
+                    .timer().count()).isEqualTo(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Request Coalescing Tests")
+    class CoalescingTests {
+
+        private static final int CALLERS = 8;
+
+        private ExecutorService executor;
+
+        @BeforeEach
+        void setUpExecutor() {
+            executor = Executors.newFixedThreadPool(CALLERS);
+        }
+
+        @AfterEach
+        void tearDownExecutor() {
+            executor.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("Should run one database lookup for concurrent misses on the same code")
+        void shouldCoalesceConcurrentMisses() throws Exception {
+            // Given
+            CountDownLatch release = new CountDownLatch(1);
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(testUrlMapping);
+            });
+
+            // When
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> urlService.getLongUrl(testShortCode)));
+            }
+            awaitCount(() -> meterRegistry.get("brev.url.lookup.coalesced").counter().count(), CALLERS - 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(testLongUrl);
+            }
+            verify(urlMappingRepository, times(1)).findByShortCode(testShortCode);
+            verify(redisCacheService, times(1)).cacheUrlMappingOnMiss(testShortCode, testLongUrl);
+            assertThat(meterRegistry.get("brev.url.lookup").tag("source", "coalesced").tag("result", "hit")
+                    .timer().count()).isEqualTo(CALLERS - 1L);
+        }
+
+        @Test
+        @DisplayName("Should report not found to every coalesced caller")
+        void shouldShareNotFound() throws Exception {
+            // Given
+            CountDownLatch release = new CountDownLatch(1);
+            when(urlMappingRepository.findByShortCode("missing")).thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.empty();
+            });
+
+            // When
+            Future<String> leader = executor.submit(() -> urlService.getLongUrl("missing"));
+            verify(urlMappingRepository, timeout(1000)).findByShortCode("missing");
+            Future<String> waiter = executor.submit(() -> urlService.getLongUrl("missing"));
+            awaitCount(() -> meterRegistry.get("brev.url.lookup.coalesced").counter().count(), 1);
+            release.countDown();
+
+            // Then
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ShortCodeNotFoundException.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ShortCodeNotFoundException.class);
+            verify(urlMappingRepository, times(1)).findByShortCode("missing");
+        }
+
+        @Test
+        @DisplayName("Should query the database itself when the loader exceeds the timeout")
+        void shouldFallBackAfterTimeout() throws Exception {
+            // Given
+            ReflectionTestUtils.setField(urlService, "coalescingTimeoutMs", 50L);
+            CountDownLatch release = new CountDownLatch(1);
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(testUrlMapping);
+            });
+
+            // When
+            Future<String> leader = executor.submit(() -> urlService.getLongUrl(testShortCode));
+            verify(urlMappingRepository, timeout(1000)).findByShortCode(testShortCode);
+            Future<String> waiter = executor.submit(() -> urlService.getLongUrl(testShortCode));
+            awaitCount(() -> meterRegistry.get("brev.url.lookup.coalesced.timeouts").counter().count(), 1);
+            release.countDown();
+
+            // Then
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(testLongUrl);
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo(testLongUrl);
+            verify(urlMappingRepository, times(2)).findByShortCode(testShortCode);
+        }
+
+        @Test
+        @DisplayName("Should query the database on every miss when coalescing is disabled")
+        void shouldNotCoalesceWhenDisabled() {
+            // Given
+            ReflectionTestUtils.setField(urlService, "coalescingEnabled", false);
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenReturn(Optional.of(testUrlMapping));
+
+            // When
+            urlService.getLongUrl(testShortCode);
+            urlService.getLongUrl(testShortCode);
+
+            // Then
+            verify(urlMappingRepository, times(2)).findByShortCode(testShortCode);
+            assertThat(meterRegistry.get("brev.url.lookup.coalesced").counter().count()).isZero();
+        }
+
+        private void awaitCount(DoubleSupplier count, double expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (count.getAsDouble() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(count.getAsDouble()).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    @DisplayName("Early Refresh Tests")
+    class EarlyRefreshTests {
+
+        @Test
+        @DisplayName("Should reload a Redis hit about to expire in the background")
+        void shouldRefreshEntryNearExpiry() {
+            // Given
+            when(redisCacheService.getCachedUrlMappingWithTtl(testShortCode))
+                    .thenReturn(new RedisCacheService.CachedUrlMapping(testLongUrl, 0L));
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenReturn(Optional.of(testUrlMapping));
+
+            // When
+            String result = urlService.getLongUrl(testShortCode);
+
+            // Then
+            assertThat(result).isEqualTo(testLongUrl);
+            verify(redisCacheService, timeout(1000)).cacheUrlMapping(testShortCode, testLongUrl);
+            verify(urlMappingRepository).findByShortCode(testShortCode);
+        }
+
+        @Test
+        @DisplayName("Should reload a hot key served from the local cache before it expires")
+        void shouldRefreshLocalHitNearExpiry() {
+            // Given - the local entry, and so the Redis key it expires with, is about to expire
+            when(localCacheService.getWithTtl(testShortCode))
+                    .thenReturn(new RedisCacheService.CachedUrlMapping(testLongUrl, 0L));
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenReturn(Optional.of(testUrlMapping));
+
+            // When
+            String result = urlService.getLongUrl(testShortCode);
+
+            // Then - answered locally, while both tiers are rewritten in the background
+            assertThat(result).isEqualTo(testLongUrl);
+            verify(redisCacheService, timeout(1000)).cacheUrlMapping(testShortCode, testLongUrl);
+            verify(localCacheService, timeout(1000)).put(testShortCode, testLongUrl);
+            verify(redisCacheService, never()).getCachedUrlMappingWithTtl(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not reload a Redis hit far from expiry")
+        void shouldNotRefreshFreshEntry() {
+            // Given
+            when(redisCacheService.getCachedUrlMappingWithTtl(testShortCode))
+                    .thenReturn(new RedisCacheService.CachedUrlMapping(testLongUrl, 3_600_000L));
+
+            // When
+            String result = urlService.getLongUrl(testShortCode);
+
+            // Then
+            assertThat(result).isEqualTo(testLongUrl);
+            verifyNoInteractions(urlMappingRepository);
+        }
+
+        @Test
+        @DisplayName("Should evict a mapping deleted since it was cached")
+        void shouldEvictDeletedMappingOnRefresh() {
+            // Given
+            when(redisCacheService.getCachedUrlMappingWithTtl(testShortCode))
+                    .thenReturn(new RedisCacheService.CachedUrlMapping(testLongUrl, 0L));
+            when(urlMappingRepository.findByShortCode(testShortCode)).thenReturn(Optional.empty());
+
+            // When
+            urlService.getLongUrl(testShortCode);
+
+            // Then
+            verify(redisCacheService, timeout(1000)).evictUrlMapping(testShortCode);
+            verify(localCacheService, timeout(1000)).invalidate(testShortCode);
+            verify(redisCacheService, never()).cacheUrlMapping(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should refresh more eagerly as expiry nears and never for keys without a TTL")
+        void shouldApplyXFetchDecision() {
+            long recomputeNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+            // -ln(0.5) * 10ms ~ 6.9ms
+            assertThat(UrlService.shouldRefreshEarly(5, recomputeNanos, 1.0, 0.5)).isTrue();
+            assertThat(UrlService.shouldRefreshEarly(10, recomputeNanos, 1.0, 0.5)).isFalse();
+            assertThat(UrlService.shouldRefreshEarly(10, recomputeNanos, 2.0, 0.5)).isTrue();
+            assertThat(UrlService.shouldRefreshEarly(1, recomputeNanos, 1.0, 1.0)).isFalse();
+            assertThat(UrlService.shouldRefreshEarly(-1, recomputeNanos, 1.0, 1e-9)).isFalse();
         }
     }
 
@@ -168,6 +656,83 @@ class UrlServiceTest {
             verify(urlMappingRepository).findByShortCode(testShortCode);
         }
 
+        @Test
+        @DisplayName("Should return long URL from local cache without touching Redis or database")
+        void shouldReturnLongUrlFromLocalCache() {
+            // Given
+            when(localCacheService.getWithTtl(testShortCode))
+                    .thenReturn(new RedisCacheService.CachedUrlMapping(testLongUrl, 3_600_000L));
+
+            // When
+            String result = urlService.getLongUrl(testShortCode);
+
+            // Then
+            assertThat(result).isEqualTo(testLongUrl);
+            verifyNoInteractions(redisCacheService, urlMappingRepository);
+        }
+
+        @Test
+        @DisplayName("Should populate local cache on Redis hit")
+        void shouldPopulateLocalCacheOnRedisHit() {
+            // Given
+            when(redisCacheService.getCachedUrlMappingWithTtl(testShortCode))
+                    .thenReturn(new RedisCacheService.CachedUrlMapping(testLongUrl, 3_600_000L));
+
+            // When
+            String result = urlService.getLongUrl(testShortCode);
+
+            // Then
+            assertThat(result).isEqualTo(testLongUrl);
+            verify(localCacheService).put(testShortCode, testLongUrl, 3_600_000L);
+            verifyNoInteractions(urlMappingRepository);
+        }
+
+        @Test
+        @DisplayName("Should populate both cache tiers on database hit")
+        void shouldPopulateBothCacheTiersOnDatabaseHit() {
+            // Given
+            when(urlMappingRepository.findByShortCode(testShortCode))
+                    .thenReturn(Optional.of(testUrlMapping));
+
+            // When
+            urlService.getLongUrl(testShortCode);
+
+            // Then
+            verify(redisCacheService).cacheUrlMappingOnMiss(testShortCode, testLongUrl);
+            verify(localCacheService).put(testShortCode, testLongUrl);
+        }
+
+        @Test
+        @DisplayName("Should reject short code excluded by filter without touching the database")
+        void shouldRejectFilteredShortCodeWithoutDatabaseLookup() {
+            // Given
+            String unknownCode = "zzz999";
+            when(shortCodeFilterService.isDefinitelyAbsent(unknownCode)).thenReturn(true);
+            when(shortCodeFilterService.shouldVerifyNegativesInCache()).thenReturn(false);
+
+            // When & Then
+            assertThatThrownBy(() -> urlService.getLongUrl(unknownCode))
+                    .isInstanceOf(ShortCodeNotFoundException.class);
+            verifyNoInteractions(urlMappingRepository, redisCacheService, localCacheService);
+        }
+
+        @Test
+        @DisplayName("Should resolve filtered short code from Redis when verification is enabled")
+        void shouldResolveFilteredShortCodeFromRedis() {
+            // Given
+            when(shortCodeFilterService.isDefinitelyAbsent(testShortCode)).thenReturn(true);
+            when(shortCodeFilterService.shouldVerifyNegativesInCache()).thenReturn(true);
+            when(redisCacheService.getCachedUrlMapping(testShortCode)).thenReturn(testLongUrl);
+
+            // When
+            String result = urlService.getLongUrl(testShortCode);
+
+            // Then
+            assertThat(result).isEqualTo(testLongUrl);
+            verify(shortCodeFilterService).add(testShortCode);
+            verifyNoInteractions(urlMappingRepository);
+        }
+
         @Test
         @DisplayName("Should throw exception for non-existent short code")
         void shouldThrowExceptionForNonExistentShortCode() {
@@ -328,12 +893,45 @@ class UrlServiceTest {
         void shouldDeleteOldMappings() {
             // Given
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
+            ReflectionTestUtils.setField(urlService, "cleanupChunkSize", 2);
+            ReflectionTestUtils.setField(urlService, "cleanupChunkPauseMs", 0L);
+            ExpiredMappingView first = expired(1L, "aaa111", cutoffDate.minusDays(3));
+            ExpiredMappingView second = expired(2L, "bbb222", cutoffDate.minusDays(2));
+            ExpiredMappingView third = expired(3L, "ccc333", cutoffDate.minusDays(1));
+            when(urlMappingRepository.findExpired(eq(cutoffDate), any(Pageable.class)))
+                    .thenReturn(List.of(first, second));
+            when(urlMappingRepository.findExpiredAfter(eq(cutoffDate), eq(second.getCreatedAt()), eq(2L), any(Pageable.class)))
+                    .thenReturn(List.of(third));
+            when(urlMappingRepository.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+            when(urlMappingRepository.deleteByIds(List.of(3L))).thenReturn(1);
+
+            // When
+            long deleted = urlService.deleteOldMappings(cutoffDate);
+
+            // Then
+            assertThat(deleted).isEqualTo(3);
+            verify(redisCacheService).evictUrlMappings(List.of("aaa111", "bbb222"));
+            verify(redisCacheService).evictUrlMappings(List.of("ccc333"));
+            verify(localCacheService).invalidateAll(List.of("aaa111", "bbb222"));
+            verify(shortCodeFilterService).removeAll(List.of("aaa111", "bbb222"), 0L);
+            verify(urlMappingRepository, never()).count();
+        }
+
+        @Test
+        @DisplayName("Should stop after a single short chunk")
+        void shouldStopAfterShortChunk() {
+            // Given
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
+            when(urlMappingRepository.findExpired(eq(cutoffDate), any(Pageable.class)))
+                    .thenReturn(List.of(expired(1L, "aaa111", cutoffDate.minusDays(1))));
+            when(urlMappingRepository.deleteByIds(List.of(1L))).thenReturn(1);
 
             // When
-            urlService.deleteOldMappings(cutoffDate);
+            long deleted = urlService.deleteOldMappings(cutoffDate);
 
             // Then
-            verify(urlMappingRepository).deleteByCreatedAtBefore(cutoffDate);
+            assertThat(deleted).isEqualTo(1);
+            verify(urlMappingRepository, never()).findExpiredAfter(any(), any(), anyLong(), any());
         }
 
         @Test
@@ -356,7 +954,7 @@ class UrlServiceTest {
         void shouldPreserveExistingHttpsProtocol() {
             // Given
             String httpsUrl = "https://example.com/test";
-            when(urlMappingRepository.findByLongUrl(httpsUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(httpsUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
             when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
 
@@ -364,7 +962,7 @@ class UrlServiceTest {
             urlService.createShortUrl(httpsUrl);
 
             // Then
-            verify(urlMappingRepository).findByLongUrl(httpsUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(httpsUrl));
         }
 
         @Test
@@ -372,7 +970,7 @@ class UrlServiceTest {
         void shouldPreserveExistingHttpProtocol() {
             // Given
             String httpUrl = "http://example.com/test";
-            when(urlMappingRepository.findByLongUrl(httpUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(httpUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
             when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
 
@@ -380,7 +978,7 @@ class UrlServiceTest {
             urlService.createShortUrl(httpUrl);
 
             // Then
-            verify(urlMappingRepository).findByLongUrl(httpUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(httpUrl));
         }
 
         @Test
@@ -388,7 +986,7 @@ class UrlServiceTest {
         void shouldHandleMixedCaseProtocolsCorrectly() {
             // Given
             String mixedCaseUrl = "HTTPS://Example.COM/Test";
-            when(urlMappingRepository.findByLongUrl(mixedCaseUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(mixedCaseUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
             when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
 
@@ -396,7 +994,7 @@ class UrlServiceTest {
             urlService.createShortUrl(mixedCaseUrl);
 
             // Then
-            verify(urlMappingRepository).findByLongUrl(mixedCaseUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(mixedCaseUrl));
         }
 
         @Test
@@ -405,7 +1003,7 @@ class UrlServiceTest {
             // Given
             String urlWithCaseSensitiveComponents = "example.com/API/Users?token=aBc123XyZ&userId=ABC123#Profile-Section";
             String expectedNormalizedUrl = "https://example.com/API/Users?token=aBc123XyZ&userId=ABC123#Profile-Section";
-            when(urlMappingRepository.findByLongUrl(expectedNormalizedUrl)).thenReturn(Optional.empty());
+            when(urlMappingRepository.findByLongUrlHash(UrlDigest.of(expectedNormalizedUrl))).thenReturn(Optional.empty());
             when(urlMappingRepository.existsByShortCode(anyString())).thenReturn(false);
             when(urlMappingRepository.save(any(UrlMapping.class))).thenReturn(testUrlMapping);
 
@@ -413,7 +1011,26 @@ class UrlServiceTest {
             urlService.createShortUrl(urlWithCaseSensitiveComponents);
 
             // Then
-            verify(urlMappingRepository).findByLongUrl(expectedNormalizedUrl);
+            verify(urlMappingRepository).findByLongUrlHash(UrlDigest.of(expectedNormalizedUrl));
         }
     }
+
+    private static ExpiredMappingView expired(long id, String shortCode, LocalDateTime createdAt) {
+        return new ExpiredMappingView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getShortCode() {
+                return shortCode;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
 }
@@ -0,0 +1,53 @@
+package org.example.brev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added item as absent and stay near the target false positive rate")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(HashUtils.hash64("code" + i));
+        }
+
+        // Then
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain(HashUtils.hash64("code" + i))).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(HashUtils.hash64("other" + i))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(filter.memoryBytes()).isBetween(110_000L, 130_000L);
+    }
+
+    @Test
+    @DisplayName("Should report whether a put added a new item")
+    void shouldReportNewItems() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        long hash = HashUtils.hash64("abc123");
+
+        assertThat(filter.put(hash)).isTrue();
+        assertThat(filter.put(hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizes")
+    void shouldRejectInvalidSizes() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(1_000, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
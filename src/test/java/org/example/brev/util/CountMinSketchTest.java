@@ -0,0 +1,101 @@
+package org.example.brev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CountMinSketch and TopKHeap Tests")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Should never undercount and stay within the error bound")
+    void shouldEstimateWithinBound() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        long total = 0;
+
+        // When
+        for (int code = 0; code < 10_000; code++) {
+            long hash = HashUtils.hash64("code-" + code);
+            int clicks = code < 10 ? 1_000 : 1;
+            for (int i = 0; i < clicks; i++) {
+                sketch.increment(hash);
+                total++;
+            }
+        }
+
+        // Then
+        for (int code = 0; code < 10; code++) {
+            long estimate = sketch.estimate(HashUtils.hash64("code-" + code));
+            assertThat(estimate).isBetween(1_000L, 1_000L + total * 3 / 2048);
+        }
+        assertThat(sketch.memoryBytes()).isEqualTo(2048L * 4 * Long.BYTES);
+    }
+
+    @Test
+    @DisplayName("Should subtract the traffic noise from rare items in the debiased estimate")
+    void shouldDebiasEstimate() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        long rare = HashUtils.hash64("rare");
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(rare);
+        }
+
+        // When
+        for (int code = 0; code < 100_000; code++) {
+            sketch.increment(HashUtils.hash64("noise-" + code));
+        }
+
+        // Then
+        assertThat(sketch.total()).isEqualTo(100_005L);
+        assertThat(sketch.estimate(rare)).isGreaterThan(60L);
+        assertThat(sketch.estimateDebiased(rare)).isBetween(0L, 30L);
+        assertThat(sketch.estimateDebiased(HashUtils.hash64("absent"))).isLessThan(25L);
+    }
+
+    @Test
+    @DisplayName("Should round the width up to a power of two")
+    void shouldRoundWidth() {
+        assertThat(new CountMinSketch(1000, 2).memoryBytes()).isEqualTo(1024L * 2 * Long.BYTES);
+        assertThatThrownBy(() -> new CountMinSketch(0, 4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep the keys with the highest counts")
+    void shouldKeepTopKeys() {
+        // Given
+        TopKHeap heap = new TopKHeap(3);
+
+        // When
+        heap.offer("a", 5);
+        heap.offer("b", 1);
+        heap.offer("c", 3);
+        boolean admittedLow = heap.offer("d", 1);
+        boolean admittedHigh = heap.offer("e", 4);
+        heap.offer("c", 7);
+
+        // Then
+        assertThat(admittedLow).isFalse();
+        assertThat(admittedHigh).isTrue();
+        assertThat(heap.keys()).containsExactlyInAnyOrder("a", "c", "e");
+        assertThat(heap.admissionThreshold()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should admit any key while the heap is not full")
+    void shouldAdmitUntilFull() {
+        // Given
+        TopKHeap heap = new TopKHeap(2);
+
+        // When
+        heap.offer("a", 10);
+
+        // Then
+        assertThat(heap.admissionThreshold()).isZero();
+        assertThat(heap.offer("b", 1)).isTrue();
+        assertThat(heap.admissionThreshold()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.brev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CuckooFilter Tests")
+class CuckooFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added item as absent, even after growing")
+    void shouldHaveNoFalseNegatives() {
+        // Given - sized far below the number of inserts to force extra layers
+        CuckooFilter filter = new CuckooFilter(1_000);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("code" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain("code" + i)).isTrue();
+        }
+        assertThat(filter.layerCount()).isGreaterThan(1);
+        assertThat(filter.size()).isEqualTo(50_000);
+    }
+
+    @Test
+    @DisplayName("Should keep the false positive rate low")
+    void shouldKeepFalsePositiveRateLow() {
+        // Given
+        CuckooFilter filter = new CuckooFilter(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("code" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then - expected rate is about 0.012%
+        assertThat(falsePositives).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("Should remove items without affecting others")
+    void shouldRemoveItemsWithoutAffectingOthers() {
+        // Given
+        CuckooFilter filter = new CuckooFilter(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("code" + i);
+        }
+
+        // When
+        for (int i = 0; i < 10_000; i += 2) {
+            assertThat(filter.remove("code" + i)).isTrue();
+        }
+
+        // Then
+        for (int i = 1; i < 10_000; i += 2) {
+            assertThat(filter.mightContain("code" + i)).isTrue();
+        }
+        assertThat(filter.size()).isEqualTo(5_000);
+    }
+}
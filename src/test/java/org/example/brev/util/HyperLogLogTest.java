@@ -0,0 +1,99 @@
+package org.example.brev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("HyperLogLog Tests")
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Should count small sets exactly enough while sparse")
+    void shouldEstimateSmallCardinalities() {
+        // Given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            sketch.add("10.0.0." + i);
+            sketch.add("10.0.0." + i);
+        }
+
+        // Then
+        assertThat(sketch.estimate()).isBetween(95L, 105L);
+        assertThat(sketch.toBytes().length).isLessThan(1024);
+    }
+
+    @Test
+    @DisplayName("Should stay within a few standard errors for large cardinalities")
+    void shouldEstimateLargeCardinalities() {
+        // Given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // When
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.add("visitor-" + i);
+        }
+
+        // Then
+        assertThat((double) sketch.estimate()).isCloseTo(1_000_000, within(1_000_000 * sketch.standardError() * 4));
+        assertThat(sketch.standardError()).isCloseTo(0.01625, within(0.0001));
+    }
+
+    @Test
+    @DisplayName("Should count overlapping visitors once when merged")
+    void shouldMergeAsUnion() {
+        // Given
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            monday.add("visitor-" + i);
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            tuesday.add("visitor-" + i);
+        }
+
+        // When
+        HyperLogLog week = new HyperLogLog();
+        week.merge(monday);
+        week.merge(tuesday);
+        week.merge(tuesday);
+
+        // Then
+        assertThat((double) week.estimate()).isCloseTo(50_000, within(50_000 * 0.05));
+    }
+
+    @Test
+    @DisplayName("Should round-trip sparse and dense sketches through bytes")
+    void shouldRoundTripThroughBytes() {
+        // Given
+        HyperLogLog sparse = new HyperLogLog();
+        HyperLogLog dense = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            sparse.add("visitor-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            dense.add("visitor-" + i);
+        }
+
+        // When
+        HyperLogLog sparseCopy = HyperLogLog.fromBytes(sparse.toBytes());
+        HyperLogLog denseCopy = HyperLogLog.fromBytes(dense.toBytes());
+
+        // Then
+        assertThat(sparseCopy.estimate()).isEqualTo(sparse.estimate());
+        assertThat(denseCopy.estimate()).isEqualTo(dense.estimate());
+        assertThat(dense.toBytes()).hasSize(2 + (1 << HyperLogLog.DEFAULT_PRECISION));
+    }
+
+    @Test
+    @DisplayName("Should reject merging sketches of different precision")
+    void shouldRejectPrecisionMismatch() {
+        // When & Then
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(14)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.brev.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RetirableAdder Tests")
+class RetirableAdderTest {
+
+    @Test
+    @DisplayName("Should sum additions from contending threads")
+    void shouldSumConcurrentAdditions() throws InterruptedException {
+        // Given
+        RetirableAdder adder = new RetirableAdder();
+
+        // When
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    adder.increment();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(adder.sum()).isEqualTo(400_000L);
+        assertThat(adder.retire()).isEqualTo(400_000L);
+    }
+
+    @Test
+    @DisplayName("Should refuse additions once retired and keep the final total")
+    void shouldRefuseAdditionsOnceRetired() {
+        // Given
+        RetirableAdder adder = new RetirableAdder();
+        adder.add(5L);
+
+        // When
+        long total = adder.retire();
+
+        // Then
+        assertThat(total).isEqualTo(5L);
+        assertThat(adder.increment()).isFalse();
+        assertThat(adder.isRetired()).isTrue();
+        assertThat(adder.sum()).isEqualTo(5L);
+        assertThatThrownBy(adder::retire).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should include every accepted addition in the retired total")
+    void shouldCountEveryAcceptedAddition() throws InterruptedException {
+        // Given
+        RetirableAdder adder = new RetirableAdder();
+        AtomicLong accepted = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(4);
+
+        // When - writers race with the retirement until they are refused
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                long mine = 0;
+                started.countDown();
+                while (adder.increment()) {
+                    mine++;
+                }
+                accepted.addAndGet(mine);
+            }));
+        }
+        started.await();
+        Thread.sleep(20);
+        long total = adder.retire();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(total).isPositive().isEqualTo(accepted.get());
+    }
+}